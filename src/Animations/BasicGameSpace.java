@@ -1,6 +1,8 @@
 package Animations; // NOPMD - PackageCase
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
+
+import engine.Rng;
 
 /*
  * The basic background stars effect during the game
@@ -18,13 +20,11 @@ public class BasicGameSpace {
     this.stars = new Star[this.numStars];
     this.positions = new int[this.numStars][3];
 
+    final SplittableRandom random = Rng.get(Rng.Stream.STARS);
     for (int i = 0; i < this.numStars; i++) {
 
       stars[i] =
-          new Star(
-              ThreadLocalRandom.current().nextInt(10, 448),
-              ThreadLocalRandom.current().nextInt(-500, 5),
-              randomSpeed() ? 2 : 1);
+          new Star(random.nextInt(10, 448), random.nextInt(-500, 5), randomSpeed() ? 2 : 1);
       positions[i][0] = stars[i].x;
       positions[i][1] = stars[i].y;
       positions[i][2] = stars[i].speed;
@@ -71,7 +71,7 @@ public class BasicGameSpace {
   }
 
   public final boolean randomSpeed() {
-    final double r = Math.random();
+    final double r = Rng.get(Rng.Stream.STARS).nextDouble();
 
     return r < 0.85;
   }
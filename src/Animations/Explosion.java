@@ -1,22 +1,43 @@
 package Animations; // NOPMD - PackageCase
 
-import java.awt.*;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+import engine.Rng;
 
 @SuppressWarnings("PMD.LawOfDemeter")
 public class Explosion { // NOPMD - DataClass
 
   private static final int NUM_PARTICLES = 40;
+  private static final int PARTICLE_LIFE = 60;
   private final Particle[] particles;
   private boolean active;
-  private final boolean enemy;
-  private final int size;
+  private boolean enemy;
+  private int size;
 
-  private static final Random random = new Random();
+  /** Creates a finished explosion, started later with {@link #reset}. */
+  public Explosion() {
+    this.particles = new Particle[NUM_PARTICLES];
+    for (int i = 0; i < NUM_PARTICLES; i++) {
+      particles[i] = new Particle(); // NOPMD - AvoidInstantiatingObjectsInLoops
+    }
+  }
 
   public Explosion(
       final double startX, final double startY, final boolean enemy, final boolean finalExplosion) {
-    this.particles = new Particle[NUM_PARTICLES];
+    this();
+    reset(startX, startY, enemy, finalExplosion);
+  }
+
+  /**
+   * Starts the explosion over at a new place, so a finished one can be reused from a pool.
+   *
+   * @param startX Center of the explosion in the X axis.
+   * @param startY Center of the explosion in the Y axis.
+   * @param enemy Whether an enemy exploded.
+   * @param finalExplosion Whether this is the big explosion of the last life.
+   */
+  public final void reset(
+      final double startX, final double startY, final boolean enemy, final boolean finalExplosion) {
     this.active = true;
     this.enemy = enemy;
     if (finalExplosion) {
@@ -25,19 +46,17 @@ public class Explosion { // NOPMD - DataClass
       this.size = 4;
     }
 
-    for (int i = 0; i < NUM_PARTICLES; i++) {
+    final SplittableRandom random = Rng.get(Rng.Stream.EXPLOSIONS);
+    for (final Particle p : particles) {
       final double angle = 2 * Math.PI * random.nextDouble();
       final double speed = 2 + random.nextDouble() * 2;
-      final double dx = Math.cos(angle) * speed;
-      final double dy = Math.sin(angle) * speed;
-
-      final Color color =
-          new Color(255, random.nextInt(150), 0, 255); // NOPMD - AvoidInstantiatingObjectsInLoops
-      final int life = 60;
-
-      particles[i] =
-          new Particle(
-              startX, startY, dx, dy, color, life); // NOPMD - AvoidInstantiatingObjectsInLoops
+      p.x = startX;
+      p.y = startY;
+      p.dx = Math.cos(angle) * speed;
+      p.dy = Math.sin(angle) * speed;
+      p.alpha = 255;
+      p.life = PARTICLE_LIFE;
+      p.active = true;
     }
   }
 
@@ -47,7 +66,7 @@ public class Explosion { // NOPMD - DataClass
     }
 
     boolean anyAlive = false;
-    for (Particle p : particles) {
+    for (final Particle p : particles) {
       if (!p.active) {
         continue;
       }
@@ -61,15 +80,8 @@ public class Explosion { // NOPMD - DataClass
       p.dx *= 0.98;
       p.dy *= 0.98;
 
-      // fade color
-      int alpha = (int) (255 * ((double) p.life / 60));
-      alpha = Math.max(alpha, 0);
-      p.color =
-          new Color( // NOPMD - AvoidInstantiatingObjectsInLoops
-              p.color.getRed(),
-              p.color.getGreen(),
-              p.color.getBlue(),
-              alpha); // NOPMD - AvoidInstantiatingObjectsInLoops - LawOfDemeter
+      // fade
+      p.alpha = Math.max((int) (255 * ((double) p.life / PARTICLE_LIFE)), 0);
 
       // decrease life
       p.life--;
@@ -104,29 +116,14 @@ public class Explosion { // NOPMD - DataClass
     return this.size;
   }
 
+  /** One spark of an explosion, only its alpha is kept, the drawing picks the colors. */
   public static class Particle { // NOPMD - DataClass
     public double x;
     public double y;
     public double dx;
     public double dy;
-    public Color color;
+    public int alpha;
     public int life;
     public boolean active;
-
-    public Particle(
-        final double x,
-        final double y,
-        final double dx,
-        final double dy,
-        final Color color,
-        final int life) {
-      this.x = x;
-      this.y = y;
-      this.dx = dx;
-      this.dy = dy;
-      this.color = color;
-      this.life = life;
-      this.active = true;
-    }
   }
 }
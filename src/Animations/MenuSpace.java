@@ -1,7 +1,9 @@
 package Animations; // NOPMD - PackageCase
 
 import java.awt.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
+
+import engine.Rng;
 
 public class MenuSpace { // NOPMD - DataClass
 
@@ -19,12 +21,10 @@ public class MenuSpace { // NOPMD - DataClass
     this.color = Color.YELLOW;
     this.speed = 1;
 
+    final SplittableRandom random = Rng.get(Rng.Stream.STARS);
     for (int i = 0; i < this.numStars; i++) {
 
-      stars[i] =
-          new Star(
-              ThreadLocalRandom.current().nextInt(0, 448),
-              ThreadLocalRandom.current().nextInt(0, 520));
+      stars[i] = new Star(random.nextInt(0, 448), random.nextInt(0, 520));
       positions[i][0] = stars[i].x;
       positions[i][1] = stars[i].y;
     }
@@ -4,8 +4,8 @@ import entity.EnemyShipFormation;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.logging.Level;
@@ -24,10 +24,14 @@ public class AchievementManager { // NOPMD
 
   private static AchievementManager instance;
 
-  private final Queue<Toast> toastQueue = new LinkedList<>();
+  private final Queue<Toast> toastQueue = new ArrayDeque<>();
   private Toast activeToast;
   private static final int TOAST_DURATION_MS = 3000;
 
+  /** Toasts shown before, shared by every manager, locked as games on a server share it too. */
+  private static final ObjectPool<Toast> TOAST_POOL =
+      new ObjectPool<>("toast", Toast::new, toast -> toast.achievement = null, 8);
+
   public AchievementManager() {
     this.achievements = createDefaultAchievements();
   }
@@ -58,6 +62,10 @@ public class AchievementManager { // NOPMD
   }
 
   public void unlock(final String name) {
+    if (GameContext.current().isReplaying()) {
+      // Unlocked the first time these ticks were played, if they still stand
+      return;
+    }
     for (final Achievement a : achievements) {
       if (a.getName().equals(name) && !a.isUnlocked()) {
         a.unlock();
@@ -65,13 +73,23 @@ public class AchievementManager { // NOPMD
         if (LOGGER.isLoggable(Level.INFO)) {
           LOGGER.info("Achievement unlocked: " + a);
         }
-        toastQueue.offer(new Toast(a));
+        final Toast toast;
+        synchronized (TOAST_POOL) {
+          toast = TOAST_POOL.acquire();
+        }
+        toast.achievement = a;
+        toastQueue.offer(toast);
       }
     }
   }
 
   public void update() {
     if (activeToast == null || !activeToast.alive()) {
+      if (activeToast != null) {
+        synchronized (TOAST_POOL) {
+          TOAST_POOL.recycle(activeToast);
+        }
+      }
       activeToast = toastQueue.poll();
       if (activeToast != null) {
         activeToast.ttl.reset();
@@ -81,24 +99,29 @@ public class AchievementManager { // NOPMD
 
   public List<Achievement> getActiveToasts() {
     final List<Achievement> activeList = new ArrayList<>();
-    if (activeToast != null && activeToast.alive()) {
-      activeList.add(activeToast.achievement);
+    final Achievement active = getActiveToast();
+    if (active != null) {
+      activeList.add(active);
     }
     return activeList;
   }
 
+  /**
+   * Returns the achievement whose toast is currently shown, without building a list.
+   *
+   * @return Shown achievement, or null when no toast is active.
+   */
+  public Achievement getActiveToast() {
+    return activeToast != null && activeToast.alive() ? activeToast.achievement : null;
+  }
+
   public boolean hasPendingToasts() {
     return activeToast != null && activeToast.alive() || !toastQueue.isEmpty();
   }
 
   private static final class Toast {
-    final Achievement achievement;
-    final Cooldown ttl;
-
-    Toast(final Achievement achievement) {
-      this.achievement = achievement;
-      this.ttl = Core.getCooldown(TOAST_DURATION_MS);
-    }
+    Achievement achievement;
+    final Cooldown ttl = Core.getCooldown(TOAST_DURATION_MS);
 
     boolean alive() {
       return !ttl.checkFinished();
@@ -217,6 +240,8 @@ public class AchievementManager { // NOPMD
   }
 
   private void writeCSV(final File file, final List<String[]> rows) {
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
     try (BufferedWriter writer =
         new BufferedWriter(
             new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) { // NOPMD
@@ -229,6 +254,7 @@ public class AchievementManager { // NOPMD
         LOGGER.warning("Error writing CSV: " + e.getMessage());
       }
     }
+    event.finish(file, GameEvents.Persistence.SAVE);
   }
 
   /** Returns a list of users who have completed a specific achievement. */
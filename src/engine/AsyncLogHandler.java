@@ -0,0 +1,250 @@
+package engine;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Logging handler that hands records to a background writer thread through a preallocated ring, so
+ * the game loop and the render thread never wait for a console or file write. The writer passes
+ * every record on to the wrapped handlers, which keep their own levels and formatters.
+ *
+ * <p>Any thread may publish. Slots are claimed with a compare-and-set on the tail and published
+ * per slot, the writer is the only consumer. When the ring is full new records are dropped and
+ * counted, the writer reports the count once there is room again. Besides plain {@link LogRecord}s
+ * the ring carries {@link GameLog} events as an event constant and its raw arguments, their text is
+ * only built on the writer thread.
+ *
+ * <p>Records are formatted on the writer thread, so formatters must not rely on caller inference.
+ */
+public final class AsyncLogHandler extends Handler {
+
+  /** Slot kind of a plain log record. */
+  private static final int RECORD = -1;
+
+  /** How long the idle writer sleeps before looking for new records. */
+  private static final long IDLE_PARK_NANOS = 2_000_000L;
+
+  /** How long {@link #flush()} and {@link #close()} wait for the writer. */
+  private static final long WAIT_NANOS = 1_000_000_000L;
+
+  private final Handler[] targets;
+
+  private final int mask;
+
+  /** Sequence + 1 of the record each slot holds, 0 while it was never written. */
+  private final AtomicLongArray published;
+
+  private final int[] kinds;
+  private final Object[] refs;
+  private final long[] firstArgs;
+  private final long[] secondArgs;
+  private final long[] millis;
+
+  /** Next sequence the writer reads. */
+  private final AtomicLong head = new AtomicLong();
+
+  /** Next sequence a producer claims. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** Sequence up to which records were passed on, behind {@link #head} while a batch is written. */
+  private final AtomicLong completed = new AtomicLong();
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+
+  /** Drops already reported by the writer. */
+  private long reportedDrops;
+
+  private final Thread writer;
+
+  private volatile boolean running = true;
+
+  /**
+   * Creates the handler and starts its writer thread.
+   *
+   * @param capacity Number of records the ring holds, a power of two.
+   * @param targets Handlers the writer passes the records on to.
+   */
+  public AsyncLogHandler(final int capacity, final Handler... targets) {
+    super();
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.targets = targets.clone();
+    this.mask = capacity - 1;
+    this.published = new AtomicLongArray(capacity);
+    this.kinds = new int[capacity];
+    this.refs = new Object[capacity];
+    this.firstArgs = new long[capacity];
+    this.secondArgs = new long[capacity];
+    this.millis = new long[capacity];
+    this.writer = new Thread(this::writeLoop, "log-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  @Override
+  public void publish(final LogRecord logRecord) {
+    if (running && isLoggable(logRecord)) {
+      offer(RECORD, logRecord, 0L, 0L);
+    }
+  }
+
+  /**
+   * Queues a gameplay event, its message is built by the writer.
+   *
+   * @param event Event that happened.
+   * @param ref Reference argument of the event, may be null.
+   * @param first First number argument.
+   * @param second Second number argument.
+   */
+  void publishEvent(
+      final GameLog.Event event, final Object ref, final long first, final long second) {
+    if (running) {
+      offer(event.ordinal(), ref, first, second);
+    }
+  }
+
+  private void offer(final int kind, final Object ref, final long first, final long second) {
+    long sequence;
+    do {
+      sequence = tail.get();
+      if (sequence - head.get() > mask) {
+        dropped.incrementAndGet();
+        return;
+      }
+    } while (!tail.compareAndSet(sequence, sequence + 1));
+
+    final int index = (int) sequence & mask;
+    kinds[index] = kind;
+    refs[index] = ref;
+    firstArgs[index] = first;
+    secondArgs[index] = second;
+    millis[index] = System.currentTimeMillis();
+    published.lazySet(index, sequence + 1);
+  }
+
+  private void writeLoop() {
+    while (running) {
+      if (drain() == 0) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+    }
+  }
+
+  /** Writes every record published so far. Only the writer, or close after it stopped, calls it. */
+  private int drain() {
+    int count = 0;
+    long sequence = head.get();
+    while (true) {
+      final int index = (int) sequence & mask;
+      if (published.get(index) != sequence + 1) {
+        break;
+      }
+      final LogRecord logRecord = toRecord(index);
+      refs[index] = null;
+      head.lazySet(++sequence);
+      deliver(logRecord);
+      count++;
+    }
+    if (count > 0) {
+      written.addAndGet(count);
+    }
+    reportDrops();
+    completed.lazySet(sequence);
+    return count;
+  }
+
+  private LogRecord toRecord(final int index) {
+    final int kind = kinds[index];
+    if (kind == RECORD) {
+      return (LogRecord) refs[index];
+    }
+    final GameLog.Event event = GameLog.Event.of(kind);
+    final LogRecord logRecord =
+        new LogRecord(
+            event.getLevel(), event.format(refs[index], firstArgs[index], secondArgs[index]));
+    logRecord.setInstant(Instant.ofEpochMilli(millis[index]));
+    logRecord.setLoggerName(Core.getLogger().getName());
+    return logRecord;
+  }
+
+  private void reportDrops() {
+    final long drops = dropped.get();
+    if (drops != reportedDrops) {
+      deliver(
+          new LogRecord(
+              Level.WARNING,
+              "Log buffer full, dropped " + (drops - reportedDrops) + " log records"));
+      reportedDrops = drops;
+    }
+  }
+
+  private void deliver(final LogRecord logRecord) {
+    for (final Handler target : targets) {
+      try {
+        target.publish(logRecord);
+      } catch (RuntimeException e) { // NOPMD - one broken target must not stop the writer
+        reportError("Log target failed", e, 0);
+      }
+    }
+  }
+
+  /** Waits until the records published before this call are written, then flushes the targets. */
+  @Override
+  public void flush() {
+    final long target = tail.get();
+    final long deadline = System.nanoTime() + WAIT_NANOS;
+    while (running && completed.get() < target && System.nanoTime() < deadline) {
+      LockSupport.parkNanos(IDLE_PARK_NANOS / 4);
+    }
+    for (final Handler handler : targets) {
+      handler.flush();
+    }
+  }
+
+  /** Stops the writer, writes what is left and closes the targets. */
+  @Override
+  public void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join(WAIT_NANOS / 1_000_000L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!writer.isAlive()) {
+      drain();
+    }
+    for (final Handler handler : targets) {
+      handler.flush();
+      handler.close();
+    }
+  }
+
+  /**
+   * Returns how many records were dropped because the ring was full.
+   *
+   * @return Dropped records since creation.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Returns how many records the writer passed on.
+   *
+   * @return Written records since creation.
+   */
+  public long getWrittenCount() {
+    return written.get();
+  }
+}
@@ -8,27 +8,49 @@ public final class CoinManager {
   // 2P mode: number of players used for shared lives in co-op
   public static final int NUM_PLAYERS = 2; // adjust later if needed
 
-  /** Current coin count. */
-  // ADD THIS LINE
-  private static int coins; // ADD THIS LINE - edited for 2P mode
+  // Current coin count and its modification count live in the GameContext of the game,
+  // games played at once on a server keep their coins apart
 
   private CoinManager() {}
 
   public static void load() {
-    coins = Core.getFileManager().loadCoins(); // NOPMD
+    final GameContext context = GameContext.current();
+    context.setCoins(Core.getFileManager().loadCoins()); // NOPMD
     if (logger.isLoggable(Level.INFO)) {
-      logger.info("[CoinManager] Loaded coins from file: " + coins);
+      logger.info("[CoinManager] Loaded coins from file: " + context.getCoins());
     }
   }
 
   // 2P mode: per-player coin tracking
   public static int getCoins() {
-    return coins;
+    return GameContext.current().getCoins();
   } // legacy total for ScoreScreen
 
+  /**
+   * Returns the modification count of the coin total.
+   *
+   * @return Value that changes whenever coins are loaded, added or spent.
+   */
+  public static int getVersion() {
+    return GameContext.current().getCoinVersion();
+  }
+
   public static void addCoins(final int p, final int delta) {
     if (p >= 0 && p < NUM_PLAYERS && delta > 0) {
-      coins = Math.max(0, coins + delta);
+      final GameContext context = GameContext.current();
+      context.setCoins(Math.max(0, context.getCoins() + delta));
+    }
+  }
+
+  /**
+   * Puts the coin total back to a value from a game state snapshot.
+   *
+   * @param restored Coin total.
+   */
+  static void restoreCoins(final int restored) {
+    final GameContext context = GameContext.current();
+    if (context.getCoins() != restored) {
+      context.setCoins(restored);
     }
   }
 
@@ -36,10 +58,11 @@ public final class CoinManager {
     if (p < 0 || p >= NUM_PLAYERS || amount < 0) {
       return false;
     }
-    if (coins < amount) {
+    final GameContext context = GameContext.current();
+    if (context.getCoins() < amount) {
       return false;
     }
-    coins -= amount;
+    context.setCoins(context.getCoins() - amount);
     return true;
   }
 }
@@ -1,9 +1,7 @@
 package engine;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import entity.*; // NOPMD
 
@@ -11,12 +9,19 @@ import entity.*; // NOPMD
 public class CollisionManager {
   private final GameState gameState;
   private final DrawManager drawManager;
-  private final Logger logger;
+
+  /**
+   * Bullets used up during a pass, reused between passes. Kept in the order they were hit, taking
+   * them out of the world in hash order would shuffle its rows differently on every run.
+   */
+  private final Set<Bullet> recyclable = new LinkedHashSet<>();
+
+  /** Items picked up this tick, reused between ticks. */
+  private final Set<Item> collected = new LinkedHashSet<>();
 
   public CollisionManager(final GameState gameState, final DrawManager drawManager) {
     this.gameState = gameState;
     this.drawManager = drawManager;
-    this.logger = Core.getLogger();
   }
 
   public boolean processCollisions(
@@ -28,8 +33,9 @@ public class CollisionManager {
       final Cooldown specialExplosionCooldown,
       final boolean levelFinished) {
 
+    final GameEvents.CollisionPass event = new GameEvents.CollisionPass();
+    event.begin();
     boolean playerHit = false;
-    final Set<Bullet> recyclable = new HashSet<>();
 
     for (final Bullet bullet : bullets) {
       if (bullet.getSpeed() > 0) {
@@ -47,8 +53,20 @@ public class CollisionManager {
       }
     }
 
-    bullets.removeAll(recyclable);
-    BulletPool.recycle(recyclable);
+    event.end();
+    if (event.shouldCommit()) {
+      event.bullets = bullets.size();
+      event.enemies = enemyShipFormation.getShipCount();
+      event.absorbed = recyclable.size();
+      event.playerHit = playerHit;
+      event.commit();
+    }
+
+    if (!recyclable.isEmpty()) {
+      bullets.removeAll(recyclable);
+      BulletPool.recycle(recyclable);
+      recyclable.clear();
+    }
 
     return playerHit;
   }
@@ -77,13 +95,9 @@ public class CollisionManager {
 
         gameState.decLife(p); // Decrement shared/team lives
 
-        // Update UI states via DrawManager (optional here, usually done in Screen update)
-        drawManager.setLastLife(gameState.getLivesRemaining() == 1);
+        // Last-life background is taken from the frame snapshot by the screen
         drawManager.setDeath(gameState.getLivesRemaining() == 0);
-        if (logger.isLoggable(Level.INFO)) {
-          logger.info(
-              "Hit on player " + (p + 1) + ", team lives now: " + gameState.getLivesRemaining());
-        }
+        GameLog.log(GameLog.Event.PLAYER_HIT, p + 1, gameState.getLivesRemaining());
 
         hitDetected = true;
         break; // One bullet hits one ship
@@ -106,9 +120,12 @@ public class CollisionManager {
 
     boolean bulletAbsorbed = false;
 
-    // 1. Check Formation Enemies
+    // 1. Check Formation Enemies, only the ships in reach of the bullet
     final boolean finalShip = enemyShipFormation.lastShip();
-    for (final EnemyShip enemyShip : enemyShipFormation) {
+    for (int i = enemyShipFormation.nextShipNear(0, bullet);
+        i >= 0;
+        i = enemyShipFormation.nextShipNear(i + 1, bullet)) {
+      final EnemyShip enemyShip = enemyShipFormation.getShipAt(i);
       if (!enemyShip.isDestroyed() && checkCollision(bullet, enemyShip)) {
         recyclable.add(bullet);
         bulletAbsorbed = true;
@@ -148,14 +165,12 @@ public class CollisionManager {
     final Item drop = Core.getItemManager().obtainDrop(enemyShip);
     if (drop != null) {
       items.add(drop);
-      if (logger.isLoggable(Level.INFO)) {
-        logger.info(
-            "Spawned " + drop.getType() + " at " + drop.getPositionX() + "," + drop.getPositionY());
-      }
+      GameLog.log(
+          GameLog.Event.ITEM_SPAWNED, drop.getType(), drop.getPositionX(), drop.getPositionY());
     }
 
     SoundManager.ingameeffect("sound/invaderkilled.wav");
-    logger.info("Hit on enemy ship.");
+    GameLog.log(GameLog.Event.ENEMY_HIT, 0, 0);
   }
 
   private void handleSpecialEnemyDestruction(
@@ -177,8 +192,6 @@ public class CollisionManager {
   }
 
   public void processItemPickups(final Set<Item> items, final Ship[] ships) { // NOPMD
-    final Set<Item> collected = new HashSet<>();
-
     for (final Item item : items) {
       for (final Ship ship : ships) {
         if (ship == null) {
@@ -187,9 +200,7 @@ public class CollisionManager {
         // 여기서 내부의 checkCollision을 재사용합니다.
         if (checkCollision(item, ship) && !collected.contains(item)) {
           collected.add(item);
-          if (logger.isLoggable(Level.INFO)) {
-            logger.info("Player " + ship.getPlayerId() + " picked up item: " + item.getType());
-          }
+          GameLog.log(GameLog.Event.ITEM_PICKED_UP, item.getType(), ship.getPlayerId(), 0);
           SoundManager.ingameeffect("sound/hover.wav");
 
           // GameState는 이미 CollisionManager가 가지고 있습니다.
@@ -198,8 +209,11 @@ public class CollisionManager {
       }
     }
 
-    items.removeAll(collected);
-    ItemPool.recycle(collected);
+    if (!collected.isEmpty()) {
+      items.removeAll(collected);
+      ItemPool.recycle(collected);
+      collected.clear();
+    }
   }
 
   private boolean checkCollision(final Entity a, final Entity b) { // NOPMD - false positive
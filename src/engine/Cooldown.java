@@ -41,6 +41,7 @@ public class Cooldown {
   protected Cooldown(final int milliseconds, final int variance) {
     this.milliseconds = milliseconds;
     this.variance = variance;
+    this.duration = milliseconds;
     this.time = 0;
   }
 
@@ -50,16 +51,26 @@ public class Cooldown {
    * @return Cooldown state.
    */
   public boolean checkFinished() {
-    return this.time == 0 || this.time + this.duration < System.currentTimeMillis();
+    return this.time == 0 || this.time + this.duration < GameClock.currentTimeMillis();
   }
 
   /** Restarts the cooldown. */
   public void reset() {
-    this.time = System.currentTimeMillis();
+    this.time = GameClock.currentTimeMillis();
+    nextDuration();
+  }
+
+  /**
+   * Picks the duration of the next run, rolling the variance if there is one.
+   *
+   * @return Duration in milliseconds.
+   */
+  protected final int nextDuration() {
     if (this.variance != 0) {
+      final double roll = Rng.get(Rng.Stream.COOLDOWN).nextDouble();
       this.duration =
-          (this.milliseconds - this.variance)
-              + (int) (Math.random() * (this.milliseconds + this.variance));
+          (this.milliseconds - this.variance) + (int) (roll * (this.milliseconds + this.variance));
     }
+    return this.duration;
   }
 }
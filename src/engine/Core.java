@@ -1,13 +1,18 @@
 package engine;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
-import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import screen.GameClient;
+import screen.GameServer;
+import screen.RemoteScreen;
+import screen.SpectatorScreen;
+
 /**
  * Implements core game logic.
  *
@@ -18,9 +23,15 @@ public final class Core {
 
   private static final int WIDTH = 448;
   private static final int HEIGHT = 520;
+  private static final int FPS = 60;
+
+  /** Records the log writer can hold before it drops new ones. */
+  private static final int LOG_CAPACITY = 8192;
+
+  private static final Logger LOGGER = getLogger();
 
-  private static final Logger LOGGER = Logger.getLogger(Core.class.getSimpleName());
-  private static Handler fileHandler;
+  /** Writes the log off the game loop, null if the log file could not be opened. */
+  private static AsyncLogHandler logHandler;
 
   /**
    * Test implementation.
@@ -31,6 +42,21 @@ public final class Core {
   @SuppressWarnings("PMD.CyclomaticComplexity")
   public static void main(final String[] args) {
     initializeLogger();
+    GameEvents.startRecordingIfRequested();
+    final MetricsServer metricsServer = MetricsServer.startIfRequested();
+    if (GameServer.isRequested()) {
+      // Games are played for clients on other machines: no window, sound or menus
+      System.setProperty("java.awt.headless", "true");
+      SoundManager.setEnabled(false);
+      GameServer.serveUntilStopped();
+      if (metricsServer != null) {
+        metricsServer.stop();
+      }
+      if (logHandler != null) {
+        logHandler.close();
+      }
+      System.exit(0);
+    }
     CoinManager.load();
 
     /* Frame to draw the screen on. */
@@ -40,6 +66,24 @@ public final class Core {
         input); // Register an instance to allow the window to receive keyboard event information
     getDrawManager().setFrame(frame); // NOPMD - LawOfDemeter
 
+    final GameClient remoteGame = RemoteScreen.connectIfRequested();
+    if (remoteGame != null) {
+      frame.setScreen(new RemoteScreen(WIDTH, HEIGHT, FPS, remoteGame));
+      if (logHandler != null) {
+        logHandler.close();
+      }
+      System.exit(0);
+    }
+
+    final SpectatorFeed spectated = SpectatorScreen.openIfRequested();
+    if (spectated != null) {
+      frame.setScreen(new SpectatorScreen(WIDTH, HEIGHT, FPS, spectated));
+      if (logHandler != null) {
+        logHandler.close();
+      }
+      System.exit(0);
+    }
+
     final List<GameSettings> gameSettings = GameSettings.getGameSettings();
 
     final ScreenControl screencontrol = new ScreenControl(frame, gameSettings);
@@ -55,21 +99,29 @@ public final class Core {
 
     } while (returnCode != 0);
 
-    fileHandler.flush();
-    fileHandler.close();
+    InputLatency.getInstance().endSession();
+    if (metricsServer != null) {
+      metricsServer.stop();
+    }
+    Metrics.getInstance().writeSessionSummary(new File(getFileManager().getSaveDirectory()));
+    if (logHandler != null) {
+      logHandler.close();
+    }
     System.exit(0);
   }
 
   private static void initializeLogger() {
     try {
-      LOGGER.setUseParentHandlers(false);
-      fileHandler = new FileHandler("log");
+      final FileHandler fileHandler = new FileHandler("log");
       fileHandler.setFormatter(new MinimalFormatter());
       final ConsoleHandler consoleHandler = new ConsoleHandler();
       consoleHandler.setFormatter(new MinimalFormatter());
-      LOGGER.addHandler(fileHandler);
-      LOGGER.addHandler(consoleHandler);
+      // 파일/콘솔 출력은 별도 스레드에서 처리, 게임 루프는 링 버퍼에 넣기만 함
+      logHandler = new AsyncLogHandler(LOG_CAPACITY, fileHandler, consoleHandler);
+      LOGGER.setUseParentHandlers(false);
+      LOGGER.addHandler(logHandler);
       LOGGER.setLevel(Level.ALL);
+      GameLog.setSink(logHandler);
     } catch (IOException e) {
       LOGGER.log(Level.SEVERE, "Failed to initialize logging system.", e);
     }
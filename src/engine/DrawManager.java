@@ -13,7 +13,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
 
 /**
@@ -54,6 +54,24 @@ public final class DrawManager {
   /** Big sized font properties. */
   private FontMetrics fontBigMetrics;
 
+  /** Laid out strings and digits of the regular font. */
+  private TextCache textRegular;
+
+  /** Laid out strings and digits of the big font. */
+  private TextCache textBig;
+
+  /** Font a freshly created buffer graphics starts with. */
+  private Font defaultFont;
+
+  /** Stroke a freshly created buffer graphics starts with. */
+  private static final Stroke DEFAULT_STROKE = new BasicStroke();
+
+  /** Explosions on screen at once in a busy level, created up front. */
+  private static final int EXPLOSION_PEAK = 16;
+
+  /** Finished explosions kept for reuse at most. */
+  private static final int MAX_IDLE_EXPLOSIONS = 64;
+
   private final HudDrawer hudDrawer = new HudDrawer(this);
   private final MenuDrawer menuDrawer = new MenuDrawer(this);
   private final SettingsDrawer settingsDrawer = new SettingsDrawer(this);
@@ -61,9 +79,34 @@ public final class DrawManager {
   /** Sprite types mapped to their images. */
   private Map<SpriteType, boolean[][]> spriteMap;
 
+  /**
+   * Vertical runs of set pixels per sprite, three ints each: column, first row and the row after
+   * the last. A sprite is drawn with one rectangle per run instead of one per pixel.
+   */
+  private final Map<SpriteType, int[]> spriteRuns = new EnumMap<>(SpriteType.class);
+
   private final List<Explosion> explosions = new ArrayList<>();
 
-  private final Random explosionRandom = new Random();
+  /** Explosions triggered by the simulation, picked up by the next drawn frame. */
+  private final Queue<Explosion> pendingExplosions = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Finished explosions. Taken from by the simulation and returned to by the drawing thread, so
+   * every use locks it.
+   */
+  private final ObjectPool<Explosion> explosionPool =
+      new ObjectPool<>("explosion", Explosion::new, null, MAX_IDLE_EXPLOSIONS);
+
+  /** Gradient stops of an explosion particle, center to rim. */
+  private static final float[] EXPLOSION_STOPS = {0.0f, 0.3f, 0.7f, 1.0f};
+
+  /** Gradient colors of enemy and player explosions for every alpha, built when first needed. */
+  private static final Color[][] ENEMY_EXPLOSION_COLORS = new Color[256][];
+
+  private static final Color[][] PLAYER_EXPLOSION_COLORS = new Color[256][];
+
+  /** Visual jitter of explosions, owned by the drawing thread. */
+  private final SplittableRandom explosionRandom = Rng.split(Rng.Stream.EFFECTS);
 
   /** Stars background animations for both game and main menu Star density specified as argument. */
   final BasicGameSpace basicGameSpace = new BasicGameSpace(100);
@@ -120,6 +163,7 @@ public final class DrawManager {
     // NOPMD - used across methods
     final FileManager fileManager = Core.getFileManager();
     logger = Core.getLogger();
+    explosionPool.prewarm(EXPLOSION_PEAK);
     logger.info("Started loading resources.");
 
     try {
@@ -159,6 +203,8 @@ public final class DrawManager {
       // Font loading.
       fontRegular = fileManager.loadFont(14f);
       fontBig = fileManager.loadFont(24f);
+      textRegular = new TextCache(fontRegular);
+      textBig = new TextCache(fontBig);
       logger.info("Finished loading the fonts.");
 
     } catch (IOException e) {
@@ -166,6 +212,35 @@ public final class DrawManager {
     } catch (FontFormatException e) {
       logger.warning("Font formating failed.");
     }
+    for (final Map.Entry<SpriteType, boolean[][]> sprite : spriteMap.entrySet()) {
+      spriteRuns.put(sprite.getKey(), toRuns(sprite.getValue()));
+    }
+  }
+
+  /** Collects the vertical runs of set pixels of a sprite, column by column. */
+  private static int[] toRuns(final boolean[][] image) {
+    int[] runs = new int[Math.max(3, image.length * 3)];
+    int count = 0;
+    for (int i = 0; i < image.length; i++) {
+      int j = 0;
+      while (j < image[i].length) {
+        if (!image[i][j]) {
+          j++;
+          continue;
+        }
+        final int first = j;
+        while (j < image[i].length && image[i][j]) {
+          j++;
+        }
+        if (count + 3 > runs.length) {
+          runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        runs[count++] = i;
+        runs[count++] = first;
+        runs[count++] = j;
+      }
+    }
+    return Arrays.copyOf(runs, count);
   }
 
   /**
@@ -173,7 +248,7 @@ public final class DrawManager {
    *
    * @return Shared instance of DrawManager.
    */
-  static DrawManager getInstance() {
+  static synchronized DrawManager getInstance() {
     if (instance == null) {
       instance = new DrawManager();
     }
@@ -191,26 +266,57 @@ public final class DrawManager {
 
   /**
    * First part of the drawing process. Initialises buffers, draws the background and prepares the
-   * images.
+   * images. The back buffer and its graphics are kept between frames while the screen size stays
+   * the same, so only the rendering state is reset here.
    *
    * @param screen Screen to draw in.
    */
   public void initDrawing(final Screen screen) {
-    this.backBuffer =
-        new BufferedImage(screen.getWidth(), screen.getHeight(), BufferedImage.TYPE_INT_RGB);
+    if (this.backBuffer == null
+        || this.backBuffer.getWidth() != screen.getWidth()
+        || this.backBuffer.getHeight() != screen.getHeight()) {
+      if (this.backBufferGraphics != null) {
+        this.backBufferGraphics.dispose();
+      }
+      this.backBuffer =
+          new BufferedImage(screen.getWidth(), screen.getHeight(), BufferedImage.TYPE_INT_RGB);
+      this.backBufferGraphics = this.backBuffer.getGraphics();
+      this.defaultFont = this.backBufferGraphics.getFont();
+      resetGraphicsState();
+
+      this.fontRegularMetrics = this.backBufferGraphics.getFontMetrics(this.fontRegular);
+      this.fontBigMetrics = this.backBufferGraphics.getFontMetrics(this.fontBig);
+      this.textRegular.bind(this.fontRegularMetrics);
+      this.textBig.bind(this.fontBigMetrics);
+    } else {
+      resetGraphicsState();
+    }
 
-    this.graphics = this.frame.getGraphics();
-    this.backBufferGraphics = this.backBuffer.getGraphics();
+    // Without a frame (benchmarks, headless runs) frames are only drawn to the back buffer
+    this.graphics = this.frame == null ? null : this.frame.getGraphics();
 
     this.backBufferGraphics.setColor(Color.BLACK);
     this.backBufferGraphics.fillRect(0, 0, screen.getWidth(), screen.getHeight());
+  }
 
-    this.fontRegularMetrics = this.backBufferGraphics.getFontMetrics(this.fontRegular);
-    this.fontBigMetrics = this.backBufferGraphics.getFontMetrics(this.fontBig);
+  /**
+   * Undoes state changes the previous frame left on the reused buffer graphics. Antialiasing starts
+   * enabled since the star backgrounds turn it on before anything else is drawn.
+   */
+  private void resetGraphicsState() {
+    final Graphics2D g2d = (Graphics2D) this.backBufferGraphics;
+    g2d.setComposite(AlphaComposite.SrcOver);
+    g2d.setStroke(DEFAULT_STROKE);
+    g2d.setFont(this.defaultFont);
+    g2d.setRenderingHint( // NOPMD - LOD
+        RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
   }
 
   /** Draws the completed drawing on screen. */
   public void completeDrawing() {
+    if (this.graphics == null) {
+      return;
+    }
     this.graphics.drawImage(
         this.backBuffer, this.frame.getInsets().left, this.frame.getInsets().top, this.frame);
   }
@@ -230,35 +336,67 @@ public final class DrawManager {
   @SuppressWarnings({"PMD.CognitiveComplexity", "PMD.CyclomaticComplexity"})
   public void drawEntity(
       final Entity entity, final int positionX, final int positionY, final Color override) {
-    final boolean[][] image = spriteMap.get(entity.getSpriteType());
+    drawSprite(
+        entity.getSpriteType(),
+        positionX,
+        positionY,
+        entity.getWidth(),
+        entity.getHeight(),
+        getColor(entity, override));
+  }
 
-    final Color color = getColor(entity, override);
+  /**
+   * Draws a sprite scaled to the given size.
+   *
+   * @param spriteType Sprite to draw.
+   * @param positionX Coordinates for the left side of the image.
+   * @param positionY Coordinates for the upper side of the image.
+   * @param entityWidth Drawn width.
+   * @param entityHeight Drawn height.
+   * @param color Sprite color.
+   */
+  public void drawSprite(
+      final SpriteType spriteType,
+      final int positionX,
+      final int positionY,
+      final int entityWidth,
+      final int entityHeight,
+      final Color color) {
+    final boolean[][] image = spriteMap.get(spriteType);
 
     // --- Scaling logic ---
     final int spriteWidth = image.length;
     final int spriteHeight = image[0].length;
 
-    final int entityWidth = entity.getWidth();
-    final int entityHeight = entity.getHeight();
-
     final float widthRatio = (float) entityWidth / (spriteWidth * 2);
     final float heightRatio = (float) entityHeight / (spriteHeight * 2);
     // --- End of scaling logic ---
 
+    // A run covers exactly the pixels its rows would have filled one by one
+    final int[] runs = spriteRuns.get(spriteType);
+    final int pixelWidth = (int) Math.ceil(widthRatio * 2);
+    final int pixelHeight = (int) Math.ceil(heightRatio * 2);
     backBufferGraphics.setColor(color);
-    for (int i = 0; i < spriteWidth; i++) {
-      for (int j = 0; j < spriteHeight; j++) {
-        if (image[i][j]) {
-          backBufferGraphics.fillRect(
-              positionX + (int) (i * 2 * widthRatio),
-              positionY + (int) (j * 2 * heightRatio),
-              (int) Math.ceil(widthRatio * 2),
-              (int) Math.ceil(heightRatio * 2));
-        }
-      }
+    for (int r = 0; r < runs.length; r += 3) {
+      final int top = (int) (runs[r + 1] * 2 * heightRatio);
+      backBufferGraphics.fillRect(
+          positionX + (int) (runs[r] * 2 * widthRatio),
+          positionY + top,
+          pixelWidth,
+          (int) ((runs[r + 2] - 1) * 2 * heightRatio) + pixelHeight - top);
     }
   }
 
+  /**
+   * Returns the color an entity is drawn with, player ships and bullets are tinted per player.
+   *
+   * @param entity Entity to be drawn.
+   * @return Color {@link #drawEntity(Entity, int, int)} uses for it.
+   */
+  public static Color colorOf(final Entity entity) {
+    return getColor(entity, null);
+  }
+
   private static Color getColor(final Entity entity, final Color override) {
     Color color = (override != null) ? override : entity.getColor();
 
@@ -292,11 +430,27 @@ public final class DrawManager {
 
   public void triggerExplosion(
       final int x, final int y, final boolean enemy, final boolean finalExplosion) {
-    if (logger.isLoggable(Level.INFO)) {
-      logger.info("Enemy: " + enemy);
-      logger.info("final: " + finalExplosion);
+    GameLog.log(GameLog.Event.EXPLOSION, enemy ? 1 : 0, finalExplosion ? 1 : 0);
+    final GameContext context = GameContext.current();
+    if (!context.hasDisplay() || context.isReplaying()) {
+      // Played on a server nobody would draw it, after a rollback it was queued the first time
+      return;
     }
-    explosions.add(new Explosion(x, y, enemy, finalExplosion));
+    final Explosion explosion;
+    synchronized (explosionPool) {
+      explosion = explosionPool.acquire();
+    }
+    explosion.reset(x, y, enemy, finalExplosion);
+    pendingExplosions.add(explosion);
+  }
+
+  /**
+   * Returns the explosions set off since the last frame was drawn.
+   *
+   * @return Explosions waiting to be drawn.
+   */
+  public int getPendingExplosions() {
+    return pendingExplosions.size();
   }
 
   @SuppressWarnings({
@@ -311,6 +465,12 @@ public final class DrawManager {
 
     g2d.setColor(Color.WHITE);
 
+    Explosion pending = pendingExplosions.poll();
+    while (pending != null) {
+      explosions.add(pending);
+      pending = pendingExplosions.poll();
+    }
+
     final Iterator<Explosion> iterator = explosions.iterator();
 
     while (iterator.hasNext()) {
@@ -319,6 +479,9 @@ public final class DrawManager {
 
       if (!e.isActive()) {
         iterator.remove();
+        synchronized (explosionPool) {
+          explosionPool.recycle(e);
+        }
         continue;
       }
 
@@ -336,13 +499,13 @@ public final class DrawManager {
         }
 
         final int flickerAlpha =
-            Math.max(0, Math.min(255, p.color.getAlpha() - explosionRandom.nextInt(50)));
+            Math.max(0, Math.min(255, p.alpha - explosionRandom.nextInt(50)));
 
-        final float[] dist = {0.0f, 0.3f, 0.7f, 1.0f};
         final Color[] colors = getColors(e, flickerAlpha);
 
         final RadialGradientPaint paint =
-            new RadialGradientPaint(new Point((int) p.x, (int) p.y), baseSize, dist, colors);
+            new RadialGradientPaint(
+                new Point((int) p.x, (int) p.y), baseSize, EXPLOSION_STOPS, colors);
 
         g2d.setPaint(paint);
 
@@ -358,6 +521,16 @@ public final class DrawManager {
   }
 
   private static Color[] getColors(final Explosion e, final int flickerAlpha) {
+    final Color[][] cache = e.isEnemy() ? ENEMY_EXPLOSION_COLORS : PLAYER_EXPLOSION_COLORS;
+    Color[] colors = cache[flickerAlpha];
+    if (colors == null) {
+      colors = createColors(e, flickerAlpha);
+      cache[flickerAlpha] = colors;
+    }
+    return colors;
+  }
+
+  private static Color[] createColors(final Explosion e, final int flickerAlpha) {
     Color[] colors;
     if (e.isEnemy()) {
       colors =
@@ -414,6 +587,10 @@ public final class DrawManager {
   }
 
   public void setDeath(final boolean status) {
+    if (!GameContext.current().hasDisplay()) {
+      // The explosions of a game played off screen are never drawn
+      return;
+    }
     if (status) {
       explosion_size = 20;
     } else {
@@ -470,8 +647,12 @@ public final class DrawManager {
   public void drawCenteredRegularString(
       final Screen screen, final String string, final int height) {
     backBufferGraphics.setFont(fontRegular);
-    backBufferGraphics.drawString(
-        string, screen.getWidth() / 2 - fontRegularMetrics.stringWidth(string) / 2, height);
+    textRegular.draw(
+        (Graphics2D) backBufferGraphics,
+        fontRegularMetrics,
+        string,
+        screen.getWidth() / 2 - textRegular.width(fontRegularMetrics, string) / 2,
+        height);
   }
 
   /**
@@ -483,8 +664,12 @@ public final class DrawManager {
    */
   public void drawCenteredBigString(final Screen screen, final String string, final int height) {
     backBufferGraphics.setFont(fontBig);
-    backBufferGraphics.drawString(
-        string, screen.getWidth() / 2 - fontBigMetrics.stringWidth(string) / 2, height);
+    textBig.draw(
+        (Graphics2D) backBufferGraphics,
+        fontBigMetrics,
+        string,
+        screen.getWidth() / 2 - textBig.width(fontBigMetrics, string) / 2,
+        height);
   }
 
   /**
@@ -537,6 +722,27 @@ public final class DrawManager {
 
   // --- Low-level accessors used by drawers ---
 
+  /**
+   * Points every drawing helper at another surface, used to render cached layers.
+   *
+   * @param layer Graphics of the layer to draw on.
+   * @return Graphics to hand back to {@link #endLayer(Graphics)}.
+   */
+  Graphics beginLayer(final Graphics2D layer) {
+    final Graphics previous = backBufferGraphics;
+    backBufferGraphics = layer;
+    return previous;
+  }
+
+  /**
+   * Restores the surface replaced by {@link #beginLayer(Graphics2D)}.
+   *
+   * @param previous Graphics returned by the matching begin call.
+   */
+  void endLayer(final Graphics previous) {
+    backBufferGraphics = previous;
+  }
+
   Graphics2D getBackBufferGraphics() {
     return (Graphics2D) backBufferGraphics;
   }
@@ -557,6 +763,14 @@ public final class DrawManager {
     return fontBigMetrics;
   }
 
+  TextCache getTextRegular() {
+    return textRegular;
+  }
+
+  TextCache getTextBig() {
+    return textBig;
+  }
+
   Frame getFrame() {
     return frame;
   }
@@ -2,12 +2,15 @@ package engine;
 
 import java.awt.Font;
 import java.awt.FontFormatException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
@@ -30,10 +33,11 @@ public final class FileManager { // NOPMD
   private static final String FILENAME_COINS = "coins.csv";
   private static final String FILENAME_SHIPS = "ships.csv";
   private static final String DIR_RES = "res";
+  private static final String SNAPSHOT_EXTENSION = ".sav";
 
   private FileManager() {}
 
-  static FileManager getInstance() {
+  static synchronized FileManager getInstance() {
     if (instance == null) {
       instance = new FileManager();
     }
@@ -128,6 +132,8 @@ public final class FileManager { // NOPMD
       return loadDefaultHighScores();
     }
 
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
     try (BufferedReader bufferedReader =
         Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
 
@@ -142,6 +148,7 @@ public final class FileManager { // NOPMD
         input = bufferedReader.readLine();
       }
     }
+    event.finish(file, GameEvents.Persistence.LOAD);
 
     Collections.sort(highScores);
     return highScores;
@@ -156,6 +163,9 @@ public final class FileManager { // NOPMD
       }
     }
 
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
+    Metrics.getInstance().saveStarted();
     try (BufferedWriter bufferedWriter =
         Files.newBufferedWriter(scoresFile.toPath(), StandardCharsets.UTF_8)) {
 
@@ -169,12 +179,18 @@ public final class FileManager { // NOPMD
         bufferedWriter.write(score.getName() + "," + score.getScore());
         bufferedWriter.newLine();
       }
+    } finally {
+      Metrics.getInstance().saveFinished();
     }
+    event.finish(scoresFile, GameEvents.Persistence.SAVE);
   }
 
   public void saveShipUnlocks(final Map<ShipType, Boolean> unlockMap) throws IOException {
     final File file = new File(getSaveDirectory() + FILENAME_SHIPS);
 
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
+    Metrics.getInstance().saveStarted();
     try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
 
       writer.write("shipType,unlocked");
@@ -185,7 +201,10 @@ public final class FileManager { // NOPMD
         writer.write(type.name() + "," + unlocked);
         writer.newLine();
       }
+    } finally {
+      Metrics.getInstance().saveFinished();
     }
+    event.finish(file, GameEvents.Persistence.SAVE);
   }
 
   public Map<ShipType, Boolean> loadShipUnlocks() throws IOException {
@@ -198,6 +217,8 @@ public final class FileManager { // NOPMD
       return unlockMap;
     }
 
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
     try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
 
       reader.readLine();
@@ -219,6 +240,7 @@ public final class FileManager { // NOPMD
         line = reader.readLine();
       }
     }
+    event.finish(file, GameEvents.Persistence.LOAD);
     return unlockMap;
   }
 
@@ -229,6 +251,8 @@ public final class FileManager { // NOPMD
       return 0;
     }
 
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
     try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
       final String line = reader.readLine();
       if (line != null) {
@@ -238,6 +262,8 @@ public final class FileManager { // NOPMD
       if (LOGGER.isLoggable(Level.WARNING)) {
         LOGGER.warning("Error reading coins file: " + e.getMessage());
       }
+    } finally {
+      event.finish(file, GameEvents.Persistence.LOAD);
     }
     return 0;
   }
@@ -252,6 +278,9 @@ public final class FileManager { // NOPMD
       }
     }
 
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
+    Metrics.getInstance().saveStarted();
     try (BufferedWriter writer =
         Files.newBufferedWriter(coinsFile.toPath(), StandardCharsets.UTF_8)) {
       writer.write(Integer.toString(coins));
@@ -264,6 +293,73 @@ public final class FileManager { // NOPMD
       if (LOGGER.isLoggable(Level.WARNING)) {
         LOGGER.warning("Failed to save coins: " + e.getMessage());
       }
+    } finally {
+      Metrics.getInstance().saveFinished();
+    }
+    event.finish(coinsFile, GameEvents.Persistence.SAVE);
+  }
+
+  /**
+   * Saves a level in the middle of play, replacing an earlier save of the same name.
+   *
+   * @param name Name of the save, such as {@code quicksave}.
+   * @param snapshot Level to save.
+   */
+  public void saveLevelSnapshot(final String name, final LevelSnapshot snapshot) {
+    final File file = new File(getSaveDirectory() + name + SNAPSHOT_EXTENSION);
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
+    Metrics.getInstance().saveStarted();
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+      snapshot.write(out);
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to save " + name + ": " + e.getMessage());
+      }
+    } finally {
+      Metrics.getInstance().saveFinished();
+    }
+    event.finish(file, GameEvents.Persistence.SAVE);
+  }
+
+  /**
+   * Loads a level saved by {@link #saveLevelSnapshot(String, LevelSnapshot)}.
+   *
+   * @param name Name of the save.
+   * @return Saved level, or null when there is none or it cannot be read.
+   */
+  public LevelSnapshot loadLevelSnapshot(final String name) {
+    final File file = new File(getSaveDirectory() + name + SNAPSHOT_EXTENSION);
+    if (!file.exists()) {
+      return null;
+    }
+    final GameEvents.Persistence event = new GameEvents.Persistence();
+    event.begin();
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+      return LevelSnapshot.read(in, file.length());
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Ignoring unreadable " + name + ": " + e.getMessage());
+      }
+      return null;
+    } finally {
+      event.finish(file, GameEvents.Persistence.LOAD);
+    }
+  }
+
+  /**
+   * Removes a saved level.
+   *
+   * @param name Name of the save.
+   */
+  public void deleteLevelSnapshot(final String name) {
+    final File file = new File(getSaveDirectory() + name + SNAPSHOT_EXTENSION);
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to delete " + name + ": " + e.getMessage());
+      }
     }
   }
 
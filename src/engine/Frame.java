@@ -54,8 +54,17 @@ public class Frame extends JFrame {
    */
   public final int setScreen(final Screen screen) { // NOPMD
     /* Screen currently shown. */
+    final GameEvents.ScreenTransition event = new GameEvents.ScreenTransition();
+    event.begin();
     screen.initialize();
-    return screen.run();
+    final int returnCode = screen.run();
+    event.end();
+    if (event.shouldCommit()) {
+      event.screen = screen.getClass().getSimpleName();
+      event.returnCode = returnCode;
+      event.commit();
+    }
+    return returnCode;
   }
 
   /**
@@ -0,0 +1,405 @@
+package engine;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Delta compression of captured frames, for streaming a level from a server to thin clients. A
+ * frame is written as its differences to the frame before it: the HUD values that changed, and for
+ * every sprite slot only the fields that changed, positions as the distance moved. Runs of sprites
+ * that did not change are skipped with one count. Numbers are variable-length, small ones take a
+ * single byte, so a tick where only the ships moved costs a few dozen bytes.
+ *
+ * <p>The {@link Encoder} on the server and the {@link Decoder} on the client both keep the last
+ * frame, so the stream must arrive complete and in order, as it does over TCP.
+ *
+ * <p>Frame: tick distance, HUD mask and the changed HUD values, sprite count, then for every
+ * changed sprite the number of unchanged sprites before it, a field mask and the changed fields.
+ */
+public final class FrameCodec {
+
+  // HUD mask bits
+  private static final int HUD_SCORE = 1;
+  private static final int HUD_LIVES = 2;
+  private static final int HUD_COINS = 4;
+  private static final int HUD_LEVEL = 8;
+  private static final int HUD_SHIPS = 16;
+  private static final int HUD_COUNTDOWN = 32;
+  private static final int HUD_FLAGS = 64;
+
+  // Overlay flags
+  private static final int FLAG_COOP = 1;
+  private static final int FLAG_COUNTDOWN = 2;
+  private static final int FLAG_BONUS_LIFE = 4;
+  private static final int FLAG_LAST_LIFE = 8;
+  private static final int FLAG_HIGH_SCORE = 16;
+
+  // Sprite mask bits
+  private static final int SPRITE_TYPE = 1;
+  private static final int SPRITE_X = 2;
+  private static final int SPRITE_Y = 4;
+  private static final int SPRITE_SIZE = 8;
+  private static final int SPRITE_COLOR = 16;
+
+  /** Bytes a frame header can take at most. */
+  private static final int MAX_HEADER = 64;
+
+  /** Bytes a sprite can take at most: run, mask, type, four coordinates and a color. */
+  private static final int MAX_SPRITE = 5 + 1 + 5 * 5 + Integer.BYTES;
+
+  private static final DrawManager.SpriteType[] TYPES = DrawManager.SpriteType.values();
+
+  private FrameCodec() {}
+
+  /**
+   * Returns the most bytes a frame can be encoded into.
+   *
+   * @param sprites Sprites of the frame.
+   * @return Buffer room to reserve.
+   */
+  public static int maxEncodedSize(final int sprites) {
+    return MAX_HEADER + sprites * MAX_SPRITE;
+  }
+
+  /** Last frame, as both ends know it. */
+  private static final class Reference {
+    long tick;
+    int score;
+    int lives;
+    int coins;
+    int level;
+    int ships;
+    int countdown;
+    int flags;
+    int[] types = new int[0];
+    int[] xs = new int[0];
+    int[] ys = new int[0];
+    int[] widths = new int[0];
+    int[] heights = new int[0];
+    int[] colors = new int[0];
+
+    void ensure(final int capacity) {
+      if (capacity <= types.length) {
+        return;
+      }
+      final int grown = Math.max(capacity, types.length * 2);
+      final int old = types.length;
+      types = Arrays.copyOf(types, grown);
+      Arrays.fill(types, old, grown, -1);
+      xs = Arrays.copyOf(xs, grown);
+      ys = Arrays.copyOf(ys, grown);
+      widths = Arrays.copyOf(widths, grown);
+      heights = Arrays.copyOf(heights, grown);
+      colors = Arrays.copyOf(colors, grown);
+    }
+  }
+
+  /** Writes frames as differences to the previous one written. */
+  public static final class Encoder {
+
+    private final Reference last = new Reference();
+
+    /**
+     * Writes a frame and remembers it as the base of the next one.
+     *
+     * @param frame Captured frame.
+     * @param out Buffer with room for {@link #maxEncodedSize(int)} bytes.
+     */
+    public void encode(final FrameSnapshot frame, final ByteBuffer out) {
+      final Reference ref = this.last;
+      putVarLong(out, frame.getTick() - ref.tick);
+      ref.tick = frame.getTick();
+      encodeHud(frame, out, ref);
+
+      final int count = frame.getSpriteCount();
+      ref.ensure(count);
+      putVarint(out, count);
+      int unchanged = 0;
+      for (int i = 0; i < count; i++) {
+        final int type = frame.getSpriteType(i).ordinal();
+        final int x = frame.getX(i);
+        final int y = frame.getY(i);
+        final int width = frame.getWidth(i);
+        final int height = frame.getHeight(i);
+        final int color = rgb(frame.getColor(i));
+        int mask = 0;
+        if (type != ref.types[i]) {
+          mask |= SPRITE_TYPE;
+        }
+        if (x != ref.xs[i]) {
+          mask |= SPRITE_X;
+        }
+        if (y != ref.ys[i]) {
+          mask |= SPRITE_Y;
+        }
+        if (width != ref.widths[i] || height != ref.heights[i]) {
+          mask |= SPRITE_SIZE;
+        }
+        if (color != ref.colors[i]) {
+          mask |= SPRITE_COLOR;
+        }
+        if (mask == 0) {
+          unchanged++;
+          continue;
+        }
+        putVarint(out, unchanged);
+        unchanged = 0;
+        out.put((byte) mask);
+        if ((mask & SPRITE_TYPE) != 0) {
+          putVarint(out, type);
+          ref.types[i] = type;
+        }
+        if ((mask & SPRITE_X) != 0) {
+          putVarint(out, zigzag(x - ref.xs[i]));
+          ref.xs[i] = x;
+        }
+        if ((mask & SPRITE_Y) != 0) {
+          putVarint(out, zigzag(y - ref.ys[i]));
+          ref.ys[i] = y;
+        }
+        if ((mask & SPRITE_SIZE) != 0) {
+          putVarint(out, width);
+          putVarint(out, height);
+          ref.widths[i] = width;
+          ref.heights[i] = height;
+        }
+        if ((mask & SPRITE_COLOR) != 0) {
+          out.putInt(color);
+          ref.colors[i] = color;
+        }
+      }
+      if (unchanged > 0) {
+        putVarint(out, unchanged);
+      }
+    }
+
+    private static void encodeHud(
+        final FrameSnapshot frame, final ByteBuffer out, final Reference ref) {
+      final int flags =
+          (frame.isCoop() ? FLAG_COOP : 0)
+              | (frame.isCountdownVisible() ? FLAG_COUNTDOWN : 0)
+              | (frame.isBonusLife() ? FLAG_BONUS_LIFE : 0)
+              | (frame.isLastLife() ? FLAG_LAST_LIFE : 0)
+              | (frame.isHighScoreNotice() ? FLAG_HIGH_SCORE : 0);
+      final int mask =
+          (frame.getScore() != ref.score ? HUD_SCORE : 0)
+              | (frame.getLives() != ref.lives ? HUD_LIVES : 0)
+              | (frame.getCoins() != ref.coins ? HUD_COINS : 0)
+              | (frame.getLevel() != ref.level ? HUD_LEVEL : 0)
+              | (frame.getShipCount() != ref.ships ? HUD_SHIPS : 0)
+              | (frame.getCountdown() != ref.countdown ? HUD_COUNTDOWN : 0)
+              | (flags != ref.flags ? HUD_FLAGS : 0);
+      out.put((byte) mask);
+      if ((mask & HUD_SCORE) != 0) {
+        putVarint(out, zigzag(frame.getScore() - ref.score));
+        ref.score = frame.getScore();
+      }
+      if ((mask & HUD_LIVES) != 0) {
+        putVarint(out, zigzag(frame.getLives() - ref.lives));
+        ref.lives = frame.getLives();
+      }
+      if ((mask & HUD_COINS) != 0) {
+        putVarint(out, zigzag(frame.getCoins() - ref.coins));
+        ref.coins = frame.getCoins();
+      }
+      if ((mask & HUD_LEVEL) != 0) {
+        putVarint(out, frame.getLevel());
+        ref.level = frame.getLevel();
+      }
+      if ((mask & HUD_SHIPS) != 0) {
+        putVarint(out, zigzag(frame.getShipCount() - ref.ships));
+        ref.ships = frame.getShipCount();
+      }
+      if ((mask & HUD_COUNTDOWN) != 0) {
+        putVarint(out, zigzag(frame.getCountdown()));
+        ref.countdown = frame.getCountdown();
+      }
+      if ((mask & HUD_FLAGS) != 0) {
+        out.put((byte) flags);
+        ref.flags = flags;
+      }
+    }
+  }
+
+  /** Rebuilds frames from the differences written by an {@link Encoder}. */
+  public static final class Decoder {
+
+    private final Reference last = new Reference();
+
+    /** Color object of every sprite slot, only created when the color of the slot changes. */
+    private Color[] colorObjects = new Color[0];
+
+    /** Bumped whenever a HUD value changed, so the HUD layer knows when to redraw. */
+    private int hudVersion;
+
+    /**
+     * Reads the next frame.
+     *
+     * @param in Encoded frame.
+     * @param frame Frame to fill, cleared first.
+     * @throws java.nio.BufferUnderflowException When the frame is cut short.
+     */
+    public void decode(final ByteBuffer in, final FrameSnapshot frame) {
+      final Reference ref = this.last;
+      ref.tick += getVarLong(in);
+      decodeHud(in, ref);
+
+      final int count = getVarint(in);
+      ref.ensure(count);
+      if (colorObjects.length < ref.types.length) {
+        colorObjects = Arrays.copyOf(colorObjects, ref.types.length);
+      }
+      int i = 0;
+      while (i < count) {
+        i += getVarint(in);
+        if (i >= count) {
+          break;
+        }
+        decodeSprite(in, ref, i);
+        i++;
+      }
+
+      frame.clear();
+      for (int s = 0; s < count; s++) {
+        frame.addSprite(
+            TYPES[ref.types[s]],
+            ref.xs[s],
+            ref.ys[s],
+            ref.widths[s],
+            ref.heights[s],
+            colorObjects[s]);
+      }
+      frame.setHud(
+          this,
+          hudVersion,
+          ref.score,
+          ref.lives,
+          (ref.flags & FLAG_COOP) != 0,
+          ref.coins,
+          ref.level,
+          ref.ships);
+      frame.setCountdown(
+          (ref.flags & FLAG_COUNTDOWN) != 0, ref.countdown, (ref.flags & FLAG_BONUS_LIFE) != 0);
+      frame.setLastLife((ref.flags & FLAG_LAST_LIFE) != 0);
+      frame.setHighScoreNotice((ref.flags & FLAG_HIGH_SCORE) != 0);
+      frame.setTelemetry(ref.tick, 0L, 0, 0);
+    }
+
+    private void decodeSprite(final ByteBuffer in, final Reference ref, final int i) {
+      final int mask = in.get();
+      if ((mask & SPRITE_TYPE) != 0) {
+        ref.types[i] = getVarint(in);
+      }
+      if ((mask & SPRITE_X) != 0) {
+        ref.xs[i] += unzigzag(getVarint(in));
+      }
+      if ((mask & SPRITE_Y) != 0) {
+        ref.ys[i] += unzigzag(getVarint(in));
+      }
+      if ((mask & SPRITE_SIZE) != 0) {
+        ref.widths[i] = getVarint(in);
+        ref.heights[i] = getVarint(in);
+      }
+      if ((mask & SPRITE_COLOR) != 0) {
+        ref.colors[i] = in.getInt();
+        colorObjects[i] = ref.colors[i] == 0 ? null : new Color(ref.colors[i], true); // NOPMD
+      }
+    }
+
+    private void decodeHud(final ByteBuffer in, final Reference ref) {
+      final int mask = in.get();
+      if (mask == 0) {
+        return;
+      }
+      hudVersion++;
+      if ((mask & HUD_SCORE) != 0) {
+        ref.score += unzigzag(getVarint(in));
+      }
+      if ((mask & HUD_LIVES) != 0) {
+        ref.lives += unzigzag(getVarint(in));
+      }
+      if ((mask & HUD_COINS) != 0) {
+        ref.coins += unzigzag(getVarint(in));
+      }
+      if ((mask & HUD_LEVEL) != 0) {
+        ref.level = getVarint(in);
+      }
+      if ((mask & HUD_SHIPS) != 0) {
+        ref.ships += unzigzag(getVarint(in));
+      }
+      if ((mask & HUD_COUNTDOWN) != 0) {
+        ref.countdown = unzigzag(getVarint(in));
+      }
+      if ((mask & HUD_FLAGS) != 0) {
+        ref.flags = in.get();
+      }
+    }
+  }
+
+  static int rgb(final Color color) {
+    return color == null ? 0 : color.getRGB();
+  }
+
+  /**
+   * Maps signed numbers to unsigned ones of about the same size, -1 to 1 and 1 to 2.
+   *
+   * @param value Signed value.
+   * @return Zigzag encoded value.
+   */
+  static int zigzag(final int value) {
+    return value << 1 ^ value >> 31;
+  }
+
+  static int unzigzag(final int value) {
+    return value >>> 1 ^ -(value & 1);
+  }
+
+  /**
+   * Writes an unsigned number seven bits per byte, low bits first.
+   *
+   * @param out Buffer to write to.
+   * @param value Value, negative numbers take five bytes.
+   */
+  static void putVarint(final ByteBuffer out, final int value) {
+    int rest = value;
+    while ((rest & ~0x7F) != 0) {
+      out.put((byte) (rest & 0x7F | 0x80));
+      rest >>>= 7;
+    }
+    out.put((byte) rest);
+  }
+
+  static int getVarint(final ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      final byte b = in.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed number in frame");
+  }
+
+  static void putVarLong(final ByteBuffer out, final long value) {
+    long rest = value;
+    while ((rest & ~0x7FL) != 0) {
+      out.put((byte) (rest & 0x7F | 0x80));
+      rest >>>= 7;
+    }
+    out.put((byte) rest);
+  }
+
+  static long getVarLong(final ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      final byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed number in frame");
+  }
+}
@@ -0,0 +1,327 @@
+package engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight per-phase frame timings. Every phase keeps its last {@link #CAPACITY} samples from
+ * {@link System#nanoTime()} in a fixed ring buffer, so recording never allocates. Percentiles are
+ * only computed when asked for, by the overlay or the summary written to the log.
+ *
+ * <p>Each phase is recorded by a single thread (update phases by the game loop, draw phases by
+ * whichever thread renders), readers may see a slightly stale ring, which is fine for diagnostics.
+ *
+ * <p>The same phase markers can measure allocation instead of time: a profiler from {@link
+ * #forAllocations()} samples the bytes allocated by the current thread, so a phase must begin and
+ * end on the same thread.
+ */
+public final class FrameProfiler {
+
+  /** Measured parts of a game frame, in the order they run. */
+  public enum Phase {
+    /** Whole game tick. */
+    TICK("tick"),
+    /** Player and pause menu input. */
+    INPUT("input"),
+    /** Player ship updates. */
+    PLAYERS("players"),
+    /** Special ship, formation movement and enemy shots. */
+    ENEMIES("enemies"),
+    /** Bullet collisions. */
+    COLLISIONS("collide"),
+    /** Bullet and item movement, recycling and item pickups. */
+    CLEANUP("cleanup"),
+    /** Achievement checks and toasts. */
+    ACHIEVEMENTS("achieve"),
+    /** Copying the frame into a snapshot. */
+    CAPTURE("capture"),
+    /** Whole frame draw. */
+    DRAW("draw"),
+    /** Clearing the back buffer, explosions and background. */
+    DRAW_PREPARE("prepare"),
+    /** Entity sprites. */
+    DRAW_SPRITES("sprites"),
+    /** HUD strip. */
+    DRAW_HUD("hud"),
+    /** Countdown, toasts, pause menu and the profiler overlay itself. */
+    DRAW_OVERLAYS("overlay"),
+    /** Copying the back buffer to the window. */
+    DRAW_FINISH("finish");
+
+    private final String label;
+
+    Phase(final String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  /** Samples kept per phase, a power of two. */
+  static final int CAPACITY = 512;
+
+  private static final int MASK = CAPACITY - 1;
+
+  /** Number of values {@link #summarize(Phase, long[])} writes. */
+  public static final int STAT_COUNT = 4;
+
+  public static final int P50 = 0;
+  public static final int P95 = 1;
+  public static final int P99 = 2;
+  public static final int MAX = 3;
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private static final String HEADER_FORMAT = "%-8s %7s %7s %7s %7s %6s";
+  private static final String ROW_FORMAT = "%-8s %7d %7d %7d %7d %6d";
+
+  private static final FrameProfiler INSTANCE =
+      new FrameProfiler(Boolean.parseBoolean(System.getProperty("invaders.profiler", "true")));
+
+  /** Whether samples are recorded at all. */
+  private final boolean enabled;
+
+  /** Monotonic counter phases are measured with. */
+  private final LongSupplier sampler;
+
+  /** Unit of the values in the log summary. */
+  private final String unit;
+
+  /** Divisor from sampled values to {@link #unit}. */
+  private final long unitDivisor;
+
+  /** Ring buffer of every phase, in nanoseconds. */
+  private final long[][] samples = new long[PHASES.length][CAPACITY];
+
+  /** Samples written per phase, the ring position is this masked. */
+  private final int[] written = new int[PHASES.length];
+
+  /** Sorting buffer for percentile queries. */
+  private final long[] scratch = new long[CAPACITY];
+
+  private volatile boolean overlayVisible;
+
+  /**
+   * Creates a profiler that measures time.
+   *
+   * @param enabled Whether samples are recorded, when false every call is a no-op.
+   */
+  FrameProfiler(final boolean enabled) {
+    this(enabled, System::nanoTime, "microseconds", 1000);
+  }
+
+  private FrameProfiler(
+      final boolean enabled,
+      final LongSupplier sampler,
+      final String unit,
+      final long unitDivisor) {
+    this.enabled = enabled;
+    this.sampler = sampler;
+    this.unit = unit;
+    this.unitDivisor = unitDivisor;
+  }
+
+  /**
+   * Creates a profiler whose samples are bytes allocated by the measuring thread instead of
+   * nanoseconds. Used by allocation regression tests.
+   *
+   * @return New allocation profiler, disabled when the JVM cannot count allocated bytes.
+   */
+  public static FrameProfiler forAllocations() {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+      if (threads.isThreadAllocatedMemorySupported()) {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return new FrameProfiler(true, threads::getCurrentThreadAllocatedBytes, "bytes", 1);
+      }
+    }
+    return new FrameProfiler(false, System::nanoTime, "bytes", 1);
+  }
+
+  /**
+   * Returns the shared profiler. Recording can be turned off with {@code
+   * -Dinvaders.profiler=false}.
+   *
+   * @return Application frame profiler.
+   */
+  public static FrameProfiler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts timing a phase.
+   *
+   * @return Start time to pass to {@link #end(Phase, long)}.
+   */
+  public long begin() {
+    return enabled ? sampler.getAsLong() : 0L;
+  }
+
+  /**
+   * Records the time since a matching {@link #begin()}.
+   *
+   * @param phase Phase that just finished.
+   * @param start Value returned by {@link #begin()}.
+   */
+  public void end(final Phase phase, final long start) {
+    if (enabled) {
+      record(phase, sampler.getAsLong() - start);
+    }
+  }
+
+  /**
+   * Records the time since {@code start} and starts the next phase, for phases that run back to
+   * back.
+   *
+   * @param phase Phase that just finished.
+   * @param start Start time of the phase.
+   * @return Start time of the next phase.
+   */
+  public long lap(final Phase phase, final long start) {
+    if (!enabled) {
+      return 0L;
+    }
+    final long now = sampler.getAsLong();
+    record(phase, now - start);
+    return now;
+  }
+
+  /**
+   * Records one sample, for phases whose time is summed over several calls.
+   *
+   * @param phase Measured phase.
+   * @param nanos Duration in nanoseconds.
+   */
+  public void record(final Phase phase, final long nanos) {
+    if (!enabled) {
+      return;
+    }
+    final int index = phase.ordinal();
+    final int count = written[index];
+    samples[index][count & MASK] = nanos;
+    written[index] = count + 1;
+  }
+
+  /**
+   * Returns how many samples of a phase are in its ring.
+   *
+   * @param phase Phase to look at.
+   * @return Number of stored samples, at most {@link #CAPACITY}.
+   */
+  public int getSampleCount(final Phase phase) {
+    final int count = written[phase.ordinal()];
+    return count < 0 || count > CAPACITY ? CAPACITY : count;
+  }
+
+  /**
+   * Computes the p50, p95, p99 and max of the stored samples of a phase.
+   *
+   * @param phase Phase to summarize.
+   * @param out Receives the values in nanoseconds at {@link #P50}, {@link #P95}, {@link #P99} and
+   *     {@link #MAX}, all zero when nothing was recorded yet.
+   */
+  public synchronized void summarize(final Phase phase, final long[] out) {
+    final int count = getSampleCount(phase);
+    if (count == 0) {
+      Arrays.fill(out, 0, STAT_COUNT, 0L);
+      return;
+    }
+    System.arraycopy(samples[phase.ordinal()], 0, scratch, 0, count);
+    Arrays.sort(scratch, 0, count);
+    out[P50] = percentile(count, 50);
+    out[P95] = percentile(count, 95);
+    out[P99] = percentile(count, 99);
+    out[MAX] = scratch[count - 1];
+  }
+
+  /**
+   * Returns the mean of the stored samples of a phase.
+   *
+   * @param phase Phase to average.
+   * @return Mean sample, 0 when nothing was recorded yet.
+   */
+  public synchronized double mean(final Phase phase) {
+    final int count = getSampleCount(phase);
+    if (count == 0) {
+      return 0;
+    }
+    final long[] ring = samples[phase.ordinal()];
+    long sum = 0;
+    for (int i = 0; i < count; i++) {
+      sum += ring[i];
+    }
+    return (double) sum / count;
+  }
+
+  /** Nearest-rank percentile of the first {@code count} sorted scratch values. */
+  private long percentile(final int count, final int percent) {
+    final int rank = (count * percent + 99) / 100;
+    return scratch[Math.max(rank, 1) - 1];
+  }
+
+  /** Drops every recorded sample. */
+  public synchronized void reset() {
+    Arrays.fill(written, 0);
+  }
+
+  /**
+   * Writes a table of every recorded phase to the log.
+   *
+   * @param logger Logger to write to.
+   * @param title Heading of the table.
+   */
+  public void logSummary(final Logger logger, final String title) {
+    if (!enabled) {
+      return;
+    }
+    final long[] stats = new long[STAT_COUNT];
+    final StringBuilder table = new StringBuilder(64 * (PHASES.length + 2));
+    table
+        .append(title)
+        .append(" (")
+        .append(unit)
+        .append(')')
+        .append(System.lineSeparator())
+        .append(
+            String.format(Locale.ROOT, HEADER_FORMAT, "phase", "p50", "p95", "p99", "max", "n"));
+    for (final Phase phase : PHASES) {
+      final int count = getSampleCount(phase);
+      if (count == 0) {
+        continue;
+      }
+      summarize(phase, stats);
+      table
+          .append(System.lineSeparator())
+          .append(
+              String.format(
+                  Locale.ROOT,
+                  ROW_FORMAT,
+                  phase.getLabel(),
+                  stats[P50] / unitDivisor,
+                  stats[P95] / unitDivisor,
+                  stats[P99] / unitDivisor,
+                  stats[MAX] / unitDivisor,
+                  count));
+    }
+    logger.info(table.toString());
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public boolean isOverlayVisible() {
+    return overlayVisible;
+  }
+
+  /** Shows or hides the in-game overlay. */
+  public void toggleOverlay() {
+    overlayVisible = !overlayVisible;
+  }
+}
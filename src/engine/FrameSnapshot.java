@@ -0,0 +1,426 @@
+package engine;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import entity.Entity;
+
+/**
+ * Everything the game screen needs to draw one frame, copied out of the simulation. Instances are
+ * pooled by {@link SnapshotBuffer} and refilled every tick, so capturing a frame does not allocate
+ * once the sprite arrays have grown to the usual entity count.
+ */
+@SuppressWarnings({"PMD.TooManyFields", "PMD.TooManyMethods", "PMD.MethodReturnsInternalArray"})
+public final class FrameSnapshot {
+
+  /** Sprite slots allocated up front, enough for a full formation and its bullets. */
+  private static final int INITIAL_CAPACITY = 128;
+
+  /** Input latency tags a frame carries, one per player key is enough. */
+  private static final int INPUT_TAG_CAPACITY = 8;
+
+  private int spriteCount;
+  private DrawManager.SpriteType[] spriteTypes = new DrawManager.SpriteType[INITIAL_CAPACITY];
+  private int[] positionsX = new int[INITIAL_CAPACITY];
+  private int[] positionsY = new int[INITIAL_CAPACITY];
+  private int[] widths = new int[INITIAL_CAPACITY];
+  private int[] heights = new int[INITIAL_CAPACITY];
+  private Color[] colors = new Color[INITIAL_CAPACITY];
+  private int[] entityIds = new int[INITIAL_CAPACITY];
+
+  // Telemetry
+  private long tick;
+  private long updateNanos;
+  private int bulletCount;
+  private int itemCount;
+
+  // Input latency tags, see InputLatency
+  private int inputTagCount;
+  private final int[] inputTagActions = new int[INPUT_TAG_CAPACITY];
+  private final long[] inputTagNanos = new long[INPUT_TAG_CAPACITY];
+  private final long[] inputTagWhen = new long[INPUT_TAG_CAPACITY];
+
+  // HUD values
+  private Object hudOwner;
+  private int hudVersion;
+  private int coinVersion;
+  private int score;
+  private int lives;
+  private boolean coop;
+  private int coins;
+  private int level;
+  private int shipCount;
+
+  // Overlays
+  private boolean lastLife;
+  private boolean countdownVisible;
+  private int countdown;
+  private boolean bonusLife;
+  private boolean highScoreNotice;
+  private Achievement toast;
+  private boolean paused;
+  private int pauseVolumeType;
+  private int pauseSelectedSection;
+  private int pauseDraggingIndex;
+
+  /** Empties the sprite list, HUD and overlay values are overwritten by the next capture. */
+  public void clear() {
+    Arrays.fill(colors, 0, spriteCount, null);
+    Arrays.fill(spriteTypes, 0, spriteCount, null);
+    spriteCount = 0;
+    toast = null;
+    hudOwner = null;
+  }
+
+  /**
+   * Adds an entity at its current position, colored the way {@link DrawManager#drawEntity} would.
+   *
+   * @param entity Entity to draw.
+   */
+  public void addEntity(final Entity entity) {
+    addSprite(
+        entity.getSpriteType(),
+        entity.getPositionX(),
+        entity.getPositionY(),
+        entity.getWidth(),
+        entity.getHeight(),
+        DrawManager.colorOf(entity));
+  }
+
+  /**
+   * Adds a sprite that belongs to no entity, like the frames of a thin client.
+   *
+   * @param type Sprite to draw.
+   * @param x Left side of the sprite.
+   * @param y Upper side of the sprite.
+   * @param width Drawn width.
+   * @param height Drawn height.
+   * @param color Sprite color.
+   */
+  public void addSprite(
+      final DrawManager.SpriteType type,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color color) {
+    addSprite(0, type, x, y, width, height, color);
+  }
+
+  /**
+   * Adds the sprite of an entity in play.
+   *
+   * @param id Id the world gave the entity, the same for as long as it stays in play.
+   * @param type Sprite to draw.
+   * @param x Left side of the sprite.
+   * @param y Upper side of the sprite.
+   * @param width Drawn width.
+   * @param height Drawn height.
+   * @param color Sprite color.
+   */
+  public void addSprite(
+      final int id,
+      final DrawManager.SpriteType type,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color color) {
+    if (spriteCount == spriteTypes.length) {
+      grow();
+    }
+    entityIds[spriteCount] = id;
+    spriteTypes[spriteCount] = type;
+    positionsX[spriteCount] = x;
+    positionsY[spriteCount] = y;
+    widths[spriteCount] = width;
+    heights[spriteCount] = height;
+    colors[spriteCount] = color;
+    spriteCount++;
+  }
+
+  private void grow() {
+    final int capacity = spriteTypes.length * 2;
+    spriteTypes = Arrays.copyOf(spriteTypes, capacity);
+    positionsX = Arrays.copyOf(positionsX, capacity);
+    positionsY = Arrays.copyOf(positionsY, capacity);
+    widths = Arrays.copyOf(widths, capacity);
+    heights = Arrays.copyOf(heights, capacity);
+    colors = Arrays.copyOf(colors, capacity);
+    entityIds = Arrays.copyOf(entityIds, capacity);
+  }
+
+  /**
+   * Copies the HUD values of a game state.
+   *
+   * @param state Current game state.
+   * @param enemiesLeft Remaining enemy ships.
+   */
+  public void setHud(final GameState state, final int enemiesLeft) {
+    this.hudOwner = state;
+    this.hudVersion = state.getVersion();
+    this.coinVersion = CoinManager.getVersion();
+    this.score = state.getScore();
+    this.lives = state.getLivesRemaining();
+    this.coop = state.isCoop();
+    this.coins = state.getCoins();
+    this.level = state.getLevel();
+    this.shipCount = enemiesLeft;
+  }
+
+  /**
+   * Sets the HUD values of a frame received from a server, where there is no game state to copy.
+   *
+   * @param owner Object whose values these are, the HUD is redrawn when it changes.
+   * @param version Bumped by the owner whenever one of the values changed.
+   * @param points Score.
+   * @param livesLeft Lives remaining.
+   * @param coopMode Whether two players play.
+   * @param coinCount Coins.
+   * @param levelNumber Level.
+   * @param enemiesLeft Remaining enemy ships.
+   */
+  void setHud(
+      final Object owner,
+      final int version,
+      final int points,
+      final int livesLeft,
+      final boolean coopMode,
+      final int coinCount,
+      final int levelNumber,
+      final int enemiesLeft) {
+    this.hudOwner = owner;
+    this.hudVersion = version;
+    this.coinVersion = version;
+    this.score = points;
+    this.lives = livesLeft;
+    this.coop = coopMode;
+    this.coins = coinCount;
+    this.level = levelNumber;
+    this.shipCount = enemiesLeft;
+  }
+
+  /**
+   * Sets the values reported by the frame flight recorder event.
+   *
+   * @param tick Number of the game tick that produced the frame.
+   * @param updateNanos Time the tick took up to and including the capture.
+   * @param bullets Bullets in play.
+   * @param items Items in play.
+   */
+  public void setTelemetry(
+      final long tick, final long updateNanos, final int bullets, final int items) {
+    this.tick = tick;
+    this.updateNanos = updateNanos;
+    this.bulletCount = bullets;
+    this.itemCount = items;
+  }
+
+  /**
+   * Drops the input latency tags. {@link #clear()} keeps them, so the tags of a frame the renderer
+   * skipped carry over to the next frame captured into this snapshot.
+   */
+  public void clearInputTags() {
+    inputTagCount = 0;
+  }
+
+  /**
+   * Tags the frame as the first one showing the result of an input.
+   *
+   * @param action Ordinal of the {@link InputLatency.Action}.
+   * @param nanos Arrival time of the input, from {@link System#nanoTime()}.
+   * @param when AWT time stamp of the input, in epoch milliseconds.
+   * @return False when the frame had no room left for the tag.
+   */
+  public boolean addInputTag(final int action, final long nanos, final long when) {
+    if (inputTagCount == INPUT_TAG_CAPACITY) {
+      return false;
+    }
+    inputTagActions[inputTagCount] = action;
+    inputTagNanos[inputTagCount] = nanos;
+    inputTagWhen[inputTagCount] = when;
+    inputTagCount++;
+    return true;
+  }
+
+  public int getInputTagCount() {
+    return inputTagCount;
+  }
+
+  public int getInputTagAction(final int index) {
+    return inputTagActions[index];
+  }
+
+  public long getInputTagNanos(final int index) {
+    return inputTagNanos[index];
+  }
+
+  public long getInputTagWhen(final int index) {
+    return inputTagWhen[index];
+  }
+
+  /**
+   * Sets the countdown overlay.
+   *
+   * @param visible Whether the countdown is shown.
+   * @param number Countdown number.
+   * @param bonus Whether a bonus life was awarded.
+   */
+  public void setCountdown(final boolean visible, final int number, final boolean bonus) {
+    this.countdownVisible = visible;
+    this.countdown = number;
+    this.bonusLife = bonus;
+  }
+
+  /**
+   * Sets the pause overlay.
+   *
+   * @param visible Whether the game is paused.
+   * @param handler Pause menu whose selection is copied.
+   */
+  public void setPause(final boolean visible, final PauseMenuHandler handler) {
+    this.paused = visible;
+    this.pauseVolumeType = handler.getVolumeType();
+    this.pauseSelectedSection = handler.getSelectedSection();
+    this.pauseDraggingIndex = handler.getDraggingIndex();
+  }
+
+  public void setLastLife(final boolean lastLife) {
+    this.lastLife = lastLife;
+  }
+
+  public void setHighScoreNotice(final boolean highScoreNotice) {
+    this.highScoreNotice = highScoreNotice;
+  }
+
+  public void setToast(final Achievement toast) {
+    this.toast = toast;
+  }
+
+  // --- Accessors used while drawing ---
+
+  public int getSpriteCount() {
+    return spriteCount;
+  }
+
+  public DrawManager.SpriteType getSpriteType(final int i) {
+    return spriteTypes[i];
+  }
+
+  public int getX(final int i) {
+    return positionsX[i];
+  }
+
+  public int getY(final int i) {
+    return positionsY[i];
+  }
+
+  public int getWidth(final int i) {
+    return widths[i];
+  }
+
+  public int getHeight(final int i) {
+    return heights[i];
+  }
+
+  public Color getColor(final int i) {
+    return colors[i];
+  }
+
+  /** Id of the entity of a sprite, 0 when it has none. */
+  public int getEntityId(final int i) {
+    return entityIds[i];
+  }
+
+  public long getTick() {
+    return tick;
+  }
+
+  public long getUpdateNanos() {
+    return updateNanos;
+  }
+
+  public int getBulletCount() {
+    return bulletCount;
+  }
+
+  public int getItemCount() {
+    return itemCount;
+  }
+
+  Object getHudOwner() {
+    return hudOwner;
+  }
+
+  int getHudVersion() {
+    return hudVersion;
+  }
+
+  int getCoinVersion() {
+    return coinVersion;
+  }
+
+  int getScore() {
+    return score;
+  }
+
+  int getLives() {
+    return lives;
+  }
+
+  boolean isCoop() {
+    return coop;
+  }
+
+  int getCoins() {
+    return coins;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public int getShipCount() {
+    return shipCount;
+  }
+
+  public boolean isLastLife() {
+    return lastLife;
+  }
+
+  public boolean isCountdownVisible() {
+    return countdownVisible;
+  }
+
+  public int getCountdown() {
+    return countdown;
+  }
+
+  public boolean isBonusLife() {
+    return bonusLife;
+  }
+
+  public boolean isHighScoreNotice() {
+    return highScoreNotice;
+  }
+
+  public Achievement getToast() {
+    return toast;
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+  int getPauseVolumeType() {
+    return pauseVolumeType;
+  }
+
+  int getPauseSelectedSection() {
+    return pauseSelectedSection;
+  }
+
+  int getPauseDraggingIndex() {
+    return pauseDraggingIndex;
+  }
+}
@@ -0,0 +1,55 @@
+package engine;
+
+/**
+ * Time source of the game logic. Cooldowns and timed game events read the time from here instead
+ * of the system clock, so headless runs (tests, benchmarks) can advance time tick by tick instead of
+ * waiting for it to pass.
+ *
+ * <p>Every {@link GameContext} keeps its own time, the methods act on the clock of the calling
+ * thread's game.
+ */
+public final class GameClock {
+
+  private GameClock() {}
+
+  /**
+   * Returns the current game time.
+   *
+   * @return Milliseconds, the system time unless the clock was made manual.
+   */
+  public static long currentTimeMillis() {
+    return GameContext.current().currentTimeMillis();
+  }
+
+  /**
+   * Stops following the system clock. Time only moves through {@link #advance(long)} afterwards.
+   *
+   * @param startMillis Time to start from.
+   */
+  public static void useManualTime(final long startMillis) {
+    GameContext.current().useManualTime(startMillis);
+  }
+
+  /**
+   * Freezes the time at the current system time until the next latch. Called at the start of every
+   * tick while a level is recorded, so every read of one tick sees the same time and the recorded
+   * tick times reproduce the level exactly. Has no effect while the time is manual.
+   */
+  public static void latch() {
+    GameContext.current().latch(System.currentTimeMillis());
+  }
+
+  /**
+   * Moves the manual time forward.
+   *
+   * @param millis Milliseconds to advance by.
+   */
+  public static void advance(final long millis) {
+    GameContext.current().advance(millis);
+  }
+
+  /** Follows the system clock again, leaving manual and latched time. */
+  public static void useSystemTime() {
+    GameContext.current().useSystemTime();
+  }
+}
@@ -0,0 +1,314 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import entity.Bullet;
+import entity.BulletPool;
+import entity.Item;
+import entity.ItemPool;
+
+/**
+ * Everything a game in play used to share with the whole process: the game clock, the random
+ * streams, the keys the level reads, item drops, coins, the bullet and item pools, whether the new
+ * high score was announced yet, and the profiler, metrics and latency probe its ticks and frames
+ * are recorded into. The desktop
+ * game plays with one context for the whole process, {@link #shared()}. A process that plays many
+ * games at once, like the dedicated server, gives every game its own context and runs it with
+ * {@link #run(Runnable)}, so games on different threads never see each other's time, randomness
+ * or keys.
+ *
+ * <p>{@link GameClock}, {@link Rng}, {@link InputManager}, {@link CoinManager}, {@link
+ * ItemManager#getInstance()} and the pools keep their static methods and act on the context of the
+ * calling thread. Like the pools, a context belongs to one thread at a time.
+ *
+ * <p>Only the shared context records into the process-wide {@link FrameProfiler}, {@link Metrics}
+ * and {@link InputLatency} that the overlay, {@link MetricsServer} and the session summary read.
+ * Other contexts get a profiler that records nothing and metrics and a latency probe of their own,
+ * so games on other threads neither race on the shared counters nor show up in them.
+ */
+public final class GameContext {
+
+  /** Context of the desktop game, and of every thread that never entered another one. */
+  private static final GameContext SHARED = new GameContext(true);
+
+  private static final ThreadLocal<GameContext> CURRENT = ThreadLocal.withInitial(() -> SHARED);
+
+  // Game clock, see GameClock
+  private volatile boolean manualTime;
+  private volatile long manualMillis;
+  private volatile boolean latched;
+  private volatile long latchedMillis;
+
+  // Random streams, see Rng
+  private final SplittableRandom[] randoms = new SplittableRandom[Rng.Stream.values().length];
+  private long seed;
+
+  // Keys of the current tick, see InputManager
+  private final boolean[] keys = new boolean[InputManager.NUM_KEYS];
+  private final boolean[] pressedKeys = new boolean[InputManager.NUM_KEYS];
+
+  // Coin total, see CoinManager
+  private int coins;
+  private int coinVersion;
+
+  private final ItemManager itemManager = new ItemManager();
+
+  /** Whether a level of this game already announced a new high score. */
+  private boolean highScoreAnnounced;
+
+  /** Whether the ticks being simulated were already played once, see RollbackSession. */
+  private boolean replaying;
+
+  private final ObjectPool<Bullet> bulletPool;
+  private final ObjectPool<Item> itemPool;
+
+  /** Whether the game is shown on a screen, effects nobody sees are not set off. */
+  private final boolean display;
+
+  private final FrameProfiler profiler;
+  private final Metrics metrics;
+  private final InputLatency latency;
+
+  /** Creates the context of a game played without a screen, its pools stay out of the metrics. */
+  public GameContext() {
+    this(false);
+  }
+
+  private GameContext(final boolean display) {
+    this.display = display;
+    this.bulletPool = BulletPool.newPool(display);
+    this.itemPool = ItemPool.newPool(display);
+    this.profiler = display ? FrameProfiler.getInstance() : new FrameProfiler(false);
+    this.metrics = display ? Metrics.getInstance() : new Metrics();
+    this.latency = display ? InputLatency.getInstance() : new InputLatency();
+    Rng.reseed(this, Rng.newSeed());
+  }
+
+  /**
+   * Returns the context of the desktop game.
+   *
+   * @return Process-wide context.
+   */
+  public static GameContext shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the context of the calling thread.
+   *
+   * @return Context entered with {@link #run(Runnable)}, the shared one outside of it.
+   */
+  public static GameContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Runs a task in this context on the calling thread, then goes back to the previous one.
+   *
+   * @param task Work that plays the game of this context.
+   */
+  public void run(final Runnable task) {
+    final GameContext previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      task.run();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Returns whether the game is shown, false for games played on a server.
+   *
+   * @return True for the shared context.
+   */
+  public boolean hasDisplay() {
+    return display;
+  }
+
+  /**
+   * Claims the new high score notice, which a game shows once however many levels beat the record.
+   *
+   * @return True the first time, false once a level of this game announced it.
+   */
+  public boolean claimHighScoreNotice() {
+    if (highScoreAnnounced) {
+      return false;
+    }
+    highScoreAnnounced = true;
+    return true;
+  }
+
+  /**
+   * Returns whether a level of this game announced a new high score, saved with the level state.
+   *
+   * @return True once the notice was claimed.
+   */
+  public boolean isHighScoreAnnounced() {
+    return highScoreAnnounced;
+  }
+
+  /**
+   * Puts the high score notice back as a saved level state had it, so a rollback past the tick that
+   * claimed it lets a later tick claim it again.
+   *
+   * @param announced Whether the notice was claimed when the state was saved.
+   */
+  public void setHighScoreAnnounced(final boolean announced) {
+    this.highScoreAnnounced = announced;
+  }
+
+  /**
+   * Returns whether the ticks being simulated were already played once, after a rollback, when
+   * explosions and other effects of those ticks were already shown.
+   *
+   * @return True while a rollback simulates its ticks again.
+   */
+  public boolean isReplaying() {
+    return replaying;
+  }
+
+  /**
+   * Marks the ticks simulated from now on as replayed or played for the first time.
+   *
+   * @param replaying True while a rollback simulates its ticks again.
+   */
+  public void setReplaying(final boolean replaying) {
+    this.replaying = replaying;
+  }
+
+  /**
+   * Returns the profiler the ticks and frames of this game are timed with.
+   *
+   * @return Shared profiler for the desktop game, a disabled one otherwise.
+   */
+  public FrameProfiler getProfiler() {
+    return profiler;
+  }
+
+  /**
+   * Returns the metrics this game reports its ticks, frames and entity counts to.
+   *
+   * @return Process metrics for the desktop game, metrics of this game otherwise.
+   */
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the probe the input latency of this game is measured with.
+   *
+   * @return Session probe for the desktop game, a probe of this game otherwise.
+   */
+  public InputLatency getLatency() {
+    return latency;
+  }
+
+  // Game clock, see GameClock
+
+  long currentTimeMillis() {
+    if (manualTime) {
+      return manualMillis;
+    }
+    return latched ? latchedMillis : System.currentTimeMillis();
+  }
+
+  void useManualTime(final long startMillis) {
+    manualMillis = startMillis;
+    manualTime = true;
+  }
+
+  void latch(final long millis) {
+    latchedMillis = millis;
+    latched = true;
+  }
+
+  void advance(final long millis) {
+    manualMillis += millis; // NOPMD - only the game's thread advances time
+  }
+
+  void useSystemTime() {
+    manualTime = false;
+    latched = false;
+  }
+
+  // Random streams, see Rng
+
+  long getSeed() {
+    return seed;
+  }
+
+  void setSeed(final long newSeed) {
+    seed = newSeed;
+  }
+
+  void setRandom(final Rng.Stream stream, final SplittableRandom random) {
+    randoms[stream.ordinal()] = random;
+  }
+
+  SplittableRandom getRandom(final Rng.Stream stream) {
+    return randoms[stream.ordinal()];
+  }
+
+  // Keys of the current tick, see InputManager
+
+  boolean isHeld(final int keyCode) {
+    return keys[keyCode];
+  }
+
+  boolean isPressed(final int keyCode) {
+    return pressedKeys[keyCode];
+  }
+
+  void setKey(final int keyCode, final boolean held, final boolean pressed) {
+    keys[keyCode] = held;
+    pressedKeys[keyCode] = pressed;
+  }
+
+  void releaseKeys() {
+    Arrays.fill(keys, false);
+  }
+
+  void clearPressedKeys() {
+    Arrays.fill(pressedKeys, false);
+  }
+
+  // Coin total, see CoinManager
+
+  int getCoins() {
+    return coins;
+  }
+
+  int getCoinVersion() {
+    return coinVersion;
+  }
+
+  /** Sets the coin total, always a modification the HUD redraws for. */
+  void setCoins(final int total) {
+    coins = total;
+    coinVersion++;
+  }
+
+  ItemManager getItemManager() {
+    return itemManager;
+  }
+
+  /**
+   * Returns the bullet pool of this game.
+   *
+   * @return Pool {@link BulletPool} takes bullets from.
+   */
+  public ObjectPool<Bullet> getBulletPool() {
+    return bulletPool;
+  }
+
+  /**
+   * Returns the item pool of this game.
+   *
+   * @return Pool {@link ItemPool} takes items from.
+   */
+  public ObjectPool<Item> getItemPool() {
+    return itemPool;
+  }
+}
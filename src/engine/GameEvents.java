@@ -0,0 +1,182 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder events of the game, so frame times, saves and sound loading can be lined up with
+ * GC and allocation events of the JVM. Events are only filled in when {@link Event#shouldCommit()}
+ * says a recording wants them, without a recording they cost next to nothing.
+ *
+ * <p>Start the game with {@code -Dinvaders.jfr} (or {@code -Dinvaders.jfr=<file>}) to record from
+ * launch, the recording is written when the game exits.
+ */
+@SuppressWarnings("PMD.DataClass")
+public final class GameEvents {
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private static final String CATEGORY = "Invaders";
+
+  /** Recording file used when {@code -Dinvaders.jfr} has no value. */
+  private static final String DEFAULT_RECORDING = "invaders.jfr";
+
+  private GameEvents() {}
+
+  /** One drawn game frame. The event spans the draw, the update time is carried as a field. */
+  @Name("invaders.GameFrame")
+  @Label("Game Frame")
+  @Category(CATEGORY)
+  public static final class GameFrame extends Event {
+    @Label("Tick")
+    public long tick;
+
+    @Label("Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long updateNanos;
+
+    @Label("Draw Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long drawNanos;
+
+    @Label("Sprites")
+    public int sprites;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Bullets")
+    public int bullets;
+
+    @Label("Items")
+    public int items;
+  }
+
+  /** One pass of {@link CollisionManager#processCollisions}. */
+  @Name("invaders.CollisionPass")
+  @Label("Collision Pass")
+  @Category(CATEGORY)
+  public static final class CollisionPass extends Event {
+    @Label("Bullets")
+    public int bullets;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Bullets Absorbed")
+    public int absorbed;
+
+    @Label("Player Hit")
+    public boolean playerHit;
+  }
+
+  /** A sound effect or music track being loaded and started. */
+  @Name("invaders.SoundPlay")
+  @Label("Sound Play")
+  @Category(CATEGORY)
+  public static final class SoundPlay extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Decode Time")
+    @Description("Opening, converting and loading the clip")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decodeNanos;
+
+    @Label("Looping")
+    public boolean looping;
+
+    @Label("Audible")
+    @Description("False when the clip was muted or could not be played")
+    public boolean audible;
+  }
+
+  /** A save file being read or written. */
+  @Name("invaders.Persistence")
+  @Label("Persistence")
+  @Category(CATEGORY)
+  public static final class Persistence extends Event {
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+
+    @Label("File")
+    public String file;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    /**
+     * Ends the event and commits it with the current size of the file.
+     *
+     * @param target File that was read or written.
+     * @param op {@link #LOAD} or {@link #SAVE}.
+     */
+    public void finish(final File target, final String op) {
+      end();
+      if (shouldCommit()) {
+        this.file = target.getName();
+        this.operation = op;
+        this.bytes = target.length();
+        commit();
+      }
+    }
+  }
+
+  /** Time spent on one screen, from initialization until it returned. */
+  @Name("invaders.ScreenTransition")
+  @Label("Screen Transition")
+  @Category(CATEGORY)
+  public static final class ScreenTransition extends Event {
+    @Label("Screen")
+    public String screen;
+
+    @Label("Return Code")
+    public int returnCode;
+  }
+
+  /**
+   * Starts a recording of the default JFR settings plus every game event when {@code
+   * -Dinvaders.jfr} is set. The recording is dumped to disk when the JVM exits.
+   */
+  public static void startRecordingIfRequested() {
+    final String property = System.getProperty("invaders.jfr");
+    if (property == null) {
+      return;
+    }
+    final Path destination = Paths.get(property.isBlank() ? DEFAULT_RECORDING : property);
+    try {
+      final Recording recording = new Recording(Configuration.getConfiguration("default"));
+      recording.setName("invaders");
+      recording.setDestination(destination);
+      recording.setToDisk(true);
+      recording.setDumpOnExit(true);
+      recording.start();
+      if (LOGGER.isLoggable(Level.INFO)) {
+        LOGGER.info("Flight recording to " + destination.toAbsolutePath());
+      }
+    } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Unable to start flight recording: " + e.getMessage());
+      }
+    }
+  }
+}
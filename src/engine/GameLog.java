@@ -0,0 +1,227 @@
+package engine;
+
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gameplay event log for the hot paths: hits, drops, explosions and sounds. Events are a constant
+ * plus up to one reference and two number arguments, so logging one allocates nothing and builds
+ * no string on the calling thread. The message is formatted by the {@link AsyncLogHandler} writer,
+ * and only when the event passes the level of its category.
+ *
+ * <p>Category levels default to {@link Level#INFO} and can be set per category with {@code
+ * -Dinvaders.log.<category>=<level>}, e.g. {@code -Dinvaders.log.collision=OFF} or {@code
+ * -Dinvaders.log.sound=FINE}.
+ */
+public final class GameLog {
+
+  /** Parts of the game whose events are switched on and off together. */
+  public enum Category {
+    /** Hits and pickups. */
+    COLLISION,
+    /** Item drop rolls and spawns. */
+    ITEMS,
+    /** Explosions and other effects. */
+    EFFECTS,
+    /** Sound playback. */
+    SOUND
+  }
+
+  /** Builds the message of an event from its arguments. */
+  @FunctionalInterface
+  interface Format {
+    void appendTo(StringBuilder out, Object ref, long first, long second);
+  }
+
+  /** Logged events with their category, level and message. */
+  public enum Event {
+    PLAYER_HIT(
+        Category.COLLISION,
+        Level.INFO,
+        (out, ref, player, lives) ->
+            out.append("Hit on player ").append(player).append(", team lives now: ").append(lives)),
+    ENEMY_HIT(
+        Category.COLLISION,
+        Level.INFO,
+        (out, ref, first, second) -> out.append("Hit on enemy ship.")),
+    ITEM_SPAWNED(
+        Category.COLLISION,
+        Level.INFO,
+        (out, type, x, y) ->
+            out.append("Spawned ").append(type).append(" at ").append(x).append(',').append(y)),
+    ITEM_PICKED_UP(
+        Category.COLLISION,
+        Level.INFO,
+        (out, type, player, second) ->
+            out.append("Player ").append(player).append(" picked up item: ").append(type)),
+    DROP_ROLL(
+        Category.ITEMS,
+        Level.INFO,
+        (out, ref, roll, second) ->
+            out.append(
+                String.format(
+                    Locale.ROOT, "[ItemManager]: DropRoll %.1f", Double.longBitsToDouble(roll)))),
+    NO_DROP(
+        Category.ITEMS,
+        Level.INFO,
+        (out, ref, pity, second) ->
+            out.append("[ItemManager]: Tier=NONE (pity=").append(pity).append(')')),
+    ITEM_CREATED(
+        Category.ITEMS,
+        Level.INFO,
+        (out, type, x, y) ->
+            out.append("[ItemManager]: created item ")
+                .append(type)
+                .append(" at (")
+                .append(x)
+                .append(", ")
+                .append(y)
+                .append(')')),
+    EXPLOSION(
+        Category.EFFECTS,
+        Level.INFO,
+        (out, ref, enemy, last) ->
+            out.append("Explosion, enemy: ")
+                .append(enemy != 0)
+                .append(", final: ")
+                .append(last != 0)),
+    SOUND_STARTED(
+        Category.SOUND,
+        Level.FINE,
+        (out, path, first, second) -> out.append("Started one-shot sound: ").append(path));
+
+    private static final Event[] VALUES = values();
+
+    private final Category category;
+    private final Level level;
+    private final Format format;
+
+    Event(final Category category, final Level level, final Format format) {
+      this.category = category;
+      this.level = level;
+      this.format = format;
+    }
+
+    static Event of(final int ordinal) {
+      return VALUES[ordinal];
+    }
+
+    public Category getCategory() {
+      return category;
+    }
+
+    public Level getLevel() {
+      return level;
+    }
+
+    /**
+     * Builds the message of one occurrence.
+     *
+     * @param ref Reference argument.
+     * @param first First number argument.
+     * @param second Second number argument.
+     * @return Message text.
+     */
+    public String format(final Object ref, final long first, final long second) {
+      final StringBuilder out = new StringBuilder(64);
+      format.appendTo(out, ref, first, second);
+      return out.toString();
+    }
+  }
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private static final Category[] CATEGORIES = Category.values();
+
+  /** Lowest level logged per category, as {@link Level#intValue()}. */
+  private static final int[] LEVELS = new int[CATEGORIES.length];
+
+  /** Writer the events go to, null until logging is set up. */
+  private static volatile AsyncLogHandler sink;
+
+  static {
+    for (final Category category : CATEGORIES) {
+      LEVELS[category.ordinal()] = configuredLevel(category).intValue();
+    }
+  }
+
+  private GameLog() {}
+
+  private static Level configuredLevel(final Category category) {
+    final String property = "invaders.log." + category.name().toLowerCase(Locale.ROOT);
+    final String value = System.getProperty(property);
+    if (value == null) {
+      return Level.INFO;
+    }
+    try {
+      return Level.parse(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Unknown log level for " + property + ": " + value);
+      }
+      return Level.INFO;
+    }
+  }
+
+  /**
+   * Sets the level of a category.
+   *
+   * @param category Category to change.
+   * @param level Lowest level logged from now on.
+   */
+  public static void setLevel(final Category category, final Level level) {
+    LEVELS[category.ordinal()] = level.intValue();
+  }
+
+  /**
+   * Routes events to an asynchronous handler. Without one they are formatted and logged in place.
+   *
+   * @param handler Writer of the events, null to log in place.
+   */
+  public static void setSink(final AsyncLogHandler handler) {
+    sink = handler;
+  }
+
+  /**
+   * Whether an event would be logged, for callers that need work to compute the arguments.
+   *
+   * @param event Event to check.
+   * @return True if its category and the game logger let it through.
+   */
+  public static boolean isEnabled(final Event event) {
+    final int level = event.level.intValue();
+    return level >= LEVELS[event.category.ordinal()] && LOGGER.isLoggable(event.level);
+  }
+
+  /**
+   * Logs an event with number arguments.
+   *
+   * @param event Event that happened.
+   * @param first First number argument.
+   * @param second Second number argument.
+   */
+  public static void log(final Event event, final long first, final long second) {
+    log(event, null, first, second);
+  }
+
+  /**
+   * Logs an event.
+   *
+   * @param event Event that happened.
+   * @param ref Reference argument, must not change afterwards as it is read by the writer.
+   * @param first First number argument.
+   * @param second Second number argument.
+   */
+  public static void log(final Event event, final Object ref, final long first, final long second) {
+    if (!isEnabled(event)) {
+      return;
+    }
+    final AsyncLogHandler handler = sink;
+    if (handler == null) {
+      LOGGER.log(event.level, event.format(ref, first, second));
+    } else {
+      handler.publishEvent(event, ref, first, second);
+    }
+  }
+}
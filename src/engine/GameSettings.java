@@ -8,11 +8,14 @@ import java.util.List;
 import java.nio.file.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 
+import entity.EnemyShipGrid;
+
 /**
  * Implements an object that stores a single game's difficulty settings.
  *
@@ -21,7 +24,27 @@ import java.io.InputStreamReader;
 @SuppressWarnings("PMD.LawOfDemeter")
 public class GameSettings {
 
-  private static final Logger LOGGER = Logger.getLogger(Core.class.getSimpleName());
+  private static final Logger LOGGER = Core.getLogger();
+
+  /** Formation columns of the stress mode, {@code -Dinvaders.stress.columns} overrides it. */
+  public static final int STRESS_COLUMNS = 50;
+
+  /** Formation rows of the stress mode, {@code -Dinvaders.stress.rows} overrides it. */
+  public static final int STRESS_ROWS = 25;
+
+  /** Shooters per volley in the stress mode, {@code -Dinvaders.stress.volley} overrides it. */
+  public static final int STRESS_VOLLEY = 32;
+
+  /** Enemy bullet cap of the stress mode, {@code -Dinvaders.stress.bullets} overrides it. */
+  public static final int STRESS_BULLET_CAP = 20_000;
+
+  private static final int STRESS_SPEED = 60;
+  private static final int STRESS_SHOOTING_FREQUENCY = 300;
+
+  /** Area a stress formation is packed into when it spawns, the playfield minus its margins. */
+  private static final int FORMATION_AREA_WIDTH = 400;
+
+  private static final int FORMATION_AREA_HEIGHT = 200;
 
   /** Width of the level's enemy formation. */
   private final int formationWidth;
@@ -35,6 +58,18 @@ public class GameSettings {
   /** Frequency of enemy shootings, +/- 30%. */
   private final int shootingFrequency;
 
+  /** Shooters that fire together, 1 outside the stress mode. */
+  private final int volleySize;
+
+  /** Enemy bullets on screen above which the formation holds its fire. */
+  private final int bulletCap;
+
+  /** Distance between neighbouring ships of the formation. */
+  private final int shipSpacing;
+
+  /** Whether these are the settings of the stress mode. */
+  private final boolean stress;
+
   private List<ChangeData> changeDataList;
 
   // 추가 사항
@@ -166,11 +201,8 @@ public class GameSettings {
   }
 
   public static List<GameSettings> getGameSettings() {
-    final List<GameSettings> result = new ArrayList<>();
     List<StageData> stageDataList;
 
-    GameSettings setting;
-
     try {
       InputStream in = // NOPMD
           GameSettings.class.getClassLoader().getResourceAsStream("res/level.csv"); // NOPMD
@@ -178,14 +210,6 @@ public class GameSettings {
         in = Files.newInputStream(Paths.get("res", "level.csv"));
       }
       stageDataList = parseStages(in);
-
-      for (final StageData s : stageDataList) {
-        setting = s.settings;
-        setting.changeDataList = new ArrayList<>(); // NOPMD - per-row object creation required
-
-        setting.changeDataList.addAll(s.changeList);
-        result.add(setting);
-      }
     } catch (Exception e) { // NOPMD - generic catch intended for fatal load fail
       if (LOGGER.isLoggable(Level.INFO)) {
         LOGGER.info("Failed Loading Data: There is no such file named " + e.getMessage());
@@ -201,6 +225,42 @@ public class GameSettings {
       System.exit(1); // NOPMD
       return Collections.emptyList();
     }
+    return withInfiniteLevels(stageDataList);
+  }
+
+  /**
+   * Reads the levels of another level file than the game's, such as a draft being balanced. Levels
+   * past the end of the file follow from its last two, as in the game.
+   *
+   * @param levelFile File in the format of {@code res/level.csv}.
+   * @return Settings of every level up to {@link GameState#INFINITE_LEVEL}.
+   * @throws IOException When the file cannot be read, is malformed or holds fewer than two levels.
+   */
+  public static List<GameSettings> getGameSettings(final Path levelFile) throws IOException {
+    final List<StageData> stageDataList;
+    try (InputStream in = Files.newInputStream(levelFile)) {
+      stageDataList = parseStages(in);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) { // NOPMD - parseStages reports bad numbers and short rows
+      throw new IOException("Malformed level file " + levelFile + ": " + e, e);
+    }
+    if (stageDataList.size() < 2) {
+      throw new IOException(levelFile + " must hold at least two levels");
+    }
+    return withInfiniteLevels(stageDataList);
+  }
+
+  private static List<GameSettings> withInfiniteLevels(final List<StageData> stageDataList) {
+    final List<GameSettings> result = new ArrayList<>();
+    GameSettings setting;
+    for (final StageData s : stageDataList) {
+      setting = s.settings;
+      setting.changeDataList = new ArrayList<>(); // NOPMD - per-row object creation required
+
+      setting.changeDataList.addAll(s.changeList);
+      result.add(setting);
+    }
     final GameSettings base1 = result.get(result.size() - 2);
     final GameSettings base2 = result.getLast();
     final int INCREASE_AMOUNT_SHOOTING_FREQUENCY = 10; // NOPMD - name intentionally descriptive
@@ -250,6 +310,78 @@ public class GameSettings {
         base.getFormationWidth(), base.getFormationHeight(), newSpeed, newShootingFrequency);
   }
 
+  /**
+   * Returns the settings of the stress mode, scaled by the {@code -Dinvaders.stress.*} properties.
+   *
+   * @return Stress settings, the same for every level.
+   */
+  public static GameSettings getStressSettings() {
+    return stress(
+        stressProperty("columns", STRESS_COLUMNS),
+        stressProperty("rows", STRESS_ROWS),
+        stressProperty("volley", STRESS_VOLLEY),
+        stressProperty("bullets", STRESS_BULLET_CAP));
+  }
+
+  /**
+   * Creates bullet-hell settings. The formation is packed tighter than a stock one, so hundreds of
+   * columns and rows still spawn inside the playfield.
+   *
+   * @param formationWidth Columns of the formation.
+   * @param formationHeight Rows of the formation.
+   * @param volleySize Shooters that fire together.
+   * @param bulletCap Enemy bullets on screen above which the formation holds its fire.
+   * @return Stress settings.
+   */
+  public static GameSettings stress(
+      final int formationWidth,
+      final int formationHeight,
+      final int volleySize,
+      final int bulletCap) {
+    if (formationWidth <= 0 || formationHeight <= 0 || volleySize <= 0 || bulletCap <= 0) {
+      throw new IllegalArgumentException(
+          "Stress settings must be positive: "
+              + formationWidth
+              + "x"
+              + formationHeight
+              + ", volley "
+              + volleySize
+              + ", cap "
+              + bulletCap);
+    }
+    final int spacing =
+        Math.min(
+            FORMATION_AREA_WIDTH / formationWidth, FORMATION_AREA_HEIGHT / formationHeight);
+    return new GameSettings(
+        formationWidth,
+        formationHeight,
+        STRESS_SPEED,
+        STRESS_SHOOTING_FREQUENCY,
+        volleySize,
+        bulletCap,
+        Math.max(1, Math.min(EnemyShipGrid.SEPARATION_DISTANCE, spacing)),
+        true);
+  }
+
+  private static int stressProperty(final String name, final int fallback) {
+    final String property = "invaders.stress." + name;
+    final String value = System.getProperty(property);
+    if (value == null) {
+      return fallback;
+    }
+    try {
+      final int parsed = Integer.parseInt(value.trim());
+      if (parsed > 0) {
+        return parsed;
+      }
+    } catch (NumberFormatException e) { // NOPMD - reported below
+    }
+    if (LOGGER.isLoggable(Level.WARNING)) {
+      LOGGER.warning("Invalid value for " + property + ": " + value);
+    }
+    return fallback;
+  }
+
   /**
    * Constructor.
    *
@@ -263,10 +395,34 @@ public class GameSettings {
       final int formationHeight,
       final int baseSpeed,
       final int shootingFrequency) {
+    this(
+        formationWidth,
+        formationHeight,
+        baseSpeed,
+        shootingFrequency,
+        1,
+        Integer.MAX_VALUE,
+        EnemyShipGrid.SEPARATION_DISTANCE,
+        false);
+  }
+
+  private GameSettings(
+      final int formationWidth,
+      final int formationHeight,
+      final int baseSpeed,
+      final int shootingFrequency,
+      final int volleySize,
+      final int bulletCap,
+      final int shipSpacing,
+      final boolean stress) {
     this.formationWidth = formationWidth;
     this.formationHeight = formationHeight;
     this.baseSpeed = baseSpeed;
     this.shootingFrequency = shootingFrequency;
+    this.volleySize = volleySize;
+    this.bulletCap = bulletCap;
+    this.shipSpacing = shipSpacing;
+    this.stress = stress;
     this.changeDataList = new ArrayList<>();
   }
 
@@ -297,4 +453,32 @@ public class GameSettings {
   public final int getShootingFrequency() {
     return shootingFrequency;
   }
+
+  /**
+   * @return the volleySize
+   */
+  public final int getVolleySize() {
+    return volleySize;
+  }
+
+  /**
+   * @return the bulletCap
+   */
+  public final int getBulletCap() {
+    return bulletCap;
+  }
+
+  /**
+   * @return the shipSpacing
+   */
+  public final int getShipSpacing() {
+    return shipSpacing;
+  }
+
+  /**
+   * @return whether these are stress settings
+   */
+  public final boolean isStress() {
+    return stress;
+  }
 }
@@ -1,6 +1,8 @@
 // engine/GameState.java
 package engine;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implements an object that stores the state of the game between levels - supports 2-player co-op
  * with shared lives.
@@ -32,6 +34,9 @@ public class GameState {
   private final PlayerStatsManager statsManager = new PlayerStatsManager();
   private final LifeManager lifeManager;
 
+  /** Bumped by every mutator, lets views tell whether anything they show has changed. */
+  private int version;
+
   // 2P mode: co-op aware constructor used by the updated Core loop - livesEach
   // applies per-player; co-op uses shared pool.
   public GameState(final int level, final int livesEach, final boolean coop) {
@@ -101,14 +106,17 @@ public class GameState {
   }
 
   public void addScore(final int p, final int delta) {
+    version++;
     statsManager.addRawScore(p, delta);
   }
 
   public void incBulletsShot(final int p) {
+    version++;
     statsManager.incBulletsShot(p);
   }
 
   public void incShipsDestroyed(final int p) {
+    version++;
     statsManager.incShipsDestroyed(p);
   }
 
@@ -125,6 +133,16 @@ public class GameState {
     return CoinManager.spendCoins(p, amount);
   }
 
+  /**
+   * Returns the modification count of this state. Coins are tracked separately by {@link
+   * CoinManager#getVersion()}.
+   *
+   * @return Value that changes whenever score, stats, lives or level change.
+   */
+  public int getVersion() {
+    return version;
+  }
+
   // ===== Mode / life-pool helpers expected elsewhere =====
   public boolean isCoop() {
     return coop;
@@ -139,16 +157,19 @@ public class GameState {
   }
 
   public void addTeamLife(final int n) {
+    version++;
     lifeManager.addTeamLife(n);
   }
 
   // 2P mode: decrement life (shared pool if enabled; otherwise per player). */
   public void decLife(final int p) {
+    version++;
     lifeManager.decLife(p);
   }
 
   // for bonusLife, balance out decLife (+/- life)
   public void addLife(final int p, final int n) {
+    version++;
     lifeManager.addLife(p, n);
   }
 
@@ -157,6 +178,7 @@ public class GameState {
   }
 
   public void nextLevel() {
+    version++;
     level++;
   }
 
@@ -174,4 +196,29 @@ public class GameState {
   public int get1PlayerLives() {
     return lifeManager.getPlayerLives(0);
   }
+
+  /**
+   * Writes what a level changes: level, per-player stats, lives and coins.
+   *
+   * @param out Buffer to write to.
+   */
+  public void writeState(final ByteBuffer out) {
+    out.putInt(level);
+    statsManager.writeState(out);
+    lifeManager.writeState(out);
+    out.putInt(CoinManager.getCoins());
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)} into a state of the same mode.
+   *
+   * @param in Buffer to read from.
+   */
+  public void readState(final ByteBuffer in) {
+    version++;
+    level = in.getInt();
+    statsManager.readState(in);
+    lifeManager.readState(in);
+    CoinManager.restoreCoins(in.getInt());
+  }
 }
@@ -5,6 +5,7 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
+import java.awt.Graphics;
 import java.awt.Graphics2D;
 
 import java.awt.RenderingHints;
@@ -18,12 +19,55 @@ import screen.Screen;
 @SuppressWarnings({"PMD.LawOfDemeter"})
 public final class HudDrawer { // NOPMD
 
-  private static final String FOUR_DIGIT_FORMAT = "%04d";
+  /** Digits the in-game score and coin counters are padded to. */
+  private static final int COUNTER_DIGITS = 4;
+
+  private static final String COIN_LABEL = "COIN : ";
+  private static final String SHIP_COUNT_LABEL = ": ";
+  private static final String INFINITY_STAGE = "Infinity Stage";
+
+  // Frame profiler overlay layout
+  private static final int PROFILER_X = 10;
+  private static final int PROFILER_Y = 80;
+  private static final int PROFILER_PADDING = 6;
+  private static final int PROFILER_LABEL_WIDTH = 80;
+  private static final int PROFILER_COLUMN_WIDTH = 60;
+  private static final int PROFILER_WIDTH =
+      PROFILER_LABEL_WIDTH + PROFILER_COLUMN_WIDTH * FrameProfiler.STAT_COUNT + PROFILER_PADDING;
+  private static final int PROFILER_REFRESH_FRAMES = 30;
+  private static final String PROFILER_UNIT = "us";
+  private static final String[] PROFILER_HEADERS = {"p50", "p95", "p99", "max"};
+  private static final FrameProfiler.Phase[] PROFILER_PHASES = FrameProfiler.Phase.values();
+  private static final AlphaComposite PROFILER_BACKGROUND =
+      AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f);
+
+  /** Stage labels, built once per level. */
+  private final String[] levelLabels = new String[GameState.FINITE_LEVEL + 1];
 
   private final DrawManager drawManager;
 
+  /** Last computed profiler values per phase, refreshed every few frames. */
+  private final long[][] profilerStats =
+      new long[PROFILER_PHASES.length][FrameProfiler.STAT_COUNT];
+
+  private int profilerFrames;
+
+  /** Darkens the game behind the pause menu. */
+  private static final Color PAUSE_DIM = new Color(0, 0, 0, 200);
+
+  /** Cached in-game HUD strip. */
+  private final HudLayer hudLayer = new HudLayer();
+
+  /** Icon drawn once per remaining life. */
+  private final Entity heart = new Entity(0, 0, 11 * 2, 10 * 2, Color.RED);
+
+  /** Icon drawn next to the remaining enemy count. */
+  private final Entity enemyIcon = new Entity(0, 0, 12 * 2, 8 * 2, Color.GREEN);
+
   HudDrawer(final DrawManager drawManager) {
     this.drawManager = drawManager;
+    heart.setSpriteType(DrawManager.SpriteType.Heart);
+    enemyIcon.setSpriteType(DrawManager.SpriteType.EnemyShipB2);
   }
 
   // --- helpers to access DrawManager state ---
@@ -48,14 +92,44 @@ public final class HudDrawer { // NOPMD
     return drawManager.getFontBigMetrics();
   }
 
+  private TextCache textRegular() {
+    return drawManager.getTextRegular();
+  }
+
   // ================= HUD / INFO =================
 
+  /**
+   * Draws the whole in-game HUD above the separator line. The strip is rendered into a cached
+   * layer that is only redrawn when the game state, the coins or the enemy count change.
+   *
+   * @param screen Screen to draw on.
+   * @param frame Captured HUD values.
+   * @param separatorY Upper row of the separator line.
+   */
+  public void drawHud(final Screen screen, final FrameSnapshot frame, final int separatorY) {
+    final int layerHeight = separatorY + 2;
+    if (!hudLayer.isCurrent(frame, screen.getWidth(), layerHeight)) {
+      final Graphics2D layer = hudLayer.beginRedraw(frame, screen.getWidth(), layerHeight);
+      final Graphics previous = drawManager.beginLayer(layer);
+      try {
+        drawScore(screen, frame.getScore());
+        drawLives(frame.getLives(), frame.isCoop());
+        drawCoins(screen, frame.getCoins());
+        drawLevel(screen, frame.getLevel());
+        drawHorizontalLine(screen, separatorY);
+        drawShipCount(screen, frame.getShipCount());
+      } finally {
+        drawManager.endLayer(previous);
+      }
+    }
+    hudLayer.composite(g2d());
+  }
+
   /** Draws current score on screen. */
   public void drawScore(final Screen screen, final int score) {
     g2d().setFont(fontRegular());
     g2d().setColor(Color.WHITE);
-    final String scoreString = String.format(FOUR_DIGIT_FORMAT, score);
-    g2d().drawString(scoreString, screen.getWidth() - 60, 25);
+    textRegular().drawNumber(g2d(), score, COUNTER_DIGITS, screen.getWidth() - 60, 25);
   }
 
   /** Draws number of remaining lives on screen. */
@@ -63,11 +137,8 @@ public final class HudDrawer { // NOPMD
     g2d().setFont(fontRegular());
     g2d().setColor(Color.WHITE);
 
-    final Entity heart = new Entity(0, 0, 11 * 2, 10 * 2, Color.RED);
-    heart.setSpriteType(DrawManager.SpriteType.Heart);
-
     if (isCoop) {
-      g2d().drawString(Integer.toString(lives), 20, 25);
+      textRegular().drawNumber(g2d(), lives, 1, 20, 25);
       for (int i = 0; i < lives; i++) {
         if (i < 3) {
           drawManager.drawEntity(heart, 40 + 35 * i, 9);
@@ -76,7 +147,7 @@ public final class HudDrawer { // NOPMD
         }
       }
     } else {
-      g2d().drawString(Integer.toString(lives), 20, 40);
+      textRegular().drawNumber(g2d(), lives, 1, 20, 40);
       for (int i = 0; i < lives; i++) {
         drawManager.drawEntity(heart, 40 + 35 * i, 23);
       }
@@ -87,9 +158,8 @@ public final class HudDrawer { // NOPMD
   public void drawCoins(final Screen screen, final int coins) {
     g2d().setFont(fontRegular());
     g2d().setColor(Color.YELLOW);
-    final String coinString = String.format(FOUR_DIGIT_FORMAT, coins);
-    g2d().drawString(coinString, screen.getWidth() - 60, 52);
-    g2d().drawString("COIN : ", screen.getWidth() - 115, 52);
+    textRegular().drawNumber(g2d(), coins, COUNTER_DIGITS, screen.getWidth() - 60, 52);
+    textRegular().draw(g2d(), fmRegular(), COIN_LABEL, screen.getWidth() - 115, 52);
   }
 
   /** In ship selection screen, show coin info on top-right. */
@@ -97,14 +167,14 @@ public final class HudDrawer { // NOPMD
     g2d().setFont(fontRegular());
     g2d().setColor(Color.YELLOW);
 
-    final String text = "COIN : " + String.format(FOUR_DIGIT_FORMAT, coins);
-
     final int padding = 10;
-    final int textWidth = fmRegular().stringWidth(text);
+    final int labelWidth = textRegular().width(fmRegular(), COIN_LABEL);
+    final int textWidth = labelWidth + textRegular().numberWidth(coins, COUNTER_DIGITS);
     final int x = screen.getWidth() - padding - textWidth;
     final int y = padding + fmRegular().getAscent();
 
-    g2d().drawString(text, x, y);
+    textRegular().draw(g2d(), fmRegular(), COIN_LABEL, x, y);
+    textRegular().drawNumber(g2d(), coins, COUNTER_DIGITS, x + labelWidth, y);
   }
 
   /** Draws a thick line from side to side of the screen. */
@@ -117,23 +187,43 @@ public final class HudDrawer { // NOPMD
   /** Draws current level text. */
   public void drawLevel(final Screen screen, final int level) {
     g2d().setColor(Color.WHITE);
-    final String levelString = level > GameState.FINITE_LEVEL ? "Infinity Stage" : "Stage " + level;
+    final String levelString = levelLabel(level);
     final FontMetrics fontMetrics = fmRegular();
-    g2d()
-        .drawString(
-            levelString, screen.getWidth() / 2 - fontMetrics.stringWidth(levelString) / 2, 25);
+    textRegular()
+        .draw(
+            g2d(),
+            fontMetrics,
+            levelString,
+            screen.getWidth() / 2 - textRegular().width(fontMetrics, levelString) / 2,
+            25);
   }
 
   /** Draws remaining enemy ship count. */
   public void drawShipCount(final Screen screen, final int shipCount) {
     g2d().setColor(Color.GREEN);
-    final Entity enemyIcon = new Entity(0, 0, 12 * 2, 8 * 2, Color.GREEN);
-    enemyIcon.setSpriteType(DrawManager.SpriteType.EnemyShipB2);
     final int iconX = screen.getWidth() - 252;
     final int iconY = 37;
     drawManager.drawEntity(enemyIcon, iconX, iconY);
-    final String shipString = ": " + shipCount;
-    g2d().drawString(shipString, iconX + 30, 52);
+    final int numberX =
+        iconX + 30 + textRegular().width(fmRegular(), SHIP_COUNT_LABEL); // NOPMD - LOD
+    textRegular().draw(g2d(), fmRegular(), SHIP_COUNT_LABEL, iconX + 30, 52);
+    textRegular().drawNumber(g2d(), shipCount, 1, numberX, 52);
+  }
+
+  /** Returns the label of a level, building it only the first time it is shown. */
+  private String levelLabel(final int level) {
+    if (level > GameState.FINITE_LEVEL) {
+      return INFINITY_STAGE;
+    }
+    if (level < 0) {
+      return "Stage " + level;
+    }
+    String label = levelLabels[level];
+    if (label == null) {
+      label = "Stage " + level;
+      levelLabels[level] = label;
+    }
+    return label;
   }
 
   // ================= RESULTS / NAME INPUT =================
@@ -227,7 +317,7 @@ public final class HudDrawer { // NOPMD
   }
 
   public void drawPauseOverlay(final Screen screen) {
-    g2d().setColor(new Color(0, 0, 0, 200));
+    g2d().setColor(PAUSE_DIM);
     g2d().fillRect(0, 0, screen.getWidth(), screen.getHeight());
 
     final String pauseString = "PAUSED";
@@ -290,13 +380,25 @@ public final class HudDrawer { // NOPMD
 
   // ================= ACHIEVEMENT TOASTS =================
 
-  @SuppressWarnings("PMD.LawOfDemeter")
-  public void drawAchievementToasts(final Screen screen, final List<Achievement> toasts) { // NOPMD
+  public void drawAchievementToasts(final Screen screen, final List<Achievement> toasts) {
     if (toasts == null || toasts.isEmpty()) {
       return;
     }
+    drawAchievementToast(screen, toasts.getLast());
+  }
+
+  /**
+   * Draws the toast of a single achievement.
+   *
+   * @param screen Screen to draw on.
+   * @param achievement Achievement to show, nothing is drawn when null.
+   */
+  @SuppressWarnings("PMD.LawOfDemeter")
+  public void drawAchievementToast(final Screen screen, final Achievement achievement) { // NOPMD
+    if (achievement == null) {
+      return;
+    }
 
-    final Achievement achievement = toasts.getLast();
     final Graphics2D g2d = (Graphics2D) g2d().create();
 
     try {
@@ -379,4 +481,66 @@ public final class HudDrawer { // NOPMD
       g2d.dispose();
     }
   }
+
+  // ================= PROFILER =================
+
+  /**
+   * Draws the frame profiler overlay: p50, p95, p99 and max of every phase in microseconds. The
+   * percentiles are recomputed every {@link #PROFILER_REFRESH_FRAMES} frames so sorting the rings
+   * does not show up in the numbers it reports.
+   *
+   * @param profiler Profiler to read.
+   */
+  public void drawProfiler(final FrameProfiler profiler) {
+    if (profilerFrames++ % PROFILER_REFRESH_FRAMES == 0) {
+      for (final FrameProfiler.Phase phase : PROFILER_PHASES) {
+        profiler.summarize(phase, profilerStats[phase.ordinal()]);
+      }
+    }
+
+    final Graphics2D g2d = g2d();
+    final FontMetrics metrics = fmRegular();
+    final TextCache text = textRegular();
+    final int lineHeight = metrics.getHeight();
+    final int boxHeight = lineHeight * (PROFILER_PHASES.length + 1) + PROFILER_PADDING * 2;
+
+    g2d.setComposite(PROFILER_BACKGROUND);
+    g2d.setColor(Color.BLACK);
+    g2d.fillRect(PROFILER_X, PROFILER_Y, PROFILER_WIDTH, boxHeight);
+    g2d.setComposite(AlphaComposite.SrcOver);
+    g2d.setFont(fontRegular());
+
+    int baseline = PROFILER_Y + PROFILER_PADDING + metrics.getAscent();
+    g2d.setColor(Color.GREEN);
+    text.draw(g2d, metrics, PROFILER_UNIT, PROFILER_X + PROFILER_PADDING, baseline);
+    for (int column = 0; column < FrameProfiler.STAT_COUNT; column++) {
+      final String header = PROFILER_HEADERS[column];
+      text.draw(
+          g2d,
+          metrics,
+          header,
+          profilerColumnRight(column) - text.width(metrics, header),
+          baseline);
+    }
+
+    for (final FrameProfiler.Phase phase : PROFILER_PHASES) {
+      baseline += lineHeight;
+      final long[] stats = profilerStats[phase.ordinal()];
+      g2d.setColor(Color.WHITE);
+      text.draw(g2d, metrics, phase.getLabel(), PROFILER_X + PROFILER_PADDING, baseline);
+      for (int column = 0; column < FrameProfiler.STAT_COUNT; column++) {
+        final int micros = (int) Math.min(stats[column] / 1000, Integer.MAX_VALUE);
+        text.drawNumber(
+            g2d,
+            micros,
+            1,
+            profilerColumnRight(column) - text.numberWidth(micros, 1),
+            baseline);
+      }
+    }
+  }
+
+  private static int profilerColumnRight(final int column) {
+    return PROFILER_X + PROFILER_LABEL_WIDTH + (column + 1) * PROFILER_COLUMN_WIDTH;
+  }
 }
@@ -0,0 +1,94 @@
+package engine;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Offscreen copy of the in-game HUD strip. The strip is only redrawn when the values it shows have
+ * changed, which is detected through the version counters of {@link GameState} and {@link
+ * CoinManager}; every other frame costs a single image blit.
+ */
+final class HudLayer {
+
+  /** Cached HUD pixels, transparent where nothing is drawn. */
+  private BufferedImage image;
+
+  /** Graphics of the cached image, kept for the lifetime of the image. */
+  private Graphics2D graphics;
+
+  /** State the cached image was drawn from, only compared by identity. */
+  private Object drawnState;
+
+  /** State version the cached image was drawn from. */
+  private int drawnStateVersion;
+
+  /** Coin version the cached image was drawn from. */
+  private int drawnCoinVersion;
+
+  /** Enemy count the cached image was drawn from. */
+  private int drawnShipCount;
+
+  /** Whether the cached image holds a drawn HUD at all. */
+  private boolean valid;
+
+  /**
+   * Checks whether the cached image still shows the given values.
+   *
+   * @param frame Captured HUD values.
+   * @param width Width of the strip.
+   * @param height Height of the strip.
+   * @return True if the cached image can be blitted as is.
+   */
+  boolean isCurrent(final FrameSnapshot frame, final int width, final int height) {
+    return valid
+        && image.getWidth() == width
+        && image.getHeight() == height
+        && drawnState == frame.getHudOwner()
+        && drawnStateVersion == frame.getHudVersion()
+        && drawnCoinVersion == frame.getCoinVersion()
+        && drawnShipCount == frame.getShipCount();
+  }
+
+  /**
+   * Clears the cached image and returns a graphics to redraw it with. The given values are recorded
+   * as the ones the new image shows.
+   *
+   * @param frame Captured HUD values.
+   * @param width Width of the strip.
+   * @param height Height of the strip.
+   * @return Graphics drawing onto the cached image.
+   */
+  Graphics2D beginRedraw(final FrameSnapshot frame, final int width, final int height) {
+    if (image == null || image.getWidth() != width || image.getHeight() != height) {
+      if (graphics != null) {
+        graphics.dispose();
+      }
+      image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      graphics = image.createGraphics();
+      graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+    graphics.setComposite(AlphaComposite.Clear);
+    graphics.fillRect(0, 0, width, height);
+    graphics.setComposite(AlphaComposite.SrcOver);
+
+    drawnState = frame.getHudOwner();
+    drawnStateVersion = frame.getHudVersion();
+    drawnCoinVersion = frame.getCoinVersion();
+    drawnShipCount = frame.getShipCount();
+    valid = true;
+    return graphics;
+  }
+
+  /**
+   * Draws the cached image at the top left corner of the target.
+   *
+   * @param target Graphics to composite the HUD onto.
+   */
+  void composite(final Graphics2D target) {
+    if (valid) {
+      target.drawImage(image, 0, 0, null);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer single-consumer ring of timestamped input events. The AWT event thread
+ * offers key and mouse events as they arrive and the game loop drains them at the start of each
+ * tick, so no event is lost between two frames and everything written before an event is published
+ * is visible to the loop.
+ *
+ * <p>Events are stored in parallel primitive arrays, offering and draining never allocate. When the
+ * loop stops draining for long enough to fill the ring, newer events are dropped and counted, see
+ * {@link #getDroppedCount()}.
+ */
+public final class InputEventQueue {
+
+  /** A key went down, the code is the key code. Repeats while the key is held. */
+  public static final int KEY_PRESSED = 0;
+
+  /** A key went up, the code is the key code. */
+  public static final int KEY_RELEASED = 1;
+
+  /** A character was typed, the code is the character. */
+  public static final int KEY_TYPED = 2;
+
+  /** A mouse button went down at x, y. */
+  public static final int MOUSE_PRESSED = 3;
+
+  /** A mouse button went up at x, y. */
+  public static final int MOUSE_RELEASED = 4;
+
+  /** The mouse moved or was dragged to x, y. */
+  public static final int MOUSE_MOVED = 5;
+
+  /** Receives drained events, in the order they were offered. */
+  @FunctionalInterface
+  public interface Sink {
+    /**
+     * Handles one event.
+     *
+     * @param type One of the event type constants.
+     * @param code Key code or character, 0 for mouse events.
+     * @param x Mouse x coordinate, 0 for key events.
+     * @param y Mouse y coordinate, 0 for key events.
+     * @param when Time stamp of the AWT event, in epoch milliseconds.
+     * @param nanos {@link System#nanoTime()} at which the event was offered.
+     */
+    void accept(int type, int code, int x, int y, long when, long nanos);
+  }
+
+  private final int mask;
+
+  private final int[] types;
+  private final int[] codes;
+  private final int[] xs;
+  private final int[] ys;
+  private final long[] whens;
+  private final long[] times;
+
+  /** Next sequence the consumer reads, published with release semantics. */
+  private final AtomicLong head = new AtomicLong();
+
+  /** Next sequence the producer writes, published with release semantics. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** Events rejected because the ring was full. */
+  private final AtomicLong dropped = new AtomicLong();
+
+  /**
+   * Creates an empty queue.
+   *
+   * @param capacity Number of events the ring holds, a power of two.
+   */
+  public InputEventQueue(final int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.types = new int[capacity];
+    this.codes = new int[capacity];
+    this.xs = new int[capacity];
+    this.ys = new int[capacity];
+    this.whens = new long[capacity];
+    this.times = new long[capacity];
+  }
+
+  /**
+   * Appends an event. Only the producer thread may call this.
+   *
+   * @param type One of the event type constants.
+   * @param code Key code or character.
+   * @param x Mouse x coordinate.
+   * @param y Mouse y coordinate.
+   * @param when Time stamp of the AWT event, in epoch milliseconds.
+   * @param nanos Arrival time from {@link System#nanoTime()}.
+   * @return False when the ring was full and the event was dropped.
+   */
+  public boolean offer(
+      final int type, final int code, final int x, final int y, final long when, final long nanos) {
+    final long sequence = tail.get();
+    if (sequence - head.get() > mask) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    final int index = (int) sequence & mask;
+    types[index] = type;
+    codes[index] = code;
+    xs[index] = x;
+    ys[index] = y;
+    whens[index] = when;
+    times[index] = nanos;
+    tail.lazySet(sequence + 1);
+    return true;
+  }
+
+  /**
+   * Hands every pending event to a sink and frees their slots. Only the consumer thread may call
+   * this. Events offered while draining are left for the next call.
+   *
+   * @param sink Receiver of the events.
+   * @return Number of events drained.
+   */
+  public int drain(final Sink sink) {
+    final long first = head.get();
+    final long last = tail.get();
+    for (long sequence = first; sequence < last; sequence++) {
+      final int index = (int) sequence & mask;
+      sink.accept(types[index], codes[index], xs[index], ys[index], whens[index], times[index]);
+    }
+    head.lazySet(last);
+    return (int) (last - first);
+  }
+
+  /**
+   * Returns the number of events waiting to be drained.
+   *
+   * @return Pending events.
+   */
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  /**
+   * Returns how many events were dropped because the ring was full.
+   *
+   * @return Total dropped events since creation.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+}
@@ -15,6 +15,7 @@ public class InputHandler { // NOPMD
 
   private final InputManager inputManager;
   private final Cooldown menuCooldown;
+  private final InputLatency latency = GameContext.current().getLatency();
 
   public InputHandler(final InputManager inputManager) {
     this.inputManager = inputManager;
@@ -57,9 +58,11 @@ public class InputHandler { // NOPMD
 
     if (moveRight && !isRightBorder) {
       ship.moveRight();
+      tagAction(InputLatency.Action.MOVE, playerIndex, 1);
     }
     if (moveLeft && !isLeftBorder) {
       ship.moveLeft();
+      tagAction(InputLatency.Action.MOVE, playerIndex, 0);
     }
   }
 
@@ -71,9 +74,21 @@ public class InputHandler { // NOPMD
     if (fire && ship.shoot(bullets)) {
       SoundManager.ingameeffect("sound/shoot.wav");
       state.incBulletsShot(playerIndex);
+      tagAction(InputLatency.Action.SHOT, playerIndex, 2);
     }
   }
 
+  /** Hands the press behind an action to the latency probe, which keeps the first one only. */
+  private void tagAction(final InputLatency.Action action, final int playerIndex, final int slot) {
+    final int keyCode = inputManager.getPlayerKey(playerIndex, slot);
+    latency.tag(
+        action,
+        playerIndex,
+        slot,
+        inputManager.getPressNanos(keyCode),
+        inputManager.getPressWhen(keyCode));
+  }
+
   public void handlePauseInput(
       final PauseMenuHandler handler, final DrawManager drawManager, final GameScreen screen) {
     handlePauseKeyboard(handler);
@@ -0,0 +1,290 @@
+package engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Input-to-photon latency probe. The first ship move or shot caused by a key press is tagged with
+ * the press time stamps, the tag travels with the captured {@link FrameSnapshot} and the latency is
+ * taken right after {@link DrawManager#completeDrawing()} showed that frame. Tags are only cleared
+ * once their frame was shown, a frame the renderer skipped passes them on to the next capture into
+ * the same snapshot, so a tag is always resolved by the first frame that reaches the screen.
+ *
+ * <p>Two latencies are kept per action in 1 ms buckets: from the arrival of the event on the AWT
+ * thread ({@link System#nanoTime()}, precise) and from the AWT time stamp of the event ({@link
+ * java.awt.event.InputEvent#getWhen()}, millisecond resolution but includes the time the event
+ * spent in the OS and the AWT queue).
+ *
+ * <p>Tagging runs on the game loop and recording on whichever thread draws. The histograms cover
+ * the whole session and are exported with {@code -Dinvaders.latency} (or {@code
+ * -Dinvaders.latency=<file>}) when the game exits.
+ */
+public final class InputLatency {
+
+  /** Player actions whose latency is measured. */
+  public enum Action {
+    /** Ship moved left or right. */
+    MOVE("move"),
+    /** Ship fired a bullet. */
+    SHOT("shot");
+
+    private final String label;
+
+    Action(final String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  /** Histogram buckets of 1 ms, the last one also counts everything slower. */
+  static final int BUCKETS = 250;
+
+  /** Key slots per player: left, right and shoot. */
+  private static final int KEY_SLOTS = 3;
+
+  /** Actions tagged in one tick, one per player key. */
+  private static final int PENDING_CAPACITY = GameState.NUM_PLAYERS * KEY_SLOTS;
+
+  private static final Action[] ACTIONS = Action.values();
+
+  /** Recording file used when {@code -Dinvaders.latency} has no value. */
+  private static final String DEFAULT_EXPORT = "latency.csv";
+
+  private static final String HEADER_FORMAT = "%-5s %7s %5s %5s %5s %5s";
+  private static final String ROW_FORMAT = "%-5s %7d %5d %5d %5d %5d";
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private static final InputLatency INSTANCE = new InputLatency();
+
+  // Game loop side
+  /** Arrival time of the last press tagged per player key, to tag each press only once. */
+  private final long[] taggedPress = new long[PENDING_CAPACITY];
+
+  private int pendingCount;
+  private final int[] pendingActions = new int[PENDING_CAPACITY];
+  private final long[] pendingNanos = new long[PENDING_CAPACITY];
+  private final long[] pendingWhen = new long[PENDING_CAPACITY];
+
+  // Drawing side
+  /** Counts per action and bucket, measured from the arrival on the AWT thread. */
+  private final long[][] arrival = new long[ACTIONS.length][BUCKETS];
+
+  /** Counts per action and bucket, measured from the AWT time stamp. */
+  private final long[][] event = new long[ACTIONS.length][BUCKETS];
+
+  InputLatency() {}
+
+  /**
+   * Returns the probe of the session.
+   *
+   * @return Shared input latency probe.
+   */
+  public static InputLatency getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Tags an action caused by a player key. Only the first action after each press is tagged, the
+   * ones that follow while the key is held are not a response to new input.
+   *
+   * @param action Action that happened this tick.
+   * @param playerIndex Player whose key caused it.
+   * @param slot Key slot of the player, 0 for left, 1 for right, 2 for shoot.
+   * @param pressNanos Arrival time of the press, see {@link InputManager#getPressNanos(int)}.
+   * @param pressWhen AWT time stamp of the press, see {@link InputManager#getPressWhen(int)}.
+   */
+  public void tag(
+      final Action action,
+      final int playerIndex,
+      final int slot,
+      final long pressNanos,
+      final long pressWhen) {
+    final int key = playerIndex * KEY_SLOTS + slot;
+    if (pressNanos == 0L || taggedPress[key] == pressNanos || pendingCount == PENDING_CAPACITY) {
+      return;
+    }
+    taggedPress[key] = pressNanos;
+    pendingActions[pendingCount] = action.ordinal();
+    pendingNanos[pendingCount] = pressNanos;
+    pendingWhen[pendingCount] = pressWhen;
+    pendingCount++;
+  }
+
+  /**
+   * Moves the tags of this tick into the frame that shows their result.
+   *
+   * @param frame Frame captured at the end of the tick.
+   */
+  public void attach(final FrameSnapshot frame) {
+    for (int i = 0; i < pendingCount; i++) {
+      frame.addInputTag(pendingActions[i], pendingNanos[i], pendingWhen[i]);
+    }
+    pendingCount = 0;
+  }
+
+  /**
+   * Records the latency of every tag of a frame that was just shown.
+   *
+   * @param frame Frame whose drawing was completed.
+   */
+  public synchronized void recordShown(final FrameSnapshot frame) {
+    final int tags = frame.getInputTagCount();
+    if (tags == 0) {
+      return;
+    }
+    final long nowNanos = System.nanoTime();
+    final long nowMillis = System.currentTimeMillis();
+    for (int i = 0; i < tags; i++) {
+      final int action = frame.getInputTagAction(i);
+      arrival[action][bucket((nowNanos - frame.getInputTagNanos(i)) / 1_000_000L)]++;
+      event[action][bucket(nowMillis - frame.getInputTagWhen(i))]++;
+    }
+    frame.clearInputTags();
+  }
+
+  private static int bucket(final long millis) {
+    return (int) Math.max(0L, Math.min(BUCKETS - 1L, millis));
+  }
+
+  /**
+   * Returns how many inputs of an action were measured.
+   *
+   * @param action Measured action.
+   * @return Number of samples.
+   */
+  public synchronized long getCount(final Action action) {
+    return sum(arrival[action.ordinal()]);
+  }
+
+  /**
+   * Returns a percentile of the latency from event arrival.
+   *
+   * @param action Measured action.
+   * @param percent Percentile, 1 to 100.
+   * @return Upper bound of the bucket holding the percentile in milliseconds, 0 without samples.
+   */
+  public synchronized int percentile(final Action action, final int percent) {
+    return percentile(arrival[action.ordinal()], percent);
+  }
+
+  private int percentile(final long[] histogram, final int percent) {
+    final long count = sum(histogram);
+    if (count == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1L, (count * percent + 99) / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += histogram[i];
+      if (seen >= rank) {
+        return i + 1;
+      }
+    }
+    return BUCKETS;
+  }
+
+  private static long sum(final long[] histogram) {
+    long count = 0;
+    for (final long bucketCount : histogram) {
+      count += bucketCount;
+    }
+    return count;
+  }
+
+  /**
+   * Writes the histograms as CSV, one row per millisecond bucket that has samples.
+   *
+   * @param out Destination, not closed.
+   * @throws IOException When writing fails.
+   */
+  public synchronized void writeCsv(final Writer out) throws IOException {
+    out.write("millis");
+    for (final Action action : ACTIONS) {
+      out.write("," + action.getLabel() + "_arrival," + action.getLabel() + "_event");
+    }
+    out.write(System.lineSeparator());
+    for (int i = 0; i < BUCKETS; i++) {
+      if (!hasSamples(i)) {
+        continue;
+      }
+      final StringBuilder row = new StringBuilder(32).append(i);
+      for (int a = 0; a < ACTIONS.length; a++) {
+        row.append(',').append(arrival[a][i]).append(',').append(event[a][i]);
+      }
+      out.write(row.append(System.lineSeparator()).toString());
+    }
+  }
+
+  private boolean hasSamples(final int bucket) {
+    for (int a = 0; a < ACTIONS.length; a++) {
+      if (arrival[a][bucket] != 0 || event[a][bucket] != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Logs the percentiles of the session and exports the histograms when {@code
+   * -Dinvaders.latency} is set. Called once when the game exits.
+   */
+  public void endSession() {
+    logSummary();
+    final String property = System.getProperty("invaders.latency");
+    if (property == null) {
+      return;
+    }
+    final Path destination = Paths.get(property.isBlank() ? DEFAULT_EXPORT : property);
+    try (BufferedWriter writer = Files.newBufferedWriter(destination, StandardCharsets.UTF_8)) {
+      writeCsv(writer);
+      if (LOGGER.isLoggable(Level.INFO)) {
+        LOGGER.info("Input latency histogram written to " + destination.toAbsolutePath());
+      }
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to export input latency: " + e.getMessage());
+      }
+    }
+  }
+
+  private synchronized void logSummary() {
+    if (!LOGGER.isLoggable(Level.INFO)) {
+      return;
+    }
+    final StringBuilder table =
+        new StringBuilder(64 * (ACTIONS.length + 2))
+            .append("Input latency (milliseconds, arrival / event p95)")
+            .append(System.lineSeparator())
+            .append(
+                String.format(
+                    Locale.ROOT, HEADER_FORMAT, "input", "n", "p50", "p95", "p99", "event"));
+    for (final Action action : ACTIONS) {
+      final long[] histogram = arrival[action.ordinal()];
+      table
+          .append(System.lineSeparator())
+          .append(
+              String.format(
+                  Locale.ROOT,
+                  ROW_FORMAT,
+                  action.getLabel(),
+                  sum(histogram),
+                  percentile(histogram, 50),
+                  percentile(histogram, 95),
+                  percentile(histogram, 99),
+                  percentile(event[action.ordinal()], 95)));
+    }
+    LOGGER.info(table.toString());
+  }
+}
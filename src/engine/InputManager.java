@@ -16,6 +16,11 @@ import java.util.logging.Logger;
 /**
  * Manages keyboard input for the provided screen.
  *
+ * <p>Listener callbacks run on the AWT event thread and only enqueue timestamped events into an
+ * {@link InputEventQueue}. The game loop applies them in {@link #pollEvents()} at the start of each
+ * tick, so every query during the tick sees the same snapshot, and a key pressed and released
+ * between two ticks still counts as pressed for one tick.
+ *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
 @SuppressFBWarnings("ST_WRITE_TO_STATIC_FROM_INSTANCE_METHOD")
@@ -26,14 +31,34 @@ public final class InputManager
         MouseMotionListener { // add MouseListener, MouseMotionListener param
 
   /** Number of recognised keys. */
-  private static final int NUM_KEYS = 256;
+  static final int NUM_KEYS = 256;
+
+  /** Bit of {@link #getKeyState(int)} set while the key is held. */
+  static final int KEY_HELD = 1;
+
+  /** Bit of {@link #getKeyState(int)} set in the tick the key went down. */
+  static final int KEY_PRESSED = 2;
+
+  /** Events that can wait for the game loop before newer ones are dropped. */
+  private static final int QUEUE_CAPACITY = 1024;
+
+  /** Input events handed from the AWT event thread to the game loop. */
+  private static final InputEventQueue EVENTS = new InputEventQueue(QUEUE_CAPACITY);
+
+  /** Applies drained events to the tick snapshot. */
+  private static final InputEventQueue.Sink APPLY_EVENT = InputManager::applyEvent;
+
+  // Keys held and keys that went down during the current tick are kept by the GameContext of the
+  // game, so games simulated on other threads read their own players' keys
+
+  /** Arrival time of the press that put each key down, from {@link System#nanoTime()}. */
+  private static final long[] pressNanos = new long[NUM_KEYS];
 
-  /** Array with the keys marked as pressed or not. */
-  private static boolean[] keys;
+  /** AWT time stamp of the press that put each key down, in epoch milliseconds. */
+  private static final long[] pressWhen = new long[NUM_KEYS];
 
-  // add this line
-  /** Check the status of the previous frame key */
-  private static final boolean[] prestatuskeys = new boolean[NUM_KEYS];
+  /** Dropped event count already handled by {@link #pollEvents()}. */
+  private static long handledDrops;
 
   /** Mouse pressed state. */
   private static boolean mousePressed; // NOPMD // add this line
@@ -56,7 +81,7 @@ public final class InputManager
   private static boolean mouseClicked; // NOPMD
 
   /** Declare variables to save and return input keys */
-  private int lastPressedKey = -1;
+  private static int lastPressedKey = -1;
 
   private static final String KEY_CONFIG_FILE = "keyconfig.txt";
 
@@ -81,7 +106,6 @@ public final class InputManager
 
   /** Private constructor. */
   private InputManager() {
-    keys = new boolean[NUM_KEYS]; // NOPMD
     //        prestatuskeys = new boolean[NUM_KEYS];
     lastCharTyped = '\0'; // NOPMD
     charTyped = false; // NOPMD
@@ -120,7 +144,8 @@ public final class InputManager
    * @return Key state.
    */
   public boolean isKeyDown(final int keyCode) {
-    return keys[keyCode];
+    final GameContext context = GameContext.current();
+    return context.isHeld(keyCode) || context.isPressed(keyCode);
   }
 
   // === PLAYER 1 CONTROLS (Existing functionality) ===
@@ -133,13 +158,168 @@ public final class InputManager
    */
   public boolean isKeyPressed(final int keyCode) {
     if (keyCode >= 0 && keyCode < NUM_KEYS) {
-      return keys[keyCode] && !prestatuskeys[keyCode];
+      return GameContext.current().isPressed(keyCode);
     }
     return false;
   }
 
+  /**
+   * Returns when the press that put a key down arrived, to measure input-to-action latency.
+   *
+   * @param keyCode Key number to check.
+   * @return {@link System#nanoTime()} of the press, 0 if the key was never pressed.
+   */
+  public long getPressNanos(final int keyCode) {
+    if (keyCode >= 0 && keyCode < NUM_KEYS) {
+      return pressNanos[keyCode];
+    }
+    return 0L;
+  }
+
+  /**
+   * Returns the AWT time stamp of the press that put a key down, see {@link KeyEvent#getWhen()}.
+   *
+   * @param keyCode Key number to check.
+   * @return Epoch milliseconds of the press, 0 if the key was never pressed.
+   */
+  public long getPressWhen(final int keyCode) {
+    if (keyCode >= 0 && keyCode < NUM_KEYS) {
+      return pressWhen[keyCode];
+    }
+    return 0L;
+  }
+
+  /**
+   * Returns a key binding of a player.
+   *
+   * @param playerIndex 0 for player 1, 1 for player 2.
+   * @param slot 0 for left, 1 for right, 2 for shoot.
+   * @return Bound key code.
+   */
+  int getPlayerKey(final int playerIndex, final int slot) {
+    return playerIndex == 0 ? player1Keys[slot] : player2Keys[slot];
+  }
+
+  /**
+   * Applies every input event that arrived since the last call. Called by the game loop at the
+   * start of each tick, before any input is queried.
+   *
+   * @return Number of events applied.
+   */
+  public static int pollEvents() {
+    final long drops = EVENTS.getDroppedCount();
+    if (drops != handledDrops) {
+      // 큐가 가득 차서 버려진 release 이벤트가 있을 수 있으므로 눌린 키를 모두 해제
+      handledDrops = drops;
+      GameContext.current().releaseKeys();
+      mousePressed = false;
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Input queue overflowed, released all keys");
+      }
+    }
+    return EVENTS.drain(APPLY_EVENT);
+  }
+
+  /**
+   * Returns the state of a key in the current tick, for recording the input of a level.
+   *
+   * @param keyCode Key number to check.
+   * @return {@link #KEY_HELD} and {@link #KEY_PRESSED} bits.
+   */
+  static int getKeyState(final int keyCode) {
+    final GameContext context = GameContext.current();
+    return (context.isHeld(keyCode) ? KEY_HELD : 0)
+        | (context.isPressed(keyCode) ? KEY_PRESSED : 0);
+  }
+
+  /**
+   * Overrides the state of a key for the current tick, for replaying recorded input.
+   *
+   * @param keyCode Key number to change.
+   * @param state {@link #KEY_HELD} and {@link #KEY_PRESSED} bits.
+   */
+  static void setKeyState(final int keyCode, final int state) {
+    GameContext.current()
+        .setKey(keyCode, (state & KEY_HELD) != 0, (state & KEY_PRESSED) != 0);
+  }
+
+  /**
+   * Returns whether a click is waiting, without consuming it like {@link #isMouseClicked()}.
+   *
+   * @return Click flag.
+   */
+  static boolean peekMouseClicked() {
+    return mouseClicked;
+  }
+
+  /**
+   * Overrides the mouse state, for replaying recorded input.
+   *
+   * @param x Mouse x coordinate.
+   * @param y Mouse y coordinate.
+   * @param pressed Whether a button is held.
+   * @param clicked Whether a click is waiting.
+   */
+  static void setMouseState(
+      final int x, final int y, final boolean pressed, final boolean clicked) {
+    mouseX = x;
+    mouseY = y;
+    mousePressed = pressed;
+    mouseClicked = clicked;
+  }
+
+  /** Ends the tick, keys pressed during it are no longer reported as pressed. */
   public static void updatekeystatus() {
-    System.arraycopy(keys, 0, prestatuskeys, 0, NUM_KEYS);
+    GameContext.current().clearPressedKeys();
+  }
+
+  private static void applyEvent(
+      final int type,
+      final int code,
+      final int x,
+      final int y,
+      final long when,
+      final long nanos) {
+    final GameContext context = GameContext.current();
+    switch (type) {
+      case InputEventQueue.KEY_PRESSED:
+        if (!context.isHeld(code)) {
+          pressNanos[code] = nanos;
+          pressWhen[code] = when;
+          context.setKey(code, true, true);
+        } else {
+          context.setKey(code, true, context.isPressed(code));
+        }
+        lastPressedKey = code;
+        break;
+      case InputEventQueue.KEY_RELEASED:
+        context.setKey(code, false, context.isPressed(code));
+        break;
+      case InputEventQueue.KEY_TYPED:
+        lastCharTyped = (char) code;
+        charTyped = true;
+        break;
+      case InputEventQueue.MOUSE_PRESSED:
+        mousePressed = true;
+        mouseX = x;
+        mouseY = y;
+        break;
+      case InputEventQueue.MOUSE_RELEASED:
+        mousePressed = false;
+        mouseX = x;
+        mouseY = y;
+        mouseClicked = true;
+        break;
+      default:
+        mouseX = x;
+        mouseY = y;
+        break;
+    }
+  }
+
+  private static void offer(
+      final int type, final int code, final int x, final int y, final long when) {
+    EVENTS.offer(type, code, x, y, when, System.nanoTime());
   }
 
   public boolean isP1LeftPressed() {
@@ -196,39 +376,37 @@ public final class InputManager
   }
 
   /**
-   * Changes the state of the key to pressed.
+   * Queues the key press for the next tick.
    *
    * @param key Key pressed.
    */
   @Override
   public void keyPressed(final KeyEvent key) {
     if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS) {
-      keys[key.getKeyCode()] = true;
-      lastPressedKey = key.getKeyCode();
+      offer(InputEventQueue.KEY_PRESSED, key.getKeyCode(), 0, 0, key.getWhen());
     }
   }
 
   /**
-   * Changes the state of the key to not pressed.
+   * Queues the key release for the next tick.
    *
    * @param key Key released.
    */
   @Override
   public void keyReleased(final KeyEvent key) {
     if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS) {
-      keys[key.getKeyCode()] = false;
+      offer(InputEventQueue.KEY_RELEASED, key.getKeyCode(), 0, 0, key.getWhen());
     }
   }
 
   /**
-   * Does nothing.
+   * Queues the typed character for the next tick.
    *
    * @param key Key typed.
    */
   @Override
   public void keyTyped(final KeyEvent key) {
-    lastCharTyped = key.getKeyChar();
-    charTyped = true;
+    offer(InputEventQueue.KEY_TYPED, key.getKeyChar(), 0, 0, key.getWhen());
   }
 
   // Save and return the last pressed key
@@ -350,17 +528,12 @@ public final class InputManager
 
   @Override
   public void mousePressed(final MouseEvent e) { // add this function
-    mousePressed = true;
-    mouseX = e.getX();
-    mouseY = e.getY();
+    offer(InputEventQueue.MOUSE_PRESSED, 0, e.getX(), e.getY(), e.getWhen());
   }
 
   @Override
   public void mouseReleased(final MouseEvent e) { // add this function
-    mousePressed = false;
-    mouseX = e.getX();
-    mouseY = e.getY();
-    mouseClicked = true;
+    offer(InputEventQueue.MOUSE_RELEASED, 0, e.getX(), e.getY(), e.getWhen());
   }
 
   @Override
@@ -371,17 +544,15 @@ public final class InputManager
   public void mouseExited(final MouseEvent e) { // add this function
   }
 
-  /** Added mouse move/drag event to update mouse position right now */
+  /** Added mouse move/drag event to update mouse position on the next tick */
   @Override
   public void mouseMoved(final MouseEvent e) {
-    mouseX = e.getX();
-    mouseY = e.getY();
+    offer(InputEventQueue.MOUSE_MOVED, 0, e.getX(), e.getY(), e.getWhen());
   }
 
   @Override
   public void mouseDragged(final MouseEvent e) {
-    mouseX = e.getX();
-    mouseY = e.getY();
+    offer(InputEventQueue.MOUSE_MOVED, 0, e.getX(), e.getY(), e.getWhen());
   }
 
   public boolean isMousePressed() {
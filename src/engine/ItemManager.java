@@ -1,6 +1,6 @@
 package engine;
 
-import java.util.Random;
+import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -9,22 +9,20 @@ import entity.Item;
 import entity.ItemPool;
 
 /**
- * Responsible for item drop decisions and applying item effects. Implemented as a singleton for
- * easy access.
+ * Responsible for item drop decisions and applying item effects. One per {@link GameContext}, so
+ * the drop luck of one game does not carry over into another played at the same time.
  */
 public final class ItemManager {
 
-  private static final ItemManager instance = new ItemManager();
-
   /** Debug logger init */
   private static final Logger LOGGER = Core.getLogger();
 
-  /** Random Roll for item */
-  private final Random itemRoll = new Random();
-
   /** Counter for pity system, increases when no item is dropped. */
   private int pityCounter;
 
+  /** Drop rolls of this game by the tier they landed on, NONE for kills that dropped nothing. */
+  private final long[] drops = new long[DropTier.values().length];
+
   /* Item database loaded from CSV. */
   private final ItemDB itemDB = new ItemDB();
 
@@ -60,12 +58,12 @@ public final class ItemManager {
     ITEM_WEIGHT = sum;
   }
 
-  private ItemManager() {
-    // singleton
+  ItemManager() {
+    // one per game, see GameContext
   }
 
   public static ItemManager getInstance() {
-    return instance;
+    return GameContext.current().getItemManager();
   }
 
   /* -------------------------- MAIN -------------------------- * */
@@ -82,6 +80,7 @@ public final class ItemManager {
     }
 
     final DropTier chosenTier = rollDropTier();
+    drops[chosenTier.ordinal()]++;
     if (chosenTier == DropTier.NONE) {
       handlePityOnNoDrop();
       return null;
@@ -101,10 +100,9 @@ public final class ItemManager {
     final double pityBoost = Math.min(pityCounter * 0.05, 0.5);
     final double boostedNoneWeight = DropTier.NONE.tierWeight * (1.0 - pityBoost);
 
-    final double dropRoll = itemRoll.nextDouble() * (ITEM_WEIGHT + boostedNoneWeight);
-    if (LOGGER.isLoggable(Level.INFO)) {
-      LOGGER.info(String.format("[ItemManager]: DropRoll %.1f", dropRoll));
-    }
+    final double dropRoll =
+        Rng.get(Rng.Stream.ITEMS).nextDouble() * (ITEM_WEIGHT + boostedNoneWeight);
+    GameLog.log(GameLog.Event.DROP_ROLL, Double.doubleToRawLongBits(dropRoll), 0);
 
     DropTier chosenTier = DropTier.NONE;
     double acc = 0.0;
@@ -127,15 +125,51 @@ public final class ItemManager {
 
   private void handlePityOnNoDrop() {
     pityCounter++;
-    if (LOGGER.isLoggable(Level.INFO)) {
-      LOGGER.info(String.format("[ItemManager]: Tier=NONE (pity=%d)", pityCounter));
-    }
+    GameLog.log(GameLog.Event.NO_DROP, pityCounter, 0);
   }
 
   private void resetPity() {
     pityCounter = 0;
   }
 
+  /** Misses in a row since the last drop, carried from level to level. */
+  int getPityCounter() {
+    return pityCounter;
+  }
+
+  void setPityCounter(final int pityCounter) {
+    this.pityCounter = pityCounter;
+  }
+
+  /**
+   * Returns how many kills of this game rolled a tier. Rolls of ticks played again after a rollback
+   * count again; saves and snapshots leave the counts alone.
+   *
+   * @param tier Tier rolled, NONE for kills that dropped nothing.
+   * @return Rolls landing on the tier.
+   */
+  public long getDrops(final DropTier tier) {
+    return drops[tier.ordinal()];
+  }
+
+  /**
+   * Writes the drop state that carries over from kill to kill.
+   *
+   * @param out Buffer to write to.
+   */
+  public void writeState(final ByteBuffer out) {
+    out.putInt(pityCounter);
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)}.
+   *
+   * @param in Buffer to read from.
+   */
+  public void readState(final ByteBuffer in) {
+    pityCounter = in.getInt();
+  }
+
   private ItemData chooseRandomItemData(final DropTier chosenTier) {
     final java.util.List<ItemData> candidates = new java.util.ArrayList<>();
     final java.util.Collection<ItemData> allItems = itemDB.getAllItems();
@@ -153,7 +187,7 @@ public final class ItemManager {
       return null;
     }
 
-    return candidates.get(itemRoll.nextInt(candidates.size()));
+    return candidates.get(Rng.get(Rng.Stream.ITEMS).nextInt(candidates.size()));
   }
 
   private Item spawnItemAtEnemyCenter(final EnemyShip enemy, final ItemData chosenData) {
@@ -163,16 +197,7 @@ public final class ItemManager {
 
     final Item drop = ItemPool.getItem(chosenData, centerX, centerY, itemSpeed);
 
-    if (LOGGER.isLoggable(Level.INFO)) {
-      LOGGER.info(
-          "[ItemManager]: created item "
-              + drop.getType()
-              + " at ("
-              + centerX
-              + ", "
-              + centerY
-              + ")");
-    }
+    GameLog.log(GameLog.Event.ITEM_CREATED, drop.getType(), centerX, centerY);
 
     return drop;
   }
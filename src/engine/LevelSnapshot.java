@@ -0,0 +1,112 @@
+package engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A level frozen in the middle of play: how it started, so the same screen can be built again, its
+ * random seed and the binary state the screen wrote. Quick saves, suspending the game and crash
+ * recovery all keep one of these on disk through {@link FileManager#saveLevelSnapshot}.
+ *
+ * <p>The state is whatever the level screen's {@code writeState} put in its buffer. It is only
+ * meaningful to a screen built from the same {@link Replay.Start}, which is why both travel
+ * together.
+ */
+public final class LevelSnapshot {
+
+  /** File signature, "INVS". */
+  private static final int MAGIC = 0x494E5653;
+
+  private static final int VERSION = 1;
+
+  private final Replay.Start start;
+  private final long seed;
+  private final byte[] state;
+
+  /**
+   * Creates a snapshot.
+   *
+   * @param start How the level started, see {@link Replay.Start#of}.
+   * @param seed Random seed of the level.
+   * @param state Buffer positioned at the state, the remaining bytes are copied.
+   */
+  public LevelSnapshot(final Replay.Start start, final long seed, final ByteBuffer state) {
+    this.start = start;
+    this.seed = seed;
+    this.state = new byte[state.remaining()];
+    state.get(this.state);
+  }
+
+  private LevelSnapshot(final Replay.Start start, final long seed, final byte[] state) {
+    this.start = start;
+    this.seed = seed;
+    this.state = state;
+  }
+
+  public Replay.Start getStart() {
+    return start;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns the saved state to read back.
+   *
+   * @return Read-only buffer over the state, positioned at its start.
+   */
+  public ByteBuffer getState() {
+    return ByteBuffer.wrap(state).asReadOnlyBuffer();
+  }
+
+  /**
+   * Writes the snapshot.
+   *
+   * @param stream Destination, not closed.
+   * @throws IOException When writing fails.
+   */
+  public void write(final OutputStream stream) throws IOException {
+    final DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(seed);
+    start.write(out);
+    out.writeInt(state.length);
+    out.write(state);
+    out.flush();
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(OutputStream)}.
+   *
+   * @param stream Source, not closed.
+   * @param size Bytes the source holds, the state cannot be longer.
+   * @return Snapshot.
+   * @throws IOException When reading fails, the data is not a snapshot of this version or its
+   *     state length is corrupt.
+   */
+  public static LevelSnapshot read(final InputStream stream, final long size) throws IOException {
+    final DataInputStream in = new DataInputStream(stream);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a saved level");
+    }
+    final int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported saved level version " + version);
+    }
+    final long seed = in.readLong();
+    final Replay.Start start = Replay.Start.read(in);
+    final int length = in.readInt();
+    if (length < 0 || length > size) {
+      throw new IOException("Corrupt saved level, state of " + length + " bytes");
+    }
+    final byte[] state = new byte[length];
+    in.readFully(state);
+    return new LevelSnapshot(start, seed, state);
+  }
+}
@@ -1,5 +1,7 @@
 package engine;
 
+import java.nio.ByteBuffer;
+
 public class LifeManager {
   // 2P mode: number of players used for shared lives in co-op
   public static final int NUM_PLAYERS = 2; // adjust later if needed
@@ -80,4 +82,20 @@ public class LifeManager {
   public boolean teamAlive() {
     return sharedLives ? (teamLives > 0) : (lives[0] > 0 || lives[1] > 0); // NOPMD
   }
+
+  // ---- Snapshot ----
+
+  void writeState(final ByteBuffer out) {
+    out.putInt(teamLives);
+    for (int p = 0; p < NUM_PLAYERS; p++) {
+      out.putInt(lives[p]);
+    }
+  }
+
+  void readState(final ByteBuffer in) {
+    teamLives = in.getInt();
+    for (int p = 0; p < NUM_PLAYERS; p++) {
+      lives[p] = in.getInt();
+    }
+  }
 }
@@ -44,6 +44,14 @@ public final class MenuDrawer { // NOPMD
     return drawManager.getFontBigMetrics();
   }
 
+  private TextCache textRegular() {
+    return drawManager.getTextRegular();
+  }
+
+  private TextCache textBig() {
+    return drawManager.getTextBig();
+  }
+
   // ================ TITLE / MAIN MENU =================
 
   /** Draws game title. */
@@ -96,13 +104,19 @@ public final class MenuDrawer { // NOPMD
 
     g2d().setColor(Color.GREEN);
 
-    g2d()
-        .drawString(
-            "1-PLAYER MODE", midX / 2 - fmBig().stringWidth("1-PLAYER MODE") / 2 + 40, startY);
-    g2d()
-        .drawString(
+    textBig()
+        .draw(
+            g2d(),
+            fmBig(),
+            "1-PLAYER MODE",
+            midX / 2 - textBig().width(fmBig(), "1-PLAYER MODE") / 2 + 40,
+            startY);
+    textBig()
+        .draw(
+            g2d(),
+            fmBig(),
             "2-PLAYER MODE",
-            midX + midX / 2 - fmBig().stringWidth("2-PLAYER MODE") / 2 + 40,
+            midX + midX / 2 - textBig().width(fmBig(), "2-PLAYER MODE") / 2 + 40,
             startY);
 
     // draw back button at top-left
@@ -216,13 +230,13 @@ public final class MenuDrawer { // NOPMD
         "PREV                                                              NEXT";
     final int baseY = (int) (screen.getHeight() * 0.8);
 
-    final int fullWidth = fmRegular().stringWidth(fullText);
+    final int fullWidth = textRegular().width(fmRegular(), fullText);
     final int textHeight = fmRegular().getHeight();
 
     final int startX = screen.getWidth() / 2 - fullWidth / 2;
 
-    final int prevWidth = fmRegular().stringWidth("PREV");
-    final int nextWidth = fmRegular().stringWidth("NEXT");
+    final int prevWidth = textRegular().width(fmRegular(), "PREV");
+    final int nextWidth = textRegular().width(fmRegular(), "NEXT");
 
     final int prevX = startX;
     final int nextX = startX + fullWidth - nextWidth;
@@ -251,7 +265,7 @@ public final class MenuDrawer { // NOPMD
   /** Draws the play mode selection menu (1P / 2P / Back). */
   public void drawPlayMenu(
       final Screen screen, final Integer hoverOption, final int selectedIndex) {
-    final String[] items = {"1P mode", "2P mode"};
+    final String[] items = {"1P mode", "2P mode", "Stress mode"};
 
     g2d().setColor(Color.GREEN);
     drawManager.drawCenteredBigString(screen, "Select Play Mode", screen.getHeight() / 5);
@@ -263,7 +277,7 @@ public final class MenuDrawer { // NOPMD
         screen.getHeight() / 5 + fmRegular().getHeight() * 2);
 
     // draw back button at top-left corner
-    drawBackButton(selectedIndex == 2);
+    drawBackButton(selectedIndex == items.length);
 
     final int baseY = screen.getHeight() / 2 - 20;
     for (int i = 0; i < items.length; i++) {
@@ -281,7 +295,7 @@ public final class MenuDrawer { // NOPMD
 
     final int margin = 12;
     final int ascent = fmRegular().getAscent();
-    g2d().drawString(BACK_LABEL, margin, margin + ascent);
+    textRegular().draw(g2d(), fmRegular(), BACK_LABEL, margin, margin + ascent);
   }
 
   /** Hitbox for main menu buttons. */
@@ -316,7 +330,7 @@ public final class MenuDrawer { // NOPMD
     final int padTop = 2;
 
     final int y = margin - padTop;
-    final int w = fmRegular().stringWidth(BACK_LABEL);
+    final int w = textRegular().width(fmRegular(), BACK_LABEL);
     final int h = ascent + descent + 25;
 
     return new Rectangle(margin, y, w, h);
@@ -328,7 +342,7 @@ public final class MenuDrawer { // NOPMD
       g2d().setFont(fontRegular());
     }
 
-    final String[] items = {"1 Player", "2 Players"};
+    final String[] items = {"1 Player", "2 Players", "Stress mode"};
     final int baseY = screen.getHeight() / 2 - 20;
     final Rectangle[] boxes = new Rectangle[items.length];
 
@@ -464,7 +478,7 @@ public final class MenuDrawer { // NOPMD
     g2d().setFont(fontRegular());
     final int pad = 4;
 
-    final int textWidth = fmRegular().stringWidth(string);
+    final int textWidth = textRegular().width(fmRegular(), string);
     final int ascent = fmRegular().getAscent();
     final int descent = fmRegular().getDescent();
 
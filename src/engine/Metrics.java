@@ -0,0 +1,431 @@
+package engine;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Live process metrics: frame rate, tick times, GC, heap, entity counts, audio voices and saves.
+ * The game updates them without locks, {@link MetricsServer} renders them in the Prometheus text
+ * format when scraped and {@link #writeSessionSummary(File)} writes a JSON summary of the whole
+ * session when the game exits.
+ *
+ * <p>Tick times go into a session-wide histogram of {@value #BUCKET_NANOS} ns buckets, written by
+ * the game loop only. Readers on other threads may see it a tick behind, which is fine for
+ * monitoring.
+ */
+public final class Metrics {
+
+  /** Width of one tick histogram bucket. */
+  static final long BUCKET_NANOS = 100_000L;
+
+  /** Tick histogram buckets, the last one also counts everything slower. */
+  static final int BUCKETS = 1000;
+
+  /** Upper bounds of the exported tick histogram, in buckets. */
+  private static final int[] EXPORTED_BOUNDS = {10, 20, 40, 80, 160, 330, 500};
+
+  private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+  private static final FrameProfiler.Phase[] RECENT_PHASES = {
+    FrameProfiler.Phase.TICK, FrameProfiler.Phase.DRAW
+  };
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private static final Metrics INSTANCE = new Metrics();
+
+  private final long startMillis = System.currentTimeMillis();
+
+  // Game loop side
+  private final long[] tickBuckets = new long[BUCKETS];
+  private final AtomicLong ticks = new AtomicLong();
+  private final AtomicLong tickNanos = new AtomicLong();
+  private volatile int enemies;
+  private volatile int bullets;
+  private volatile int items;
+
+  // Drawing side
+  private final AtomicLong frames = new AtomicLong();
+  private volatile double fps;
+  private long windowStart;
+  private long windowFrames;
+
+  private final AtomicInteger pendingWrites = new AtomicInteger();
+  private final AtomicLong writes = new AtomicLong();
+
+  Metrics() {}
+
+  /**
+   * Returns the metrics of the process.
+   *
+   * @return Shared metrics.
+   */
+  public static Metrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Records one game tick. Called by the game loop only.
+   *
+   * @param nanos Duration of the tick.
+   */
+  public void recordTick(final long nanos) {
+    tickBuckets[(int) Math.min(BUCKETS - 1L, Math.max(0L, nanos / BUCKET_NANOS))]++;
+    tickNanos.addAndGet(nanos);
+    ticks.incrementAndGet();
+  }
+
+  /** Records a drawn game frame and updates the frame rate once a second. */
+  public void recordFrame() {
+    frames.incrementAndGet();
+    final long now = System.nanoTime();
+    if (windowStart == 0L) {
+      windowStart = now;
+    }
+    windowFrames++;
+    final long elapsed = now - windowStart;
+    if (elapsed >= 1_000_000_000L) {
+      fps = windowFrames * 1e9 / elapsed;
+      windowStart = now;
+      windowFrames = 0;
+    }
+  }
+
+  /**
+   * Sets the entity counts of the current tick.
+   *
+   * @param enemyCount Enemy ships alive.
+   * @param bulletCount Bullets in flight.
+   * @param itemCount Items on screen.
+   */
+  public void setEntityCounts(final int enemyCount, final int bulletCount, final int itemCount) {
+    enemies = enemyCount;
+    bullets = bulletCount;
+    items = itemCount;
+  }
+
+  /** Marks the start of a save, paired with {@link #saveFinished()}. */
+  public void saveStarted() {
+    pendingWrites.incrementAndGet();
+  }
+
+  /** Marks the end of a save, successful or not. */
+  public void saveFinished() {
+    pendingWrites.decrementAndGet();
+    writes.incrementAndGet();
+  }
+
+  public long getTicks() {
+    return ticks.get();
+  }
+
+  public long getFrames() {
+    return frames.get();
+  }
+
+  public int getPendingWrites() {
+    return pendingWrites.get();
+  }
+
+  /**
+   * Returns a tick time percentile of the session.
+   *
+   * @param quantile Quantile between 0 and 1.
+   * @return Upper bound of the bucket holding it in nanoseconds, 0 without ticks.
+   */
+  public long tickPercentile(final double quantile) {
+    final long count = ticks.get();
+    if (count == 0) {
+      return 0L;
+    }
+    final long rank = Math.max(1L, (long) Math.ceil(count * quantile));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += tickBuckets[i];
+      if (seen >= rank) {
+        return (i + 1) * BUCKET_NANOS;
+      }
+    }
+    return BUCKETS * BUCKET_NANOS;
+  }
+
+  /**
+   * Renders every metric in the Prometheus text exposition format.
+   *
+   * @return Scrape response body.
+   */
+  public String scrape() {
+    final StringBuilder out = new StringBuilder(4096);
+    gauge(out, "invaders_uptime_seconds", "Seconds since the game started.")
+        .append("invaders_uptime_seconds ")
+        .append((System.currentTimeMillis() - startMillis) / 1000.0)
+        .append('\n');
+
+    gauge(out, "invaders_fps", "Game frames drawn per second over the last second.")
+        .append("invaders_fps ")
+        .append(fps)
+        .append('\n');
+    counter(out, "invaders_frames_total", "Game frames drawn.")
+        .append("invaders_frames_total ")
+        .append(frames.get())
+        .append('\n');
+
+    appendTickHistogram(out);
+    appendRecentPercentiles(out);
+    appendGc(out);
+    appendHeap(out);
+
+    gauge(out, "invaders_entities", "Entities in the current game tick.");
+    sample(out, "invaders_entities", "kind", "enemies", enemies);
+    sample(out, "invaders_entities", "kind", "bullets", bullets);
+    sample(out, "invaders_entities", "kind", "items", items);
+
+    appendPools(out);
+
+    gauge(out, "invaders_audio_voices", "Sound clips playing.")
+        .append("invaders_audio_voices ")
+        .append(SoundManager.getActiveVoices())
+        .append('\n');
+
+    gauge(out, "invaders_persistence_pending_writes", "Saves in progress.")
+        .append("invaders_persistence_pending_writes ")
+        .append(pendingWrites.get())
+        .append('\n');
+    counter(out, "invaders_persistence_writes_total", "Saves finished.")
+        .append("invaders_persistence_writes_total ")
+        .append(writes.get())
+        .append('\n');
+    return out.toString();
+  }
+
+  private void appendTickHistogram(final StringBuilder out) {
+    out.append("# HELP invaders_tick_seconds Game tick time.\n")
+        .append("# TYPE invaders_tick_seconds histogram\n");
+    long cumulative = 0;
+    int bucket = 0;
+    for (final int bound : EXPORTED_BOUNDS) {
+      while (bucket < bound) {
+        cumulative += tickBuckets[bucket++];
+      }
+      out.append("invaders_tick_seconds_bucket{le=\"")
+          .append(bound * BUCKET_NANOS / 1e9)
+          .append("\"} ")
+          .append(cumulative)
+          .append('\n');
+    }
+    final long count = ticks.get();
+    out.append("invaders_tick_seconds_bucket{le=\"+Inf\"} ")
+        .append(count)
+        .append('\n')
+        .append("invaders_tick_seconds_sum ")
+        .append(tickNanos.get() / 1e9)
+        .append('\n')
+        .append("invaders_tick_seconds_count ")
+        .append(count)
+        .append('\n');
+  }
+
+  private static void appendRecentPercentiles(final StringBuilder out) {
+    final FrameProfiler profiler = FrameProfiler.getInstance();
+    if (!profiler.isEnabled()) {
+      return;
+    }
+    final long[] stats = new long[FrameProfiler.STAT_COUNT];
+    gauge(out, "invaders_recent_seconds", "Percentiles of the last ticks and draws.");
+    for (final FrameProfiler.Phase phase : RECENT_PHASES) {
+      profiler.summarize(phase, stats);
+      for (int i = 0; i < QUANTILES.length; i++) {
+        out.append("invaders_recent_seconds{phase=\"")
+            .append(phase.getLabel())
+            .append("\",quantile=\"")
+            .append(QUANTILES[i])
+            .append("\"} ")
+            .append(stats[FrameProfiler.P50 + i] / 1e9)
+            .append('\n');
+      }
+    }
+  }
+
+  private static void appendGc(final StringBuilder out) {
+    counter(out, "invaders_gc_collections_total", "Garbage collections per collector.");
+    for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sample(out, "invaders_gc_collections_total", "gc", gc.getName(), gc.getCollectionCount());
+    }
+    counter(out, "invaders_gc_seconds_total", "Time spent collecting per collector.");
+    for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sample(out, "invaders_gc_seconds_total", "gc", gc.getName(), gc.getCollectionTime() / 1e3);
+    }
+  }
+
+  private static void appendPools(final StringBuilder out) {
+    final List<ObjectPool<?>> pools = ObjectPool.getPools();
+    counter(out, "invaders_pool_acquires_total", "Objects taken from a pool.");
+    for (final ObjectPool<?> pool : pools) {
+      sample(out, "invaders_pool_acquires_total", "pool", pool.getName(), pool.getAcquireCount());
+    }
+    counter(out, "invaders_pool_misses_total", "Pool acquires that created a new object.");
+    for (final ObjectPool<?> pool : pools) {
+      sample(out, "invaders_pool_misses_total", "pool", pool.getName(), pool.getMissCount());
+    }
+    counter(out, "invaders_pool_recycles_total", "Objects returned to a pool.");
+    for (final ObjectPool<?> pool : pools) {
+      sample(out, "invaders_pool_recycles_total", "pool", pool.getName(), pool.getRecycleCount());
+    }
+    counter(out, "invaders_pool_double_recycles_total", "Recycles of objects already idle.");
+    for (final ObjectPool<?> pool : pools) {
+      sample(
+          out,
+          "invaders_pool_double_recycles_total",
+          "pool",
+          pool.getName(),
+          pool.getDoubleRecycleCount());
+    }
+    gauge(out, "invaders_pool_high_water", "Most objects out of a pool at once.");
+    for (final ObjectPool<?> pool : pools) {
+      sample(out, "invaders_pool_high_water", "pool", pool.getName(), pool.getHighWaterMark());
+    }
+  }
+
+  private static void appendHeap(final StringBuilder out) {
+    final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    gauge(out, "invaders_heap_bytes", "Heap memory.");
+    sample(out, "invaders_heap_bytes", "area", "used", heap.getUsed());
+    sample(out, "invaders_heap_bytes", "area", "committed", heap.getCommitted());
+    sample(out, "invaders_heap_bytes", "area", "max", heap.getMax());
+  }
+
+  private static StringBuilder gauge(
+      final StringBuilder out, final String name, final String help) {
+    return header(out, name, help, "gauge");
+  }
+
+  private static StringBuilder counter(
+      final StringBuilder out, final String name, final String help) {
+    return header(out, name, help, "counter");
+  }
+
+  private static StringBuilder header(
+      final StringBuilder out, final String name, final String help, final String type) {
+    return out.append("# HELP ")
+        .append(name)
+        .append(' ')
+        .append(help)
+        .append("\n# TYPE ")
+        .append(name)
+        .append(' ')
+        .append(type)
+        .append('\n');
+  }
+
+  private static void sample(
+      final StringBuilder out,
+      final String name,
+      final String label,
+      final String value,
+      final double sampleValue) {
+    out.append(name).append('{').append(label).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '\\' || c == '"') {
+        out.append('\\').append(c);
+      } else if (c == '\n') {
+        out.append("\\n");
+      } else {
+        out.append(c);
+      }
+    }
+    out.append("\"} ");
+    if (sampleValue == Math.rint(sampleValue) && Math.abs(sampleValue) < 1e15) {
+      out.append((long) sampleValue);
+    } else {
+      out.append(sampleValue);
+    }
+    out.append('\n');
+  }
+
+  /**
+   * Renders the summary of the session as JSON.
+   *
+   * @return JSON object.
+   */
+  public String sessionSummary() {
+    final long endMillis = System.currentTimeMillis();
+    final long count = ticks.get();
+    long collections = 0;
+    long collectionMillis = 0;
+    for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      collections += Math.max(0L, gc.getCollectionCount());
+      collectionMillis += Math.max(0L, gc.getCollectionTime());
+    }
+    final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    final double seconds = (endMillis - startMillis) / 1000.0;
+    return String.format(
+        Locale.ROOT,
+        "{%n"
+            + "  \"startMillis\": %d,%n"
+            + "  \"endMillis\": %d,%n"
+            + "  \"durationSeconds\": %.3f,%n"
+            + "  \"frames\": %d,%n"
+            + "  \"ticks\": %d,%n"
+            + "  \"meanTickMillis\": %.3f,%n"
+            + "  \"tickMillis\": {\"p50\": %.1f, \"p95\": %.1f, \"p99\": %.1f, \"max\": %.1f},%n"
+            + "  \"gcCollections\": %d,%n"
+            + "  \"gcSeconds\": %.3f,%n"
+            + "  \"heapUsedBytes\": %d,%n"
+            + "  \"heapMaxBytes\": %d,%n"
+            + "  \"persistenceWrites\": %d%n"
+            + "}%n",
+        startMillis,
+        endMillis,
+        seconds,
+        frames.get(),
+        count,
+        count == 0 ? 0.0 : tickNanos.get() / 1e6 / count,
+        tickPercentile(0.5) / 1e6,
+        tickPercentile(0.95) / 1e6,
+        tickPercentile(0.99) / 1e6,
+        tickPercentile(1.0) / 1e6,
+        collections,
+        collectionMillis / 1e3,
+        heap.getUsed(),
+        heap.getMax(),
+        writes.get());
+  }
+
+  /**
+   * Writes the session summary as {@code session-<time>.json}.
+   *
+   * @param directory Directory to write to, the save directory of the game.
+   * @return Written file, null when writing failed.
+   */
+  public File writeSessionSummary(final File directory) {
+    final String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+    final File file = new File(directory, "session-" + stamp + ".json");
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(sessionSummary());
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to write session summary: " + e.getMessage());
+      }
+      return null;
+    }
+    if (LOGGER.isLoggable(Level.INFO)) {
+      LOGGER.info("Session summary written to " + file.getAbsolutePath());
+    }
+    return file;
+  }
+}
@@ -0,0 +1,120 @@
+package engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves {@link Metrics} on {@code http://127.0.0.1:<port>/metrics} in the Prometheus text format.
+ * It only listens on the loopback interface, a scraper on the same machine forwards the numbers.
+ * Requests are answered by one daemon thread, the game loop is never involved.
+ *
+ * <p>Started with {@code -Dinvaders.metrics} (port {@value #DEFAULT_PORT}) or {@code
+ * -Dinvaders.metrics=<port>}.
+ */
+public final class MetricsServer {
+
+  /** Port used when {@code -Dinvaders.metrics} has no value. */
+  public static final int DEFAULT_PORT = 9464;
+
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private MetricsServer(final HttpServer server, final ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts a server on the loopback interface.
+   *
+   * @param port Port to listen on, 0 for any free port.
+   * @param metrics Metrics to serve.
+   * @return Running server.
+   * @throws IOException When the port cannot be bound.
+   */
+  public static MetricsServer start(final int port, final Metrics metrics) throws IOException {
+    final HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    final ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            task -> {
+              final Thread thread = new Thread(task, "metrics");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.createContext("/metrics", exchange -> respond(exchange, metrics));
+    server.setExecutor(executor);
+    server.start();
+    return new MetricsServer(server, executor);
+  }
+
+  /**
+   * Starts the server when {@code -Dinvaders.metrics} is set.
+   *
+   * @return Running server, null when not requested or the port is taken.
+   */
+  public static MetricsServer startIfRequested() {
+    final String property = System.getProperty("invaders.metrics");
+    if (property == null) {
+      return null;
+    }
+    try {
+      final int port = property.isBlank() ? DEFAULT_PORT : Integer.parseInt(property.trim());
+      final MetricsServer server = start(port, Metrics.getInstance());
+      if (LOGGER.isLoggable(Level.INFO)) {
+        LOGGER.info("Serving metrics on http://127.0.0.1:" + server.getPort() + "/metrics");
+      }
+      return server;
+    } catch (IOException | NumberFormatException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to start metrics server: " + e.getMessage());
+      }
+      return null;
+    }
+  }
+
+  private static void respond(final HttpExchange exchange, final Metrics metrics)
+      throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      final byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return Bound port.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /** Stops answering requests. */
+  public void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
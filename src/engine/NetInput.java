@@ -0,0 +1,77 @@
+package engine;
+
+/**
+ * Gameplay input of one player in one tick, packed into the three bits netplay sends: {@link
+ * #LEFT}, {@link #RIGHT} and {@link #SHOOT}. Every peer plays with its player 1 keys; before a tick
+ * is simulated the buttons of both players are put on the player 1 and player 2 keys, so the level
+ * reads them like same-keyboard co-op.
+ */
+public final class NetInput {
+
+  /** Move left held. */
+  public static final int LEFT = 1;
+
+  /** Move right held. */
+  public static final int RIGHT = 2;
+
+  /** Shoot held. */
+  public static final int SHOOT = 4;
+
+  /** Real key state of the local keyboard, while simulated ticks overwrite it. */
+  private static final int[] LOCAL_KEYS = new int[InputManager.NUM_KEYS];
+
+  private NetInput() {}
+
+  /**
+   * Reads the buttons of the local player from the player 1 keys.
+   *
+   * @return Input bits.
+   */
+  public static int capture() {
+    final InputManager input = Core.getInputManager();
+    return (input.isP1LeftPressed() ? LEFT : 0)
+        | (input.isP1RightPressed() ? RIGHT : 0)
+        | (input.isP1ShootPressed() ? SHOOT : 0);
+  }
+
+  /** Saves the real key state, call before simulating ticks with {@link #apply(int, int)}. */
+  public static void holdLocalKeys() {
+    for (int code = 0; code < InputManager.NUM_KEYS; code++) {
+      LOCAL_KEYS[code] = InputManager.getKeyState(code);
+    }
+  }
+
+  /** Puts back the key state saved by {@link #holdLocalKeys()}. */
+  public static void releaseLocalKeys() {
+    for (int code = 0; code < InputManager.NUM_KEYS; code++) {
+      InputManager.setKeyState(code, LOCAL_KEYS[code]);
+    }
+  }
+
+  /**
+   * Makes the keys show exactly the buttons of both players and nothing else, so keys outside of
+   * gameplay (pause, overlays) cannot change a simulated tick.
+   *
+   * @param player1 Input bits of player 1.
+   * @param player2 Input bits of player 2.
+   */
+  public static void apply(final int player1, final int player2) {
+    for (int code = 0; code < InputManager.NUM_KEYS; code++) {
+      InputManager.setKeyState(code, 0);
+    }
+    press(InputManager.player1Keys, player1);
+    press(InputManager.player2Keys, player2);
+  }
+
+  private static void press(final int[] keys, final int buttons) {
+    if ((buttons & LEFT) != 0) {
+      InputManager.setKeyState(keys[0], InputManager.KEY_HELD);
+    }
+    if ((buttons & RIGHT) != 0) {
+      InputManager.setKeyState(keys[1], InputManager.KEY_HELD);
+    }
+    if ((buttons & SHOOT) != 0) {
+      InputManager.setKeyState(keys[2], InputManager.KEY_HELD);
+    }
+  }
+}
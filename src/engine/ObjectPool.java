@@ -0,0 +1,251 @@
+package engine;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable objects kept on an array stack, so taking and returning one is an index bump
+ * instead of a hash lookup. A pool belongs to one thread, callers on several threads lock it
+ * themselves.
+ *
+ * <p>Every pool counts acquires, misses (acquires that had to create a new object), recycles and
+ * the most objects ever out at once. {@link Metrics} exports the counters of every pool, and the
+ * high-water mark is what {@link #prewarm(int)} should be given for the next level so steady play
+ * never misses.
+ *
+ * <p>Objects that implement {@link Pooled} carry a flag saying they wait in a pool. Recycling one
+ * twice would hand it to two owners later, so the second recycle is counted and ignored.
+ *
+ * @param <T> Pooled object type.
+ */
+public final class ObjectPool<T> {
+
+  /** Pools that show up in the metrics, in creation order. */
+  private static final List<ObjectPool<?>> POOLS = new CopyOnWriteArrayList<>();
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** Object that knows whether it waits in a pool, so a second recycle is caught in O(1). */
+  public interface Pooled {
+
+    /**
+     * Returns whether the object waits in a pool.
+     *
+     * @return True from its recycle until it is acquired again.
+     */
+    boolean isPooled();
+
+    /**
+     * Marks the object as waiting in a pool or handed out.
+     *
+     * @param pooled True when it goes back to a pool.
+     */
+    void setPooled(boolean pooled);
+  }
+
+  private final String name;
+  private final Supplier<? extends T> factory;
+  private final Consumer<? super T> resetHook;
+  private final int maxSize;
+
+  private Object[] stack = new Object[INITIAL_CAPACITY];
+  private int size;
+
+  // Written by the owning thread only, read by the metrics thread
+  private final AtomicLong acquires = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong recycles = new AtomicLong();
+  private final AtomicLong doubleRecycles = new AtomicLong();
+  private int inUse;
+  private volatile int highWaterMark;
+
+  /**
+   * Creates a pool and registers it for the metrics.
+   *
+   * @param name Name the pool is reported under.
+   * @param factory Creates an object when the pool is empty.
+   * @param resetHook Clears an object when it is recycled, null when nothing needs clearing.
+   * @param maxSize Most idle objects kept, recycled objects above it are left to the GC.
+   * @throws IllegalArgumentException When the max size is negative.
+   */
+  public ObjectPool(
+      final String name,
+      final Supplier<? extends T> factory,
+      final Consumer<? super T> resetHook,
+      final int maxSize) {
+    this(name, factory, resetHook, maxSize, true);
+  }
+
+  /**
+   * Creates a pool. Pools of short-lived games stay unregistered, so the metrics do not keep every
+   * one of them.
+   *
+   * @param name Name the pool is reported under.
+   * @param factory Creates an object when the pool is empty.
+   * @param resetHook Clears an object when it is recycled, null when nothing needs clearing.
+   * @param maxSize Most idle objects kept, recycled objects above it are left to the GC.
+   * @param listed Whether the pool is registered for the metrics.
+   * @throws IllegalArgumentException When the max size is negative.
+   */
+  public ObjectPool(
+      final String name,
+      final Supplier<? extends T> factory,
+      final Consumer<? super T> resetHook,
+      final int maxSize,
+      final boolean listed) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Max size must not be negative: " + maxSize);
+    }
+    this.name = name;
+    this.factory = factory;
+    this.resetHook = resetHook;
+    this.maxSize = maxSize;
+    if (listed) {
+      POOLS.add(this);
+    }
+  }
+
+  /**
+   * Returns every pool created so far.
+   *
+   * @return Pools in creation order.
+   */
+  public static List<ObjectPool<?>> getPools() {
+    return POOLS;
+  }
+
+  /**
+   * Takes an idle object, or creates one when there is none.
+   *
+   * @return Object owned by the caller until it is recycled.
+   */
+  @SuppressWarnings("unchecked")
+  public T acquire() {
+    count(acquires);
+    inUse++;
+    if (inUse > highWaterMark) {
+      highWaterMark = inUse;
+    }
+    if (size == 0) {
+      count(misses);
+      return factory.get();
+    }
+    final T object = (T) stack[--size];
+    stack[size] = null;
+    if (object instanceof Pooled pooled) {
+      pooled.setPooled(false);
+    }
+    return object;
+  }
+
+  /**
+   * Returns an object to the pool.
+   *
+   * @param object Object that was acquired from this pool.
+   */
+  public void recycle(final T object) {
+    if (object instanceof Pooled pooled && pooled.isPooled()) {
+      // Already idle, pushing it again would hand it out twice
+      count(doubleRecycles);
+      return;
+    }
+    count(recycles);
+    if (inUse > 0) {
+      inUse--;
+    }
+    if (resetHook != null) {
+      resetHook.accept(object);
+    }
+    push(object);
+  }
+
+  /**
+   * Returns several objects to the pool.
+   *
+   * @param objects Objects that were acquired from this pool.
+   */
+  public void recycleAll(final Collection<? extends T> objects) {
+    for (final T object : objects) {
+      recycle(object);
+    }
+  }
+
+  /**
+   * Creates idle objects until there are at least the given number, capped at the max size.
+   *
+   * @param count Objects expected to be out at once.
+   */
+  public void prewarm(final int count) {
+    final int target = Math.min(count, maxSize);
+    while (size < target) {
+      push(factory.get());
+    }
+  }
+
+  private void push(final T object) {
+    if (object instanceof Pooled pooled) {
+      pooled.setPooled(true);
+    }
+    if (size >= maxSize) {
+      return;
+    }
+    if (size == stack.length) {
+      final Object[] grown = new Object[Math.min(maxSize, stack.length * 2)];
+      System.arraycopy(stack, 0, grown, 0, size);
+      stack = grown;
+    }
+    stack[size++] = object;
+  }
+
+  /** Adds one to a counter only the owning thread writes, no atomic add needed. */
+  private static void count(final AtomicLong counter) {
+    counter.setRelease(counter.getPlain() + 1);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getAcquireCount() {
+    return acquires.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getRecycleCount() {
+    return recycles.get();
+  }
+
+  /**
+   * Returns the recycles of objects that were already idle, which were ignored.
+   *
+   * @return Recycles of {@link Pooled} objects that were in the pool already.
+   */
+  public long getDoubleRecycleCount() {
+    return doubleRecycles.get();
+  }
+
+  /**
+   * Returns the most objects that were out of the pool at once.
+   *
+   * @return High-water mark.
+   */
+  public int getHighWaterMark() {
+    return highWaterMark;
+  }
+
+  /**
+   * Returns the objects waiting in the pool.
+   *
+   * @return Idle objects.
+   */
+  public int getIdleCount() {
+    return size;
+  }
+}
@@ -17,6 +17,28 @@ public class PauseMenuHandler {
   }
 
   public void draw(final DrawManager drawManager, final Screen screen) {
+    draw(drawManager, screen, pauseVolumetype, pauseSelectedSection, pauseDraggingIndex);
+  }
+
+  /**
+   * Draws the pause menu with a selection captured earlier, used when rendering from a {@link
+   * FrameSnapshot}.
+   */
+  public void draw(final DrawManager drawManager, final Screen screen, final FrameSnapshot frame) {
+    draw(
+        drawManager,
+        screen,
+        frame.getPauseVolumeType(),
+        frame.getPauseSelectedSection(),
+        frame.getPauseDraggingIndex());
+  }
+
+  private void draw(
+      final DrawManager drawManager,
+      final Screen screen,
+      final int volumeType,
+      final int selectedSection,
+      final int draggingIndex) {
     drawManager.hud().drawPauseOverlay(screen); // NOPMD
     for (int i = 0; i < numPauseSliders; i++) {
       drawManager // NOPMD
@@ -24,11 +46,11 @@ public class PauseMenuHandler {
           .drawpauseVolumeBar( // NOPMD
               screen,
               SoundControl.getIngameVolumeLevel(i),
-              pauseDraggingIndex == i,
+              draggingIndex == i,
               i,
               PAUSE_SLIDER_TITLES[i],
-              pauseSelectedSection,
-              this.pauseVolumetype);
+              selectedSection,
+              volumeType);
     }
   }
 
@@ -1,5 +1,7 @@
 package engine;
 
+import java.nio.ByteBuffer;
+
 public class PlayerStatsManager {
   // 2P mode: number of players used for shared lives in co-op
   public static final int NUM_PLAYERS = 2; // adjust later if needed
@@ -75,4 +77,22 @@ public class PlayerStatsManager {
   public int getShipsDestroyed(final int p) {
     return isValidPlayer(p) ? shipsDestroyed[p] : 0;
   }
+
+  /* ====================== SNAPSHOT ====================== */
+
+  void writeState(final ByteBuffer out) {
+    for (int p = 0; p < NUM_PLAYERS; p++) {
+      out.putInt(score[p]);
+      out.putInt(bulletsShot[p]);
+      out.putInt(shipsDestroyed[p]);
+    }
+  }
+
+  void readState(final ByteBuffer in) {
+    for (int p = 0; p < NUM_PLAYERS; p++) {
+      score[p] = in.getInt();
+      bulletsShot[p] = in.getInt();
+      shipsDestroyed[p] = in.getInt();
+    }
+  }
 }
@@ -0,0 +1,100 @@
+package engine;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Draws the frames a screen publishes to a {@link SnapshotBuffer}, so rendering overlaps with the
+ * next simulation tick. The thread parks while no new frame is available and is woken up by {@link
+ * #signal()} after every publish.
+ */
+public final class RenderThread extends Thread {
+
+  /** System property turning the render thread off, e.g. -Dinvaders.renderThread=false. */
+  public static final String ENABLED_PROPERTY = "invaders.renderThread";
+
+  /** How long {@link #shutdown()} waits for the last frame before it reports the overrun. */
+  private static final long JOIN_TIMEOUT = 1000;
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final SnapshotBuffer buffer;
+  private final Consumer<FrameSnapshot> renderer;
+
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   *
+   * @param buffer Buffer the frames are taken from.
+   * @param renderer Draws one frame.
+   */
+  public RenderThread(final SnapshotBuffer buffer, final Consumer<FrameSnapshot> renderer) {
+    super("render");
+    this.buffer = buffer;
+    this.renderer = renderer;
+    setDaemon(true);
+  }
+
+  /**
+   * Whether screens should render on a separate thread. Needs more than one core and can be turned
+   * off with the {@value #ENABLED_PROPERTY} system property.
+   *
+   * @return True if a render thread should be used.
+   */
+  public static boolean isEnabled() {
+    return Runtime.getRuntime().availableProcessors() > 1
+        && Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      final FrameSnapshot snapshot = buffer.acquire();
+      if (snapshot == null) {
+        LockSupport.park(this);
+        continue;
+      }
+      try {
+        renderer.accept(snapshot);
+      } catch (RuntimeException e) { // NOPMD - keep rendering after a bad frame
+        if (LOGGER.isLoggable(Level.WARNING)) {
+          LOGGER.warning("Frame rendering failed: " + e);
+        }
+      }
+    }
+  }
+
+  /** Wakes the thread up after a frame has been published. */
+  public void signal() {
+    LockSupport.unpark(this);
+  }
+
+  /**
+   * Stops the thread and waits until the frame being drawn is finished, however long it takes: the
+   * caller goes on drawing with the same {@link DrawManager} and text cache once this returns.
+   */
+  public void shutdown() {
+    running = false;
+    LockSupport.unpark(this);
+    boolean interrupted = false;
+    boolean reported = false;
+    while (isAlive()) {
+      try {
+        join(JOIN_TIMEOUT);
+      } catch (InterruptedException e) {
+        interrupted = true;
+        continue;
+      }
+      if (isAlive() && !reported && LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("The last frame is still drawing after " + JOIN_TIMEOUT + " ms, waiting");
+        reported = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,384 @@
+package engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import entity.Ship;
+
+/**
+ * A recorded level: how it started, the RNG seed, the input of every tick and checksums of the game
+ * state along the way. Recorded by {@link ReplayRecorder}, played back by {@link ReplayPlayer}.
+ *
+ * <p>The tick stream is delta encoded, a tick without input changes takes one byte. Per tick it
+ * holds:
+ *
+ * <ul>
+ *   <li>varint: milliseconds since the previous tick, shifted left by {@link #FLAG_BITS}, with
+ *       {@link #KEYS_CHANGED} and {@link #MOUSE_CHANGED} in the low bits.
+ *   <li>when keys changed: varint count, then a varint {@code code << 2 | state} per changed key.
+ *   <li>when the mouse changed: zigzag varints of the x and y movement, then a byte with the
+ *       pressed (bit 0) and clicked (bit 1) flags.
+ *   <li>after every {@link #CHECKPOINT_TICKS}th tick: the 8 byte state checksum after the update.
+ * </ul>
+ */
+public final class Replay {
+
+  /** File signature, "INVR". */
+  private static final int MAGIC = 0x494E5652;
+
+  private static final int VERSION = 3;
+
+  /** Ticks between two state checksums in the tick stream. */
+  public static final int CHECKPOINT_TICKS = 60;
+
+  static final int FLAG_BITS = 2;
+  static final int KEYS_CHANGED = 1;
+  static final int MOUSE_CHANGED = 2;
+
+  /** Bits of a key entry holding the key state. */
+  static final int KEY_STATE_BITS = 2;
+
+  /** FNV-1a 64 bit offset basis, the checksum of an empty state. */
+  public static final long CHECKSUM_SEED = 0xCBF29CE484222325L;
+
+  private static final long CHECKSUM_PRIME = 0x100000001B3L;
+
+  private final Start start;
+  private final long seed;
+  private final long startMillis;
+  private final int tickCount;
+  private final byte[] ticks;
+  private final long finalChecksum;
+
+  Replay(
+      final Start start,
+      final long seed,
+      final long startMillis,
+      final int tickCount,
+      final byte[] ticks,
+      final long finalChecksum) {
+    this.start = start;
+    this.seed = seed;
+    this.startMillis = startMillis;
+    this.tickCount = tickCount;
+    this.ticks = ticks.clone();
+    this.finalChecksum = finalChecksum;
+  }
+
+  /** State of the game when the level started. */
+  public static final class Start {
+    private int level;
+    private boolean coop;
+    private int lives;
+    private int livesCap;
+    private int scoreP1;
+    private int scoreP2;
+    private int itemPity;
+    private boolean bonusLife;
+    private Ship.ShipType shipTypeP1;
+    private Ship.ShipType shipTypeP2;
+    private int width;
+    private int height;
+    private int fps;
+
+    /** Columns, rows, volley size and bullet cap of a stress level, all 0 for a stock level. */
+    private int stressColumns;
+
+    private int stressRows;
+    private int stressVolley;
+    private int stressBulletCap;
+
+    private Start() {}
+
+    /**
+     * Captures the start of a level. Must be called before the level screen grants the bonus life.
+     *
+     * @param state Game state handed to the level.
+     * @param bonusLife Whether the level grants a bonus life.
+     * @param shipTypeP1 Ship of player 1.
+     * @param shipTypeP2 Ship of player 2.
+     * @param width Screen width.
+     * @param height Screen height.
+     * @param fps Frame rate of the level.
+     * @return Start values.
+     */
+    public static Start of(
+        final GameState state,
+        final boolean bonusLife,
+        final Ship.ShipType shipTypeP1,
+        final Ship.ShipType shipTypeP2,
+        final int width,
+        final int height,
+        final int fps) {
+      final Start start = new Start();
+      start.level = state.getLevel();
+      start.coop = state.isCoop();
+      start.lives = state.isSharedLives() ? state.getTeamLives() : state.get1PlayerLives();
+      start.livesCap = state.getTeamLivesCap();
+      start.scoreP1 = state.getScore(0);
+      start.scoreP2 = state.getScore(1);
+      start.itemPity = Core.getItemManager().getPityCounter();
+      start.bonusLife = bonusLife;
+      start.shipTypeP1 = shipTypeP1;
+      start.shipTypeP2 = shipTypeP2;
+      start.width = width;
+      start.height = height;
+      start.fps = fps;
+      return start;
+    }
+
+    /**
+     * Records the settings of a stress level, stock levels are looked up by their number.
+     *
+     * @param settings Settings the level is played with.
+     * @return This start.
+     */
+    public Start withSettings(final GameSettings settings) {
+      if (settings.isStress()) {
+        stressColumns = settings.getFormationWidth();
+        stressRows = settings.getFormationHeight();
+        stressVolley = settings.getVolleySize();
+        stressBulletCap = settings.getBulletCap();
+      }
+      return this;
+    }
+
+    /**
+     * Returns the settings the level was played with.
+     *
+     * @param levels Stock settings by level.
+     * @return Recorded stress settings, or the stock settings of the level.
+     */
+    public GameSettings settings(final List<GameSettings> levels) {
+      if (stressColumns > 0) {
+        return GameSettings.stress(stressColumns, stressRows, stressVolley, stressBulletCap);
+      }
+      return levels.get(level - 1);
+    }
+
+    /**
+     * Rebuilds the game state the level started with and restores the item drop pity.
+     *
+     * @return New game state equal to the recorded one in everything the level plays with.
+     */
+    public GameState restore() {
+      final GameState state =
+          new GameState(level, coop ? livesCap / GameState.NUM_PLAYERS : lives, coop);
+      while (state.getLivesRemaining() > lives) {
+        state.decLife(0);
+      }
+      state.addScore(0, scoreP1);
+      state.addScore(1, scoreP2);
+      Core.getItemManager().setPityCounter(itemPity);
+      return state;
+    }
+
+    /**
+     * Returns whether a level started this way is built like another one, so the state of one can
+     * be read back on the other.
+     *
+     * @param other Start of the other level.
+     * @return True for the same level, mode, ships, screen and stress settings.
+     */
+    public boolean isSameLevel(final Start other) {
+      return level == other.level
+          && coop == other.coop
+          && shipTypeP1 == other.shipTypeP1
+          && shipTypeP2 == other.shipTypeP2
+          && width == other.width
+          && height == other.height
+          && stressColumns == other.stressColumns
+          && stressRows == other.stressRows
+          && stressVolley == other.stressVolley
+          && stressBulletCap == other.stressBulletCap;
+    }
+
+    public int getLevel() {
+      return level;
+    }
+
+    public boolean isBonusLife() {
+      return bonusLife;
+    }
+
+    public Ship.ShipType getShipTypeP1() {
+      return shipTypeP1;
+    }
+
+    public Ship.ShipType getShipTypeP2() {
+      return shipTypeP2;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public int getFps() {
+      return fps;
+    }
+
+    void write(final DataOutput out) throws IOException {
+      out.writeInt(level);
+      out.writeBoolean(coop);
+      out.writeInt(lives);
+      out.writeInt(livesCap);
+      out.writeInt(scoreP1);
+      out.writeInt(scoreP2);
+      out.writeInt(itemPity);
+      out.writeBoolean(bonusLife);
+      out.writeUTF(shipTypeP1.name());
+      out.writeUTF(shipTypeP2.name());
+      out.writeInt(width);
+      out.writeInt(height);
+      out.writeInt(fps);
+      out.writeInt(stressColumns);
+      out.writeInt(stressRows);
+      out.writeInt(stressVolley);
+      out.writeInt(stressBulletCap);
+    }
+
+    static Start read(final DataInput in) throws IOException {
+      final Start start = new Start();
+      start.level = in.readInt();
+      start.coop = in.readBoolean();
+      start.lives = in.readInt();
+      start.livesCap = in.readInt();
+      start.scoreP1 = in.readInt();
+      start.scoreP2 = in.readInt();
+      start.itemPity = in.readInt();
+      start.bonusLife = in.readBoolean();
+      start.shipTypeP1 = shipType(in.readUTF());
+      start.shipTypeP2 = shipType(in.readUTF());
+      start.width = in.readInt();
+      start.height = in.readInt();
+      start.fps = in.readInt();
+      start.stressColumns = in.readInt();
+      start.stressRows = in.readInt();
+      start.stressVolley = in.readInt();
+      start.stressBulletCap = in.readInt();
+      return start;
+    }
+
+    private static Ship.ShipType shipType(final String name) throws IOException {
+      try {
+        return Ship.ShipType.valueOf(name);
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Unknown ship type in replay: " + name, e);
+      }
+    }
+  }
+
+  public Start getStart() {
+    return start;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public long getStartMillis() {
+    return startMillis;
+  }
+
+  public int getTickCount() {
+    return tickCount;
+  }
+
+  public long getFinalChecksum() {
+    return finalChecksum;
+  }
+
+  /** Encoded tick stream, shared with the player. */
+  byte[] ticks() {
+    return ticks;
+  }
+
+  /**
+   * Writes the replay.
+   *
+   * @param stream Destination, not closed.
+   * @throws IOException When writing fails.
+   */
+  public void write(final OutputStream stream) throws IOException {
+    final DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(seed);
+    out.writeLong(startMillis);
+    start.write(out);
+    out.writeInt(tickCount);
+    out.writeInt(ticks.length);
+    out.write(ticks);
+    out.writeLong(finalChecksum);
+    out.flush();
+  }
+
+  /**
+   * Reads a replay written by {@link #write(OutputStream)}.
+   *
+   * @param stream Source, not closed.
+   * @return Replay.
+   * @throws IOException When reading fails or the data is not a replay of this version.
+   */
+  public static Replay read(final InputStream stream) throws IOException {
+    final DataInputStream in = new DataInputStream(stream);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a replay file");
+    }
+    final int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported replay version " + version);
+    }
+    final long seed = in.readLong();
+    final long startMillis = in.readLong();
+    final Start start = Start.read(in);
+    final int tickCount = in.readInt();
+    final byte[] ticks = new byte[in.readInt()];
+    in.readFully(ticks);
+    return new Replay(start, seed, startMillis, tickCount, ticks, in.readLong());
+  }
+
+  /**
+   * Folds a value into a state checksum (FNV-1a over the value bytes).
+   *
+   * @param checksum Checksum so far, starting at {@link #CHECKSUM_SEED}.
+   * @param value Value to add.
+   * @return New checksum.
+   */
+  public static long mix(final long checksum, final long value) {
+    long hash = checksum;
+    for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+      hash = (hash ^ (value >>> shift & 0xFF)) * CHECKSUM_PRIME;
+    }
+    return hash;
+  }
+
+  static void writeVarLong(final ByteArrayOutputStream out, final long value) {
+    long rest = value;
+    while ((rest & ~0x7FL) != 0) {
+      out.write((int) (rest & 0x7F) | 0x80);
+      rest >>>= 7;
+    }
+    out.write((int) rest);
+  }
+
+  static void writeZigZag(final ByteArrayOutputStream out, final int value) {
+    writeVarLong(out, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+  }
+
+  static int zigZag(final long encoded) {
+    final int value = (int) encoded;
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
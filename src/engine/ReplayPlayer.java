@@ -0,0 +1,119 @@
+package engine;
+
+/**
+ * Feeds a {@link Replay} back into the game tick by tick: sets the game clock to the recorded tick
+ * time and the input to the recorded snapshot, and hands out the recorded checksums to compare the
+ * replayed state against.
+ */
+public final class ReplayPlayer {
+
+  private final Replay replay;
+  private final byte[] data;
+  private int position;
+
+  /** Key states of the current tick. */
+  private final int[] keyStates = new int[InputManager.NUM_KEYS];
+
+  private int mouseX;
+  private int mouseY;
+  private int mouseButtons;
+
+  private long timeMillis;
+  private int tick;
+
+  /**
+   * Creates a player positioned before the first tick.
+   *
+   * @param replay Recorded level.
+   */
+  public ReplayPlayer(final Replay replay) {
+    this.replay = replay;
+    this.data = replay.ticks();
+    this.timeMillis = replay.getStartMillis();
+  }
+
+  /**
+   * Switches the game clock to manual time at the start of the level and clears the input state.
+   * Call before the level screen is created.
+   */
+  public void begin() {
+    GameClock.useManualTime(replay.getStartMillis());
+    for (int code = 0; code < InputManager.NUM_KEYS; code++) {
+      InputManager.setKeyState(code, 0);
+    }
+    InputManager.setMouseState(0, 0, false, false);
+  }
+
+  /**
+   * Returns whether ticks are left.
+   *
+   * @return True until every recorded tick was played.
+   */
+  public boolean hasNextTick() {
+    return tick < replay.getTickCount();
+  }
+
+  /** Advances the clock to the next tick and applies its input snapshot. */
+  public void nextTick() {
+    final long head = readVarLong();
+    timeMillis += head >>> Replay.FLAG_BITS;
+    if ((head & Replay.KEYS_CHANGED) != 0) {
+      final int changed = (int) readVarLong();
+      for (int i = 0; i < changed; i++) {
+        final int entry = (int) readVarLong();
+        keyStates[entry >>> Replay.KEY_STATE_BITS] = entry & ((1 << Replay.KEY_STATE_BITS) - 1);
+      }
+    }
+    if ((head & Replay.MOUSE_CHANGED) != 0) {
+      mouseX += Replay.zigZag(readVarLong());
+      mouseY += Replay.zigZag(readVarLong());
+      mouseButtons = data[position++];
+    }
+    tick++;
+
+    GameClock.useManualTime(timeMillis);
+    // Pressed edges are cleared after every tick, so the whole snapshot is applied each time
+    for (int code = 0; code < InputManager.NUM_KEYS; code++) {
+      InputManager.setKeyState(code, keyStates[code]);
+    }
+    InputManager.setMouseState(mouseX, mouseY, (mouseButtons & 1) != 0, (mouseButtons & 2) != 0);
+  }
+
+  /**
+   * Returns whether the tick just played ends with a recorded checkpoint.
+   *
+   * @return True every {@link Replay#CHECKPOINT_TICKS} ticks.
+   */
+  public boolean isCheckpointDue() {
+    return tick % Replay.CHECKPOINT_TICKS == 0;
+  }
+
+  /**
+   * Reads the checksum recorded at the end of the tick just played.
+   *
+   * @return Recorded state checksum.
+   */
+  public long readCheckpoint() {
+    long checksum = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      checksum = checksum << Byte.SIZE | data[position++] & 0xFF;
+    }
+    return checksum;
+  }
+
+  public int getTick() {
+    return tick;
+  }
+
+  private long readVarLong() {
+    long value = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = data[position++];
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
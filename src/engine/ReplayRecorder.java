@@ -0,0 +1,184 @@
+package engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records a level so {@link ReplayPlayer} can play it again exactly: the RNG seed, the start state
+ * and the input snapshot of every tick, with a state checksum every {@link
+ * Replay#CHECKPOINT_TICKS} ticks. Started with {@code -Dinvaders.replay} (or {@code
+ * -Dinvaders.replay=<directory>}), each level is written to its own file when it ends.
+ *
+ * <p>While recording the game clock is latched once per tick, see {@link GameClock#latch()}, so the
+ * tick times in the file are the only times the level ever saw.
+ */
+public final class ReplayRecorder {
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  /** Directory used when {@code -Dinvaders.replay} has no value. */
+  private static final String DEFAULT_DIRECTORY = "replays";
+
+  /** Tick stream bytes reserved up front, a few minutes of play. */
+  private static final int INITIAL_STREAM_SIZE = 16 * 1024;
+
+  private final Replay.Start start;
+  private final ByteArrayOutputStream stream = new ByteArrayOutputStream(INITIAL_STREAM_SIZE);
+
+  /** Key states of the previous tick. */
+  private final int[] keyStates = new int[InputManager.NUM_KEYS];
+
+  /** Keys that changed in the current tick. */
+  private final int[] changedKeys = new int[InputManager.NUM_KEYS];
+
+  private int mouseX;
+  private int mouseY;
+  private int mouseButtons;
+
+  private long seed;
+  private long startMillis;
+  private long lastMillis;
+  private int tickCount;
+
+  /**
+   * Creates a recorder for a level that is about to start.
+   *
+   * @param start State the level starts from, see {@link Replay.Start#of}.
+   */
+  public ReplayRecorder(final Replay.Start start) {
+    this.start = start;
+  }
+
+  /**
+   * Returns whether levels should be recorded.
+   *
+   * @return True when {@code -Dinvaders.replay} is set.
+   */
+  public static boolean isRequested() {
+    return System.getProperty("invaders.replay") != null;
+  }
+
+  /**
+   * Starts recording. Called when the level initializes, before it draws any random number.
+   *
+   * @param levelSeed Seed the RNG streams are derived from for this level.
+   * @param timeMillis Game time when the level starts.
+   */
+  public void begin(final long levelSeed, final long timeMillis) {
+    this.seed = levelSeed;
+    this.startMillis = timeMillis;
+    this.lastMillis = timeMillis;
+  }
+
+  /**
+   * Records the input snapshot of a tick. Called at the start of every tick, after the input
+   * events were polled.
+   *
+   * @param timeMillis Game time of the tick.
+   */
+  public void captureTick(final long timeMillis) {
+    int changed = 0;
+    for (int code = 0; code < InputManager.NUM_KEYS; code++) {
+      final int state = InputManager.getKeyState(code);
+      if (state != keyStates[code]) {
+        keyStates[code] = state;
+        changedKeys[changed++] = code;
+      }
+    }
+
+    final InputManager input = Core.getInputManager();
+    final int x = input.getMouseX();
+    final int y = input.getMouseY();
+    final int buttons =
+        (input.isMousePressed() ? 1 : 0) | (InputManager.peekMouseClicked() ? 2 : 0);
+    final boolean mouseChanged = x != mouseX || y != mouseY || buttons != mouseButtons;
+
+    final int flags =
+        (changed > 0 ? Replay.KEYS_CHANGED : 0) | (mouseChanged ? Replay.MOUSE_CHANGED : 0);
+    Replay.writeVarLong(stream, (timeMillis - lastMillis) << Replay.FLAG_BITS | flags);
+    lastMillis = timeMillis;
+    if (changed > 0) {
+      Replay.writeVarLong(stream, changed);
+      for (int i = 0; i < changed; i++) {
+        final int code = changedKeys[i];
+        Replay.writeVarLong(stream, code << Replay.KEY_STATE_BITS | keyStates[code]);
+      }
+    }
+    if (mouseChanged) {
+      Replay.writeZigZag(stream, x - mouseX);
+      Replay.writeZigZag(stream, y - mouseY);
+      stream.write(buttons);
+      mouseX = x;
+      mouseY = y;
+      mouseButtons = buttons;
+    }
+    tickCount++;
+  }
+
+  /**
+   * Returns whether the tick just captured ends with a checkpoint.
+   *
+   * @return True every {@link Replay#CHECKPOINT_TICKS} ticks.
+   */
+  public boolean isCheckpointDue() {
+    return tickCount % Replay.CHECKPOINT_TICKS == 0;
+  }
+
+  /**
+   * Records the state checksum at the end of a checkpoint tick.
+   *
+   * @param checksum Checksum of the game state after the update.
+   */
+  public void checkpoint(final long checksum) {
+    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      stream.write((int) (checksum >>> shift));
+    }
+  }
+
+  /**
+   * Ends the recording.
+   *
+   * @param checksum Checksum of the game state after the last tick.
+   * @return Recorded level.
+   */
+  public Replay finish(final long checksum) {
+    return new Replay(start, seed, startMillis, tickCount, stream.toByteArray(), checksum);
+  }
+
+  /**
+   * Ends the recording and writes it to the replay directory.
+   *
+   * @param checksum Checksum of the game state after the last tick.
+   */
+  public void save(final long checksum) {
+    final String property = System.getProperty("invaders.replay");
+    final File directory =
+        new File(property == null || property.isBlank() ? DEFAULT_DIRECTORY : property);
+    if (!directory.exists() && !directory.mkdirs()) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to create replay directory: " + directory.getAbsolutePath());
+      }
+      return;
+    }
+    final String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+    final File file = new File(directory, "level" + start.getLevel() + "-" + stamp + ".replay");
+    try (OutputStream out = Files.newOutputStream(file.toPath())) {
+      finish(checksum).write(out);
+      if (LOGGER.isLoggable(Level.INFO)) {
+        LOGGER.info("Replay of " + tickCount + " ticks saved to " + file.getAbsolutePath());
+      }
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to save replay: " + e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random number streams of the game. Every subsystem draws from its own stream and all streams are
+ * derived from one seed per level, so a level plays out the same again when it is reseeded with
+ * the recorded seed and fed the same input, see {@link ReplayRecorder}. Separate streams keep
+ * subsystems from shifting each other's sequence, explosions spawned for the screen do not change
+ * which enemy fires next.
+ *
+ * <p>The streams are {@link SplittableRandom}s: not synchronized and much cheaper than {@link
+ * Math#random()} or a shared {@link java.util.Random}, but only safe on the thread that owns them.
+ * {@link #get(Stream)} is for the game loop. Other threads take their own generator with {@link
+ * #split(Stream)}, which is still determined by the seed when it is split at the same point of the
+ * simulation.
+ *
+ * <p>Every {@link GameContext} has its own streams, the methods act on the streams of the calling
+ * thread's game.
+ */
+public final class Rng {
+
+  /** Subsystems with their own stream. */
+  public enum Stream {
+    /** Cooldowns with a variance, like enemy fire and the special ship. */
+    COOLDOWN,
+    /** Choice of the enemy that fires. */
+    ENEMY_FIRE,
+    /** Item drop rolls. */
+    ITEMS,
+    /** Explosion particles. */
+    EXPLOSIONS,
+    /** Background stars. */
+    STARS,
+    /** Purely visual jitter, drawn on the drawing thread through a split generator. */
+    EFFECTS
+  }
+
+  /** Odd constant spreading the stream seeds, from SplitMix64. */
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  /** Source of fresh level seeds. */
+  private static final SplittableRandom SEEDER = new SplittableRandom();
+
+  private static final Stream[] STREAMS = Stream.values();
+
+  private Rng() {}
+
+  /**
+   * Returns a fresh seed for a new level.
+   *
+   * @return Seed that differs between calls and runs.
+   */
+  public static long newSeed() {
+    synchronized (SEEDER) {
+      return SEEDER.nextLong();
+    }
+  }
+
+  /**
+   * Restarts every stream from a seed. Generators taken earlier, directly or split, keep their own
+   * sequence, so callers look their stream up with {@link #get(Stream)} instead of keeping it.
+   *
+   * <p>A stream is only created when it is first drawn from after the reseed, so reseeding before
+   * every tick costs nothing for the streams that tick leaves alone.
+   *
+   * @param newSeed Seed to derive the streams from.
+   */
+  public static void reseed(final long newSeed) {
+    reseed(GameContext.current(), newSeed);
+  }
+
+  static void reseed(final GameContext context, final long newSeed) {
+    context.setSeed(newSeed);
+    for (final Stream stream : STREAMS) {
+      context.setRandom(stream, null);
+    }
+  }
+
+  /**
+   * Restarts every stream from a seed mixed from a level seed and a tick number. Rollback netplay
+   * reseeds before every tick, so what a tick draws does not depend on what was drawn before it
+   * and a restored snapshot needs no generator state.
+   *
+   * @param levelSeed Seed of the level.
+   * @param tick Tick about to be simulated.
+   */
+  public static void reseedForTick(final long levelSeed, final long tick) {
+    // SplitMix64 finalizer, neighbouring ticks get unrelated streams
+    long z = levelSeed + tick * GOLDEN_GAMMA;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    reseed(z ^ (z >>> 31));
+  }
+
+  /**
+   * Returns the seed the streams were last derived from.
+   *
+   * @return Current seed.
+   */
+  public static long getSeed() {
+    return GameContext.current().getSeed();
+  }
+
+  /**
+   * Returns the stream of a subsystem. Only the game loop may draw from it.
+   *
+   * @param stream Subsystem drawing the numbers.
+   * @return Generator of that subsystem.
+   */
+  public static SplittableRandom get(final Stream stream) {
+    return get(GameContext.current(), stream);
+  }
+
+  private static SplittableRandom get(final GameContext context, final Stream stream) {
+    SplittableRandom random = context.getRandom(stream);
+    if (random == null) {
+      random = new SplittableRandom(context.getSeed() + (stream.ordinal() + 1) * GOLDEN_GAMMA);
+      context.setRandom(stream, random);
+    }
+    return random;
+  }
+
+  /**
+   * Splits a new generator off a stream for another thread to own. Called on the game loop, the
+   * new generator is as reproducible as the stream itself.
+   *
+   * @param stream Subsystem the generator belongs to.
+   * @return Independent generator, not shared with any other caller.
+   */
+  public static SplittableRandom split(final Stream stream) {
+    return get(GameContext.current(), stream).split();
+  }
+}
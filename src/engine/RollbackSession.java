@@ -0,0 +1,529 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rollback netplay between two peers that both run the whole, deterministic simulation. Only
+ * inputs travel: every frame a peer sends its recent inputs in one small datagram and advances its
+ * simulation right away, predicting that the other player still holds what they held last. When
+ * the real input arrives and differs from the prediction, the session loads the state saved before
+ * that tick and simulates forward again with the corrected input.
+ *
+ * <p>Local input is scheduled {@link #DEFAULT_INPUT_DELAY} ticks ahead, which hides part of the
+ * latency and keeps most rollbacks short. A peer never predicts more than {@link #MAX_PREDICTION}
+ * ticks ahead of the other's input, it waits instead. Peers exchange the checksum of their latest
+ * confirmed tick, a mismatch is reported through {@link #getDesyncTick()}.
+ *
+ * <p>Input packet: type byte, first tick (int), input count (byte), one byte per input, ack (int:
+ * inputs received from the peer), checksum tick (int, -1 for none) and checksum (long).
+ */
+public final class RollbackSession {
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  /** Ticks of inputs and states kept, a power of two. */
+  static final int WINDOW = 64;
+
+  private static final int MASK = WINDOW - 1;
+
+  /** Ticks local input is delayed by. */
+  public static final int DEFAULT_INPUT_DELAY = 2;
+
+  /** Ticks a peer may run ahead of the other's input, 200 ms at 60 fps. */
+  public static final int MAX_PREDICTION = 12;
+
+  /** Bytes reserved per saved state, grown when a state does not fit. */
+  private static final int INITIAL_STATE_SIZE = 16 * 1024;
+
+  /** Largest packet either peer sends. */
+  static final int MAX_PACKET = 256;
+
+  static final byte INPUT = 1;
+  static final byte HELLO = 2;
+
+  /** Milliseconds between two hello packets while waiting for the peer. */
+  private static final int HELLO_INTERVAL = 50;
+
+  /** Simulation both peers run; it must play out the same for the same inputs. */
+  public interface Simulation {
+
+    /**
+     * Writes everything the next ticks depend on.
+     *
+     * @param out Buffer to write to, throws {@link BufferOverflowException} when it is too small.
+     */
+    void writeState(ByteBuffer out);
+
+    /**
+     * Reads back a state written by {@link #writeState(ByteBuffer)}.
+     *
+     * @param in Buffer to read from.
+     */
+    void readState(ByteBuffer in);
+
+    /**
+     * Simulates one tick.
+     *
+     * @param player1 Input bits of player 1, see {@link NetInput}.
+     * @param player2 Input bits of player 2.
+     */
+    void step(int player1, int player2);
+
+    /**
+     * Sums up the current state, so peers can tell whether they are still in sync.
+     *
+     * @return State checksum.
+     */
+    long checksum();
+  }
+
+  /** Unreliable, unordered datagram link to the other peer. */
+  public interface Transport {
+
+    /**
+     * Sends a datagram, dropping it silently is fine.
+     *
+     * @param packet Bytes between position and limit.
+     * @throws IOException When the link is broken.
+     */
+    void send(ByteBuffer packet) throws IOException;
+
+    /**
+     * Receives the next waiting datagram without blocking.
+     *
+     * @param packet Buffer to fill, flipped for reading on return.
+     * @return False when nothing was waiting.
+     * @throws IOException When the link is broken.
+     */
+    boolean receive(ByteBuffer packet) throws IOException;
+  }
+
+  /** Outcome of {@link #handshake}. */
+  public static final class Match {
+    private final long seed;
+    private final int peerInfo;
+
+    Match(final long seed, final int peerInfo) {
+      this.seed = seed;
+      this.peerInfo = peerInfo;
+    }
+
+    /** Seed of the level, the one player 1 proposed. */
+    public long getSeed() {
+      return seed;
+    }
+
+    /** Value the peer passed as its own info, like its ship type. */
+    public int getPeerInfo() {
+      return peerInfo;
+    }
+  }
+
+  private final Simulation simulation;
+  private final Transport transport;
+  private final int localPlayer;
+  private final int inputDelay;
+
+  private final ByteBuffer packet = ByteBuffer.allocate(MAX_PACKET);
+  private final int[] localInputs = new int[WINDOW];
+  private final int[] remoteInputs = new int[WINDOW];
+
+  /** Remote input each tick was simulated with. */
+  private final int[] usedRemote = new int[WINDOW];
+
+  /** State before each tick. */
+  private final ByteBuffer[] states = new ByteBuffer[WINDOW];
+
+  /** Checksum after each tick. */
+  private final long[] checksums = new long[WINDOW];
+
+  /** Next tick to simulate. */
+  private int tick;
+
+  /** Local inputs scheduled so far. */
+  private int localTick;
+
+  /** Remote inputs received so far, without gaps. */
+  private int remoteConfirmed;
+
+  /** Local inputs the peer has received. */
+  private int remoteAck;
+
+  /** Earliest tick simulated with a wrong prediction, {@link Integer#MAX_VALUE} when none. */
+  private int rollbackFrom = Integer.MAX_VALUE;
+
+  private boolean resimulating;
+
+  /** Latest checksum of the peer still to compare, -1 when none. */
+  private int peerChecksumTick = -1;
+
+  private long peerChecksum;
+  private int desyncTick = -1;
+
+  private long rollbacks;
+  private long resimulatedTicks;
+  private int maxRollback;
+  private long stalls;
+
+  /**
+   * Creates a session that delays local input by {@link #DEFAULT_INPUT_DELAY} ticks.
+   *
+   * @param simulation Simulation of this peer, in the state both peers start from.
+   * @param transport Link to the other peer.
+   * @param localPlayer Player of this peer, 0 or 1.
+   */
+  public RollbackSession(
+      final Simulation simulation, final Transport transport, final int localPlayer) {
+    this(simulation, transport, localPlayer, DEFAULT_INPUT_DELAY);
+  }
+
+  /**
+   * Creates a session.
+   *
+   * @param simulation Simulation of this peer, in the state both peers start from.
+   * @param transport Link to the other peer.
+   * @param localPlayer Player of this peer, 0 or 1.
+   * @param inputDelay Ticks local input is delayed by, both peers must use the same.
+   * @throws IllegalArgumentException When the player or the delay is out of range.
+   */
+  public RollbackSession(
+      final Simulation simulation,
+      final Transport transport,
+      final int localPlayer,
+      final int inputDelay) {
+    if (localPlayer != 0 && localPlayer != 1) {
+      throw new IllegalArgumentException("Player must be 0 or 1: " + localPlayer);
+    }
+    if (inputDelay < 0 || inputDelay >= WINDOW - MAX_PREDICTION) {
+      throw new IllegalArgumentException("Input delay out of range: " + inputDelay);
+    }
+    this.simulation = simulation;
+    this.transport = transport;
+    this.localPlayer = localPlayer;
+    this.inputDelay = inputDelay;
+    this.localTick = inputDelay;
+    for (int i = 0; i < WINDOW; i++) {
+      states[i] = ByteBuffer.allocate(INITIAL_STATE_SIZE); // NOPMD - allocated once per session
+    }
+  }
+
+  /**
+   * Agrees on a level with the peer before a session starts: both peers send hellos until each has
+   * seen the other's. Player 1 proposes the seed.
+   *
+   * @param transport Link to the other peer.
+   * @param localPlayer Player of this peer, 0 or 1.
+   * @param level Level this peer is about to play, both must be on the same one.
+   * @param localInfo Value handed to the peer, like the ship type.
+   * @param proposedSeed Seed used when this peer is player 1.
+   * @param timeoutMillis Time to wait for the peer.
+   * @return Seed and the peer's info.
+   * @throws IOException When the peer does not answer in time or is on another level.
+   */
+  public static Match handshake(
+      final Transport transport,
+      final int localPlayer,
+      final int level,
+      final int localInfo,
+      final long proposedSeed,
+      final long timeoutMillis)
+      throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(MAX_PACKET);
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    long seed = proposedSeed;
+    int peerInfo = 0;
+    boolean seen = false;
+    boolean seenByPeer = false;
+    while (!seen || !seenByPeer) {
+      if (System.nanoTime() - deadline > 0) {
+        throw new IOException("No answer from the other player");
+      }
+      sendHello(transport, buffer, localPlayer, seen, level, localInfo, proposedSeed);
+      sleep(HELLO_INTERVAL);
+      while (transport.receive(buffer)) {
+        final byte type = buffer.get();
+        if (type == INPUT) {
+          // The peer only starts sending input once it has seen our hello
+          seenByPeer = seen;
+        } else if (type == HELLO && buffer.get() != localPlayer) {
+          seenByPeer = buffer.get() != 0;
+          final int peerLevel = buffer.getInt();
+          if (peerLevel != level) {
+            throw new IOException("The other player is on level " + peerLevel);
+          }
+          peerInfo = buffer.getInt();
+          final long peerSeed = buffer.getLong();
+          if (localPlayer == 1) {
+            seed = peerSeed;
+          }
+          seen = true;
+        }
+      }
+    }
+    // The peer may still wait for our seen flag, its first inputs would tell it as well
+    sendHello(transport, buffer, localPlayer, true, level, localInfo, proposedSeed);
+    return new Match(seed, peerInfo);
+  }
+
+  private static void sendHello(
+      final Transport transport,
+      final ByteBuffer buffer,
+      final int localPlayer,
+      final boolean seen,
+      final int level,
+      final int localInfo,
+      final long proposedSeed)
+      throws IOException {
+    buffer.clear();
+    buffer.put(HELLO).put((byte) localPlayer).put((byte) (seen ? 1 : 0));
+    buffer.putInt(level).putInt(localInfo).putLong(proposedSeed);
+    buffer.flip();
+    transport.send(buffer);
+  }
+
+  /**
+   * Runs one frame: takes the peer's packets, rolls back if a prediction was wrong, simulates the
+   * next tick with the local input unless too far ahead of the peer, and sends the local inputs.
+   *
+   * @param localInput Input bits of the local player this frame.
+   * @return Whether a new tick was simulated, false while waiting for the peer.
+   * @throws IOException When the link is broken.
+   */
+  public boolean advance(final int localInput) throws IOException {
+    receive();
+    if (rollbackFrom < tick) {
+      rollback();
+    }
+    final boolean ready =
+        tick - remoteConfirmed < MAX_PREDICTION && localTick - remoteAck < WINDOW - 1;
+    if (ready) {
+      localInputs[localTick & MASK] = localInput;
+      localTick++;
+      step();
+    } else {
+      stalls++;
+    }
+    compareChecksums();
+    send();
+    return ready;
+  }
+
+  /**
+   * Keeps sending until the peer has the local input of a tick, so a peer that finishes first does
+   * not leave the other one waiting for its last inputs.
+   *
+   * @param throughTick Last tick the peer needs the local input of.
+   * @param timeoutMillis Longest time to wait for the peer.
+   * @throws IOException When the link is broken.
+   */
+  public void linger(final int throughTick, final long timeoutMillis) throws IOException {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    while (remoteAck <= throughTick && System.nanoTime() - deadline < 0) {
+      send();
+      sleep(HELLO_INTERVAL / 5);
+      receive();
+    }
+  }
+
+  private void step() {
+    final int slot = tick & MASK;
+    save(slot);
+    final int remote =
+        tick < remoteConfirmed
+            ? remoteInputs[slot]
+            : remoteConfirmed > 0 ? remoteInputs[(remoteConfirmed - 1) & MASK] : 0;
+    usedRemote[slot] = remote;
+    final int local = localInputs[slot];
+    if (localPlayer == 0) {
+      simulation.step(local, remote);
+    } else {
+      simulation.step(remote, local);
+    }
+    checksums[slot] = simulation.checksum();
+    tick++;
+  }
+
+  private void save(final int slot) {
+    while (true) {
+      final ByteBuffer state = states[slot];
+      state.clear();
+      try {
+        simulation.writeState(state);
+        state.flip();
+        return;
+      } catch (BufferOverflowException e) {
+        states[slot] = ByteBuffer.allocate(state.capacity() * 2);
+      }
+    }
+  }
+
+  private void rollback() {
+    final int target = tick;
+    final int depth = target - rollbackFrom;
+    rollbacks++;
+    resimulatedTicks += depth;
+    maxRollback = Math.max(maxRollback, depth);
+    tick = rollbackFrom;
+    rollbackFrom = Integer.MAX_VALUE;
+
+    final ByteBuffer state = states[tick & MASK];
+    state.rewind();
+    simulation.readState(state);
+    resimulating = true;
+    try {
+      while (tick < target) {
+        step();
+      }
+    } finally {
+      resimulating = false;
+    }
+  }
+
+  private void send() throws IOException {
+    final int count = Math.min(localTick - remoteAck, WINDOW - 1);
+    final int first = localTick - count;
+    final int confirmed = Math.min(tick, remoteConfirmed) - 1;
+    packet.clear();
+    packet.put(INPUT).putInt(first).put((byte) count);
+    for (int t = first; t < localTick; t++) {
+      packet.put((byte) localInputs[t & MASK]);
+    }
+    packet.putInt(remoteConfirmed);
+    packet.putInt(confirmed);
+    packet.putLong(confirmed >= 0 ? checksums[confirmed & MASK] : 0);
+    packet.flip();
+    transport.send(packet);
+  }
+
+  private void receive() throws IOException {
+    while (transport.receive(packet)) {
+      if (packet.get() != INPUT) {
+        // A late hello from the handshake
+        continue;
+      }
+      final int first = packet.getInt();
+      final int count = packet.get();
+      // Inputs past the window would overwrite ones a rollback may still need
+      final int limit = tick + WINDOW - MAX_PREDICTION;
+      for (int i = 0; i < count; i++) {
+        final int t = first + i;
+        final int input = packet.get();
+        if (t == remoteConfirmed && t < limit) {
+          accept(t, input);
+        }
+      }
+      remoteAck = Math.max(remoteAck, packet.getInt());
+      final int checksumTick = packet.getInt();
+      final long checksum = packet.getLong();
+      if (checksumTick > peerChecksumTick) {
+        peerChecksumTick = checksumTick;
+        peerChecksum = checksum;
+      }
+    }
+  }
+
+  private void accept(final int remoteTick, final int input) {
+    final int slot = remoteTick & MASK;
+    remoteInputs[slot] = input;
+    remoteConfirmed++;
+    if (remoteTick < tick && usedRemote[slot] != input) {
+      rollbackFrom = Math.min(rollbackFrom, remoteTick);
+    }
+  }
+
+  private void compareChecksums() {
+    final int confirmed = Math.min(tick, remoteConfirmed);
+    if (peerChecksumTick < 0
+        || peerChecksumTick >= confirmed
+        || peerChecksumTick < tick - WINDOW + 1) {
+      return;
+    }
+    if (checksums[peerChecksumTick & MASK] != peerChecksum && desyncTick < 0) {
+      desyncTick = peerChecksumTick;
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Netplay out of sync at tick " + desyncTick);
+      }
+    }
+    peerChecksumTick = -1;
+  }
+
+  private static void sleep(final int millis) throws IOException {
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the other player", e);
+    }
+  }
+
+  /**
+   * Returns whether ticks are being simulated again after a wrong prediction, when sounds and
+   * other effects outside the simulation should stay quiet.
+   *
+   * @return True during a rollback.
+   */
+  public boolean isResimulating() {
+    return resimulating;
+  }
+
+  /**
+   * Returns whether every simulated tick used the peer's real input, so nothing can be rolled back.
+   *
+   * @return True when no tick rests on a prediction.
+   */
+  public boolean isSettled() {
+    return remoteConfirmed >= tick;
+  }
+
+  /** Next tick to simulate, also the number of ticks simulated. */
+  public int getTick() {
+    return tick;
+  }
+
+  /** Inputs of the peer received so far. */
+  public int getConfirmedTicks() {
+    return remoteConfirmed;
+  }
+
+  /**
+   * Returns the checksum after a tick that no longer rests on a prediction.
+   *
+   * @param confirmedTick Tick below {@link #getConfirmedTicks()} and {@link #getTick()}, at most
+   *     {@link #WINDOW} ticks old.
+   * @return State checksum after the tick.
+   */
+  public long getChecksum(final int confirmedTick) {
+    return checksums[confirmedTick & MASK];
+  }
+
+  /** First tick whose checksum differed from the peer's, -1 while in sync. */
+  public int getDesyncTick() {
+    return desyncTick;
+  }
+
+  public long getRollbacks() {
+    return rollbacks;
+  }
+
+  public long getResimulatedTicks() {
+    return resimulatedTicks;
+  }
+
+  public int getMaxRollback() {
+    return maxRollback;
+  }
+
+  /** Frames spent waiting because the peer's input was too far behind. */
+  public long getStalls() {
+    return stalls;
+  }
+
+  public int getInputDelay() {
+    return inputDelay;
+  }
+}
@@ -3,6 +3,8 @@ package engine;
 import entity.Ship;
 import screen.*; // NOPMD
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -24,6 +26,9 @@ public class ScreenControl {
 
   private static final int EXTRA_LIFE_FREQUENCY = 3;
 
+  /** Milliseconds to wait for the other player before an online level. */
+  private static final int NET_HANDSHAKE_TIMEOUT = 30_000;
+
   private final Map<Integer, ScreenAction> screenActions = new HashMap<>();
 
   /** Frame to draw the screen on. */
@@ -32,9 +37,19 @@ public class ScreenControl {
   private final List<GameSettings> gameSettings;
 
   private boolean coopSelected = false; // false = 1P, true = 2P // NOPMD
+  private boolean stressSelected = false; // bullet-hell stress mode // NOPMD
+
+  /** Settings of the stress mode, read from the system properties when it is first played. */
+  private GameSettings stressSettings;
   private Ship.ShipType shipTypeP1 = Ship.ShipType.NORMAL; // P1 Ship Type
   private Ship.ShipType shipTypeP2 = Ship.ShipType.NORMAL; // P2 Ship Type
 
+  /** Link to the other machine of an online co-op game, null when playing on one machine. */
+  private UdpTransport netTransport;
+
+  /** Player this machine controls online, 0 or 1. */
+  private int netPlayer;
+
   // 1. 함수형 인터페이스 정의: 각 화면 메서드가 이 형태를 따름
   @FunctionalInterface
   private interface ScreenAction {
@@ -97,6 +112,7 @@ public class ScreenControl {
       returnCode = frame.setScreen(currentScreen);
 
       coopSelected = ((PlayScreen) currentScreen).isCoopSelected();
+      stressSelected = ((PlayScreen) currentScreen).isStressSelected();
     }
 
     return returnCode;
@@ -106,9 +122,15 @@ public class ScreenControl {
     // 2P mode: building gameState now using user choice
     GameState gameState = new GameState(1, MAX_LIVES, coopSelected);
     int returnCode;
+    openNetPlay();
+    LevelSnapshot recovered = recoverLevel();
+    if (recovered != null) {
+      gameState = recovered.getStart().restore();
+    }
 
     do {
-      returnCode = playSingleLevel(gameState, achievementManager);
+      returnCode = playSingleLevel(gameState, achievementManager, recovered);
+      recovered = null; // NOPMD - only the first level resumes
 
       if (returnCode == 1) {
         break;
@@ -123,6 +145,7 @@ public class ScreenControl {
         }
       }
     } while (gameState.teamAlive()); // NOPMD
+    closeNetPlay();
     if (returnCode == 1) {
       return 1;
     }
@@ -154,24 +177,62 @@ public class ScreenControl {
   }
 
   private int playSingleLevel(
-      final GameState gameState, final AchievementManager achievementManager) {
+      final GameState gameState,
+      final AchievementManager achievementManager,
+      final LevelSnapshot resume) {
     // Extra life this level? Give it if team pool is below cap.
     final int teamCap =
         gameState.isCoop() ? (MAX_LIVES * GameState.NUM_PLAYERS) : MAX_LIVES; // NOPMD
     final boolean bonusLife =
-        gameState.getLevel() % EXTRA_LIFE_FREQUENCY == 0 && gameState.getLivesRemaining() < teamCap;
+        resume == null
+            ? gameState.getLevel() % EXTRA_LIFE_FREQUENCY == 0
+                && gameState.getLivesRemaining() < teamCap
+            : resume.getStart().isBonusLife();
+
+    // Online, each machine picked one ship as player 1; the other one comes with the handshake
+    Ship.ShipType typeP1 = resume == null ? shipTypeP1 : resume.getStart().getShipTypeP1();
+    Ship.ShipType typeP2 = resume == null ? shipTypeP2 : resume.getStart().getShipTypeP2();
+    RollbackSession.Match match = null;
+    if (netTransport != null) {
+      try {
+        match =
+            RollbackSession.handshake(
+                netTransport,
+                netPlayer,
+                gameState.getLevel(),
+                shipTypeP1.ordinal(),
+                Rng.newSeed(),
+                NET_HANDSHAKE_TIMEOUT);
+      } catch (IOException e) {
+        if (LOGGER.isLoggable(Level.WARNING)) {
+          LOGGER.warning("Cannot start the online level: " + e.getMessage());
+        }
+        return 1;
+      }
+      final Ship.ShipType peerType = Ship.ShipType.values()[match.getPeerInfo()];
+      typeP1 = netPlayer == 0 ? shipTypeP1 : peerType;
+      typeP2 = netPlayer == 0 ? peerType : shipTypeP1;
+    }
 
-    currentScreen =
+    final GameScreen gameScreen =
         new GameScreen(
             gameState,
-            gameSettings.get(gameState.getLevel() - 1),
+            resume == null
+                ? levelSettings(gameState.getLevel())
+                : resume.getStart().settings(gameSettings),
             bonusLife,
             frame.getWidth(),
             frame.getHeight(),
             FPS,
-            shipTypeP1,
-            shipTypeP2,
+            typeP1,
+            typeP2,
             achievementManager);
+    if (match != null) {
+      gameScreen.playOnline(netTransport, netPlayer, match.getSeed());
+    } else if (resume != null) {
+      gameScreen.resumeFrom(resume);
+    }
+    currentScreen = gameScreen;
 
     if (LOGGER.isLoggable(Level.INFO)) {
       LOGGER.info("Starting " + WIDTH + "x" + HEIGHT + " game screen at " + FPS + " fps.");
@@ -183,6 +244,81 @@ public class ScreenControl {
     return returnCode;
   }
 
+  /**
+   * Returns the level a crash or power loss interrupted, when levels keep a recovery save. Online
+   * games are never resumed, the other player has moved on.
+   *
+   * @return Interrupted level, or null to start from level 1.
+   */
+  private LevelSnapshot recoverLevel() {
+    if (netTransport != null || !GameScreen.isRecoveryRequested()) {
+      return null;
+    }
+    final LevelSnapshot saved = Core.getFileManager().loadLevelSnapshot(GameScreen.RECOVERY_SAVE);
+    if (saved != null && LOGGER.isLoggable(Level.INFO)) {
+      LOGGER.info("Resuming level " + saved.getStart().getLevel() + " where it was interrupted");
+    }
+    return saved;
+  }
+
+  /** Whether {@code -Dinvaders.net} asks for online co-op. */
+  private static boolean isNetPlayRequested() {
+    return System.getProperty("invaders.net") != null;
+  }
+
+  /**
+   * Opens the link of an online co-op game when {@code
+   * -Dinvaders.net=<player>:<localPort>:<host>:<port>} is set, player being 1 or 2. Without it, or
+   * when the link cannot be opened, co-op is played on one machine.
+   */
+  private void openNetPlay() {
+    final String property = System.getProperty("invaders.net");
+    if (!coopSelected || property == null) {
+      return;
+    }
+    final String[] parts = property.split(":");
+    try {
+      if (parts.length != 4) {
+        throw new IOException("expected <player>:<localPort>:<host>:<port>");
+      }
+      netPlayer = Integer.parseInt(parts[0]) - 1;
+      if (netPlayer != 0 && netPlayer != 1) {
+        throw new IOException("player must be 1 or 2");
+      }
+      netTransport =
+          UdpTransport.open(
+              Integer.parseInt(parts[1]),
+              new InetSocketAddress(parts[2], Integer.parseInt(parts[3])));
+    } catch (IOException | NumberFormatException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Ignoring invaders.net=" + property + ": " + e.getMessage());
+      }
+    }
+  }
+
+  private void closeNetPlay() {
+    if (netTransport == null) {
+      return;
+    }
+    try {
+      netTransport.close();
+    } catch (IOException e) {
+      LOGGER.fine("Closing the online link failed");
+    }
+    netTransport = null; // NOPMD - the next game opens a new link
+  }
+
+  /** Every stress level is played with the same scaled-up settings. */
+  private GameSettings levelSettings(final int level) {
+    if (!stressSelected) {
+      return gameSettings.get(level - 1);
+    }
+    if (stressSettings == null) {
+      stressSettings = GameSettings.getStressSettings();
+    }
+    return stressSettings;
+  }
+
   private int showAchievementScreen() {
     return launchScreen(new AchievementScreen(frame.getWidth(), frame.getHeight(), FPS));
   }
@@ -201,6 +337,7 @@ public class ScreenControl {
   private int showPlayScreen() {
     int returnCode = launchScreen(new PlayScreen(frame.getWidth(), frame.getHeight(), FPS));
     coopSelected = ((PlayScreen) currentScreen).isCoopSelected();
+    stressSelected = ((PlayScreen) currentScreen).isStressSelected();
 
     // playscreen -> shipselectionscreen
     if (returnCode == 2) {
@@ -222,7 +359,7 @@ public class ScreenControl {
       return 5;
     }
 
-    if (coopSelected) {
+    if (coopSelected && !isNetPlayRequested()) {
       return 7; // Go to Player 2 selection.
     } else {
       return 2; // Start game.
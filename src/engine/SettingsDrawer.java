@@ -29,6 +29,10 @@ public final class SettingsDrawer { // NOPMD
     return drawManager.getFontRegular();
   }
 
+  private TextCache textRegular() {
+    return drawManager.getTextRegular();
+  }
+
   private java.awt.Frame frame() {
     return drawManager.getFrame();
   }
@@ -189,7 +193,8 @@ public final class SettingsDrawer { // NOPMD
       } else {
         g2d().setColor(Color.WHITE);
       }
-      g2d().drawString(menuItems[i], 30, menuY + (i * 60));
+      textRegular()
+          .draw(g2d(), drawManager.getFontRegularMetrics(), menuItems[i], 30, menuY + (i * 60));
       g2d().setColor(Color.GREEN);
     }
     g2d().drawLine(splitPointX, screen.getHeight() / 4, splitPointX, menuY + menuItems.length * 60);
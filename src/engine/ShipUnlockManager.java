@@ -4,6 +4,7 @@ package engine;
 import entity.Ship.ShipType;
 import java.io.IOException;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ShipUnlockManager {
@@ -145,7 +146,9 @@ public class ShipUnlockManager {
       this.fileManager.saveShipUnlocks(unlockMap);
       this.fileManager.saveCoins(this.coins);
     } catch (IOException e) {
-      this.logger.warning("Failed to save ship unlock state: " + e.getMessage());
+      if (this.logger.isLoggable(Level.WARNING)) {
+        this.logger.warning("Failed to save ship unlock state: " + e.getMessage());
+      }
     }
   }
 
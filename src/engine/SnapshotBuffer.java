@@ -0,0 +1,58 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer handing {@link FrameSnapshot}s from the simulation thread to the render
+ * thread. The writer always owns one snapshot and the reader another; the third one sits in the
+ * middle and is swapped atomically, so neither side ever waits for the other and the reader always
+ * gets the most recent complete frame.
+ */
+public final class SnapshotBuffer {
+
+  /** Set on the shared slot when it holds a frame the reader has not taken yet. */
+  private static final int FRESH = 4;
+
+  /** Bits of the shared slot holding the snapshot index. */
+  private static final int INDEX_MASK = 3;
+
+  private final FrameSnapshot[] snapshots = {
+    new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot()
+  };
+
+  /** Index of the middle snapshot, plus {@link #FRESH} when it is unread. */
+  private final AtomicInteger shared = new AtomicInteger(1);
+
+  /** Snapshot owned by the writer. */
+  private int writeIndex;
+
+  /** Snapshot owned by the reader. */
+  private int readIndex = 2;
+
+  /**
+   * Returns the snapshot the simulation fills next. Only the writer thread may call this.
+   *
+   * @return Snapshot owned by the writer.
+   */
+  public FrameSnapshot writeSlot() {
+    return snapshots[writeIndex];
+  }
+
+  /** Publishes the filled write slot and takes over the previous middle snapshot. */
+  public void publish() {
+    writeIndex = shared.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+  }
+
+  /**
+   * Takes the most recently published snapshot. Only the reader thread may call this.
+   *
+   * @return Latest snapshot, or null if nothing was published since the last call.
+   */
+  public FrameSnapshot acquire() {
+    if ((shared.get() & FRESH) == 0) {
+      return null;
+    }
+    readIndex = shared.getAndSet(readIndex) & INDEX_MASK;
+    return snapshots[readIndex];
+  }
+}
@@ -1,6 +1,7 @@
 package engine;
 
 import java.io.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.sound.sampled.*;
@@ -16,6 +17,13 @@ public final class SoundManager { // NOPMD
   private static Clip loopClip;
   private static Clip backgroundMusicClip;
 
+  /** One-shot clips started and not closed yet. */
+  private static final AtomicInteger ACTIVE_EFFECTS = new AtomicInteger();
+
+  /** Whether sounds are played at all, turned off with {@code -Dinvaders.sound=false}. */
+  private static volatile boolean enabled =
+      Boolean.parseBoolean(System.getProperty("invaders.sound", "true"));
+
   // PMD: Avoid duplicate literals
   private static final String ERR_MSG_PLAY_FAIL = "Unable to play sound '%s': %s";
   private static final String ERR_MSG_RES_NOT_FOUND =
@@ -23,6 +31,46 @@ public final class SoundManager { // NOPMD
 
   private SoundManager() {}
 
+  /**
+   * Turns sound playback on or off. While off, play calls return right away, which keeps headless
+   * runs from opening audio lines.
+   *
+   * @param on Whether sounds are played.
+   */
+  public static void setEnabled(final boolean on) {
+    enabled = on;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether the calling thread plays a game nobody listens to, like a session of the
+   * server or of a batch run. Such games neither play sounds nor stop the music of the desktop.
+   */
+  private static boolean isUnheard() {
+    return !GameContext.current().hasDisplay();
+  }
+
+  /**
+   * Returns the number of clips playing: one-shot effects plus running music.
+   *
+   * @return Active voices.
+   */
+  public static int getActiveVoices() {
+    int voices = ACTIVE_EFFECTS.get();
+    final Clip loop = loopClip;
+    if (loop != null && loop.isRunning()) {
+      voices++;
+    }
+    final Clip music = backgroundMusicClip;
+    if (music != null && music.isRunning()) {
+      voices++;
+    }
+    return voices;
+  }
+
   /** Plays a short WAV from resources folder. */
   public static void playeffect(final String resourcePath) {
     // Index 2 is for SFX in SoundControl
@@ -37,6 +85,15 @@ public final class SoundManager { // NOPMD
   /** Internal helper to deduplicate play logic and reduce Complexity. */
   private static void playClip( // NOPMD
       final String resourcePath, final int volumeIndex, final boolean isIngame) { // NOPMD
+    if (!enabled || isUnheard() || GameContext.current().isReplaying()) {
+      // After a rollback, the ticks simulated again were heard the first time round
+      return;
+    }
+    final GameEvents.SoundPlay soundEvent = new GameEvents.SoundPlay();
+    soundEvent.begin();
+    final long decodeStart = System.nanoTime();
+    long decodeNanos = 0;
+    boolean audible = false;
     try (AudioInputStream rawStream = openAudioStream(resourcePath)) {
       if (rawStream == null) {
         return;
@@ -46,6 +103,7 @@ public final class SoundManager { // NOPMD
         final DataLine.Info info = new DataLine.Info(Clip.class, audioStream.getFormat());
         final Clip clip = (Clip) AudioSystem.getLine(info); // NOPMD
         clip.open(audioStream);
+        decodeNanos = System.nanoTime() - decodeStart;
 
         if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
           final int savedLevel =
@@ -67,18 +125,19 @@ public final class SoundManager { // NOPMD
           final float volumeDb = calculateVolumeDb(savedLevel);
           gain.setValue(Math.max(gain.getMinimum(), Math.min(gain.getMaximum(), volumeDb)));
 
+          ACTIVE_EFFECTS.incrementAndGet();
           clip.start();
-          if (LOGGER.isLoggable(Level.INFO)) {
-            LOGGER.info("Started one-shot sound: " + resourcePath);
-          }
+          audible = true;
+          GameLog.log(GameLog.Event.SOUND_STARTED, resourcePath, 0, 0);
         }
 
         // Add listener to close clip after playback
         clip.addLineListener(
             event -> {
-              if (event.getType() == LineEvent.Type.STOP
-                  || event.getType() == LineEvent.Type.CLOSE) {
+              if (event.getType() == LineEvent.Type.STOP) {
                 clip.close();
+              } else if (event.getType() == LineEvent.Type.CLOSE) {
+                ACTIVE_EFFECTS.decrementAndGet();
               }
             });
       }
@@ -86,13 +145,43 @@ public final class SoundManager { // NOPMD
       if (LOGGER.isLoggable(Level.INFO)) {
         LOGGER.info(String.format(ERR_MSG_PLAY_FAIL, resourcePath, e.getMessage()));
       }
+    } finally {
+      commitSoundEvent(soundEvent, resourcePath, decodeNanos, false, audible);
+    }
+  }
+
+  /** Fills in and commits a sound event if a flight recording wants it. */
+  private static void commitSoundEvent(
+      final GameEvents.SoundPlay event,
+      final String resourcePath,
+      final long decodeNanos,
+      final boolean looping,
+      final boolean audible) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.path = resourcePath;
+      event.decodeNanos = decodeNanos;
+      event.looping = looping;
+      event.audible = audible;
+      event.commit();
     }
   }
 
   public static void playBGM(final String resourcePath) {
+    if (isUnheard()) {
+      return;
+    }
     stop();
     stopBackgroundMusic();
+    if (!enabled) {
+      return;
+    }
 
+    final GameEvents.SoundPlay event = new GameEvents.SoundPlay();
+    event.begin();
+    final long decodeStart = System.nanoTime();
+    long decodeNanos = 0;
+    boolean audible = false;
     try (AudioInputStream rawStream = openAudioStream(resourcePath)) {
       if (rawStream == null) {
         return;
@@ -103,6 +192,7 @@ public final class SoundManager { // NOPMD
 
       loopClip = (Clip) AudioSystem.getLine(info);
       loopClip.open(audioStream);
+      decodeNanos = System.nanoTime() - decodeStart;
 
       if (loopClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
         final int saved = SoundControl.getVolumeLevel(1);
@@ -114,6 +204,7 @@ public final class SoundManager { // NOPMD
 
       loopClip.loop(Clip.LOOP_CONTINUOUSLY);
       loopClip.start();
+      audible = true;
       if (LOGGER.isLoggable(Level.FINE)) {
         LOGGER.fine("Started looped sound: " + resourcePath);
       }
@@ -126,11 +217,13 @@ public final class SoundManager { // NOPMD
         loopClip.close();
         loopClip = null; // NOPMD - this null absoulty need
       }
+    } finally {
+      commitSoundEvent(event, resourcePath, decodeNanos, true, audible);
     }
   }
 
   public static void stop() {
-    if (loopClip != null) {
+    if (loopClip != null && !isUnheard()) {
       loopClip.stop();
       loopClip.close();
       loopClip = null; // NOPMD - this null absoulty need
@@ -143,9 +236,20 @@ public final class SoundManager { // NOPMD
   }
 
   public static void ingameBGM(final String musicResourcePath) {
+    if (isUnheard()) {
+      return;
+    }
     stop();
     stopBackgroundMusic();
+    if (!enabled) {
+      return;
+    }
 
+    final GameEvents.SoundPlay event = new GameEvents.SoundPlay();
+    event.begin();
+    final long decodeStart = System.nanoTime();
+    long decodeNanos = 0;
+    boolean audible = false;
     try (AudioInputStream rawStream = openAudioStream(musicResourcePath)) {
       if (rawStream == null) {
         if (LOGGER.isLoggable(Level.FINE)) {
@@ -159,6 +263,7 @@ public final class SoundManager { // NOPMD
 
       backgroundMusicClip = (Clip) AudioSystem.getLine(info);
       backgroundMusicClip.open(audioStream);
+      decodeNanos = System.nanoTime() - decodeStart;
       backgroundMusicClip.loop(Clip.LOOP_CONTINUOUSLY);
 
       if (backgroundMusicClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
@@ -173,6 +278,7 @@ public final class SoundManager { // NOPMD
       }
 
       backgroundMusicClip.start();
+      audible = true;
       if (LOGGER.isLoggable(Level.FINE)) {
         LOGGER.fine("Background music started: " + musicResourcePath);
       }
@@ -182,11 +288,13 @@ public final class SoundManager { // NOPMD
         LOGGER.fine(String.format(ERR_MSG_PLAY_FAIL, musicResourcePath, e.getMessage()));
       }
       backgroundMusicClip = null; // NOPMD - this null absoulty need
+    } finally {
+      commitSoundEvent(event, musicResourcePath, decodeNanos, true, audible);
     }
   }
 
   public static void stopBackgroundMusic() {
-    if (backgroundMusicClip != null) { // NOPMD
+    if (backgroundMusicClip != null && !isUnheard()) { // NOPMD
       backgroundMusicClip.stop();
       backgroundMusicClip.close();
       backgroundMusicClip = null; // NOPMD - this null absoulty need
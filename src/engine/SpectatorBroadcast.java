@@ -0,0 +1,537 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mirrors the frames of the game to viewer windows in other processes on the same machine, for
+ * tournament screens. Each frame is written as its difference to the one before, entity by entity:
+ * the ones that moved or changed sprite, the ones that came into play (bullets fired, items
+ * dropped) and the ones that left it, and the HUD values that changed. Ids and counts are varints.
+ * Every entity that stayed is predicted to move as it did the frame before; one that did costs a
+ * single bit, the others are bit-packed at the width the largest miss of the frame needs.
+ *
+ * <p>Records go into a ring file mapped into memory, which {@link SpectatorFeed} tails. Publishing
+ * is a copy into the mapping without a system call, and the game never waits for a viewer. Every
+ * {@value #KEYFRAME_INTERVAL} records, or half a ring, a keyframe holds the whole frame; a viewer
+ * that joins late, or falls a whole ring behind, starts over from the latest one.
+ *
+ * <p>Ring layout: a {@value #HEADER_SIZE} byte header with the magic, version, ring capacity, the
+ * bytes written so far and the position of the latest keyframe, then the ring. Records are {@code
+ * [payload length int][KEYFRAME or DELTA][payload]} and wrap around the end of the ring.
+ *
+ * <p>Started with {@code -Dinvaders.broadcast=<file>}.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class SpectatorBroadcast implements Closeable {
+
+  static final int MAGIC = 0x53505443;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 64;
+  static final int CAPACITY_OFFSET = 8;
+  static final int WRITTEN_OFFSET = 16;
+  static final int KEYFRAME_OFFSET = 24;
+
+  /** Ring size when none is given, minutes of play at a few dozen bytes a frame. */
+  public static final int DEFAULT_CAPACITY = 1 << 20;
+
+  /** Smallest ring accepted. */
+  static final int MIN_CAPACITY = 1 << 12;
+
+  /** Records between two keyframes, two seconds at 60 fps. */
+  static final int KEYFRAME_INTERVAL = 120;
+
+  static final byte KEYFRAME = 1;
+  static final byte DELTA = 2;
+
+  /** Bytes before the payload of a record. */
+  static final int RECORD_HEADER = Integer.BYTES + 1;
+
+  // HUD mask
+  static final int HUD_SCORE = 1;
+  static final int HUD_LIVES = 1 << 1;
+  static final int HUD_LEVEL = 1 << 2;
+  static final int HUD_ENEMIES = 1 << 3;
+  static final int HUD_COUNTDOWN = 1 << 4;
+  static final int HUD_FLAGS = 1 << 5;
+
+  // Overlay flags
+  static final int FLAG_COOP = 1;
+  static final int FLAG_COUNTDOWN = 1 << 1;
+  static final int FLAG_LAST_LIFE = 1 << 2;
+
+  /** Longs of the header, read and written with acquire and release across processes. */
+  static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  /** Broadcast of {@code -Dinvaders.broadcast}, opened by the first level that asks for it. */
+  private static SpectatorBroadcast requested;
+
+  private static boolean requestChecked;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer map;
+  private final ByteBuffer ring;
+  private final int capacity;
+
+  private State previous = new State();
+  private State current = new State();
+
+  /** Record being written, room for a large frame before it grows. */
+  private ByteBuffer record = ByteBuffer.allocate(1 << 14);
+
+  // Entities of one diff, indexes into previous and current
+  private int[] gone = new int[0];
+  private int[] spawned = new int[0];
+  private int[] keptFrom = new int[0];
+  private int[] keptTo = new int[0];
+  private final BitWriter bits = new BitWriter();
+
+  /** Bytes written since the ring was created, the position of the next record. */
+  private long written;
+
+  private int sinceKeyframe;
+  private long lastKeyframe;
+  private volatile boolean keyframeRequested = true;
+
+  // Counters
+  private long records;
+  private long publishNanos;
+
+  private SpectatorBroadcast(
+      final FileChannel channel, final MappedByteBuffer map, final int capacity) {
+    this.channel = channel;
+    this.map = map;
+    this.capacity = capacity;
+    this.ring = map.slice(HEADER_SIZE, capacity);
+  }
+
+  /**
+   * Creates the ring file, or takes over an existing one and starts it over.
+   *
+   * @param file Ring file viewers open.
+   * @param capacity Bytes of the ring, at least 4 KiB.
+   * @return Broadcast that writes to the file.
+   * @throws IOException When the file cannot be created or mapped.
+   */
+  public static SpectatorBroadcast create(final Path file, final int capacity)
+      throws IOException {
+    if (capacity < MIN_CAPACITY) {
+      throw new IllegalArgumentException("Ring of " + capacity + " bytes is too small");
+    }
+    final FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      // Never shrink the file, a viewer may still have it mapped
+      final MappedByteBuffer map =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SIZE + capacity);
+      LONGS.setRelease(map, KEYFRAME_OFFSET, -1L);
+      LONGS.setRelease(map, WRITTEN_OFFSET, 0L);
+      map.putInt(CAPACITY_OFFSET, capacity);
+      map.putInt(Integer.BYTES, VERSION);
+      map.putInt(0, MAGIC);
+      return new SpectatorBroadcast(channel, map, capacity);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the broadcast of {@code -Dinvaders.broadcast=<file>}, opening it the first time.
+   *
+   * @return Broadcast shared by every level, null when not requested or the file cannot be opened.
+   */
+  public static synchronized SpectatorBroadcast requested() {
+    if (!requestChecked) {
+      requestChecked = true;
+      final String property = System.getProperty("invaders.broadcast");
+      if (property != null) {
+        try {
+          requested = create(Paths.get(property), DEFAULT_CAPACITY);
+          if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info("Broadcasting to spectators through " + property);
+          }
+        } catch (IOException | IllegalArgumentException e) {
+          if (LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.warning("Ignoring invaders.broadcast=" + property + ": " + e.getMessage());
+          }
+        }
+      }
+    }
+    return requested;
+  }
+
+  /** Makes the next record a keyframe, for a new level whose entity ids start over. */
+  public void restart() {
+    keyframeRequested = true;
+  }
+
+  /**
+   * Writes a frame as the difference to the one published before. Only one thread may publish.
+   *
+   * @param frame Frame of the game, its sprites carrying entity ids.
+   */
+  public void publish(final FrameSnapshot frame) {
+    final long start = System.nanoTime();
+    // The ring must always hold a whole keyframe for viewers that join
+    final boolean keyframe =
+        keyframeRequested
+            || sinceKeyframe >= KEYFRAME_INTERVAL
+            || written - lastKeyframe > capacity / 2;
+    if (keyframe) {
+      keyframeRequested = false;
+      sinceKeyframe = 0;
+      previous.clear();
+    }
+    current.capture(frame);
+    final int bound = RECORD_HEADER + maxRecordSize(previous.count, current.count);
+    if (record.capacity() < bound) {
+      record = ByteBuffer.allocate(Integer.highestOneBit(bound) << 1);
+    }
+    record.clear().position(RECORD_HEADER);
+    encode(previous, current, record);
+    final int length = record.position() - RECORD_HEADER;
+    record.putInt(0, length).put(Integer.BYTES, keyframe ? KEYFRAME : DELTA).flip();
+
+    if (record.remaining() > capacity / 2) {
+      // A viewer could never hold it, start over with the next frame
+      keyframeRequested = true;
+    } else {
+      append(record, keyframe);
+      sinceKeyframe++;
+      records++;
+    }
+    final State swap = previous;
+    previous = current;
+    current = swap;
+    publishNanos += System.nanoTime() - start;
+  }
+
+  private void append(final ByteBuffer bytes, final boolean keyframe) {
+    final long position = written;
+    final int length = bytes.remaining();
+    final int offset = (int) (position % capacity);
+    final int first = Math.min(length, capacity - offset);
+    ring.put(offset, bytes, 0, first);
+    if (first < length) {
+      ring.put(0, bytes, first, length - first);
+    }
+    written = position + length;
+    // Viewers that see the new keyframe must see the bytes up to its end
+    LONGS.setRelease(map, WRITTEN_OFFSET, written);
+    if (keyframe) {
+      lastKeyframe = position;
+      LONGS.setRelease(map, KEYFRAME_OFFSET, position);
+    }
+  }
+
+  /** Bytes an encoded difference can take at most. */
+  static int maxRecordSize(final int before, final int after) {
+    // tick, HUD, two counts and the move width, then per entity: id, fields, move bits, sprite
+    return 96 + before * 5 + after * (5 + 5 * 5 + Integer.BYTES + 9 + 5);
+  }
+
+  private void encode(final State before, final State after, final ByteBuffer out) {
+    int goneCount = 0;
+    int spawnCount = 0;
+    int kept = 0;
+    final int most = before.count + after.count;
+    if (gone.length < most) {
+      gone = new int[most];
+      spawned = new int[most];
+      keptFrom = new int[most];
+      keptTo = new int[most];
+    }
+    int i = 0;
+    int j = 0;
+    while (i < before.count || j < after.count) {
+      if (j >= after.count || i < before.count && before.ids[i] < after.ids[j]) {
+        gone[goneCount++] = before.ids[i++];
+      } else if (i >= before.count || after.ids[j] < before.ids[i]) {
+        after.vxs[j] = 0;
+        after.vys[j] = 0;
+        spawned[spawnCount++] = j++;
+      } else {
+        if (before.widths[i] != after.widths[j]
+            || before.heights[i] != after.heights[j]
+            || before.rgbs[i] != after.rgbs[j]) {
+          // Rare enough to send again in full
+          gone[goneCount++] = before.ids[i];
+          after.vxs[j] = 0;
+          after.vys[j] = 0;
+          spawned[spawnCount++] = j;
+        } else {
+          after.vxs[j] = after.xs[j] - before.xs[i];
+          after.vys[j] = after.ys[j] - before.ys[i];
+          keptFrom[kept] = i;
+          keptTo[kept++] = j;
+        }
+        i++;
+        j++;
+      }
+    }
+
+    FrameCodec.putVarLong(out, after.tick - before.tick);
+    encodeHud(before, after, out);
+
+    FrameCodec.putVarint(out, goneCount);
+    int last = 0;
+    for (int k = 0; k < goneCount; k++) {
+      FrameCodec.putVarint(out, gone[k] - last);
+      last = gone[k];
+    }
+
+    FrameCodec.putVarint(out, spawnCount);
+    last = 0;
+    for (int k = 0; k < spawnCount; k++) {
+      final int s = spawned[k];
+      FrameCodec.putVarint(out, after.ids[s] - last);
+      last = after.ids[s];
+      FrameCodec.putVarint(out, after.types[s]);
+      FrameCodec.putVarint(out, FrameCodec.zigzag(after.xs[s]));
+      FrameCodec.putVarint(out, FrameCodec.zigzag(after.ys[s]));
+      FrameCodec.putVarint(out, after.widths[s]);
+      FrameCodec.putVarint(out, after.heights[s]);
+      out.putInt(after.rgbs[s]);
+    }
+
+    // The viewer knows which entities stayed, so they need no ids. Each one is predicted to move
+    // as it did the tick before: a 0 bit when it did, else the miss bit-packed
+    if (kept == 0) {
+      return;
+    }
+    int widest = 0;
+    for (int k = 0; k < kept; k++) {
+      final int from = keptFrom[k];
+      final int to = keptTo[k];
+      widest |= FrameCodec.zigzag(after.vxs[to] - before.vxs[from]);
+      widest |= FrameCodec.zigzag(after.vys[to] - before.vys[from]);
+    }
+    final int width = Integer.SIZE - Integer.numberOfLeadingZeros(widest);
+    out.put((byte) width);
+    bits.start(out);
+    for (int k = 0; k < kept; k++) {
+      final int from = keptFrom[k];
+      final int to = keptTo[k];
+      final int missX = after.vxs[to] - before.vxs[from];
+      final int missY = after.vys[to] - before.vys[from];
+      final boolean retyped = after.types[to] != before.types[from];
+      if (missX == 0 && missY == 0 && !retyped) {
+        bits.write(0, 1);
+      } else {
+        bits.write(retyped ? 3 : 1, 2);
+        bits.write(FrameCodec.zigzag(missX), width);
+        bits.write(FrameCodec.zigzag(missY), width);
+      }
+    }
+    bits.flush();
+    for (int k = 0; k < kept; k++) {
+      if (after.types[keptTo[k]] != before.types[keptFrom[k]]) {
+        FrameCodec.putVarint(out, after.types[keptTo[k]]);
+      }
+    }
+  }
+
+  private static void encodeHud(final State before, final State after, final ByteBuffer out) {
+    final int mask =
+        (after.score != before.score ? HUD_SCORE : 0)
+            | (after.lives != before.lives ? HUD_LIVES : 0)
+            | (after.level != before.level ? HUD_LEVEL : 0)
+            | (after.enemies != before.enemies ? HUD_ENEMIES : 0)
+            | (after.countdown != before.countdown ? HUD_COUNTDOWN : 0)
+            | (after.flags != before.flags ? HUD_FLAGS : 0);
+    out.put((byte) mask);
+    if ((mask & HUD_SCORE) != 0) {
+      FrameCodec.putVarint(out, FrameCodec.zigzag(after.score - before.score));
+    }
+    if ((mask & HUD_LIVES) != 0) {
+      FrameCodec.putVarint(out, FrameCodec.zigzag(after.lives - before.lives));
+    }
+    if ((mask & HUD_LEVEL) != 0) {
+      FrameCodec.putVarint(out, after.level);
+    }
+    if ((mask & HUD_ENEMIES) != 0) {
+      FrameCodec.putVarint(out, FrameCodec.zigzag(after.enemies - before.enemies));
+    }
+    if ((mask & HUD_COUNTDOWN) != 0) {
+      FrameCodec.putVarint(out, FrameCodec.zigzag(after.countdown));
+    }
+    if ((mask & HUD_FLAGS) != 0) {
+      out.put((byte) after.flags);
+    }
+  }
+
+  /**
+   * Returns the records written.
+   *
+   * @return Keyframes and differences.
+   */
+  public long getRecords() {
+    return records;
+  }
+
+  /**
+   * Returns the bytes written to the ring.
+   *
+   * @return Bytes of every record, headers included.
+   */
+  public long getBytesWritten() {
+    return written;
+  }
+
+  /**
+   * Returns the time spent publishing.
+   *
+   * @return Nanoseconds in {@link #publish(FrameSnapshot)}, encoding and copying together.
+   */
+  public long getPublishNanos() {
+    return publishNanos;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * What spectators see of one frame: the entities sorted by id, and the HUD. Both ends keep one,
+   * the broadcast to compare the next frame with and the feed to apply the differences to.
+   */
+  static final class State {
+    long tick;
+    int count;
+    int[] ids = new int[0];
+    int[] types = new int[0];
+    int[] xs = new int[0];
+    int[] ys = new int[0];
+    int[] widths = new int[0];
+    int[] heights = new int[0];
+    int[] rgbs = new int[0];
+
+    /** Movement since the frame before, what the next one is predicted from. */
+    int[] vxs = new int[0];
+
+    int[] vys = new int[0];
+
+    private long[] keys = new long[0];
+
+    int score;
+    int lives;
+    int level;
+    int enemies;
+    int countdown;
+    int flags;
+
+    /** Forgets everything, the next difference is a whole frame. */
+    void clear() {
+      tick = 0;
+      count = 0;
+      score = 0;
+      lives = 0;
+      level = 0;
+      enemies = 0;
+      countdown = 0;
+      flags = 0;
+    }
+
+    void ensure(final int size) {
+      if (ids.length < size) {
+        final int capacity = Math.max(size, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        rgbs = Arrays.copyOf(rgbs, capacity);
+        vxs = Arrays.copyOf(vxs, capacity);
+        vys = Arrays.copyOf(vys, capacity);
+      }
+    }
+
+    /** Copies the entities of a frame in id order, sprites without an entity are left out. */
+    void capture(final FrameSnapshot frame) {
+      final int sprites = frame.getSpriteCount();
+      if (keys.length < sprites) {
+        keys = new long[Math.max(sprites, keys.length * 2)];
+      }
+      int size = 0;
+      for (int i = 0; i < sprites; i++) {
+        final int id = frame.getEntityId(i);
+        if (id != 0) {
+          keys[size++] = (long) id << Integer.SIZE | i;
+        }
+      }
+      // Rows move when entities leave, ids give both ends the same order
+      Arrays.sort(keys, 0, size);
+      ensure(size);
+      for (int k = 0; k < size; k++) {
+        final int i = (int) keys[k];
+        ids[k] = (int) (keys[k] >> Integer.SIZE);
+        types[k] = frame.getSpriteType(i).ordinal();
+        xs[k] = frame.getX(i);
+        ys[k] = frame.getY(i);
+        widths[k] = frame.getWidth(i);
+        heights[k] = frame.getHeight(i);
+        rgbs[k] = FrameCodec.rgb(frame.getColor(i));
+      }
+      count = size;
+
+      tick = frame.getTick();
+      score = frame.getScore();
+      lives = frame.getLives();
+      level = frame.getLevel();
+      enemies = frame.getShipCount();
+      countdown = frame.isCountdownVisible() ? frame.getCountdown() : 0;
+      flags =
+          (frame.isCoop() ? FLAG_COOP : 0)
+              | (frame.isCountdownVisible() ? FLAG_COUNTDOWN : 0)
+              | (frame.isLastLife() ? FLAG_LAST_LIFE : 0);
+    }
+  }
+
+  /** Packs values of any width into bytes, low bits first. */
+  private static final class BitWriter {
+    private ByteBuffer out;
+    private long pending;
+    private int pendingBits;
+
+    void start(final ByteBuffer buffer) {
+      out = buffer;
+      pending = 0;
+      pendingBits = 0;
+    }
+
+    void write(final int value, final int width) {
+      pending |= (value & 0xFFFFFFFFL) << pendingBits;
+      pendingBits += width;
+      while (pendingBits >= Byte.SIZE) {
+        out.put((byte) pending);
+        pending >>>= Byte.SIZE;
+        pendingBits -= Byte.SIZE;
+      }
+    }
+
+    void flush() {
+      if (pendingBits > 0) {
+        out.put((byte) pending);
+      }
+    }
+  }
+}
@@ -0,0 +1,417 @@
+package engine;
+
+import java.awt.Color;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Viewer end of a {@link SpectatorBroadcast}: tails the ring file and applies every record to its
+ * own copy of the frame. It only reads the mapping, so any number of viewers can follow one game
+ * without the game knowing about them.
+ */
+public final class SpectatorFeed implements Closeable {
+
+  private static final DrawManager.SpriteType[] TYPES = DrawManager.SpriteType.values();
+
+  private final FileChannel channel;
+  private final MappedByteBuffer map;
+  private final ByteBuffer ring;
+  private final int capacity;
+
+  private SpectatorBroadcast.State state = new SpectatorBroadcast.State();
+  private SpectatorBroadcast.State next = new SpectatorBroadcast.State();
+
+  /** Color of every entity of {@link #state}, made when the entity arrives. */
+  private Color[] colors = new Color[0];
+
+  private Color[] nextColors = new Color[0];
+
+  private final ByteBuffer header = ByteBuffer.allocate(SpectatorBroadcast.RECORD_HEADER);
+  private ByteBuffer record = ByteBuffer.allocate(1 << 14);
+
+  // Differences of one record
+  private int[] gone = new int[0];
+  private int[] missX = new int[0];
+  private int[] missY = new int[0];
+  private int[] retyped = new int[0];
+  private long pending;
+  private int pendingBits;
+  private final SpectatorBroadcast.State spawns = new SpectatorBroadcast.State();
+
+  /** Position of the next record in the ring, -1 while waiting for a keyframe. */
+  private long position = -1;
+
+  /** Bumped whenever a HUD value changed, so the HUD layer knows when to redraw. */
+  private int hudVersion;
+
+  // Counters
+  private long records;
+  private long resyncs;
+
+  private SpectatorFeed(final FileChannel channel, final MappedByteBuffer map, final int capacity) {
+    this.channel = channel;
+    this.map = map;
+    this.capacity = capacity;
+    this.ring = map.slice(SpectatorBroadcast.HEADER_SIZE, capacity);
+  }
+
+  /**
+   * Opens the ring file of a broadcast.
+   *
+   * @param file File given to the broadcast.
+   * @return Feed that starts at the latest keyframe.
+   * @throws IOException When the file is missing or is not a broadcast.
+   */
+  public static SpectatorFeed open(final Path file) throws IOException {
+    final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      if (channel.size() < SpectatorBroadcast.HEADER_SIZE) {
+        throw new IOException("not a spectator broadcast");
+      }
+      final MappedByteBuffer header =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, SpectatorBroadcast.HEADER_SIZE);
+      final int capacity = header.getInt(SpectatorBroadcast.CAPACITY_OFFSET);
+      if (header.getInt(0) != SpectatorBroadcast.MAGIC
+          || header.getInt(Integer.BYTES) != SpectatorBroadcast.VERSION
+          || capacity < SpectatorBroadcast.MIN_CAPACITY
+          || channel.size() < (long) SpectatorBroadcast.HEADER_SIZE + capacity) {
+        throw new IOException("not a spectator broadcast");
+      }
+      final MappedByteBuffer map =
+          channel.map(
+              FileChannel.MapMode.READ_ONLY, 0, (long) SpectatorBroadcast.HEADER_SIZE + capacity);
+      return new SpectatorFeed(channel, map, capacity);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Applies every record written since the last call and fills a frame with the result.
+   *
+   * @param frame Frame to fill, left alone when nothing new came.
+   * @return True when the frame was filled.
+   */
+  public boolean poll(final FrameSnapshot frame) {
+    boolean applied = false;
+    while (true) {
+      final long written =
+          (long) SpectatorBroadcast.LONGS.getAcquire(map, SpectatorBroadcast.WRITTEN_OFFSET);
+      if (position < 0 || written < position || written - position > capacity) {
+        // Just opened, lapped by the broadcast or the broadcast started over
+        if (!resync()) {
+          break;
+        }
+        continue;
+      }
+      if (written - position < SpectatorBroadcast.RECORD_HEADER) {
+        break;
+      }
+      header.clear();
+      copy(position, header);
+      final int length = header.getInt(0);
+      if (length < 0 || length > capacity - SpectatorBroadcast.RECORD_HEADER) {
+        position = -1;
+        continue;
+      }
+      if (record.capacity() < length) {
+        record = ByteBuffer.allocate(Integer.highestOneBit(length) << 1);
+      }
+      record.clear().limit(length);
+      copy(position + SpectatorBroadcast.RECORD_HEADER, record);
+      final long after =
+          (long) SpectatorBroadcast.LONGS.getAcquire(map, SpectatorBroadcast.WRITTEN_OFFSET);
+      if (after - position > capacity) {
+        // Overwritten while it was copied
+        position = -1;
+        continue;
+      }
+      record.flip();
+      if (header.get(Integer.BYTES) == SpectatorBroadcast.KEYFRAME) {
+        state.clear();
+      }
+      try {
+        apply(record);
+      } catch (RuntimeException e) { // NOPMD - torn by a broadcast that started over
+        position = -1;
+        break;
+      }
+      position += SpectatorBroadcast.RECORD_HEADER + length;
+      records++;
+      applied = true;
+    }
+    if (applied) {
+      fill(frame);
+    }
+    return applied;
+  }
+
+  /** Moves to the latest keyframe, false when there is none to be read yet. */
+  private boolean resync() {
+    final long keyframe =
+        (long) SpectatorBroadcast.LONGS.getAcquire(map, SpectatorBroadcast.KEYFRAME_OFFSET);
+    final long written =
+        (long) SpectatorBroadcast.LONGS.getAcquire(map, SpectatorBroadcast.WRITTEN_OFFSET);
+    if (keyframe < 0 || written < keyframe || written - keyframe > capacity) {
+      position = -1;
+      return false;
+    }
+    position = keyframe;
+    resyncs++;
+    return true;
+  }
+
+  private void copy(final long from, final ByteBuffer to) {
+    final int length = to.remaining();
+    final int offset = (int) (from % capacity);
+    final int first = Math.min(length, capacity - offset);
+    to.put(to.position(), ring, offset, first);
+    if (first < length) {
+      to.put(to.position() + first, ring, 0, length - first);
+    }
+    to.position(to.limit());
+  }
+
+  private void apply(final ByteBuffer in) {
+    final SpectatorBroadcast.State before = state;
+    final long tick = before.tick + FrameCodec.getVarLong(in);
+    applyHud(in, before);
+
+    final int goneCount = FrameCodec.getVarint(in);
+    gone = grow(gone, goneCount);
+    int last = 0;
+    for (int k = 0; k < goneCount; k++) {
+      last += FrameCodec.getVarint(in);
+      gone[k] = last;
+    }
+
+    final int spawnCount = FrameCodec.getVarint(in);
+    spawns.ensure(spawnCount);
+    last = 0;
+    for (int k = 0; k < spawnCount; k++) {
+      last += FrameCodec.getVarint(in);
+      spawns.ids[k] = last;
+      spawns.types[k] = FrameCodec.getVarint(in);
+      spawns.xs[k] = FrameCodec.unzigzag(FrameCodec.getVarint(in));
+      spawns.ys[k] = FrameCodec.unzigzag(FrameCodec.getVarint(in));
+      spawns.widths[k] = FrameCodec.getVarint(in);
+      spawns.heights[k] = FrameCodec.getVarint(in);
+      spawns.rgbs[k] = in.getInt();
+      spawns.vxs[k] = 0;
+      spawns.vys[k] = 0;
+    }
+
+    // Everything that was in play and did not leave stayed, in id order
+    final int keptCount = before.count - goneCount;
+    readMoves(in, keptCount);
+
+    // Survivors in id order with their moves, then the new entities merged in
+    final SpectatorBroadcast.State after = next;
+    after.ensure(before.count + spawnCount);
+    if (nextColors.length < after.ids.length) {
+      nextColors = new Color[after.ids.length];
+    }
+    int g = 0;
+    int m = 0;
+    int s = 0;
+    int size = 0;
+    for (int i = 0; i <= before.count; i++) {
+      final int id = i < before.count ? before.ids[i] : Integer.MAX_VALUE;
+      while (s < spawnCount && (spawns.ids[s] < id || i == before.count)) {
+        copyEntity(spawns, s, null, after, size++);
+        s++;
+      }
+      if (i == before.count) {
+        break;
+      }
+      if (g < goneCount && gone[g] == id) {
+        g++;
+        if (s < spawnCount && spawns.ids[s] == id) {
+          copyEntity(spawns, s, null, after, size++);
+          s++;
+        }
+        continue;
+      }
+      copyEntity(before, i, colors, after, size);
+      final int vx = before.vxs[i] + missX[m];
+      final int vy = before.vys[i] + missY[m];
+      after.xs[size] += vx;
+      after.ys[size] += vy;
+      after.vxs[size] = vx;
+      after.vys[size] = vy;
+      if (retyped[m] >= 0) {
+        after.types[size] = retyped[m];
+      }
+      m++;
+      size++;
+    }
+    after.count = size;
+    after.tick = tick;
+    after.score = before.score;
+    after.lives = before.lives;
+    after.level = before.level;
+    after.enemies = before.enemies;
+    after.countdown = before.countdown;
+    after.flags = before.flags;
+
+    next = before;
+    state = after;
+    final Color[] swap = colors;
+    colors = nextColors;
+    nextColors = swap;
+    Arrays.fill(nextColors, null);
+  }
+
+  private void readMoves(final ByteBuffer in, final int keptCount) {
+    if (keptCount < 0) {
+      throw new IllegalStateException("More entities left than were in play");
+    }
+    if (keptCount == 0) {
+      return;
+    }
+    missX = grow(missX, keptCount);
+    missY = grow(missY, keptCount);
+    retyped = grow(retyped, keptCount);
+    final int width = in.get();
+    if (width < 0 || width > Integer.SIZE) {
+      throw new IllegalStateException("Bad move width " + width);
+    }
+    pending = 0;
+    pendingBits = 0;
+    for (int k = 0; k < keptCount; k++) {
+      if (readBits(in, 1) == 0) {
+        missX[k] = 0;
+        missY[k] = 0;
+        retyped[k] = 0;
+      } else {
+        retyped[k] = readBits(in, 1);
+        missX[k] = FrameCodec.unzigzag(readBits(in, width));
+        missY[k] = FrameCodec.unzigzag(readBits(in, width));
+      }
+    }
+    for (int k = 0; k < keptCount; k++) {
+      retyped[k] = retyped[k] == 0 ? -1 : FrameCodec.getVarint(in);
+    }
+  }
+
+  private int readBits(final ByteBuffer in, final int width) {
+    while (pendingBits < width) {
+      pending |= (in.get() & 0xFFL) << pendingBits;
+      pendingBits += Byte.SIZE;
+    }
+    final int value = (int) (pending & (1L << width) - 1);
+    pending >>>= width;
+    pendingBits -= width;
+    return value;
+  }
+
+  private void applyHud(final ByteBuffer in, final SpectatorBroadcast.State hud) {
+    final int mask = in.get();
+    if (mask == 0) {
+      return;
+    }
+    hudVersion++;
+    if ((mask & SpectatorBroadcast.HUD_SCORE) != 0) {
+      hud.score += FrameCodec.unzigzag(FrameCodec.getVarint(in));
+    }
+    if ((mask & SpectatorBroadcast.HUD_LIVES) != 0) {
+      hud.lives += FrameCodec.unzigzag(FrameCodec.getVarint(in));
+    }
+    if ((mask & SpectatorBroadcast.HUD_LEVEL) != 0) {
+      hud.level = FrameCodec.getVarint(in);
+    }
+    if ((mask & SpectatorBroadcast.HUD_ENEMIES) != 0) {
+      hud.enemies += FrameCodec.unzigzag(FrameCodec.getVarint(in));
+    }
+    if ((mask & SpectatorBroadcast.HUD_COUNTDOWN) != 0) {
+      hud.countdown = FrameCodec.unzigzag(FrameCodec.getVarint(in));
+    }
+    if ((mask & SpectatorBroadcast.HUD_FLAGS) != 0) {
+      hud.flags = in.get();
+    }
+  }
+
+  private void copyEntity(
+      final SpectatorBroadcast.State from,
+      final int i,
+      final Color[] fromColors,
+      final SpectatorBroadcast.State to,
+      final int j) {
+    to.ids[j] = from.ids[i];
+    to.types[j] = from.types[i];
+    to.xs[j] = from.xs[i];
+    to.ys[j] = from.ys[i];
+    to.widths[j] = from.widths[i];
+    to.heights[j] = from.heights[i];
+    to.rgbs[j] = from.rgbs[i];
+    to.vxs[j] = from.vxs[i];
+    to.vys[j] = from.vys[i];
+    if (fromColors != null) {
+      nextColors[j] = fromColors[i];
+    } else {
+      nextColors[j] = from.rgbs[i] == 0 ? null : new Color(from.rgbs[i], true); // NOPMD
+    }
+  }
+
+  private static int[] grow(final int[] array, final int size) {
+    return array.length >= size ? array : new int[Math.max(size, array.length * 2)];
+  }
+
+  private void fill(final FrameSnapshot frame) {
+    final SpectatorBroadcast.State shown = state;
+    frame.clear();
+    for (int i = 0; i < shown.count; i++) {
+      frame.addSprite(
+          shown.ids[i],
+          TYPES[shown.types[i]],
+          shown.xs[i],
+          shown.ys[i],
+          shown.widths[i],
+          shown.heights[i],
+          colors[i]);
+    }
+    frame.setHud(
+        this,
+        hudVersion,
+        shown.score,
+        shown.lives,
+        (shown.flags & SpectatorBroadcast.FLAG_COOP) != 0,
+        0,
+        shown.level,
+        shown.enemies);
+    frame.setCountdown(
+        (shown.flags & SpectatorBroadcast.FLAG_COUNTDOWN) != 0, shown.countdown, false);
+    frame.setLastLife((shown.flags & SpectatorBroadcast.FLAG_LAST_LIFE) != 0);
+    frame.setTelemetry(shown.tick, 0L, 0, 0);
+  }
+
+  /**
+   * Returns the records applied.
+   *
+   * @return Keyframes and differences read.
+   */
+  public long getRecords() {
+    return records;
+  }
+
+  /**
+   * Returns how often the feed had to start over from a keyframe.
+   *
+   * @return Resyncs, 1 for a feed that joined once and kept up.
+   */
+  public long getResyncs() {
+    return resyncs;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,197 @@
+package engine;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches measured widths and pre-rendered glyph runs for one font, so strings drawn every frame are
+ * laid out only once. Numbers that change while playing (score, coins, ship count) are written
+ * digit by digit from cached runs, which keeps text drawing allocation-free at steady state.
+ */
+final class TextCache {
+
+  /** Upper bound of cached strings, least recently drawn ones are evicted first. */
+  private static final int MAX_ENTRIES = 256;
+
+  /** Enough room for every digit of an int plus the sign. */
+  private static final int MAX_DIGITS = 11;
+
+  /** Font the cached runs belong to. */
+  private final Font font;
+
+  /** Cached strings, in access order. */
+  private final Map<String, Run> runs;
+
+  /** Glyph runs of the digits 0-9. */
+  private final Run[] digits = new Run[10];
+
+  /** Glyph run of the minus sign. */
+  private Run minus;
+
+  /** Scratch buffer the integer formatter writes into. */
+  private final int[] digitBuffer = new int[MAX_DIGITS];
+
+  /** Render context the runs were laid out with, null until bound. */
+  private FontRenderContext renderContext;
+
+  /** Cached layout of a single string. */
+  private static final class Run {
+    final GlyphVector glyphs;
+    final int width;
+
+    Run(final GlyphVector glyphs, final int width) {
+      this.glyphs = glyphs;
+      this.width = width;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param font Font whose strings are cached.
+   */
+  TextCache(final Font font) {
+    this.font = font;
+    this.runs =
+        new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, Run> eldest) {
+            return size() > MAX_ENTRIES;
+          }
+        };
+  }
+
+  /**
+   * Binds the cache to the metrics of the surface it draws on. Cached runs are kept when the render
+   * context does not change.
+   *
+   * @param metrics Metrics of the font on the drawing surface.
+   */
+  void bind(final FontMetrics metrics) {
+    final FontRenderContext context = metrics.getFontRenderContext();
+    if (context.equals(this.renderContext)) {
+      return;
+    }
+    this.renderContext = context;
+    this.runs.clear();
+    for (int i = 0; i < digits.length; i++) {
+      digits[i] = layout(metrics, String.valueOf((char) ('0' + i)));
+    }
+    this.minus = layout(metrics, "-");
+  }
+
+  /**
+   * Returns the advance width of a string.
+   *
+   * @param metrics Metrics used on a cache miss.
+   * @param string String to measure.
+   * @return Width in pixels.
+   */
+  int width(final FontMetrics metrics, final String string) {
+    return run(metrics, string).width;
+  }
+
+  /**
+   * Draws a string at the given baseline.
+   *
+   * @param g2d Graphics to draw on, its current color is used.
+   * @param metrics Metrics used on a cache miss.
+   * @param string String to draw.
+   * @param x Left side of the string.
+   * @param y Baseline of the string.
+   */
+  void draw(
+      final Graphics2D g2d,
+      final FontMetrics metrics,
+      final String string,
+      final int x,
+      final int y) {
+    g2d.drawGlyphVector(run(metrics, string).glyphs, x, y);
+  }
+
+  /**
+   * Returns the width of a number written with at least the given count of digits.
+   *
+   * @param value Number to measure.
+   * @param minDigits Minimum digits, shorter numbers are padded with zeros.
+   * @return Width in pixels.
+   */
+  int numberWidth(final int value, final int minDigits) {
+    final int count = format(value, minDigits);
+    int width = value < 0 ? minus.width : 0;
+    for (int i = 0; i < count; i++) {
+      width += digits[digitBuffer[i]].width;
+    }
+    return width;
+  }
+
+  /**
+   * Draws a number without building a string for it.
+   *
+   * @param g2d Graphics to draw on, its current color is used.
+   * @param value Number to draw.
+   * @param minDigits Minimum digits, shorter numbers are padded with zeros.
+   * @param x Left side of the number.
+   * @param y Baseline of the number.
+   * @return Horizontal position right after the last digit.
+   */
+  int drawNumber(
+      final Graphics2D g2d, final int value, final int minDigits, final int x, final int y) {
+    final int count = format(value, minDigits);
+    int cursor = x;
+    if (value < 0) {
+      g2d.drawGlyphVector(minus.glyphs, cursor, y);
+      cursor += minus.width;
+    }
+    for (int i = 0; i < count; i++) {
+      final Run digit = digits[digitBuffer[i]];
+      g2d.drawGlyphVector(digit.glyphs, cursor, y);
+      cursor += digit.width;
+    }
+    return cursor;
+  }
+
+  /**
+   * Writes the digits of a number, most significant first, into the scratch buffer.
+   *
+   * @return Number of digits written.
+   */
+  private int format(final int value, final int minDigits) {
+    long remaining = Math.abs((long) value);
+    int count = 0;
+    do {
+      digitBuffer[MAX_DIGITS - 1 - count] = (int) (remaining % 10);
+      remaining /= 10;
+      count++;
+    } while (remaining > 0 && count < MAX_DIGITS);
+    while (count < minDigits && count < MAX_DIGITS) {
+      digitBuffer[MAX_DIGITS - 1 - count] = 0;
+      count++;
+    }
+    System.arraycopy(digitBuffer, MAX_DIGITS - count, digitBuffer, 0, count);
+    return count;
+  }
+
+  private Run run(final FontMetrics metrics, final String string) {
+    Run run = runs.get(string);
+    if (run == null) {
+      bind(metrics);
+      run = layout(metrics, string);
+      runs.put(string, run);
+    }
+    return run;
+  }
+
+  private Run layout(final FontMetrics metrics, final String string) {
+    return new Run(
+        font.createGlyphVector(metrics.getFontRenderContext(), string),
+        metrics.stringWidth(string));
+  }
+}
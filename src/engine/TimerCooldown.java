@@ -0,0 +1,55 @@
+package engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cooldown whose end is a {@link TimerWheel} timer. Checking it reads the timer's flag instead of
+ * the clock; it finishes at the same millisecond a plain {@link Cooldown} would, as long as the
+ * wheel is advanced before the check.
+ */
+final class TimerCooldown extends Cooldown {
+
+  private final TimerWheel wheel;
+  private final TimerWheel.Timer timer = new TimerWheel.Timer();
+  private boolean started;
+
+  TimerCooldown(final TimerWheel wheel, final int milliseconds, final int variance) {
+    super(milliseconds, variance);
+    this.wheel = wheel;
+  }
+
+  @Override
+  public boolean checkFinished() {
+    return !started || timer.isExpired();
+  }
+
+  @Override
+  public void reset() {
+    started = true;
+    // a plain cooldown is finished once strictly more than its duration has passed
+    wheel.schedule(timer, GameClock.currentTimeMillis() + nextDuration() + 1);
+  }
+
+  /**
+   * Writes the time left until the cooldown finishes, 0 when it already has.
+   *
+   * @param out Buffer to write to.
+   * @param now Time of the wheel.
+   */
+  void writeState(final ByteBuffer out, final long now) {
+    out.putInt(timer.isPending() ? (int) (timer.getDeadline() - now) : 0);
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer, long)}.
+   *
+   * @param in Buffer to read from.
+   * @param now Time of the wheel, the time left counts from it.
+   */
+  void readState(final ByteBuffer in, final long now) {
+    final int remaining = in.getInt();
+    // A finished cooldown checks the same whether it never started or ran out
+    started = true;
+    wheel.restore(timer, now + remaining, remaining == 0);
+  }
+}
@@ -0,0 +1,342 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel driven by the game tick. Every level has {@value #SLOTS} slots, a slot
+ * of level 0 is one millisecond wide and a slot of each next level covers a whole turn of the level
+ * below it. A timer sits in the slot of the coarsest level that still tells its deadline apart and
+ * moves down a level every time the wheel below it completes a turn, so only the timers that are
+ * due, or about to be, are ever touched.
+ *
+ * <p>{@link #advance(long)} is called once per tick with the game time and fires every timer whose
+ * deadline has passed, earlier deadlines first. A timer either runs a callback or only raises its
+ * {@link Timer#isExpired() expired} flag. Cooldowns from {@link #cooldown(int)} read that flag
+ * instead of the clock, so checking them every frame is a field read.
+ *
+ * <p>The cooldowns of a wheel can be written to and read back from a buffer, see {@link
+ * #writeState(ByteBuffer)}. They are kept as time left, so a state can also be read back at
+ * another time, as when a suspended game resumes.
+ *
+ * <p>Not thread-safe, the wheel belongs to the game loop.
+ */
+public final class TimerWheel {
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+
+  /** Levels, together they cover 2^30 ms (about 12 days); later deadlines wait in the last one. */
+  private static final int LEVELS = 5;
+
+  /** Timer that runs a callback or raises a flag when its deadline passes. */
+  public static final class Timer {
+
+    private final Runnable callback;
+    private long deadline;
+    private boolean expired;
+    private int level = -1;
+    private int slot;
+    private Timer previous;
+    private Timer next;
+
+    /** Creates a timer that only raises its expired flag. */
+    public Timer() {
+      this(null);
+    }
+
+    /**
+     * Creates a timer that runs a callback when it expires.
+     *
+     * @param callback Runs on the game loop from {@link TimerWheel#advance(long)}, may reschedule
+     *     the timer.
+     */
+    public Timer(final Runnable callback) {
+      this.callback = callback;
+    }
+
+    /**
+     * Returns whether the deadline passed since the timer was last scheduled.
+     *
+     * @return True once the timer fired.
+     */
+    public boolean isExpired() {
+      return expired;
+    }
+
+    /**
+     * Returns whether the timer waits in a wheel.
+     *
+     * @return True while scheduled and not yet fired.
+     */
+    public boolean isPending() {
+      return level >= 0;
+    }
+
+    /**
+     * Returns the time the timer fires at.
+     *
+     * @return Deadline in milliseconds of game time.
+     */
+    public long getDeadline() {
+      return deadline;
+    }
+  }
+
+  private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+  private final int[] levelCounts = new int[LEVELS];
+
+  /** Cooldowns created by this wheel, in creation order. */
+  private final List<TimerCooldown> cooldowns = new ArrayList<>();
+  private long now;
+  private int size;
+
+  /**
+   * Creates an empty wheel.
+   *
+   * @param startMillis Game time the wheel starts at.
+   */
+  public TimerWheel(final long startMillis) {
+    this.now = startMillis;
+  }
+
+  /**
+   * Schedules a timer, or moves it when it is already scheduled. A deadline that already passed
+   * fires the timer right away.
+   *
+   * @param timer Timer to schedule.
+   * @param deadline Game time to fire at, in milliseconds.
+   */
+  public void schedule(final Timer timer, final long deadline) {
+    cancel(timer);
+    timer.expired = false;
+    timer.deadline = deadline;
+    if (deadline <= now) {
+      fire(timer);
+    } else {
+      insert(timer);
+    }
+  }
+
+  /**
+   * Takes a timer out of the wheel without firing it.
+   *
+   * @param timer Timer to cancel, nothing happens when it is not scheduled.
+   */
+  public void cancel(final Timer timer) {
+    if (timer.level < 0) {
+      return;
+    }
+    if (timer.previous == null) {
+      slots[timer.level][timer.slot] = timer.next;
+    } else {
+      timer.previous.next = timer.next;
+    }
+    if (timer.next != null) {
+      timer.next.previous = timer.previous;
+    }
+    levelCounts[timer.level]--;
+    size--;
+    timer.level = -1;
+    timer.previous = null;
+    timer.next = null;
+  }
+
+  /**
+   * Moves the wheel to the given game time and fires every timer due by then.
+   *
+   * @param nowMillis Current game time, earlier times are ignored.
+   */
+  public void advance(final long nowMillis) {
+    while (now < nowMillis) {
+      if (size == 0) {
+        now = nowMillis;
+        return;
+      }
+      if (levelCounts[0] == 0) {
+        // Nothing is due before level 0 turns over, skip to the last millisecond of this turn
+        final long turnEnd = now | SLOT_MASK;
+        if (turnEnd >= nowMillis) {
+          now = nowMillis;
+          return;
+        }
+        now = turnEnd;
+      }
+      now++;
+      if ((now & SLOT_MASK) == 0) {
+        cascade();
+      }
+      final int slot = (int) (now & SLOT_MASK);
+      Timer timer = slots[0][slot];
+      while (timer != null) {
+        cancel(timer);
+        fire(timer);
+        timer = slots[0][slot];
+      }
+    }
+  }
+
+  /**
+   * Returns the game time the wheel was advanced to.
+   *
+   * @return Milliseconds.
+   */
+  public long now() {
+    return now;
+  }
+
+  /**
+   * Returns the scheduled timers.
+   *
+   * @return Timers waiting to fire.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Creates a cooldown whose end is tracked by this wheel.
+   *
+   * @param milliseconds Time until the cooldown is finished.
+   * @return Cooldown, finished until it is first reset.
+   */
+  public Cooldown cooldown(final int milliseconds) {
+    return register(new TimerCooldown(this, milliseconds, 0));
+  }
+
+  /**
+   * Creates a cooldown with a varying duration whose end is tracked by this wheel.
+   *
+   * @param milliseconds Average time until the cooldown is finished.
+   * @param variance Variance in the cooldown period.
+   * @return Cooldown, finished until it is first reset.
+   */
+  public Cooldown variableCooldown(final int milliseconds, final int variance) {
+    return register(new TimerCooldown(this, milliseconds, variance));
+  }
+
+  /**
+   * Writes the time of the wheel and the time left on every cooldown it created.
+   *
+   * @param out Buffer to write to.
+   */
+  public void writeState(final ByteBuffer out) {
+    out.putLong(now);
+    out.putInt(cooldowns.size());
+    for (final TimerCooldown cooldown : cooldowns) {
+      cooldown.writeState(out, now);
+    }
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)} at the time it was written.
+   *
+   * @param in Buffer to read from.
+   * @throws IllegalStateException When the wheel created a different number of cooldowns.
+   */
+  public void readState(final ByteBuffer in) {
+    readState(in, in.getLong(in.position()));
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)} and moves the wheel to another
+   * time; every cooldown has as much time left as when it was written. Cooldowns are matched by
+   * creation order, timers that are not cooldowns of this wheel are dropped.
+   *
+   * @param in Buffer to read from.
+   * @param time Game time to continue at.
+   * @throws IllegalStateException When the wheel created a different number of cooldowns.
+   */
+  public void readState(final ByteBuffer in, final long time) {
+    clear();
+    in.getLong(); // time of the writing wheel, the cooldowns only keep their time left
+    now = time;
+    final int count = in.getInt();
+    if (count != cooldowns.size()) {
+      throw new IllegalStateException(
+          "State has " + count + " cooldowns, the wheel " + cooldowns.size());
+    }
+    for (final TimerCooldown cooldown : cooldowns) {
+      cooldown.readState(in, now);
+    }
+  }
+
+  /** Puts a timer back the way a snapshot saw it, pending when it had not fired. */
+  void restore(final Timer timer, final long deadline, final boolean expired) {
+    cancel(timer);
+    timer.deadline = deadline;
+    timer.expired = expired;
+    // Unstarted timers have no deadline, every pending one is still ahead of the wheel
+    if (!expired && deadline > now) {
+      insert(timer);
+    }
+  }
+
+  private Cooldown register(final TimerCooldown cooldown) {
+    cooldowns.add(cooldown);
+    return cooldown;
+  }
+
+  /** Cancels every scheduled timer. */
+  private void clear() {
+    for (int level = 0; level < LEVELS && size > 0; level++) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        while (slots[level][slot] != null) {
+          cancel(slots[level][slot]);
+        }
+      }
+    }
+  }
+
+  /** Moves the timers of the next slot of every level whose lower level just turned over. */
+  private void cascade() {
+    for (int level = 1; level < LEVELS; level++) {
+      final int slot = (int) (now >>> (SLOT_BITS * level)) & SLOT_MASK;
+      Timer timer = slots[level][slot];
+      while (timer != null) {
+        cancel(timer);
+        if (timer.deadline <= now) {
+          fire(timer);
+        } else {
+          insert(timer);
+        }
+        timer = slots[level][slot];
+      }
+      if (slot != 0) {
+        return;
+      }
+    }
+  }
+
+  private void insert(final Timer timer) {
+    final long delta = timer.deadline - now;
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    final long at =
+        level == LEVELS - 1
+            ? Math.min(timer.deadline, now + (1L << (SLOT_BITS * LEVELS)) - 1)
+            : timer.deadline;
+    final int slot = (int) (at >>> (SLOT_BITS * level)) & SLOT_MASK;
+    final Timer head = slots[level][slot];
+    timer.next = head;
+    if (head != null) {
+      head.previous = timer;
+    }
+    slots[level][slot] = timer;
+    timer.level = level;
+    timer.slot = slot;
+    levelCounts[level]++;
+    size++;
+  }
+
+  private static void fire(final Timer timer) {
+    timer.expired = true;
+    if (timer.callback != null) {
+      timer.callback.run();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * {@link RollbackSession.Transport} over a non-blocking UDP socket connected to one peer. Lost or
+ * reordered datagrams are fine, the session resends its inputs until they are acknowledged.
+ *
+ * <p>Started from the co-op menu with {@code -Dinvaders.net=<player>:<localPort>:<host>:<port>},
+ * where player is 1 on one machine and 2 on the other.
+ */
+public final class UdpTransport implements RollbackSession.Transport, Closeable {
+
+  private final DatagramChannel channel;
+
+  private UdpTransport(final DatagramChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Opens a socket on a local port and connects it to the peer.
+   *
+   * @param localPort Port to receive on, 0 for any free port.
+   * @param peer Address of the other player.
+   * @return Open transport.
+   * @throws IOException When the port cannot be bound.
+   */
+  public static UdpTransport open(final int localPort, final SocketAddress peer)
+      throws IOException {
+    final DatagramChannel channel = DatagramChannel.open();
+    try {
+      channel.configureBlocking(false);
+      channel.bind(new InetSocketAddress(localPort));
+      channel.connect(peer);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return new UdpTransport(channel);
+  }
+
+  @Override
+  public void send(final ByteBuffer packet) throws IOException {
+    try {
+      channel.write(packet);
+    } catch (PortUnreachableException e) {
+      // The peer is not listening yet, the next packet will try again
+    }
+  }
+
+  @Override
+  public boolean receive(final ByteBuffer packet) throws IOException {
+    packet.clear();
+    final int read;
+    try {
+      read = channel.read(packet);
+    } catch (PortUnreachableException e) {
+      return false;
+    }
+    packet.flip();
+    return read > 0;
+  }
+
+  /**
+   * Returns the port this transport receives on.
+   *
+   * @return Local port.
+   * @throws IOException When the socket is closed.
+   */
+  public int getLocalPort() throws IOException {
+    return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,32 @@
+package entity;
+
+/**
+ * Advances the animation frames of the enemy ships of a {@link World}. The formation decides when,
+ * then every ship flips at once; each ship only writes its own frame, so large formations are
+ * flipped in parallel chunks.
+ */
+public final class AnimationSystem {
+
+  private AnimationSystem() {}
+
+  /**
+   * Flips every enemy ship in play to its next frame.
+   *
+   * @param world World to update.
+   */
+  public static void animate(final World world) {
+    final EntityTable table = world.table(World.Kind.ENEMY);
+    final SystemScheduler scheduler = world.scheduler();
+    if (scheduler.isParallel(table.size())) {
+      scheduler.forEachRange(table.size(), (from, to) -> animate(table, from, to));
+    } else {
+      animate(table, 0, table.size());
+    }
+  }
+
+  private static void animate(final EntityTable table, final int from, final int to) {
+    for (int row = from; row < to; row++) {
+      ((EnemyShip) table.views[row]).nextFrame();
+    }
+  }
+}
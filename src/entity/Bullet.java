@@ -1,6 +1,7 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
 import engine.DrawManager.SpriteType;
 
@@ -11,9 +12,6 @@ import engine.DrawManager.SpriteType;
  */
 public class Bullet extends Entity { // NOPMD - DataClass
 
-  /** Speed of the bullet, positive or negative depending on direction - positive is down. */
-  private int speed;
-
   /** 2P mode: id number to specifying who fired the bullet - 0 = enemy, 1 = P1, 2 = P2 */
   private int ownerPlayerId;
 
@@ -31,7 +29,7 @@ public class Bullet extends Entity { // NOPMD - DataClass
   // change the constructor to receive width and height
   public Bullet(final int positionX, final int positionY, final int speed) {
     super(positionX, positionY, 0, 0, Color.WHITE);
-    this.speed = speed;
+    this.setSpeed(speed);
   }
 
   public void initialize(
@@ -46,36 +44,38 @@ public class Bullet extends Entity { // NOPMD - DataClass
     this.setSpeed(speed);
     this.setSize(width, height);
     this.setTeam(team);
+    // Enemy bullets have no owner, a recycled one must not keep the last shooter's
+    this.ownerPlayerId = 0;
     this.setSprite();
   }
 
   // reset the size when recycling bullets
   public final void setSize(final int width, final int height) {
-    this.width = width;
-    this.height = height;
+    this.resize(width, height);
   }
 
   /** Sets correct sprite for the bullet, based on speed. */
   public final void setSprite() {
-    if (this.speed < 0) {
-      this.spriteType = SpriteType.Bullet; // player bullet fired, team remains NEUTRAL
+    if (this.getSpeed() < 0) {
+      this.setSpriteType(SpriteType.Bullet); // player bullet fired, team remains NEUTRAL
     } else {
-      this.spriteType = SpriteType.EnemyBullet; // enemy fired bullet
+      this.setSpriteType(SpriteType.EnemyBullet); // enemy fired bullet
     }
   }
 
-  /** Updates the bullet's position. */
+  /** Updates the bullet's position, bullets in a world are moved by {@link MovementSystem}. */
   public final void update() {
-    this.positionY += this.speed;
+    this.translate(0, this.getSpeed());
   }
 
   /**
-   * Setter of the speed of the bullet.
+   * Setter of the speed of the bullet, positive or negative depending on direction - positive is
+   * down. The speed is the bullet's vertical velocity.
    *
    * @param speed New speed of the bullet.
    */
   public final void setSpeed(final int speed) {
-    this.speed = speed;
+    this.setVelocity(0, speed);
   }
 
   /**
@@ -84,7 +84,7 @@ public class Bullet extends Entity { // NOPMD - DataClass
    * @return Speed of the bullet.
    */
   public final int getSpeed() {
-    return this.speed;
+    return this.getVelocityY();
   }
 
   // 2P mode: adding owner API, standardised player API
@@ -99,4 +99,35 @@ public class Bullet extends Entity { // NOPMD - DataClass
   public int getPlayerId() {
     return this.playerId;
   }
+
+  /**
+   * Writes position, speed, size, team and owner of the bullet.
+   *
+   * @param out Buffer to write to.
+   */
+  public final void writeState(final ByteBuffer out) {
+    out.putInt(this.getPositionX());
+    out.putInt(this.getPositionY());
+    out.putInt(this.getSpeed());
+    out.putShort((short) this.getWidth());
+    out.putShort((short) this.getHeight());
+    out.put((byte) this.getTeam().ordinal());
+    out.put((byte) this.ownerPlayerId);
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)}, the sprite follows the speed.
+   *
+   * @param in Buffer to read from.
+   */
+  public final void readState(final ByteBuffer in) {
+    this.setPositionX(in.getInt());
+    this.setPositionY(in.getInt());
+    this.setSpeed(in.getInt());
+    final int width = in.getShort();
+    this.setSize(width, in.getShort());
+    this.setTeam(TEAMS[in.get()]);
+    this.ownerPlayerId = in.get();
+    this.setSprite();
+  }
 }
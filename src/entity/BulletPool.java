@@ -1,22 +1,45 @@
 package entity;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+import engine.GameContext;
+import engine.ObjectPool;
 import entity.Entity.Team;
 
 /**
- * Implements a pool of recyclable bullets.
+ * Implements a pool of recyclable bullets. Every {@link GameContext} has a pool of its own, the
+ * methods use the one of the calling thread's game.
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
 public final class BulletPool {
 
-  /** Set of already created bullets. */
-  private static final Set<Bullet> pool = new HashSet<>();
+  /** Idle bullets kept at most, enough for a bullet-hell level at its default cap. */
+  private static final int MAX_IDLE = 1 << 15;
 
   /** Constructor, not called. */
   private BulletPool() {}
 
+  /**
+   * Creates the pool of a new game. Recycled bullets are cleared back to how a new one starts, so
+   * an idle bullet keeps no speed, owner or team of its last shot.
+   *
+   * @param listed Whether the pool shows up in the metrics.
+   * @return Empty pool.
+   */
+  public static ObjectPool<Bullet> newPool(final boolean listed) {
+    return new ObjectPool<>(
+        "bullet", () -> new Bullet(0, 0, 0), BulletPool::clear, MAX_IDLE, listed);
+  }
+
+  private static void clear(final Bullet bullet) {
+    bullet.setSpeed(0);
+    bullet.setOwnerPlayerId(0);
+    bullet.setTeam(Team.NEUTRAL);
+    bullet.setSpriteType(null);
+  }
+
   /**
    * Returns a bullet from the pool if one is available, a new one if there isn't.
    *
@@ -36,25 +59,50 @@ public final class BulletPool {
       final int width,
       final int height,
       final Team team) {
-    Bullet bullet;
-    if (pool.isEmpty()) {
-      bullet = new Bullet(positionX, positionY, speed);
-    } else {
-      bullet = pool.iterator().next(); // NOPMD - acceptable concise iterator access
-      pool.remove(bullet);
-    }
+    final Bullet bullet = getPool().acquire();
     bullet.initialize( // NOPMD
         positionX, positionY, speed, width, height,
         team); // NOPMD - initialization delegated to Bullet, acceptable for pooling
     return bullet;
   }
 
+  /**
+   * Returns a bullet from the pool set to a state written by {@link Bullet#writeState(ByteBuffer)}.
+   *
+   * @param in Buffer to read the bullet from.
+   * @return Restored bullet.
+   */
+  public static Bullet readBullet(final ByteBuffer in) {
+    final Bullet bullet = getPool().acquire();
+    bullet.readState(in);
+    return bullet;
+  }
+
   /**
    * Adds one or more bullets to the list of available ones.
    *
    * @param bullet Bullets to recycle.
    */
-  public static void recycle(final Set<Bullet> bullet) {
-    pool.addAll(bullet);
+  public static void recycle(final Collection<Bullet> bullet) {
+    getPool().recycleAll(bullet);
+  }
+
+  /**
+   * Creates bullets ahead of a level, so its first volleys do not allocate.
+   *
+   * @param expectedPeak Bullets expected on screen at once.
+   */
+  public static void prewarm(final int expectedPeak) {
+    final ObjectPool<Bullet> pool = getPool();
+    pool.prewarm(Math.max(expectedPeak, pool.getHighWaterMark()));
+  }
+
+  /**
+   * Returns the pool of the current game, for its counters.
+   *
+   * @return Bullet pool.
+   */
+  public static ObjectPool<Bullet> getPool() {
+    return GameContext.current().getBulletPool();
   }
 }
@@ -1,9 +1,8 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
-import engine.Cooldown;
-import engine.Core;
 import engine.DrawManager.SpriteType;
 import engine.EnemyAnimator;
 import engine.GameSettings;
@@ -32,9 +31,6 @@ public class EnemyShip extends Entity {
   private static final int C_TYPE_COINS = 5;
   private static final int BONUS_TYPE_COINS = 10;
 
-  /** Cooldown between sprite changes. */
-  private Cooldown animationCooldown;
-
   /** Checks if the ship has been hit by a bullet. */
   private boolean destroyed;
 
@@ -43,13 +39,13 @@ public class EnemyShip extends Entity {
 
   private int coinValue;
 
-  /** Current health of the enemy ship */
-  private int health;
-
   private int initialHealth;
 
   private final EnemyAnimator animator = new EnemyAnimator();
 
+  /** Slot of the ship in its {@link EnemyShipGrid}, -1 when not part of a grid. */
+  private int gridIndex = -1;
+
   /**
    * Constructor, establishes the ship's properties.
    *
@@ -60,42 +56,49 @@ public class EnemyShip extends Entity {
   public EnemyShip(final int positionX, final int positionY, final SpriteType spriteType) {
     super(positionX, positionY, 12 * 2, 8 * 2, Color.WHITE);
 
-    this.spriteType = spriteType;
-    this.animationCooldown = Core.getCooldown(500);
+    this.setSpriteType(spriteType);
     this.destroyed = false;
 
-    switch (this.spriteType) {
+    switch (spriteType) {
       case EnemyShipA1:
       case EnemyShipA2:
         this.pointValue = A_TYPE_POINTS;
         this.coinValue = A_TYPE_COINS;
-        this.health = 2;
+        this.setHealth(2);
         break;
       case EnemyShipB1:
       case EnemyShipB2:
         this.pointValue = B_TYPE_POINTS;
         this.coinValue = B_TYPE_COINS;
-        this.health = 1;
+        this.setHealth(1);
         break;
       case EnemyShipC1:
       case EnemyShipC2:
         this.pointValue = C_TYPE_POINTS;
         this.coinValue = C_TYPE_COINS;
-        this.health = 1;
+        this.setHealth(1);
         break;
       default:
         this.pointValue = 0;
         this.coinValue = 0;
-        this.health = 1;
+        this.setHealth(1);
         break;
     }
 
-    this.initialHealth = this.health;
+    this.initialHealth = this.health();
+  }
+
+  int getGridIndex() {
+    return gridIndex;
+  }
+
+  void setGridIndex(final int gridIndex) {
+    this.gridIndex = gridIndex;
   }
 
   public void changeShip(final GameSettings.ChangeData changeData) {
-    this.health *= changeData.hp;
-    this.initialHealth = this.health;
+    this.setHealth(this.health() * changeData.hp);
+    this.initialHealth = this.health();
 
     this.changeColor(changeData.color);
 
@@ -110,11 +113,11 @@ public class EnemyShip extends Entity {
   public EnemyShip() {
     super(-32, 80, 16 * 2, 7 * 2, Color.RED);
 
-    this.spriteType = SpriteType.EnemyShipSpecial;
+    this.setSpriteType(SpriteType.EnemyShipSpecial);
     this.destroyed = false;
     this.pointValue = BONUS_TYPE_POINTS;
     this.coinValue = BONUS_TYPE_COINS;
-    this.health = 1;
+    this.setHealth(1);
   }
 
   /**
@@ -133,27 +136,23 @@ public class EnemyShip extends Entity {
    * @param distanceY Distance to move in the Y axis.
    */
   public final void move(final int distanceX, final int distanceY) {
-    this.positionX += distanceX;
-    this.positionY += distanceY;
+    this.translate(distanceX, distanceY);
   }
 
-  /** Updates attributes, mainly used for animation purposes. */
-  public final void update() {
-    if (this.animationCooldown.checkFinished()) {
-      this.animationCooldown.reset();
-      this.spriteType = animator.nextFrame(this.spriteType);
-    }
+  /** Flips the ship to its next animation frame, the formation times the flips of all ships. */
+  final void nextFrame() {
+    this.setSpriteType(animator.nextFrame(this.getSpriteType()));
   }
 
   /** Returns the current health of the enemy ship */
   public int getHealth() {
-    return this.health;
+    return this.health();
   }
 
   /** Destroys the ship, causing an explosion. */
   public final void destroy() {
     this.destroyed = true;
-    this.spriteType = SpriteType.Explosion;
+    this.setSpriteType(SpriteType.Explosion);
   }
 
   /**
@@ -189,14 +188,14 @@ public class EnemyShip extends Entity {
   }
 
   private void refreshAlpha() {
-    final float t = initialHealth > 0 ? this.health / (float) initialHealth : 1f;
+    final float t = initialHealth > 0 ? this.health() / (float) initialHealth : 1f;
 
     final int minAlpha = 100;
     final int oneHPAlpha = 100;
 
     int alpha = clamp(minAlpha + Math.round((255 - minAlpha) * t));
 
-    if (this.health == 1 && this.initialHealth > 1) {
+    if (this.health() == 1 && this.initialHealth > 1) {
       alpha = Math.max(alpha, oneHPAlpha);
     }
     applyColorWithAlpha(alpha);
@@ -204,15 +203,50 @@ public class EnemyShip extends Entity {
 
   // fixed getDamage() for new alpha
   public final int getDamage(final int dmg) {
-    this.health -= dmg;
+    final int health = this.health() - dmg;
+    this.setHealth(health);
 
-    if (this.health <= 0) {
+    if (health <= 0) {
       this.destroyed = true;
-      this.spriteType = SpriteType.Explosion;
+      this.setSpriteType(SpriteType.Explosion);
       applyColorWithAlpha(255);
     } else {
       this.refreshAlpha();
     }
-    return this.health;
+    return health;
+  }
+
+  /**
+   * Writes what play changes about the ship: position, frame, health and the color it fades to.
+   *
+   * @param out Buffer to write to.
+   */
+  public final void writeState(final ByteBuffer out) {
+    out.putInt(this.getPositionX());
+    out.putInt(this.getPositionY());
+    out.putShort((short) this.getSpriteType().ordinal());
+    out.putInt(this.health());
+    out.put((byte) (this.destroyed ? 1 : 0));
+    final Color color = this.getColor();
+    out.putInt(color == null ? 0 : color.getRGB());
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)}.
+   *
+   * @param in Buffer to read from.
+   */
+  public final void readState(final ByteBuffer in) {
+    this.setPositionX(in.getInt());
+    this.setPositionY(in.getInt());
+    this.setSpriteType(SPRITE_TYPES[in.getShort()]);
+    this.setHealth(in.getInt());
+    this.destroyed = in.get() != 0;
+    final int rgb = in.getInt();
+    final Color color = this.getColor();
+    // Colors only change when the ship is hit, most restores keep the current object
+    if (color == null || color.getRGB() != rgb) {
+      this.changeColor(new Color(rgb, true));
+    }
   }
 }
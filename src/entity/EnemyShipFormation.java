@@ -1,5 +1,6 @@
 package entity;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -16,6 +17,9 @@ import screen.Screen;
  */
 public class EnemyShipFormation implements Iterable<EnemyShip> {
 
+  /** Milliseconds between two animation frames of the ships. */
+  private static final int ANIMATION_INTERVAL = 500;
+
   /** DrawManager instance. */
   private final DrawManager drawManager;
 
@@ -27,6 +31,12 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
   private final int initialShipCount;
   private final EnemyShipGrid grid;
 
+  /** World the ships are in play in, null when the formation moves its ships itself. */
+  private World world;
+
+  /** One cooldown flips the frames of every ship together, made by {@link #enterWorld}. */
+  private Cooldown animationCooldown;
+
   /**
    * Constructor, sets the initial conditions.
    *
@@ -39,7 +49,12 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
     // 1. Movement & Shooting 초기화
     this.movement = new FormationMovement(gameSettings.getBaseSpeed());
-    this.shooting = new FormationShooting(gameSettings.getShootingFrequency());
+    this.shooting =
+        new FormationShooting(
+            gameSettings.getShootingFrequency(),
+            gameSettings.getFormationWidth(),
+            gameSettings.getVolleySize(),
+            gameSettings.getBulletCap());
 
     // 2. Grid 초기화 (배 생성 및 배치)
     this.grid =
@@ -47,7 +62,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
             gameSettings.getFormationWidth(),
             gameSettings.getFormationHeight(),
             movement.getPositionX(),
-            movement.getPositionY());
+            movement.getPositionY(),
+            gameSettings.getShipSpacing());
 
     this.initialShipCount = grid.getShipCount();
 
@@ -59,9 +75,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
   private void initializeShooters() {
     // Grid에서 컬럼 정보를 가져와 사수 설정
-    for (final List<EnemyShip> column : this.grid.getColumns()) {
-      if (!column.isEmpty()) {
-        this.shooting.addShooter(column.getLast());
+    for (int col = 0; col < this.grid.getColumnCount(); col++) {
+      final EnemyShip bottom = this.grid.getBottomShip(col);
+      if (bottom != null) {
+        this.shooting.setShooter(col, bottom);
       }
     }
   }
@@ -95,20 +112,34 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     screen = newScreen;
   }
 
+  /**
+   * Puts the alive ships in play in a world, from now on they are moved and animated by its
+   * systems and leave it when destroyed. The animation and shooting cooldowns move onto the
+   * level's timer wheel.
+   *
+   * @param newWorld World of the level.
+   * @param timers Timer wheel of the level.
+   */
+  public final void enterWorld(final World newWorld, final TimerWheel timers) {
+    world = newWorld;
+    animationCooldown = timers.cooldown(ANIMATION_INTERVAL);
+    shooting.useTimers(timers);
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      world.attach(grid.getShipAt(i), World.Kind.ENEMY);
+    }
+  }
+
   /** Draws every individual component of the formation. */
   public final void draw() {
-    // Grid가 Iterable을 구현했으므로 바로 루프 가능
-    for (final EnemyShip enemyShip : this.grid) {
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      final EnemyShip enemyShip = grid.getShipAt(i);
       drawManager.drawEntity(enemyShip, enemyShip.getPositionX(), enemyShip.getPositionY());
     }
   }
 
-  /** Updates the position of the ships. */
+  /** Updates the position of the ships, once the formation entered a world. */
   public final void update() {
-    // 1. Grid 정리 (빈 컬럼 삭제 등)
-    grid.cleanUp();
-
-    // Grid가 비었다면 업데이트 중단
+    // 1. Grid가 비었다면 업데이트 중단
     if (grid.getShipCount() == 0) {
       return;
     }
@@ -128,7 +159,26 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
     // 3. 계산된 이동값(Delta)을 Grid에 적용
     if (delta != null && (delta[0] != 0 || delta[1] != 0)) {
-      grid.move(delta[0], delta[1]);
+      if (world == null) {
+        grid.move(delta[0], delta[1]);
+      } else {
+        grid.moveOrigin(delta[0], delta[1]);
+        MovementSystem.translate(world, World.Kind.ENEMY, delta[0], delta[1]);
+      }
+      if (animationCooldown.checkFinished()) {
+        animationCooldown.reset();
+        nextFrame();
+      }
+    }
+  }
+
+  private void nextFrame() {
+    if (world != null) {
+      AnimationSystem.animate(world);
+      return;
+    }
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      grid.getShipAt(i).nextFrame();
     }
   }
 
@@ -155,17 +205,19 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
     destroyedShip.destroy();
+    if (world != null) {
+      world.detach(destroyedShip);
+    }
 
-    // 2. 사수(Shooter) 목록 갱신
-    final List<EnemyShip> shooters = shooting.getShooters();
-    if (shooters.contains(destroyedShip)) { // NOPMD
-      final int destroyedIndex = shooters.indexOf(destroyedShip);
-      final EnemyShip nextShooter = getNextShooter(destroyedShip);
+    // 2. 사수(Shooter) 갱신 - 같은 컬럼의 가장 아래 배가 이어받음
+    final int column = grid.getColumn(destroyedShip);
+    if (shooting.getShooter(column) == destroyedShip) {
+      final EnemyShip nextShooter = getNextShooter(column);
 
       if (nextShooter != null) {
-        shooting.updateShooter(destroyedIndex, nextShooter);
+        shooting.setShooter(column, nextShooter);
       } else {
-        shooting.removeShooter(destroyedShip);
+        shooting.removeShooter(column);
       }
     }
   }
@@ -173,21 +225,55 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
   /**
    * Gets the ship on a given column that will be in charge of shooting.
    *
+   * @param column Column whose shooter was destroyed.
    * @return New shooter ship.
    */
-  private EnemyShip getNextShooter(final EnemyShip destroyedShip) {
-    for (final List<EnemyShip> col : grid.getColumns()) {
-      // 파괴된 배와 X좌표가 거의 같은(같은 컬럼인) 리스트를 찾음
-      if (!col.isEmpty()
-          && Math.abs(col.getFirst().getPositionX() - destroyedShip.getPositionX()) < 5) { // NOPMD
-        final EnemyShip next = col.getLast();
-        if (next.isDestroyed()) { // NOPMD
-          return null;
-        }
-        return next;
-      }
+  private EnemyShip getNextShooter(final int column) {
+    final EnemyShip next = grid.getBottomShip(column);
+    if (next == null || next.isDestroyed()) { // NOPMD
+      return null;
     }
-    return null;
+    return next;
+  }
+
+  /**
+   * Returns the slot of the first alive ship at or after the given slot. Together with {@link
+   * #getShipAt(int)} this walks the formation without allocating:
+   *
+   * <pre>{@code for (int i = f.nextShip(0); i >= 0; i = f.nextShip(i + 1))}</pre>
+   *
+   * @param from Slot to start searching from.
+   * @return Slot of the next alive ship, or -1 when there is none.
+   */
+  public final int nextShip(final int from) {
+    return grid.nextAlive(from);
+  }
+
+  /**
+   * Returns the slot of the first alive ship at or after the given slot that may overlap an entity.
+   * Walks like {@link #nextShip(int)}, but skips the ships that are too far away to touch it.
+   *
+   * @param from Slot to start searching from.
+   * @param entity Entity to test the ships against.
+   * @return Slot of the next alive ship near the entity, or -1 when there is none.
+   */
+  public final int nextShipNear(final int from, final Entity entity) {
+    return grid.nextAliveNear(
+        from,
+        entity.getPositionX(),
+        entity.getPositionY(),
+        entity.getWidth(),
+        entity.getHeight());
+  }
+
+  /**
+   * Returns the ship in a slot returned by {@link #nextShip(int)}.
+   *
+   * @param index Slot of the ship.
+   * @return Ship in the slot.
+   */
+  public final EnemyShip getShipAt(final int index) {
+    return grid.getShipAt(index);
   }
 
   /**
@@ -200,6 +286,49 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     return grid.iterator();
   }
 
+  /**
+   * Writes movement, grid and shooters of the formation and the state of every alive ship. The
+   * cooldowns are part of the level's timer wheel.
+   *
+   * @param out Buffer to write to.
+   */
+  public final void writeState(final ByteBuffer out) {
+    movement.writeState(out);
+    grid.writeState(out);
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      grid.getShipAt(i).writeState(out);
+    }
+    shooting.writeState(out);
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)} by a formation of the same level.
+   * Ships destroyed since are brought back into the world, ships destroyed in the state leave it.
+   *
+   * @param in Buffer to read from.
+   */
+  public final void readState(final ByteBuffer in) {
+    movement.readState(in);
+    grid.readState(in);
+    for (int i = 0; i < grid.getSlotCount(); i++) {
+      final EnemyShip ship = grid.getShipAt(i);
+      if (grid.isAliveAt(i)) {
+        ship.readState(in);
+        if (world != null && !ship.isInWorld()) {
+          world.attach(ship, World.Kind.ENEMY);
+        }
+      } else {
+        if (!ship.isDestroyed()) {
+          ship.destroy();
+        }
+        if (world != null) {
+          world.detach(ship);
+        }
+      }
+    }
+    shooting.readState(in, grid);
+  }
+
   public boolean lastShip() {
     return this.grid.getShipCount() == 1;
   }
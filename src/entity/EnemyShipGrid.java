@@ -1,24 +1,70 @@
 package entity;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 import engine.DrawManager.SpriteType;
 
 /**
- * Manages the grid structure of enemy ships. Handles storage, dimensions, and cleaning up of empty
- * columns.
+ * Manages the grid structure of enemy ships. Ships are kept in one flat, column-major array that
+ * never changes size, and an alive bitmask tells which slots still hold a ship. Traversal goes
+ * through {@link #nextAlive(int)} and {@link #getShipAt(int)}, which allocate nothing.
+ *
+ * <p>Per-column alive counts, the top and bottom alive row of every column and the outermost
+ * occupied columns are kept up to date by {@link #removeShip(EnemyShip)}. Since all ships move
+ * together, positions and bounds follow from the origin of the grid, so reading them costs O(1),
+ * and the ships an area can touch are found from its coordinates with {@link #nextAliveNear}.
+ *
+ * <p>Grids that are packed tighter than {@link #SEPARATION_DISTANCE} shrink their ships by the same
+ * ratio, so stress formations of hundreds of columns still fit on the screen.
  */
 @SuppressWarnings("PMD.LawOfDemeter")
 public class EnemyShipGrid implements Iterable<EnemyShip> {
 
-  private static final int SEPARATION_DISTANCE = 40;
+  /** Distance between two neighbouring ships of a stock formation. */
+  public static final int SEPARATION_DISTANCE = 40;
+
   private static final double PROPORTION_C = 0.2;
   private static final double PROPORTION_B = 0.4;
 
-  private final List<List<EnemyShip>> enemyShips;
+  /** Ships by slot, slot = column * rows + row. */
+  private final EnemyShip[] ships;
+
+  /** One bit per slot, set while the ship in it is alive. */
+  private final long[] alive;
+
+  private final int nShipsWide;
   private final int nShipsHigh;
 
+  /** Distance between two neighbouring ships. */
+  private final int separation;
+
+  /** Alive ships per column. */
+  private final int[] columnAlive;
+
+  /** Top-most alive row per column, -1 once the column is empty. */
+  private final int[] topRow;
+
+  /** Bottom-most alive row per column, -1 once the column is empty. */
+  private final int[] bottomRow;
+
+  /** Columns that still hold ships, by the rows from their top to their bottom ship. */
+  private final int[] spanColumns;
+
+  /** Most rows from top to bottom ship of any column, only shrinks as ships are removed. */
+  private int maxSpan;
+
+  /** Left-most and right-most columns that still hold ships. */
+  private int leftColumn;
+
+  private int rightColumn;
+
+  /** Position slot (0, 0) would have, every ship is offset from it by its column and row. */
+  private int originX;
+
+  private int originY;
+
   // 차원 및 상태 데이터
   private int width;
   private int height;
@@ -28,20 +74,45 @@ public class EnemyShipGrid implements Iterable<EnemyShip> {
 
   public EnemyShipGrid(
       final int nShipsWide, final int nShipsHigh, final int startX, final int startY) {
+    this(nShipsWide, nShipsHigh, startX, startY, SEPARATION_DISTANCE);
+  }
+
+  /**
+   * Creates a grid with the given distance between ships.
+   *
+   * @param nShipsWide Number of columns.
+   * @param nShipsHigh Number of rows.
+   * @param startX Position of the left-most column.
+   * @param startY Position of the top row.
+   * @param separation Distance between two neighbouring ships, at least 1.
+   */
+  public EnemyShipGrid(
+      final int nShipsWide,
+      final int nShipsHigh,
+      final int startX,
+      final int startY,
+      final int separation) {
+    if (separation < 1) {
+      throw new IllegalArgumentException("Separation must be positive: " + separation);
+    }
+    this.nShipsWide = nShipsWide;
     this.nShipsHigh = nShipsHigh;
-    this.enemyShips = new ArrayList<>();
+    this.separation = separation;
+    this.ships = new EnemyShip[nShipsWide * nShipsHigh];
+    this.alive = new long[(this.ships.length + Long.SIZE - 1) / Long.SIZE];
+    this.columnAlive = new int[nShipsWide];
+    this.topRow = new int[nShipsWide];
+    this.bottomRow = new int[nShipsWide];
+    this.spanColumns = new int[Math.max(1, nShipsHigh)];
+    this.originX = startX;
+    this.originY = startY;
     this.shipCount = 0;
-    initializeShips(nShipsWide, startX, startY);
+    initializeShips(startX, startY);
   }
 
-  private void initializeShips(final int nShipsWide, final int startX, final int startY) {
+  private void initializeShips(final int startX, final int startY) {
     SpriteType spriteType;
-    for (int i = 0; i < nShipsWide; i++) {
-      this.enemyShips.add(new ArrayList<>()); // NOPMD
-    }
-
     for (int col = 0; col < nShipsWide; col++) {
-      final List<EnemyShip> column = this.enemyShips.get(col);
       for (int row = 0; row < this.nShipsHigh; row++) {
         if (row / (float) this.nShipsHigh < PROPORTION_C) {
           spriteType = SpriteType.EnemyShipC1;
@@ -51,91 +122,331 @@ public class EnemyShipGrid implements Iterable<EnemyShip> {
           spriteType = SpriteType.EnemyShipA1;
         }
 
-        column.add(
-            new EnemyShip(
-                SEPARATION_DISTANCE * col + startX,
-                SEPARATION_DISTANCE * row + startY,
-                spriteType));
+        final int index = slot(col, row);
+        final EnemyShip ship =
+            new EnemyShip(separation * col + startX, separation * row + startY, spriteType);
+        if (separation < SEPARATION_DISTANCE) {
+          ship.resize(
+              Math.max(1, ship.getWidth() * separation / SEPARATION_DISTANCE),
+              Math.max(1, ship.getHeight() * separation / SEPARATION_DISTANCE));
+        }
+        ship.setGridIndex(index);
+        this.ships[index] = ship;
+        this.alive[index >>> 6] |= 1L << index;
         this.shipCount++;
       }
+      this.columnAlive[col] = this.nShipsHigh;
+      this.topRow[col] = this.nShipsHigh > 0 ? 0 : -1;
+      this.bottomRow[col] = this.nShipsHigh - 1;
     }
+    this.leftColumn = 0;
+    this.rightColumn = nShipsWide - 1;
+    countSpans();
 
     // 초기 치수 설정
-    if (!enemyShips.isEmpty() && !enemyShips.getFirst().isEmpty()) {
-      final EnemyShip firstShip = enemyShips.getFirst().getFirst();
+    if (this.shipCount > 0) {
+      final EnemyShip firstShip = this.ships[0];
       this.shipWidth = firstShip.getWidth();
       this.shipHeight = firstShip.getHeight();
-      updateDimensions(nShipsWide);
+      updateDimensions();
+    } else {
+      this.leftColumn = -1;
+      this.rightColumn = -1;
     }
   }
 
+  private int slot(final int col, final int row) {
+    return col * this.nShipsHigh + row;
+  }
+
+  private boolean isAlive(final int index) {
+    return (this.alive[index >>> 6] & 1L << index) != 0;
+  }
+
   /**
-   * Cleans up empty columns and recalculates dimensions. The new top-left [x, y] position if the
-   * grid shifted, otherwise logic handles it.
+   * Returns the first alive slot at or after the given one.
+   *
+   * @param from Slot to start searching from.
+   * @return Slot of the next alive ship, or -1 when there is none.
    */
-  public void cleanUp() {
-    // 1. 빈 컬럼 제거
-    this.enemyShips.removeIf(List::isEmpty);
-
-    // 2. 남은 배가 없으면 리턴
-    if (enemyShips.isEmpty()) {
-      this.width = 0;
-      this.height = 0;
-      return;
+  public int nextAlive(final int from) {
+    if (from >= this.ships.length) {
+      return -1;
     }
+    int word = from >>> 6;
+    long bits = this.alive[word] & -1L << from;
+    while (bits == 0) {
+      word++;
+      if (word == this.alive.length) {
+        return -1;
+      }
+      bits = this.alive[word];
+    }
+    return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+  }
 
-    // 3. 높이 및 너비 재계산
-    int maxColumnHeight = 0;
-    final int leftMost = enemyShips.getFirst().getFirst().getPositionX();
-    final int rightMost = enemyShips.getLast().getFirst().getPositionX();
+  /**
+   * Returns the first alive slot at or after the given one whose ship may overlap an area. Only the
+   * columns and rows the area reaches are looked at, so a bullet is tested against a handful of
+   * ships instead of the whole formation. Slots come in the same order as from {@link
+   * #nextAlive(int)}, every ship that overlaps the area is among them.
+   *
+   * @param from Slot to start searching from.
+   * @param x Left side of the area.
+   * @param y Upper side of the area.
+   * @param areaWidth Width of the area.
+   * @param areaHeight Height of the area.
+   * @return Slot of the next alive ship near the area, or -1 when there is none.
+   */
+  public int nextAliveNear(
+      final int from, final int x, final int y, final int areaWidth, final int areaHeight) {
+    if (this.shipCount == 0 || from >= this.ships.length) {
+      return -1;
+    }
+    // One extra column and row on each side, hit tests round the centres of odd sizes
+    final int firstCol = Math.max(this.leftColumn, cell(x - this.shipWidth - this.originX) - 1);
+    final int lastCol = Math.min(this.rightColumn, cell(x + areaWidth - this.originX) + 1);
+    final int firstRow = Math.max(0, cell(y - this.shipHeight - this.originY) - 1);
+    final int lastRow = Math.min(this.nShipsHigh - 1, cell(y + areaHeight - this.originY) + 1);
 
-    for (final List<EnemyShip> column : this.enemyShips) {
-      final int colHeight =
-          column.getLast().getPositionY() - column.getFirst().getPositionY() + this.shipHeight;
-      maxColumnHeight = Math.max(maxColumnHeight, colHeight);
+    final int fromCol = from / this.nShipsHigh;
+    for (int col = Math.max(firstCol, fromCol); col <= lastCol; col++) {
+      if (this.columnAlive[col] == 0) {
+        continue;
+      }
+      final int rowStart = col == fromCol ? Math.max(firstRow, from % this.nShipsHigh) : firstRow;
+      final int rowEnd = Math.min(lastRow, this.bottomRow[col]);
+      for (int row = Math.max(rowStart, this.topRow[col]); row <= rowEnd; row++) {
+        final int index = slot(col, row);
+        if (isAlive(index)) {
+          return index;
+        }
+      }
     }
+    return -1;
+  }
 
-    this.width = (rightMost - leftMost) + this.shipWidth;
-    this.height = maxColumnHeight;
+  /** Column or row an offset from the origin falls in, rounding towards negative infinity. */
+  private int cell(final int offset) {
+    return Math.floorDiv(offset, this.separation);
+  }
+
+  /**
+   * Returns the ship stored in a slot, alive or not.
+   *
+   * @param index Slot returned by {@link #nextAlive(int)}.
+   * @return Ship in the slot.
+   */
+  public EnemyShip getShipAt(final int index) {
+    return this.ships[index];
+  }
+
+  /**
+   * Returns the column a ship of this grid belongs to.
+   *
+   * @param ship Ship of the grid.
+   * @return Column of the ship.
+   */
+  public int getColumn(final EnemyShip ship) {
+    return ship.getGridIndex() / this.nShipsHigh;
+  }
+
+  /**
+   * Returns the bottom-most alive ship of a column.
+   *
+   * @param col Column to look at.
+   * @return Lowest alive ship of the column, or null when the column is empty.
+   */
+  public EnemyShip getBottomShip(final int col) {
+    final int row = this.bottomRow[col];
+    return row < 0 ? null : this.ships[slot(col, row)];
+  }
+
+  /**
+   * Returns how many ships of a column are still alive.
+   *
+   * @param col Column to look at.
+   * @return Alive ships in the column.
+   */
+  public int getColumnShipCount(final int col) {
+    return this.columnAlive[col];
   }
 
   public void move(final int deltaX, final int deltaY) {
-    for (final List<EnemyShip> column : this.enemyShips) {
-      for (final EnemyShip ship : column) {
-        ship.move(deltaX, deltaY);
-        ship.update();
-      }
+    moveOrigin(deltaX, deltaY);
+    for (int i = nextAlive(0); i >= 0; i = nextAlive(i + 1)) {
+      final EnemyShip ship = this.ships[i];
+      ship.move(deltaX, deltaY);
     }
   }
 
+  /**
+   * Moves only the grid's origin, for when the ships are moved by {@link MovementSystem}.
+   *
+   * @param deltaX Distance to move in the X axis.
+   * @param deltaY Distance to move in the Y axis.
+   */
+  void moveOrigin(final int deltaX, final int deltaY) {
+    this.originX += deltaX;
+    this.originY += deltaY;
+  }
+
   public boolean removeShip(final EnemyShip ship) {
-    for (final List<EnemyShip> column : this.enemyShips) {
-      if (column.remove(ship)) {
-        this.shipCount--;
-        return true;
+    final int index = ship.getGridIndex();
+    if (index < 0 || index >= this.ships.length || this.ships[index] != ship || !isAlive(index)) {
+      return false;
+    }
+    this.alive[index >>> 6] &= ~(1L << index);
+    this.shipCount--;
+    onShipRemoved(index / this.nShipsHigh, index % this.nShipsHigh);
+    return true;
+  }
+
+  /** Updates column bookkeeping and bounds after the ship at the given position was removed. */
+  private void onShipRemoved(final int col, final int row) {
+    final int span = this.bottomRow[col] - this.topRow[col];
+    if (--this.columnAlive[col] == 0) {
+      this.spanColumns[span]--;
+      this.topRow[col] = -1;
+      this.bottomRow[col] = -1;
+      if (this.shipCount == 0) {
+        this.leftColumn = -1;
+        this.rightColumn = -1;
+      } else {
+        while (this.columnAlive[this.leftColumn] == 0) {
+          this.leftColumn++;
+        }
+        while (this.columnAlive[this.rightColumn] == 0) {
+          this.rightColumn--;
+        }
+      }
+    } else if (row == this.topRow[col]) {
+      int top = row + 1;
+      while (!isAlive(slot(col, top))) {
+        top++;
+      }
+      this.topRow[col] = top;
+      this.spanColumns[span]--;
+      this.spanColumns[this.bottomRow[col] - top]++;
+    } else if (row == this.bottomRow[col]) {
+      int bottom = row - 1;
+      while (!isAlive(slot(col, bottom))) {
+        bottom--;
+      }
+      this.bottomRow[col] = bottom;
+      this.spanColumns[span]--;
+      this.spanColumns[bottom - this.topRow[col]]++;
+    }
+    updateBounds();
+  }
+
+  /**
+   * Recomputes width and height from the tracked column extents. Column spans only shrink, so the
+   * widest one is found by stepping down from the last one, O(rows) over the life of the grid.
+   */
+  private void updateBounds() {
+    if (this.shipCount == 0) {
+      this.width = 0;
+      this.height = 0;
+      return;
+    }
+    while (this.maxSpan > 0 && this.spanColumns[this.maxSpan] == 0) {
+      this.maxSpan--;
+    }
+    this.width = (this.rightColumn - this.leftColumn) * this.separation + this.shipWidth;
+    this.height = this.maxSpan * this.separation + this.shipHeight;
+  }
+
+  /** Counts the columns by span from the column extents, when they were set all at once. */
+  private void countSpans() {
+    Arrays.fill(this.spanColumns, 0);
+    this.maxSpan = 0;
+    for (int col = 0; col < this.nShipsWide; col++) {
+      if (this.columnAlive[col] > 0) {
+        final int span = this.bottomRow[col] - this.topRow[col];
+        this.spanColumns[span]++;
+        this.maxSpan = Math.max(this.maxSpan, span);
       }
     }
-    return false;
   }
 
+  /**
+   * Returns the ship placed at a grid position when the formation was created.
+   *
+   * @param col Column of the ship.
+   * @param row Row of the ship.
+   * @return Ship at the position, or null if it is out of range or already removed.
+   */
   public EnemyShip getShip(final int col, final int row) {
-    if (col >= 0 && col < enemyShips.size()) {
-      final List<EnemyShip> column = enemyShips.get(col);
-      if (row >= 0 && row < column.size()) {
-        return column.get(row);
+    if (col >= 0 && col < this.nShipsWide && row >= 0 && row < this.nShipsHigh) {
+      final int index = slot(col, row);
+      if (isAlive(index)) {
+        return this.ships[index];
       }
     }
     return null;
   }
 
-  private void updateDimensions(final int nShipsWide) {
-    this.width = (nShipsWide - 1) * SEPARATION_DISTANCE + this.shipWidth;
-    this.height = (this.nShipsHigh - 1) * SEPARATION_DISTANCE + this.shipHeight;
+  private void updateDimensions() {
+    this.width = (this.nShipsWide - 1) * this.separation + this.shipWidth;
+    this.height = (this.nShipsHigh - 1) * this.separation + this.shipHeight;
+  }
+
+  /** Writes which slots are alive, the column bookkeeping and the origin. */
+  void writeState(final ByteBuffer out) {
+    for (final long word : this.alive) {
+      out.putLong(word);
+    }
+    for (int col = 0; col < this.nShipsWide; col++) {
+      out.putInt(this.columnAlive[col]);
+      out.putInt(this.topRow[col]);
+      out.putInt(this.bottomRow[col]);
+    }
+    out.putInt(this.leftColumn);
+    out.putInt(this.rightColumn);
+    out.putInt(this.originX);
+    out.putInt(this.originY);
+    out.putInt(this.width);
+    out.putInt(this.height);
+    out.putInt(this.shipCount);
+  }
+
+  /** Reads back a state written by {@link #writeState(ByteBuffer)}, ships are left as they are. */
+  void readState(final ByteBuffer in) {
+    for (int i = 0; i < this.alive.length; i++) {
+      this.alive[i] = in.getLong();
+    }
+    for (int col = 0; col < this.nShipsWide; col++) {
+      this.columnAlive[col] = in.getInt();
+      this.topRow[col] = in.getInt();
+      this.bottomRow[col] = in.getInt();
+    }
+    this.leftColumn = in.getInt();
+    this.rightColumn = in.getInt();
+    this.originX = in.getInt();
+    this.originY = in.getInt();
+    this.width = in.getInt();
+    this.height = in.getInt();
+    this.shipCount = in.getInt();
+    countSpans();
+  }
+
+  /** Slots of the grid, alive or not. */
+  int getSlotCount() {
+    return this.ships.length;
+  }
+
+  boolean isAliveAt(final int index) {
+    return isAlive(index);
   }
 
   // Getters
-  public List<List<EnemyShip>> getColumns() {
-    return enemyShips;
+  public int getColumnCount() {
+    return nShipsWide;
+  }
+
+  public int getRowCount() {
+    return nShipsHigh;
   }
 
   public int getWidth() {
@@ -151,25 +462,44 @@ public class EnemyShipGrid implements Iterable<EnemyShip> {
   }
 
   public int getMinX() {
-    if (enemyShips.isEmpty() || enemyShips.getFirst().isEmpty()) {
+    if (this.shipCount == 0) {
       return 0;
     }
-    return enemyShips.getFirst().getFirst().getPositionX();
+    return this.originX + this.leftColumn * this.separation;
   }
 
   public int getMinY() {
-    if (enemyShips.isEmpty() || enemyShips.getFirst().isEmpty()) {
+    if (this.shipCount == 0) {
       return 0;
     }
-    return enemyShips.getFirst().getFirst().getPositionY();
+    return this.originY + this.topRow[this.leftColumn] * this.separation;
   }
 
+  /**
+   * Returns an iterator over the alive ships. Hot paths should prefer {@link #nextAlive(int)}, this
+   * only exists for code that needs an {@link Iterable}.
+   *
+   * @return Iterator over the alive ships, in column order.
+   */
   @Override
   public Iterator<EnemyShip> iterator() {
-    final List<EnemyShip> allShips = new ArrayList<>();
-    for (final List<EnemyShip> col : enemyShips) {
-      allShips.addAll(col);
-    }
-    return allShips.iterator();
+    return new Iterator<>() {
+      private int next = nextAlive(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public EnemyShip next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        final EnemyShip ship = ships[next];
+        next = nextAlive(next + 1);
+        return ship;
+      }
+    };
   }
 }
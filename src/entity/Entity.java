@@ -3,31 +3,44 @@ package entity;
 import java.awt.Color;
 
 import engine.DrawManager.SpriteType;
+import engine.ObjectPool;
 
 /**
  * Implements a generic game entity.
  *
+ * <p>While the entity is in play its components live in a row of an {@link EntityTable} of the
+ * level's {@link World} and this object is only a view of that row. Outside of a world, in pools,
+ * menus or tests, the entity keeps the same components in its own fields.
+ *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
-public class Entity { // NOPMD
+public class Entity implements ObjectPool.Pooled { // NOPMD
 
   /** Position in the x-axis of the upper left corner of the entity. */
-  protected int positionX;
+  private int positionX;
 
   /** Position in the y-axis of the upper left corner of the entity. */
-  protected int positionY;
+  private int positionY;
+
+  /** Movement per tick on the x-axis. */
+  private int velocityX;
+
+  /** Movement per tick on the y-axis, positive is down. */
+  private int velocityY;
 
   /** Width of the entity. */
-  protected int width;
+  private int width;
 
   /** Height of the entity. */
-  protected int height;
+  private int height;
 
   /** Color of the entity. */
   private Color color;
 
   /** Sprite type assigned to the entity. */
-  protected SpriteType spriteType;
+  private SpriteType spriteType;
+
+  private int health;
 
   // 2P mode: adding team for multiplayer
   public enum Team {
@@ -38,7 +51,22 @@ public class Entity { // NOPMD
   }
 
   // every entity knows their team - possibility for friendly-fire?
-  protected Team team = Team.NEUTRAL;
+  private Team team = Team.NEUTRAL;
+
+  /** Sprite types by ordinal, for reading snapshots without copying {@code values()}. */
+  static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+
+  /** Teams by ordinal. */
+  static final Team[] TEAMS = Team.values();
+
+  /** Table holding the components while the entity is in play, null otherwise. */
+  EntityTable table;
+
+  /** Row of the entity in {@link #table}. */
+  int row;
+
+  /** Whether the entity waits in a pool. */
+  private boolean pooled;
 
   /**
    * Constructor, establishes the entity's generic properties.
@@ -62,17 +90,52 @@ public class Entity { // NOPMD
     this.color = color;
   }
 
+  /** Copies the components into a table row, from now on the row is the entity's state. */
+  final void moveInto(final EntityTable newTable, final int newRow) {
+    newTable.positionX[newRow] = positionX;
+    newTable.positionY[newRow] = positionY;
+    newTable.velocityX[newRow] = velocityX;
+    newTable.velocityY[newRow] = velocityY;
+    newTable.width[newRow] = width;
+    newTable.height[newRow] = height;
+    newTable.sprite[newRow] = spriteType;
+    newTable.color[newRow] = color;
+    newTable.team[newRow] = team;
+    newTable.health[newRow] = health;
+    this.table = newTable;
+    this.row = newRow;
+  }
+
+  /** Copies the components back out of the table row before the row is removed. */
+  final void moveOut() {
+    positionX = table.positionX[row];
+    positionY = table.positionY[row];
+    velocityX = table.velocityX[row];
+    velocityY = table.velocityY[row];
+    width = table.width[row];
+    height = table.height[row];
+    spriteType = table.sprite[row];
+    color = table.color[row];
+    team = table.team[row];
+    health = table.health[row];
+    this.table = null; // NOPMD - detached entities own their components again
+  }
+
   /**
    * Getter for the color of the entity.
    *
    * @return Color of the entity, used when drawing it.
    */
   public final Color getColor() {
-    return color;
+    return table == null ? color : table.color[row];
   }
 
   public final void changeColor(final Color color) {
-    this.color = color;
+    if (table == null) {
+      this.color = color;
+    } else {
+      table.color[row] = color;
+    }
   }
 
   /**
@@ -81,7 +144,7 @@ public class Entity { // NOPMD
    * @return Position of the entity in the X axis.
    */
   public final int getPositionX() {
-    return this.positionX;
+    return table == null ? this.positionX : table.positionX[row];
   }
 
   /**
@@ -90,7 +153,7 @@ public class Entity { // NOPMD
    * @return Position of the entity in the Y axis.
    */
   public final int getPositionY() {
-    return this.positionY;
+    return table == null ? this.positionY : table.positionY[row];
   }
 
   /**
@@ -99,7 +162,11 @@ public class Entity { // NOPMD
    * @param positionX New position of the entity in the X axis.
    */
   public final void setPositionX(final int positionX) {
-    this.positionX = positionX;
+    if (table == null) {
+      this.positionX = positionX;
+    } else {
+      table.positionX[row] = positionX;
+    }
   }
 
   /**
@@ -108,7 +175,42 @@ public class Entity { // NOPMD
    * @param positionY New position of the entity in the Y axis.
    */
   public final void setPositionY(final int positionY) {
-    this.positionY = positionY;
+    if (table == null) {
+      this.positionY = positionY;
+    } else {
+      table.positionY[row] = positionY;
+    }
+  }
+
+  /**
+   * Moves the entity by the given distance.
+   *
+   * @param distanceX Distance to move in the X axis.
+   * @param distanceY Distance to move in the Y axis.
+   */
+  final void translate(final int distanceX, final int distanceY) {
+    if (table == null) {
+      this.positionX += distanceX;
+      this.positionY += distanceY;
+    } else {
+      table.positionX[row] += distanceX;
+      table.positionY[row] += distanceY;
+    }
+  }
+
+  /** Vertical movement per tick, applied by {@link MovementSystem} or by the entity itself. */
+  final int getVelocityY() {
+    return table == null ? this.velocityY : table.velocityY[row];
+  }
+
+  final void setVelocity(final int newVelocityX, final int newVelocityY) {
+    if (table == null) {
+      this.velocityX = newVelocityX;
+      this.velocityY = newVelocityY;
+    } else {
+      table.velocityX[row] = newVelocityX;
+      table.velocityY[row] = newVelocityY;
+    }
   }
 
   /**
@@ -117,7 +219,7 @@ public class Entity { // NOPMD
    * @return Sprite corresponding to the entity.
    */
   public final SpriteType getSpriteType() {
-    return this.spriteType;
+    return table == null ? this.spriteType : table.sprite[row];
   }
 
   /**
@@ -126,7 +228,7 @@ public class Entity { // NOPMD
    * @return Width of the entity.
    */
   public final int getWidth() {
-    return this.width;
+    return table == null ? this.width : table.width[row];
   }
 
   /**
@@ -135,20 +237,76 @@ public class Entity { // NOPMD
    * @return Height of the entity.
    */
   public final int getHeight() {
-    return this.height;
+    return table == null ? this.height : table.height[row];
+  }
+
+  /**
+   * Changes the size the entity is drawn and hit with, the sprite is scaled to it.
+   *
+   * @param newWidth New width of the entity.
+   * @param newHeight New height of the entity.
+   */
+  final void resize(final int newWidth, final int newHeight) {
+    if (table == null) {
+      this.width = newWidth;
+      this.height = newHeight;
+    } else {
+      table.width[row] = newWidth;
+      table.height[row] = newHeight;
+    }
+  }
+
+  final int health() {
+    return table == null ? this.health : table.health[row];
+  }
+
+  final void setHealth(final int newHealth) {
+    if (table == null) {
+      this.health = newHealth;
+    } else {
+      table.health[row] = newHealth;
+    }
+  }
+
+  /**
+   * Returns whether the entity is in play in a world.
+   *
+   * @return True while the entity's components live in a world.
+   */
+  public final boolean isInWorld() {
+    return table != null;
   }
 
   // 2P mode: adding getters for Team
   // TODO: add team-based canHit() later - friendly fire?
   public Team getTeam() {
-    return team;
+    return table == null ? team : table.team[row];
   }
 
   public void setTeam(final Team t) {
-    this.team = t == null ? Team.NEUTRAL : t;
+    final Team newTeam = t == null ? Team.NEUTRAL : t;
+    if (table == null) {
+      this.team = newTeam;
+    } else {
+      table.team[row] = newTeam;
+    }
   }
 
   public void setSpriteType(final SpriteType type) {
-    this.spriteType = type;
+    if (table == null) {
+      this.spriteType = type;
+    } else {
+      table.sprite[row] = type;
+    }
+  }
+
+  @Override
+  public final boolean isPooled() {
+    return pooled;
+  }
+
+  @Override
+  public final void setPooled(final boolean pooled) {
+    this.pooled = pooled;
   }
 }
@@ -0,0 +1,140 @@
+package entity;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Dense component arrays of the entities of one {@link World.Kind}. Every entity in play is one
+ * row, rows {@code 0} to {@code size - 1} are occupied and each component is its own array, so a
+ * system walks a component as one contiguous run of memory.
+ *
+ * <p>A removed row is filled with the last one, so rows move. The {@link Entity} objects are views
+ * that know their current row, the table updates it whenever a row moves.
+ */
+final class EntityTable {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** Low bits of an entity id that hold the kind, so ids never clash between tables. */
+  static final int KIND_BITS = 3;
+
+  // Components
+  int[] positionX;
+  int[] positionY;
+  int[] velocityX;
+  int[] velocityY;
+  int[] width;
+  int[] height;
+  SpriteType[] sprite;
+  Color[] color;
+  Entity.Team[] team;
+  int[] health;
+
+  /** Id the entity got when it was put in play, unique within the world. */
+  int[] id;
+
+  /** Entity viewing each row. */
+  Entity[] views;
+
+  private int size;
+
+  /** Kind ordinal in the low bits of every id. */
+  private final int kind;
+
+  /** Entities this table ever took in, the high bits of the ids. */
+  private int added;
+
+  EntityTable(final int kind) {
+    this.kind = kind;
+    positionX = new int[INITIAL_CAPACITY];
+    positionY = new int[INITIAL_CAPACITY];
+    velocityX = new int[INITIAL_CAPACITY];
+    velocityY = new int[INITIAL_CAPACITY];
+    width = new int[INITIAL_CAPACITY];
+    height = new int[INITIAL_CAPACITY];
+    sprite = new SpriteType[INITIAL_CAPACITY];
+    color = new Color[INITIAL_CAPACITY];
+    team = new Entity.Team[INITIAL_CAPACITY];
+    health = new int[INITIAL_CAPACITY];
+    id = new int[INITIAL_CAPACITY];
+    views = new Entity[INITIAL_CAPACITY];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds a row for an entity and moves its components into it.
+   *
+   * @param entity Entity that is not in any table.
+   */
+  void add(final Entity entity) {
+    if (size == views.length) {
+      grow();
+    }
+    final int row = size++;
+    views[row] = entity;
+    id[row] = ++added << KIND_BITS | kind;
+    entity.moveInto(this, row);
+  }
+
+  /**
+   * Removes the row of an entity, the entity keeps its component values.
+   *
+   * @param entity Entity in this table.
+   */
+  void remove(final Entity entity) {
+    final int row = entity.row;
+    entity.moveOut();
+    final int last = --size;
+    if (row != last) {
+      copyRow(last, row);
+    }
+    views[last] = null;
+    sprite[last] = null;
+    color[last] = null;
+    team[last] = null;
+  }
+
+  /** Removes every row. */
+  void clear() {
+    while (size > 0) {
+      remove(views[size - 1]);
+    }
+  }
+
+  private void copyRow(final int from, final int to) {
+    positionX[to] = positionX[from];
+    positionY[to] = positionY[from];
+    velocityX[to] = velocityX[from];
+    velocityY[to] = velocityY[from];
+    width[to] = width[from];
+    height[to] = height[from];
+    sprite[to] = sprite[from];
+    color[to] = color[from];
+    team[to] = team[from];
+    health[to] = health[from];
+    id[to] = id[from];
+    views[to] = views[from];
+    views[to].row = to;
+  }
+
+  private void grow() {
+    final int capacity = views.length * 2;
+    positionX = Arrays.copyOf(positionX, capacity);
+    positionY = Arrays.copyOf(positionY, capacity);
+    velocityX = Arrays.copyOf(velocityX, capacity);
+    velocityY = Arrays.copyOf(velocityY, capacity);
+    width = Arrays.copyOf(width, capacity);
+    height = Arrays.copyOf(height, capacity);
+    sprite = Arrays.copyOf(sprite, capacity);
+    color = Arrays.copyOf(color, capacity);
+    team = Arrays.copyOf(team, capacity);
+    health = Arrays.copyOf(health, capacity);
+    id = Arrays.copyOf(id, capacity);
+    views = Arrays.copyOf(views, capacity);
+  }
+}
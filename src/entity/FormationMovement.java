@@ -1,5 +1,7 @@
 package entity;
 
+import java.nio.ByteBuffer;
+
 import screen.Screen;
 
 @SuppressWarnings("PMD.DataClass")
@@ -23,6 +25,11 @@ public class FormationMovement {
   private Direction currentDirection;
   private Direction previousDirection;
 
+  /** Movement of the last update, returned by {@link #update} and overwritten on the next call. */
+  private final int[] delta = new int[2];
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
   public enum Direction {
     /** Movement to the right side of the screen. */
     RIGHT,
@@ -41,6 +48,16 @@ public class FormationMovement {
     this.movementInterval = 0;
   }
 
+  /**
+   * Advances the formation by one tick.
+   *
+   * @param formationWidth Width of the formation.
+   * @param formationHeight Height of the formation.
+   * @param shipCount Ships still alive.
+   * @param totalShips Ships the formation started with.
+   * @param screen Screen the formation moves on.
+   * @return Movement on the x and y axis. The array is reused, read it before the next update.
+   */
   public int[] update(
       final int formationWidth,
       final int formationHeight,
@@ -52,7 +69,9 @@ public class FormationMovement {
     calculateMovementSpeed(shipCount, totalShips);
 
     if (movementInterval < this.movementSpeed) {
-      return new int[] {0, 0};
+      delta[0] = 0;
+      delta[1] = 0;
+      return delta;
     }
 
     movementInterval = 0;
@@ -118,7 +137,33 @@ public class FormationMovement {
     positionX += movementX;
     positionY += movementY;
 
-    return new int[] {movementX, movementY};
+    delta[0] = movementX;
+    delta[1] = movementY;
+    return delta;
+  }
+
+  /** Writes position, speed and direction of the formation. */
+  void writeState(final ByteBuffer out) {
+    out.putInt(positionX);
+    out.putInt(positionY);
+    out.putInt(movementSpeed);
+    out.putInt(movementInterval);
+    out.put((byte) (currentDirection == null ? -1 : currentDirection.ordinal()));
+    out.put((byte) (previousDirection == null ? -1 : previousDirection.ordinal()));
+  }
+
+  /** Reads back a state written by {@link #writeState(ByteBuffer)}. */
+  void readState(final ByteBuffer in) {
+    positionX = in.getInt();
+    positionY = in.getInt();
+    movementSpeed = in.getInt();
+    movementInterval = in.getInt();
+    currentDirection = direction(in.get());
+    previousDirection = direction(in.get());
+  }
+
+  private static Direction direction(final int ordinal) {
+    return ordinal < 0 ? null : DIRECTIONS[ordinal];
   }
 
   public int getPositionX() {
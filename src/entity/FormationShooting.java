@@ -1,59 +1,188 @@
 package entity;
 
 import engine.*; // NOPMD
+import java.nio.ByteBuffer;
 import java.util.*;
 import engine.DrawManager.SpriteType;
 
+/**
+ * Fires the formation's bullets. Every column has at most one shooter, kept in a slot per column;
+ * the columns that currently have one are listed in a dense array so a random shooter can be picked
+ * and a column dropped in O(1).
+ *
+ * <p>Each time the cooldown finishes a volley is fired: up to {@code volleySize} different shooters
+ * are drawn without replacement by a partial shuffle of the dense array, as long as fewer than
+ * {@code bulletCap} bullets are on screen.
+ */
 @SuppressWarnings("PMD.LawOfDemeter")
 public class FormationShooting {
   private static final int BULLET_SPEED = 4;
   private static final double SHOOTING_VARIANCE = .2;
 
   private Cooldown shootingCooldown;
-  private final List<EnemyShip> shooters;
+
+  /** Whether the cooldown was started, the first volley waits a whole interval. */
+  private boolean armed;
+
   private final int shootingInterval;
   private final int shootingVariance;
 
-  public FormationShooting(final int shootingInterval) {
+  /** Shooters that fire together when the cooldown finishes. */
+  private final int volleySize;
+
+  /** Bullets on screen above which the formation holds its fire. */
+  private final int bulletCap;
+
+  /** Shooter of every column, null when the column has none. */
+  private final EnemyShip[] shooterByColumn;
+
+  /** Columns that have a shooter, the first {@link #activeCount} entries are valid. */
+  private final int[] activeColumns;
+
+  /** Position of each column in {@link #activeColumns}, -1 when it has no shooter. */
+  private final int[] activePosition;
+
+  private int activeCount;
+
+  /**
+   * Constructor.
+   *
+   * @param shootingInterval Milliseconds between volleys, +/- 20%.
+   * @param columns Columns of the formation.
+   * @param volleySize Shooters that fire per volley.
+   * @param bulletCap Bullets on screen above which nothing more is fired.
+   */
+  public FormationShooting(
+      final int shootingInterval, final int columns, final int volleySize, final int bulletCap) {
     this.shootingInterval = shootingInterval;
+    this.volleySize = volleySize;
+    this.bulletCap = bulletCap;
     this.shootingVariance = (int) (shootingInterval * SHOOTING_VARIANCE);
-    this.shooters = new ArrayList<>();
+    this.shooterByColumn = new EnemyShip[columns];
+    this.activeColumns = new int[columns];
+    this.activePosition = new int[columns];
+    Arrays.fill(this.activePosition, -1);
   }
 
-  public void addShooter(final EnemyShip ship) {
-    this.shooters.add(ship);
+  /**
+   * Makes a ship the shooter of its column, replacing the previous one.
+   *
+   * @param column Column of the ship.
+   * @param ship New shooter.
+   */
+  public void setShooter(final int column, final EnemyShip ship) {
+    if (activePosition[column] < 0) {
+      activePosition[column] = activeCount;
+      activeColumns[activeCount++] = column;
+    }
+    shooterByColumn[column] = ship;
   }
 
-  public void removeShooter(final EnemyShip ship) {
-    this.shooters.remove(ship);
+  /**
+   * Removes the shooter of a column.
+   *
+   * @param column Column that has no ship left to shoot.
+   */
+  public void removeShooter(final int column) {
+    final int position = activePosition[column];
+    if (position < 0) {
+      return;
+    }
+    final int last = activeColumns[--activeCount];
+    activeColumns[position] = last;
+    activePosition[last] = position;
+    activePosition[column] = -1;
+    shooterByColumn[column] = null;
   }
 
-  public void updateShooter(final int index, final EnemyShip newShooter) {
-    if (index >= 0 && index < shooters.size()) {
-      this.shooters.set(index, newShooter);
-    }
+  /**
+   * Returns the shooter of a column.
+   *
+   * @param column Column to look at.
+   * @return Shooter of the column, or null.
+   */
+  public EnemyShip getShooter(final int column) {
+    return shooterByColumn[column];
   }
 
-  public List<EnemyShip> getShooters() {
-    return shooters;
+  public int getShooterCount() {
+    return activeCount;
+  }
+
+  /**
+   * Tracks the shooting cooldown on a timer wheel instead of polling the clock. The cooldown is
+   * created right away, so the wheel's cooldowns are the same from the first tick on.
+   *
+   * @param wheel Timer wheel of the level, advanced every tick.
+   */
+  public void useTimers(final TimerWheel wheel) {
+    this.shootingCooldown = wheel.variableCooldown(shootingInterval, shootingVariance);
   }
 
   public void shoot(final Set<Bullet> bullets) {
-    if (this.shootingCooldown == null) {
-      this.shootingCooldown = Core.getVariableCooldown(shootingInterval, shootingVariance);
+    if (!this.armed) {
+      if (this.shootingCooldown == null) {
+        this.shootingCooldown = Core.getVariableCooldown(shootingInterval, shootingVariance);
+      }
       this.shootingCooldown.reset();
+      this.armed = true;
     }
 
-    if (shooters.isEmpty() || !this.shootingCooldown.checkFinished()) {
+    if (activeCount == 0 || !this.shootingCooldown.checkFinished()) {
       return;
     }
 
     this.shootingCooldown.reset();
 
-    // Logic to pick a random shooter and fire
-    final int index = (int) (Math.random() * shooters.size());
-    final EnemyShip shooter = shooters.get(index);
+    // Pick distinct random shooters by moving each pick to the front of the active columns
+    final SplittableRandom random = Rng.get(Rng.Stream.ENEMY_FIRE);
+    final int shots = Math.min(volleySize, activeCount);
+    for (int k = 0; k < shots && bullets.size() < bulletCap; k++) {
+      int index = k + random.nextInt(activeCount - k);
+      // The last pick needs no swap, so a single shot leaves the order untouched
+      if (k < shots - 1) {
+        swapActive(k, index);
+        index = k;
+      }
+      fire(bullets, shooterByColumn[activeColumns[index]]);
+    }
+  }
+
+  /** Writes the shooters in pick order, as column and grid slot. */
+  void writeState(final ByteBuffer out) {
+    out.put((byte) (armed ? 1 : 0));
+    out.putInt(activeCount);
+    for (int k = 0; k < activeCount; k++) {
+      final int column = activeColumns[k];
+      out.putInt(column);
+      out.putInt(shooterByColumn[column].getGridIndex());
+    }
+  }
+
+  /** Reads back a state written by {@link #writeState(ByteBuffer)}, shooters come from a grid. */
+  void readState(final ByteBuffer in, final EnemyShipGrid grid) {
+    armed = in.get() != 0;
+    Arrays.fill(shooterByColumn, null);
+    Arrays.fill(activePosition, -1);
+    activeCount = in.getInt();
+    for (int k = 0; k < activeCount; k++) {
+      final int column = in.getInt();
+      activeColumns[k] = column;
+      activePosition[column] = k;
+      shooterByColumn[column] = grid.getShipAt(in.getInt());
+    }
+  }
+
+  private void swapActive(final int first, final int second) {
+    final int firstColumn = activeColumns[first];
+    final int secondColumn = activeColumns[second];
+    activeColumns[first] = secondColumn;
+    activeColumns[second] = firstColumn;
+    activePosition[secondColumn] = first;
+    activePosition[firstColumn] = second;
+  }
 
+  private void fire(final Set<Bullet> bullets, final EnemyShip shooter) {
     int bulletSpeed = BULLET_SPEED;
     final int bulletWidth = 6;
     final int bulletHeight = 10;
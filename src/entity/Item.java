@@ -1,6 +1,7 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,9 +25,6 @@ public class Item extends Entity {
   /** Type of Item. */
   private String type;
 
-  /** Item Movement Speed. */
-  private int itemSpeed;
-
   /**
    * Constructor, establishes the Item's properties.
    *
@@ -40,7 +38,7 @@ public class Item extends Entity {
     super(positionX, positionY, 3 * 2, 5 * 2, Color.WHITE);
 
     this.type = itemType;
-    this.itemSpeed = speed;
+    this.setVelocity(0, speed);
 
     setSprite();
   }
@@ -62,9 +60,9 @@ public class Item extends Entity {
 
     if (data != null) {
       try {
-        this.spriteType = SpriteType.valueOf(data.getSpriteType());
+        this.setSpriteType(SpriteType.valueOf(data.getSpriteType()));
       } catch (IllegalArgumentException e) {
-        this.spriteType = SpriteType.ItemScore; // fallback
+        this.setSpriteType(SpriteType.ItemScore); // fallback
         if (LOGGER.isLoggable(Level.WARNING)) {
           LOGGER.warning(
               "[Item]: Unknown sprite type in ItemDB: "
@@ -73,7 +71,7 @@ public class Item extends Entity {
         }
       }
     } else {
-      this.spriteType = SpriteType.ItemScore;
+      this.setSpriteType(SpriteType.ItemScore);
     }
 
     applyColorByType();
@@ -98,9 +96,9 @@ public class Item extends Entity {
     }
   }
 
-  /** Updates the Item's position. */
+  /** Updates the Item's position, items in a world are moved by {@link MovementSystem}. */
   public final void update() {
-    this.positionY += this.itemSpeed;
+    this.translate(0, this.getVelocityY());
   }
 
   /**
@@ -154,7 +152,7 @@ public class Item extends Entity {
    * @param itemSpeed New speed of the Item.
    */
   public final void setItemSpeed(final int itemSpeed) {
-    this.itemSpeed = itemSpeed;
+    this.setVelocity(0, itemSpeed);
   }
 
   /**
@@ -164,7 +162,7 @@ public class Item extends Entity {
    */
   public final void reset(final String newType) {
     this.type = newType;
-    this.itemSpeed = 0;
+    this.setVelocity(0, 0);
     setSprite(); // change to your enum if different
   }
 
@@ -176,4 +174,35 @@ public class Item extends Entity {
   public final String getType() {
     return this.type;
   }
+
+  /**
+   * Writes type, position and speed of the item. Types are short ASCII names from the item table.
+   *
+   * @param out Buffer to write to.
+   */
+  public final void writeState(final ByteBuffer out) {
+    out.put((byte) this.type.length());
+    for (int i = 0; i < this.type.length(); i++) {
+      out.put((byte) this.type.charAt(i));
+    }
+    out.putInt(this.getPositionX());
+    out.putInt(this.getPositionY());
+    out.putInt(this.getVelocityY());
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)}.
+   *
+   * @param in Buffer to read from.
+   */
+  public final void readState(final ByteBuffer in) {
+    final char[] name = new char[in.get()];
+    for (int i = 0; i < name.length; i++) {
+      name[i] = (char) in.get();
+    }
+    this.reset(new String(name));
+    this.setPositionX(in.getInt());
+    this.setPositionY(in.getInt());
+    this.setItemSpeed(in.getInt());
+  }
 }
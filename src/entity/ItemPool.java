@@ -1,18 +1,42 @@
 package entity;
 
+import engine.GameContext;
 import engine.ItemData;
-import java.util.HashSet;
-import java.util.Set;
+import engine.ObjectPool;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 
-/** Implements a pool of recyclable items. */
+/**
+ * Implements a pool of recyclable items. Every {@link GameContext} has a pool of its own, the
+ * methods use the one of the calling thread's game.
+ */
 public final class ItemPool {
 
-  /** Set of items. */
-  private static final Set<Item> pool = new HashSet<>();
+  /** Idle items kept at most. */
+  private static final int MAX_IDLE = 256;
+
+  /** Type given to items created ahead of time, replaced when the item is handed out. */
+  private static final String PREWARM_TYPE = "COIN";
 
   /** Constructor, not called. */
   private ItemPool() {}
 
+  /**
+   * Creates the pool of a new game. Recycled items go back to the type, sprite and speed a new one
+   * starts with.
+   *
+   * @param listed Whether the pool shows up in the metrics.
+   * @return Empty pool.
+   */
+  public static ObjectPool<Item> newPool(final boolean listed) {
+    return new ObjectPool<>(
+        "item",
+        () -> new Item(PREWARM_TYPE, 0, 0, 0),
+        item -> item.reset(PREWARM_TYPE),
+        MAX_IDLE,
+        listed);
+  }
+
   /**
    * Returns an item from the pool if one is available, a new one if there isn't. Caller should call
    * item.init(...) to set position/type/sprite after obtaining.
@@ -26,23 +50,23 @@ public final class ItemPool {
    */
   public static Item getItem(
       final ItemData data, final int positionX, final int positionY, final int speed) {
-    final String type = data.getType();
-    // create new item
-    Item item;
-    if (pool.isEmpty()) {
-      item = new Item(type, positionX - 3, positionY, speed);
-
-    } else {
-      final java.util.Iterator<Item> it = pool.iterator();
-      item = it.next();
-      it.remove();
-
-      item.reset(type);
-      item.setPositionX(positionX - item.getWidth() / 2);
-      item.setPositionY(positionY);
-      item.setItemSpeed(speed);
-    }
+    final Item item = getPool().acquire();
+    item.reset(data.getType());
+    item.setPositionX(positionX - item.getWidth() / 2);
+    item.setPositionY(positionY);
+    item.setItemSpeed(speed);
+    return item;
+  }
 
+  /**
+   * Returns an item from the pool set to a state written by {@link Item#writeState(ByteBuffer)}.
+   *
+   * @param in Buffer to read the item from.
+   * @return Restored item.
+   */
+  public static Item readItem(final ByteBuffer in) {
+    final Item item = getPool().acquire();
+    item.readState(in);
     return item;
   }
 
@@ -51,10 +75,29 @@ public final class ItemPool {
    *
    * @param items Items to recycle.
    */
-  public static void recycle(final Set<Item> items) {
+  public static void recycle(final Collection<Item> items) {
     if (items == null) {
       return;
     }
-    pool.addAll(items);
+    getPool().recycleAll(items);
+  }
+
+  /**
+   * Creates items ahead of a level, so its first drops do not allocate.
+   *
+   * @param expectedPeak Items expected on screen at once.
+   */
+  public static void prewarm(final int expectedPeak) {
+    final ObjectPool<Item> pool = getPool();
+    pool.prewarm(Math.max(expectedPeak, pool.getHighWaterMark()));
+  }
+
+  /**
+   * Returns the pool of the current game, for its counters.
+   *
+   * @return Item pool.
+   */
+  public static ObjectPool<Item> getPool() {
+    return GameContext.current().getItemPool();
   }
 }
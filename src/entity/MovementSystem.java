@@ -0,0 +1,101 @@
+package entity;
+
+import java.util.Set;
+
+/**
+ * Moves the entities of a {@link World}, one component array at a time. Tables above the
+ * threshold of the world's {@link SystemScheduler} are moved in parallel chunks, each row only
+ * depends on itself so the result is the same.
+ */
+public final class MovementSystem {
+
+  private MovementSystem() {}
+
+  /**
+   * Adds the velocity of every entity of a kind to its position.
+   *
+   * @param world World to update.
+   * @param kind Kind of entities to move.
+   */
+  public static void integrate(final World world, final World.Kind kind) {
+    final EntityTable table = world.table(kind);
+    final SystemScheduler scheduler = world.scheduler();
+    if (scheduler.isParallel(table.size())) {
+      scheduler.forEachRange(table.size(), (from, to) -> integrate(table, from, to));
+    } else {
+      integrate(table, 0, table.size());
+    }
+  }
+
+  private static void integrate(final EntityTable table, final int from, final int to) {
+    final int[] positionX = table.positionX;
+    final int[] positionY = table.positionY;
+    final int[] velocityX = table.velocityX;
+    final int[] velocityY = table.velocityY;
+    for (int row = from; row < to; row++) {
+      positionX[row] += velocityX[row];
+      positionY[row] += velocityY[row];
+    }
+  }
+
+  /**
+   * Moves every entity of a kind by the same distance.
+   *
+   * @param world World to update.
+   * @param kind Kind of entities to move.
+   * @param distanceX Distance to move in the X axis.
+   * @param distanceY Distance to move in the Y axis.
+   */
+  public static void translate(
+      final World world, final World.Kind kind, final int distanceX, final int distanceY) {
+    final EntityTable table = world.table(kind);
+    final SystemScheduler scheduler = world.scheduler();
+    if (scheduler.isParallel(table.size())) {
+      scheduler.forEachRange(
+          table.size(), (from, to) -> translate(table, from, to, distanceX, distanceY));
+    } else {
+      translate(table, 0, table.size(), distanceX, distanceY);
+    }
+  }
+
+  private static void translate(
+      final EntityTable table,
+      final int from,
+      final int to,
+      final int distanceX,
+      final int distanceY) {
+    final int[] positionX = table.positionX;
+    final int[] positionY = table.positionY;
+    for (int row = from; row < to; row++) {
+      positionX[row] += distanceX;
+      positionY[row] += distanceY;
+    }
+  }
+
+  /**
+   * Collects the entities of a kind whose top edge is above or below the given bounds. Adding to
+   * the set is a shared side effect, so this always runs on the calling thread in row order.
+   *
+   * @param world World to search.
+   * @param kind Kind of entities to check.
+   * @param top Smallest Y position that is still inside.
+   * @param bottom Largest Y position that is still inside.
+   * @param outside Set the entities outside the bounds are added to.
+   * @param <T> Entity class of the kind.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Entity> void collectOutside(
+      final World world,
+      final World.Kind kind,
+      final int top,
+      final int bottom,
+      final Set<T> outside) {
+    final EntityTable table = world.table(kind);
+    final int[] positionY = table.positionY;
+    for (int row = 0, size = table.size(); row < size; row++) {
+      if (positionY[row] < top || positionY[row] > bottom) {
+        outside.add((T) table.views[row]);
+      }
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package entity;
+
+import engine.DrawManager;
+import engine.FrameSnapshot;
+
+/** Copies the sprites of a {@link World} into a {@link FrameSnapshot}. */
+public final class RenderSystem {
+
+  private static final World.Kind[] KINDS = World.Kind.values();
+
+  private RenderSystem() {}
+
+  /**
+   * Adds every entity in play to a frame, kind by kind in {@link World.Kind} order.
+   *
+   * @param world World to draw.
+   * @param frame Frame to add the sprites to.
+   */
+  public static void capture(final World world, final FrameSnapshot frame) {
+    for (final World.Kind kind : KINDS) {
+      final EntityTable table = world.table(kind);
+      for (int row = 0, size = table.size(); row < size; row++) {
+        frame.addSprite(
+            table.id[row],
+            table.sprite[row],
+            table.positionX[row],
+            table.positionY[row],
+            table.width[row],
+            table.height[row],
+            DrawManager.colorOf(table.views[row]));
+      }
+    }
+  }
+}
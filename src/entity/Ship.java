@@ -1,11 +1,13 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.Set;
 
 import engine.Cooldown;
 import engine.Core;
 import engine.GameState;
+import engine.TimerWheel;
 import engine.DrawManager.SpriteType;
 
 import java.util.logging.Level;
@@ -81,7 +83,7 @@ public class Ship extends Entity {
     void applyStats(final Ship ship) {
       ship.moveSpeed = this.moveSpeed;
       ship.shootingInterval = this.shootingInterval;
-      ship.spriteType = this.spriteType;
+      ship.setSpriteType(this.spriteType);
       ship.bulletSpeed = BASE_BULLET_SPEED;
       ship.bulletWidth = BASE_BULLET_WIDTH;
       ship.bulletHeight = BASE_BULLET_HEIGHT;
@@ -127,16 +129,41 @@ public class Ship extends Entity {
       final Team team,
       final ShipType type,
       final GameState gameState) {
+    this(positionX, positionY, team, type, gameState, null);
+  }
+
+  /**
+   * Constructor whose cooldowns are tracked by a timer wheel instead of polling the clock.
+   *
+   * @param positionX Initial position of the ship in the X axis.
+   * @param positionY Initial position of the ship in the Y axis.
+   * @param team Player team (null defaults to PLAYER1)
+   * @param type Ship type (null defaults to NORMAL)
+   * @param gameState Game state reference (can be null)
+   * @param timers Timer wheel of the level, null for clock polled cooldowns.
+   */
+  public Ship(
+      final int positionX,
+      final int positionY,
+      final Team team,
+      final ShipType type,
+      final GameState gameState,
+      final TimerWheel timers) {
     super(positionX, positionY, SHIP_WIDTH, SHIP_HEIGHT, Color.GREEN);
 
     this.gameState = gameState;
     this.type = (type != null) ? type : ShipType.NORMAL;
-    this.spriteType = SpriteType.Ship1;
+    this.setSpriteType(SpriteType.Ship1);
 
     this.type.applyStats(this);
 
-    this.shootingCooldown = Core.getCooldown(this.shootingInterval);
-    this.destructionCooldown = Core.getCooldown(DESTRUCTION_COOLDOWN);
+    if (timers == null) {
+      this.shootingCooldown = Core.getCooldown(this.shootingInterval);
+      this.destructionCooldown = Core.getCooldown(DESTRUCTION_COOLDOWN);
+    } else {
+      this.shootingCooldown = timers.cooldown(this.shootingInterval);
+      this.destructionCooldown = timers.cooldown(DESTRUCTION_COOLDOWN);
+    }
 
     // apply entity
     final Team playerID = (team != null) ? team : Team.PLAYER1;
@@ -148,12 +175,12 @@ public class Ship extends Entity {
 
   /** Moves the ship speed uni ts right, or until the right screen border is reached. */
   public final void moveRight() {
-    this.positionX += this.moveSpeed;
+    this.translate(this.moveSpeed, 0);
   }
 
   /** Moves the ship speed units left, or until the left screen border is reached. */
   public final void moveLeft() {
-    this.positionX -= this.moveSpeed;
+    this.translate(-this.moveSpeed, 0);
   }
 
   /**
@@ -172,8 +199,8 @@ public class Ship extends Entity {
     if (LOGGER.isLoggable(Level.FINE)) {
       LOGGER.fine("[Ship] Shooting :" + this.type);
     }
-    final int bulletX = positionX + this.width / 2;
-    final int bulletY = this.positionY - this.bulletHeight;
+    final int bulletX = this.getPositionX() + this.getWidth() / 2;
+    final int bulletY = this.getPositionY() - this.bulletHeight;
 
     // Default shooting based on ship type
     this.type.shoot(this, bullets, bulletX, bulletY);
@@ -190,21 +217,21 @@ public class Ship extends Entity {
   }
 
   private void setDestroyedSprite() {
-    switch (this.spriteType) {
-      case Ship1 -> this.spriteType = SpriteType.ShipDestroyed1;
-      case Ship2 -> this.spriteType = SpriteType.ShipDestroyed2;
-      case Ship3 -> this.spriteType = SpriteType.ShipDestroyed3;
-      case Ship4 -> this.spriteType = SpriteType.ShipDestroyed4;
+    switch (this.getSpriteType()) {
+      case Ship1 -> this.setSpriteType(SpriteType.ShipDestroyed1);
+      case Ship2 -> this.setSpriteType(SpriteType.ShipDestroyed2);
+      case Ship3 -> this.setSpriteType(SpriteType.ShipDestroyed3);
+      case Ship4 -> this.setSpriteType(SpriteType.ShipDestroyed4);
       default -> {}
     }
   }
 
   private void resetToNormalSprite() {
-    switch (this.spriteType) {
-      case ShipDestroyed1 -> this.spriteType = SpriteType.Ship1;
-      case ShipDestroyed2 -> this.spriteType = SpriteType.Ship2;
-      case ShipDestroyed3 -> this.spriteType = SpriteType.Ship3;
-      case ShipDestroyed4 -> this.spriteType = SpriteType.Ship4;
+    switch (this.getSpriteType()) {
+      case ShipDestroyed1 -> this.setSpriteType(SpriteType.Ship1);
+      case ShipDestroyed2 -> this.setSpriteType(SpriteType.Ship2);
+      case ShipDestroyed3 -> this.setSpriteType(SpriteType.Ship3);
+      case ShipDestroyed4 -> this.setSpriteType(SpriteType.Ship4);
       default -> {}
     }
   }
@@ -253,4 +280,28 @@ public class Ship extends Entity {
   public void addHit() {
     this.hits++;
   }
+
+  /**
+   * Writes what play changes about the ship, its cooldowns live in the level's timer wheel.
+   *
+   * @param out Buffer to write to.
+   */
+  public void writeState(final ByteBuffer out) {
+    out.putInt(this.getPositionX());
+    out.putInt(this.getPositionY());
+    out.putShort((short) this.getSpriteType().ordinal());
+    out.putInt(this.hits);
+  }
+
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)}.
+   *
+   * @param in Buffer to read from.
+   */
+  public void readState(final ByteBuffer in) {
+    this.setPositionX(in.getInt());
+    this.setPositionY(in.getInt());
+    this.setSpriteType(SPRITE_TYPES[in.getShort()]);
+    this.hits = in.getInt();
+  }
 }
@@ -0,0 +1,160 @@
+package entity;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+
+/**
+ * Runs the per-row work of the systems on a {@link ForkJoinPool}. A table with fewer rows than the
+ * threshold is walked on the calling thread, as it always was, so a normal level never pays for
+ * the hand-off; only bullet-hell sized tables are cut into chunks and spread over the cores.
+ *
+ * <p>Work handed to {@link #forEachRange} must only write the rows of its own range. Anything that
+ * touches shared state (score, coins, sounds, the sets of entities to recycle) stays out of the
+ * parallel part and happens after the join, in row order, so a tick plays out the same no matter
+ * how many cores ran it.
+ */
+public final class SystemScheduler {
+
+  /** Rows below which a system runs single-threaded. */
+  public static final int DEFAULT_THRESHOLD = 8192;
+
+  /** Smallest chunk handed to a worker, smaller ones cost more to schedule than to run. */
+  private static final int MIN_CHUNK = 2048;
+
+  /** Chunks per worker, a few more than one so uneven chunks even out. */
+  private static final int CHUNKS_PER_WORKER = 4;
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  /** Scheduler that never leaves the calling thread. */
+  private static final SystemScheduler SEQUENTIAL = new SystemScheduler(null, Integer.MAX_VALUE);
+
+  /** Work on a range of rows. */
+  @FunctionalInterface
+  public interface RowRange {
+
+    /**
+     * Processes rows {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param from First row.
+     * @param to Row after the last one.
+     */
+    void apply(int from, int to);
+  }
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  /**
+   * Creates a scheduler.
+   *
+   * @param pool Pool to run chunks on, null to stay on the calling thread.
+   * @param threshold Rows from which a system is split into chunks.
+   * @throws IllegalArgumentException When the threshold is not positive.
+   */
+  public SystemScheduler(final ForkJoinPool pool, final int threshold) {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+    }
+    this.pool = pool;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns a scheduler that runs everything on the calling thread.
+   *
+   * @return Sequential scheduler.
+   */
+  public static SystemScheduler sequential() {
+    return SEQUENTIAL;
+  }
+
+  /**
+   * Creates a scheduler on the common pool. The threshold is read from {@code
+   * -Dinvaders.parallel.threshold}, {@code -Dinvaders.parallel=false} keeps every system
+   * single-threaded.
+   *
+   * @return Scheduler for the game loop.
+   */
+  public static SystemScheduler fromProperties() {
+    if ("false".equalsIgnoreCase(System.getProperty("invaders.parallel"))) {
+      return SEQUENTIAL;
+    }
+    final String value = System.getProperty("invaders.parallel.threshold");
+    int threshold = DEFAULT_THRESHOLD;
+    if (value != null) {
+      try {
+        threshold = Integer.parseInt(value.trim());
+      } catch (NumberFormatException e) {
+        threshold = 0;
+      }
+      if (threshold <= 0) {
+        if (LOGGER.isLoggable(Level.WARNING)) {
+          LOGGER.warning("Invalid value for invaders.parallel.threshold: " + value);
+        }
+        threshold = DEFAULT_THRESHOLD;
+      }
+    }
+    return new SystemScheduler(ForkJoinPool.commonPool(), threshold);
+  }
+
+  /**
+   * Returns whether a table of the given size is split into chunks.
+   *
+   * @param rows Rows in the table.
+   * @return True when the rows are spread over the pool.
+   */
+  public boolean isParallel(final int rows) {
+    return pool != null && rows >= threshold && pool.getParallelism() > 1;
+  }
+
+  /**
+   * Applies work to rows {@code 0} to {@code rows - 1} and returns once every row is done. Callers
+   * check {@link #isParallel(int)} first and call their kernel directly when it is false, so the
+   * sequential path does not allocate the range object.
+   *
+   * @param rows Rows in the table.
+   * @param work Work on a range of rows, only writing those rows.
+   */
+  public void forEachRange(final int rows, final RowRange work) {
+    if (!isParallel(rows)) {
+      work.apply(0, rows);
+      return;
+    }
+    final int chunk = Math.max(MIN_CHUNK, rows / (pool.getParallelism() * CHUNKS_PER_WORKER));
+    pool.invoke(new Chunk(work, 0, rows, chunk));
+  }
+
+  /** Splits a range in halves until it is small enough to run. */
+  private static final class Chunk extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient RowRange work;
+    private final int from;
+    private final int to;
+    private final int chunk;
+
+    Chunk(final RowRange work, final int from, final int to, final int chunk) {
+      super();
+      this.work = work;
+      this.from = from;
+      this.to = to;
+      this.chunk = chunk;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunk) {
+        work.apply(from, to);
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(new Chunk(work, from, middle, chunk), new Chunk(work, middle, to, chunk));
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package entity;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Entities in play during a level. Every kind of entity has its own {@link EntityTable}, the
+ * systems ({@link MovementSystem}, {@link AnimationSystem}, {@link RenderSystem}) walk those tables
+ * row by row instead of chasing objects through collections.
+ *
+ * <p>Code that works on objects sees each kind through {@link #members(Kind)}, a set that adds an
+ * entity to the world when it is added and takes it out when it is removed.
+ */
+public final class World {
+
+  /** Kinds of entities, in the order they are drawn. */
+  public enum Kind {
+    PLAYER,
+    SPECIAL,
+    ENEMY,
+    BULLET,
+    ITEM
+  }
+
+  private static final Kind[] KINDS = Kind.values();
+
+  private final EntityTable[] tables = new EntityTable[KINDS.length];
+  private final KindSet<?>[] members = new KindSet<?>[KINDS.length];
+  private final SystemScheduler scheduler;
+
+  /** Creates an empty world whose systems run on the calling thread. */
+  public World() {
+    this(SystemScheduler.sequential());
+  }
+
+  /**
+   * Creates an empty world.
+   *
+   * @param scheduler Scheduler the systems spread large tables with.
+   */
+  public World(final SystemScheduler scheduler) {
+    this.scheduler = scheduler;
+    for (final Kind kind : KINDS) {
+      tables[kind.ordinal()] = new EntityTable(kind.ordinal());
+      members[kind.ordinal()] = new KindSet<>(tables[kind.ordinal()]);
+    }
+  }
+
+  /**
+   * Puts an entity in play.
+   *
+   * @param entity Entity that is not in a world.
+   * @param kind Kind of the entity.
+   * @throws IllegalStateException When the entity is already in a world.
+   */
+  public void attach(final Entity entity, final Kind kind) {
+    if (entity.table != null) {
+      throw new IllegalStateException("Entity is already in a world");
+    }
+    tables[kind.ordinal()].add(entity);
+  }
+
+  /**
+   * Takes an entity out of play, it keeps its last component values.
+   *
+   * @param entity Entity to take out, nothing happens when it is not in a world.
+   */
+  public void detach(final Entity entity) {
+    if (entity.table != null) {
+      entity.table.remove(entity);
+    }
+  }
+
+  /**
+   * Returns the entities of a kind as a live set. Adding to the set attaches an entity, removing
+   * from it detaches one. Iteration follows the table rows, which is stable from tick to tick as
+   * long as the same entities come and go in the same order.
+   *
+   * @param kind Kind of entities.
+   * @param <T> Entity class of the kind.
+   * @return Set view of the kind, the same object on every call.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Entity> Set<T> members(final Kind kind) {
+    return (Set<T>) members[kind.ordinal()];
+  }
+
+  /**
+   * Returns the number of entities of a kind in play.
+   *
+   * @param kind Kind of entities.
+   * @return Entity count.
+   */
+  public int size(final Kind kind) {
+    return tables[kind.ordinal()].size();
+  }
+
+  EntityTable table(final Kind kind) {
+    return tables[kind.ordinal()];
+  }
+
+  SystemScheduler scheduler() {
+    return scheduler;
+  }
+
+  /** Set view of one table. */
+  private static final class KindSet<T extends Entity> extends AbstractSet<T> {
+
+    private final EntityTable table;
+
+    KindSet(final EntityTable table) {
+      this.table = table;
+    }
+
+    @Override
+    public boolean add(final T entity) {
+      if (entity.table == table) {
+        return false;
+      }
+      if (entity.table != null) {
+        throw new IllegalStateException("Entity is already in a world");
+      }
+      table.add(entity);
+      return true;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      if (!contains(o)) {
+        return false;
+      }
+      table.remove((Entity) o);
+      return true;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      return o instanceof Entity entity && entity.table == table;
+    }
+
+    @Override
+    public int size() {
+      return table.size();
+    }
+
+    @Override
+    public void clear() {
+      table.clear();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<>() {
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+          return next < table.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          last = next++;
+          return (T) table.views[last];
+        }
+
+        @Override
+        public void remove() {
+          if (last < 0) {
+            throw new IllegalStateException();
+          }
+          table.remove(table.views[last]);
+          // the last row was moved into the removed one, visit it next
+          next = last;
+          last = -1;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package engine;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import entity.Bullet;
+import entity.BulletPool;
+import entity.EnemyShipFormation;
+import entity.Entity;
+import entity.Item;
+import entity.Ship;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one {@link CollisionManager#processCollisions} pass. Bullets are placed where they miss
+ * every ship, so the formation stays intact and each call scans the same amount of work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+
+  @Param({"10", "100", "500"})
+  private int bulletCount;
+
+  /** Stock formations and a stress sized one, columns x rows, so sizes are not crossed. */
+  @Param({"5x4", "10x7", "200x100"})
+  private String formation;
+
+  private Logger logger;
+  private CollisionManager collisionManager;
+  private Set<Bullet> bullets;
+  private Ship[] ships;
+  private EnemyShipFormation enemies;
+  private Set<Item> items;
+  private Cooldown specialExplosionCooldown;
+
+  @Setup
+  public void setUp() {
+    logger = Core.getLogger();
+    logger.setLevel(Level.WARNING);
+
+    final GameState state = new GameState(1, 3, false);
+    collisionManager = new CollisionManager(state, Core.getDrawManager());
+    final int separator = formation.indexOf('x');
+    final int columns = Integer.parseInt(formation.substring(0, separator));
+    final int rows = Integer.parseInt(formation.substring(separator + 1));
+    enemies = new EnemyShipFormation(new GameSettings(columns, rows, 60, 2000));
+    ships = new Ship[GameState.NUM_PLAYERS];
+    ships[0] = new Ship(20, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state);
+    items = new HashSet<>();
+    specialExplosionCooldown = Core.getCooldown(500);
+
+    bullets = new HashSet<>();
+    for (int i = 0; i < bulletCount; i++) {
+      final boolean enemy = i % 2 == 0;
+      bullets.add(
+          BulletPool.getBullet(
+              (i * 7) % 440,
+              enemy ? 420 : 450,
+              enemy ? 4 : -4,
+              6,
+              10,
+              enemy ? Entity.Team.ENEMY : Entity.Team.PLAYER1));
+    }
+  }
+
+  @Benchmark
+  public boolean processCollisions() {
+    return collisionManager.processCollisions(
+        bullets, ships, enemies, null, items, specialExplosionCooldown, false);
+  }
+}
@@ -0,0 +1,54 @@
+package engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import entity.EnemyShip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import screen.Screen;
+
+/** Cost of drawing sprites into the offscreen back buffer, without a window attached. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class DrawEntityBenchmark {
+
+  private Logger logger;
+  private DrawManager drawManager;
+  private Screen screen;
+  private EnemyShip enemyShip;
+
+  @Setup
+  public void setUp() {
+    logger = Core.getLogger();
+    logger.setLevel(Level.WARNING);
+
+    drawManager = Core.getDrawManager();
+    screen = new Screen(448, 520, 60);
+    drawManager.initDrawing(screen);
+    enemyShip = new EnemyShip(100, 100, DrawManager.SpriteType.EnemyShipA1);
+  }
+
+  @Benchmark
+  public void drawEntity() {
+    drawManager.drawEntity(enemyShip, enemyShip.getPositionX(), enemyShip.getPositionY());
+  }
+
+  @Benchmark
+  public void initDrawing() {
+    drawManager.initDrawing(screen);
+  }
+}
@@ -0,0 +1,64 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of reading the high score file, from a copy so the real save data is never touched. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileManagerBenchmark {
+
+  private Logger logger;
+  private Path directory;
+  private FileManager fileManager;
+
+  @Setup
+  public void setUp() throws IOException {
+    logger = Core.getLogger();
+    logger.setLevel(Level.WARNING);
+
+    directory = Files.createTempDirectory("invaders-jmh");
+    Files.copy(
+        Paths.get("res", "1Pscores.csv"),
+        directory.resolve("1Pscores.csv"),
+        StandardCopyOption.REPLACE_EXISTING);
+    FileManager.setTestDirectory(directory.toString() + File.separator);
+    fileManager = Core.getFileManager();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileManager.setTestDirectory(null);
+    Files.deleteIfExists(directory.resolve("1Pscores.csv"));
+    Files.deleteIfExists(directory);
+  }
+
+  @Benchmark
+  public List<Score> loadHighScores() throws IOException {
+    return fileManager.loadHighScores("1P");
+  }
+}
@@ -0,0 +1,41 @@
+package engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of parsing the stage definitions in level.csv. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameSettingsBenchmark {
+
+  private byte[] levelCsv;
+
+  @Setup
+  public void setUp() throws IOException {
+    levelCsv = Files.readAllBytes(Paths.get("res", "level.csv"));
+  }
+
+  @Benchmark
+  public List<GameSettings.StageData> parseStages() throws Exception {
+    return GameSettings.parseStages(new ByteArrayInputStream(levelCsv));
+  }
+}
@@ -0,0 +1,79 @@
+package engine;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One random draw through each generator the game used to mix, against the {@link Rng} streams.
+ * The contended variants run four threads on one shared generator, like the explosions that all
+ * drew from one static {@link Random}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RngBenchmark {
+
+  private final Random shared = new Random(1L);
+
+  /** Generator split per benchmark thread, the way other threads use {@link Rng#split}. */
+  @State(Scope.Thread)
+  public static class Split {
+    SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+      synchronized (Rng.class) {
+        random = Rng.split(Rng.Stream.EFFECTS);
+      }
+    }
+  }
+
+  @Benchmark
+  public double mathRandom() {
+    return Math.random();
+  }
+
+  @Benchmark
+  public double sharedRandom() {
+    return shared.nextDouble();
+  }
+
+  @Benchmark
+  public double rngStream() {
+    return Rng.get(Rng.Stream.COOLDOWN).nextDouble();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public double mathRandomContended() {
+    return Math.random();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public double sharedRandomContended() {
+    return shared.nextDouble();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public double rngSplitPerThread(final Split split) {
+    return split.random.nextDouble();
+  }
+}
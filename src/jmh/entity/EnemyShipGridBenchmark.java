@@ -0,0 +1,69 @@
+package entity;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Traversal and teardown of the enemy grid. The grid keeps its bounds up to date on every removal,
+ * so {@link #destroyAll()} also covers what a separate clean-up pass used to do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnemyShipGridBenchmark {
+
+  @Param({"5", "10"})
+  private int columns;
+
+  @Param({"4", "7"})
+  private int rows;
+
+  private EnemyShipGrid grid;
+
+  @Setup
+  public void setUp() {
+    grid = new EnemyShipGrid(columns, rows, 20, 100);
+    // 절반 정도 격추된 상태에서 순회
+    for (int col = 0; col < columns; col += 2) {
+      grid.removeShip(grid.getShip(col, rows - 1));
+    }
+  }
+
+  @Benchmark
+  public void indexWalk(final Blackhole blackhole) {
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      blackhole.consume(grid.getShipAt(i));
+    }
+  }
+
+  @Benchmark
+  public void iterator(final Blackhole blackhole) {
+    for (final EnemyShip ship : grid) {
+      blackhole.consume(ship);
+    }
+  }
+
+  @Benchmark
+  public int destroyAll() {
+    final EnemyShipGrid fresh = new EnemyShipGrid(columns, rows, 20, 100);
+    for (int i = fresh.nextAlive(0); i >= 0; i = fresh.nextAlive(i + 1)) {
+      fresh.removeShip(fresh.getShipAt(i));
+    }
+    return fresh.getWidth();
+  }
+}
@@ -0,0 +1,46 @@
+package entity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import screen.Screen;
+
+/** Cost of one formation movement step, including the direction changes at the screen edges. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class FormationMovementBenchmark {
+
+  private Logger logger;
+  private Screen screen;
+  private FormationMovement movement;
+
+  @Setup
+  public void setUp() {
+    logger = Core.getLogger();
+    logger.setLevel(Level.WARNING);
+
+    screen = new Screen(448, 520, 60);
+    movement = new FormationMovement(60);
+  }
+
+  @Benchmark
+  public int[] update() {
+    return movement.update(372, 240, 35, 70, screen);
+  }
+}
@@ -0,0 +1,62 @@
+package entity;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import engine.ItemData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Round trip through the bullet and item pools: take a batch out, hand it back. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoolBenchmark {
+
+  @Param({"10", "100"})
+  private int batchSize;
+
+  private ItemData coin;
+  private Set<Bullet> bullets;
+  private Set<Item> items;
+
+  @Setup
+  public void setUp() {
+    coin = new ItemData("COIN", "ItemCoin", "UNCOMMON", 20);
+    bullets = new HashSet<>();
+    items = new HashSet<>();
+  }
+
+  @Benchmark
+  public int bulletRoundTrip() {
+    bullets.clear();
+    for (int i = 0; i < batchSize; i++) {
+      bullets.add(BulletPool.getBullet(i, 400, -4, 6, 10, Entity.Team.PLAYER1));
+    }
+    BulletPool.recycle(bullets);
+    return bullets.size();
+  }
+
+  @Benchmark
+  public int itemRoundTrip() {
+    items.clear();
+    for (int i = 0; i < batchSize; i++) {
+      items.add(ItemPool.getItem(coin, i, 100, 2));
+    }
+    ItemPool.recycle(items);
+    return items.size();
+  }
+}
@@ -0,0 +1,60 @@
+package entity;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bullet integration of a bullet-hell sized world, with the rows split over 1 to 8 workers. With
+ * {@code workers = 1} the scheduler stays on the calling thread, the baseline for the speed-up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SystemSchedulerBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  private int workers;
+
+  @Param({"20000", "200000"})
+  private int bulletCount;
+
+  private ForkJoinPool pool;
+  private World world;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool = new ForkJoinPool(workers);
+    world = new World(new SystemScheduler(pool, SystemScheduler.DEFAULT_THRESHOLD));
+    for (int i = 0; i < bulletCount; i++) {
+      world.attach(new Bullet(i % 600, i % 700, i % 2 == 0 ? -4 : 4), World.Kind.BULLET);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Benchmark
+  public int integrate() {
+    MovementSystem.integrate(world, World.Kind.BULLET);
+    return world.size(World.Kind.BULLET);
+  }
+}
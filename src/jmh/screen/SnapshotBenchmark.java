@@ -0,0 +1,105 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.GameClock;
+import engine.GameSettings;
+import engine.GameState;
+import engine.SoundManager;
+import entity.Ship;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing a level in full play to a preallocated buffer and reading it back, for a stock co-op
+ * level and a stress level with thousands of bullets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+  private static final int TICK_MILLIS = 1000 / 60;
+
+  /** Ticks played before measuring, past the countdown and into the first volleys. */
+  private static final int PLAYED_TICKS = 900;
+
+  @Param({"false", "true"})
+  private boolean stress;
+
+  private GameScreen screen;
+  private ByteBuffer buffer;
+  private ByteBuffer saved;
+
+  @Setup
+  public void setUp() throws IOException {
+    Core.getLogger().setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    GameClock.useManualTime(1_000_000L);
+    final File saves = Files.createTempDirectory("invaders-bench").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+
+    screen =
+        new GameScreen(
+            new GameState(1, 99, true),
+            stress ? GameSettings.getStressSettings() : GameSettings.getGameSettings().get(0),
+            false,
+            448,
+            520,
+            60,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.NORMAL,
+            new AchievementManager());
+    screen.setDrawing(false);
+    screen.initialize();
+    for (int tick = 0; tick < PLAYED_TICKS; tick++) {
+      GameClock.advance(TICK_MILLIS);
+      screen.update();
+    }
+    buffer = ByteBuffer.allocate(4 * 1024 * 1024);
+    saved = ByteBuffer.allocate(buffer.capacity());
+    screen.writeState(saved);
+    saved.flip();
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileManager.setTestDirectory(null);
+    GameClock.useSystemTime();
+  }
+
+  @Benchmark
+  public int snapshot() {
+    buffer.clear();
+    screen.writeState(buffer);
+    return buffer.position();
+  }
+
+  @Benchmark
+  public int restore() {
+    saved.rewind();
+    screen.readState(saved);
+    return saved.position();
+  }
+}
@@ -0,0 +1,356 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.GameContext;
+import engine.GameSettings;
+import engine.GameState;
+import engine.ItemManager;
+import entity.Ship;
+
+/**
+ * Plays every level of a level file many times over with a bot, headless and as fast as the cores
+ * go, so a draft of {@code level.csv} can be judged before it ships: how often each level is
+ * cleared, how long that takes, the scores and the item drops.
+ *
+ * <p>Every run is a game of its own: its own {@link GameContext} and seed, played as a hosted level
+ * on a worker of a fork/join pool with one worker per core. Runs share nothing while they play and
+ * their outcomes are only added up once all of them ended, so a seed gives the same report however
+ * many threads played it.
+ *
+ * <p>Usage: {@code BatchRunner <level file> [runs per level] [levels] [seed] [threads]}.
+ */
+public final class BatchRunner {
+
+  static final int WIDTH = 448;
+  static final int HEIGHT = 520;
+  static final int FPS = 60;
+
+  private static final int LIVES = 3;
+
+  /** A run that neither clears nor loses its level is called off after ten minutes of play. */
+  static final int MAX_TICKS = FPS * 600;
+
+  /** Frames the bot's rhythm is shifted by at most, so runs of one level do not all play alike. */
+  private static final int BOT_PHASES = 720;
+
+  private static final int DEFAULT_RUNS = 100;
+
+  private static final Logger REPORT = Logger.getLogger(BatchRunner.class.getName());
+
+  private static final ItemManager.DropTier[] TIERS = ItemManager.DropTier.values();
+
+  private BatchRunner() {}
+
+  /** Outcome of one run. */
+  static final class Run {
+    private final boolean cleared;
+    private final int ticks;
+    private final int score;
+    private final long[] drops;
+
+    Run(final boolean cleared, final int ticks, final int score, final long[] drops) {
+      this.cleared = cleared;
+      this.ticks = ticks;
+      this.score = score;
+      this.drops = drops;
+    }
+  }
+
+  /** Outcomes of all runs of one level. */
+  public static final class LevelReport {
+    private final int level;
+    private final int runs;
+    private final int clears;
+    private final long ticks;
+    private final long clearTicks;
+    private final int[] scores;
+    private final long[] drops;
+
+    LevelReport(final int level, final List<Run> played) {
+      this.level = level;
+      this.runs = played.size();
+      this.scores = new int[runs];
+      this.drops = new long[TIERS.length];
+      int cleared = 0;
+      long total = 0;
+      long toClear = 0;
+      for (int i = 0; i < runs; i++) {
+        final Run run = played.get(i);
+        scores[i] = run.score;
+        total += run.ticks;
+        if (run.cleared) {
+          cleared++;
+          toClear += run.ticks;
+        }
+        for (int t = 0; t < TIERS.length; t++) {
+          drops[t] += run.drops[t];
+        }
+      }
+      Arrays.sort(scores);
+      this.clears = cleared;
+      this.ticks = total;
+      this.clearTicks = toClear;
+    }
+
+    public int getLevel() {
+      return level;
+    }
+
+    public int getRuns() {
+      return runs;
+    }
+
+    public int getClears() {
+      return clears;
+    }
+
+    /**
+     * Returns the share of runs that cleared the level.
+     *
+     * @return Between 0 and 1.
+     */
+    public double getClearRate() {
+      return runs == 0 ? 0 : (double) clears / runs;
+    }
+
+    /**
+     * Returns the ticks played over all runs.
+     *
+     * @return Ticks simulated for this level.
+     */
+    public long getTicks() {
+      return ticks;
+    }
+
+    /**
+     * Returns how long a cleared run took on average, up to the result being shown.
+     *
+     * @return Seconds of game time, -1 when no run cleared the level.
+     */
+    public double getSecondsToClear() {
+      return clears == 0 ? -1 : (double) clearTicks / clears / FPS;
+    }
+
+    /**
+     * Returns a percentile of the final scores, by nearest rank.
+     *
+     * @param percent Percentile, 0 for the lowest score and 100 for the highest.
+     * @return Score, 0 when the level was not played.
+     */
+    public int getScorePercentile(final int percent) {
+      if (runs == 0) {
+        return 0;
+      }
+      final int rank = (int) Math.ceil(percent / 100.0 * runs);
+      return scores[Math.max(0, Math.min(runs, rank) - 1)];
+    }
+
+    /**
+     * Returns the drop rolls of all runs that landed on a tier.
+     *
+     * @param tier Tier rolled, NONE for kills that dropped nothing.
+     * @return Rolls over all runs.
+     */
+    public long getDrops(final ItemManager.DropTier tier) {
+      return drops[tier.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+      long kills = 0;
+      for (final long count : drops) {
+        kills += count;
+      }
+      return String.format(
+          "Level %d: %d runs, %.1f%% cleared%s, score p10/p50/p90 %d/%d/%d,"
+              + " drops common/uncommon/rare %d/%d/%d of %d kills",
+          level,
+          runs,
+          getClearRate() * 100,
+          clears == 0 ? "" : String.format(" in %.1f s", getSecondsToClear()),
+          getScorePercentile(10),
+          getScorePercentile(50),
+          getScorePercentile(90),
+          getDrops(ItemManager.DropTier.COMMON),
+          getDrops(ItemManager.DropTier.UNCOMMON),
+          getDrops(ItemManager.DropTier.RARE),
+          kills);
+    }
+  }
+
+  /**
+   * Plays the levels of a level file.
+   *
+   * @param args Level file and optionally the runs per level, the levels to play from the first
+   *     one, the seed and the threads.
+   * @throws IOException When the level file cannot be read.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length == 0) {
+      REPORT.severe("Usage: BatchRunner <level file> [runs per level] [levels] [seed] [threads]");
+      System.exit(2);
+    }
+    final List<GameSettings> settings = GameSettings.getGameSettings(Paths.get(args[0]));
+    final int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+    final int levels = args.length > 2 ? Integer.parseInt(args[2]) : countLevels(args[0]);
+    final long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+    final int threads =
+        args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+    Core.getLogger().setLevel(Level.WARNING);
+    final File saves = Files.createTempDirectory("invaders-batch").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+
+    final long begin = System.nanoTime();
+    final List<LevelReport> reports = run(settings, levels, runs, seed, threads);
+    final long nanos = System.nanoTime() - begin;
+    long ticks = 0;
+    for (final LevelReport report : reports) {
+      ticks += report.getTicks();
+      if (REPORT.isLoggable(Level.INFO)) {
+        REPORT.info(report.toString());
+      }
+    }
+    if (REPORT.isLoggable(Level.INFO)) {
+      REPORT.info(
+          String.format(
+              "%d runs, %d ticks in %.1f s on %d threads (%.0f ticks/s), seed %d",
+              levels * runs,
+              ticks,
+              nanos / 1e9,
+              threads,
+              ticks * 1e9 / Math.max(1, nanos),
+              seed));
+    }
+    System.exit(0);
+  }
+
+  /** Levels written in the file itself, the ones after them are derived from its last two. */
+  private static int countLevels(final String levelFile) throws IOException {
+    try (InputStream in = Files.newInputStream(Paths.get(levelFile))) {
+      return GameSettings.parseStages(in).size();
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) { // NOPMD - already read once by getGameSettings
+      throw new IOException("Malformed level file " + levelFile, e);
+    }
+  }
+
+  /**
+   * Plays every level a number of times, spread over a fork/join pool.
+   *
+   * @param settings Settings of every level, as read from a level file.
+   * @param levels Levels to play, from the first one.
+   * @param runs Runs of every level.
+   * @param seed Seed the seeds of the runs are drawn from.
+   * @param threads Workers of the pool, usually one per core.
+   * @return One report per level, in level order.
+   */
+  public static List<LevelReport> run(
+      final List<GameSettings> settings,
+      final int levels,
+      final int runs,
+      final long seed,
+      final int threads) {
+    return run(settings, levels, runs, seed, threads, MAX_TICKS);
+  }
+
+  static List<LevelReport> run(
+      final List<GameSettings> settings,
+      final int levels,
+      final int runs,
+      final long seed,
+      final int threads,
+      final int maxTicks) {
+    if (levels < 1 || levels > settings.size() || runs < 1 || threads < 1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "%d of %d levels, %d runs, %d threads", levels, settings.size(), runs, threads));
+    }
+    // Drawn up front, so every run gets the same seed whichever worker takes it
+    final SplittableRandom seeds = new SplittableRandom(seed);
+    final List<Callable<Run>> tasks = new ArrayList<>(levels * runs);
+    for (int level = 1; level <= levels; level++) {
+      for (int i = 0; i < runs; i++) {
+        final int played = level;
+        final long runSeed = seeds.nextLong();
+        tasks.add(() -> play(settings.get(played - 1), played, runSeed, maxTicks));
+      }
+    }
+
+    final List<Run> played = new ArrayList<>(tasks.size());
+    try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+      for (final Future<Run> run : pool.invokeAll(tasks)) {
+        played.add(run.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while the runs were played", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A run failed", e.getCause());
+    }
+
+    final List<LevelReport> reports = new ArrayList<>(levels);
+    for (int level = 1; level <= levels; level++) {
+      reports.add(new LevelReport(level, played.subList((level - 1) * runs, level * runs)));
+    }
+    return reports;
+  }
+
+  /** Plays one run in a context of its own, on the calling thread. */
+  static Run play(
+      final GameSettings settings, final int level, final long seed, final int maxTicks) {
+    final Run[] run = new Run[1];
+    new GameContext().run(() -> run[0] = playLevel(settings, level, seed, maxTicks));
+    return run[0];
+  }
+
+  private static Run playLevel(
+      final GameSettings settings, final int level, final long seed, final int maxTicks) {
+    final GameState state = new GameState(level, LIVES, false);
+    final GameScreen screen =
+        new GameScreen(
+            state,
+            settings,
+            false,
+            WIDTH,
+            HEIGHT,
+            FPS,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.NORMAL,
+            new AchievementManager());
+    screen.playHosted(seed);
+    screen.initialize();
+    final int phase = (int) Long.remainderUnsigned(seed, BOT_PHASES);
+    int tick = 0;
+    while (tick < maxTicks && !screen.isLevelOver()) {
+      screen.stepOnline(NetPlayRunner.bot(0, tick + phase), 0);
+      tick++;
+    }
+
+    final ItemManager items = ItemManager.getInstance();
+    final long[] drops = new long[TIERS.length];
+    for (final ItemManager.DropTier tier : TIERS) {
+      drops[tier.ordinal()] = items.getDrops(tier);
+    }
+    return new Run(screen.isLevelOver() && state.teamAlive(), tick, state.getScore(), drops);
+  }
+}
@@ -0,0 +1,184 @@
+package screen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import engine.FrameCodec;
+import engine.FrameSnapshot;
+
+/**
+ * Thin client of a {@link GameServer}: sends the buttons of both players and turns the frames it
+ * receives back into {@link FrameSnapshot}s to draw. Nothing is simulated on this side.
+ */
+public final class GameClient implements Closeable {
+
+  private final SocketChannel channel;
+  private final FrameCodec.Decoder decoder = new FrameCodec.Decoder();
+  private final ByteBuffer header = ByteBuffer.allocate(GameServer.HEADER);
+  private final ByteBuffer input = ByteBuffer.allocate(2);
+  private ByteBuffer payload = ByteBuffer.allocateDirect(1 << 12);
+  private final int session;
+  private int lastInput = -1;
+  private long bytesReceived;
+  private boolean ended;
+  private int finalScore;
+  private int finalLives;
+  private boolean cleared;
+
+  private GameClient(final SocketChannel channel, final int session) {
+    this.channel = channel;
+    this.session = session;
+  }
+
+  /**
+   * Opens a game on a server and waits until it is accepted.
+   *
+   * @param server Address of the server.
+   * @param level Level to play, from 1.
+   * @param coop Whether two players share the level.
+   * @param ship1 Ship type ordinal of player 1.
+   * @param ship2 Ship type ordinal of player 2.
+   * @return Client of the new game.
+   * @throws IOException When the server cannot be reached or turns the game down.
+   */
+  public static GameClient connect(
+      final InetSocketAddress server,
+      final int level,
+      final boolean coop,
+      final int ship1,
+      final int ship2)
+      throws IOException {
+    final SocketChannel channel = SocketChannel.open(server);
+    try {
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      final ByteBuffer hello = ByteBuffer.allocate(GameServer.HELLO_SIZE);
+      hello
+          .put(GameServer.HELLO)
+          .put((byte) GameServer.VERSION)
+          .put((byte) level)
+          .put((byte) (coop ? 1 : 0))
+          .put((byte) ship1)
+          .put((byte) ship2)
+          .flip();
+      while (hello.hasRemaining()) {
+        channel.write(hello);
+      }
+      final ByteBuffer welcome = ByteBuffer.allocate(GameServer.HEADER + Integer.BYTES + 5);
+      GameServer.readFully(channel, welcome);
+      if (welcome.get(0) != GameServer.WELCOME) {
+        throw new IOException("server turned the game down");
+      }
+      return new GameClient(channel, welcome.getInt(GameServer.HEADER));
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Sends the buttons of both players, unless they are the ones sent last.
+   *
+   * @param player1 {@link engine.NetInput} bits of player 1.
+   * @param player2 {@link engine.NetInput} bits of player 2.
+   * @throws IOException When the server hung up.
+   */
+  public void sendInput(final int player1, final int player2) throws IOException {
+    final int bits = (player1 & 0x7) | (player2 & 0x7) << 4;
+    if (bits == lastInput) {
+      return;
+    }
+    lastInput = bits;
+    input.clear();
+    input.put(GameServer.INPUT).put((byte) bits).flip();
+    while (input.hasRemaining()) {
+      channel.write(input);
+    }
+  }
+
+  /**
+   * Waits for the next tick and decodes it into a frame that received the ticks before it.
+   *
+   * @param frame Frame to update, the same one every call.
+   * @return False once the level is over and the result can be read.
+   * @throws IOException When the server hung up.
+   */
+  public boolean receive(final FrameSnapshot frame) throws IOException {
+    while (!ended) {
+      header.clear();
+      GameServer.readFully(channel, header);
+      final int length = header.getInt(1);
+      if (payload.capacity() < length) {
+        payload = ByteBuffer.allocateDirect(Integer.highestOneBit(length) << 1);
+      }
+      payload.clear().limit(length);
+      GameServer.readFully(channel, payload);
+      payload.flip();
+      bytesReceived += GameServer.HEADER + length;
+      if (header.get(0) == GameServer.FRAME) {
+        decoder.decode(payload, frame);
+        return true;
+      }
+      if (header.get(0) == GameServer.END) {
+        finalScore = payload.getInt();
+        finalLives = payload.get();
+        cleared = payload.get() != 0;
+        ended = true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the id the server gave the game.
+   *
+   * @return Session id, from 1.
+   */
+  public int getSession() {
+    return session;
+  }
+
+  /**
+   * Returns the bytes of every frame and result received so far.
+   *
+   * @return Bytes, headers included.
+   */
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  /**
+   * Returns the score the level ended with.
+   *
+   * @return Score, 0 before the end.
+   */
+  public int getFinalScore() {
+    return finalScore;
+  }
+
+  /**
+   * Returns the lives left at the end of the level.
+   *
+   * @return Lives, 0 before the end.
+   */
+  public int getFinalLives() {
+    return finalLives;
+  }
+
+  /**
+   * Returns whether the level was cleared.
+   *
+   * @return True when the players survived to the end.
+   */
+  public boolean isCleared() {
+    return cleared;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
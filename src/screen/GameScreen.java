@@ -1,15 +1,22 @@
 package screen;
 
 import java.awt.event.KeyEvent;
-import java.util.HashSet;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
 import engine.*; // NOPMD
 import entity.Bullet;
 import entity.BulletPool;
 import entity.EnemyShip;
 import entity.EnemyShipFormation;
 import entity.Entity;
+import entity.MovementSystem;
+import entity.RenderSystem;
 import entity.Ship;
+import entity.SystemScheduler;
+import entity.World;
 
 // NEW Item code
 import entity.Item;
@@ -47,9 +54,30 @@ public class GameScreen extends Screen { // NOPMD
   private static final int PAUSE_COOLDOWN = 300;
 
   private static final int RETURN_MENU_COOLDOWN = 300;
-  private static final int SEPARATION_LINE_HEIGHT = 68;
+
+  /** Milliseconds between two toggles of the profiler overlay. */
+  private static final int PROFILER_TOGGLE_COOLDOWN = 300;
+
+  /** Player bullets on screen at once with both players firing as fast as they can. */
+  private static final int PLAYER_BULLET_PEAK = 16;
+
+  /** Enemy volleys on screen at once, a volley takes a few seconds to fall off screen. */
+  private static final int VOLLEYS_ON_SCREEN = 4;
+
+  /** Item drops on screen at once. */
+  private static final int ITEM_PEAK = 8;
+
+  /** Spreads the systems over the cores once a world gets large, shared by every level. */
+  private static final SystemScheduler SCHEDULER = SystemScheduler.fromProperties();
+
+  /** Name of the save written by F5 and read back by F9. */
+  public static final String QUICK_SAVE = "quicksave";
+
+  /** Name of the save kept while a level is played with {@code -Dinvaders.recovery}. */
+  public static final String RECOVERY_SAVE = "recovery";
+
+  static final int SEPARATION_LINE_HEIGHT = 68;
   private static final int HIGH_SCORE_NOTICE_DURATION = 2000;
-  private static boolean sessionHighScoreNotified = false; // NOPMD
 
   /** For Check Achievement 2015-10-02 add new */
   private AchievementManager achievementManager; // NOPMD
@@ -60,13 +88,19 @@ public class GameScreen extends Screen { // NOPMD
   /** Current game difficulty settings. */
   private final GameSettings gameSettings;
 
+  /** Entities in play, every kind of entity is one table of it. */
+  World world;
+
+  /** Cooldowns of the level, advanced once per tick instead of each one reading the clock. */
+  TimerWheel timers;
+
   /** Formation of enemy ships. */
-  private EnemyShipFormation enemyShipFormation;
+  EnemyShipFormation enemyShipFormation;
 
-  private EnemyShip enemyShipSpecial;
+  EnemyShip enemyShipSpecial;
 
   /** Formation of player ships. */
-  private final Ship[] ships = new Ship[GameState.NUM_PLAYERS];
+  final Ship[] ships = new Ship[GameState.NUM_PLAYERS];
 
   /** Minimum time between bonus ship appearances. */
   private Cooldown enemyShipSpecialCooldown;
@@ -77,23 +111,34 @@ public class GameScreen extends Screen { // NOPMD
   /** Time from finishing the level to screen change. */
   private Cooldown screenFinishedCooldown;
 
-  /** Set of all bullets fired by on screen ships. */
-  private Set<Bullet> bullets;
+  /** Set of all bullets fired by on screen ships, a view of the bullets in the world. */
+  Set<Bullet> bullets;
+
+  /** Set of all items spawned, a view of the items in the world. */
+  Set<Item> items;
+
+  /**
+   * Bullets and items leaving the screen this tick, reused between ticks. In row order, so they
+   * leave the world the same way on every run and every machine.
+   */
+  private final Set<Bullet> recyclableBullets = new LinkedHashSet<>();
 
-  /** Set of all items spawned. */
-  private Set<Item> items;
+  private final Set<Item> recyclableItems = new LinkedHashSet<>();
 
-  private long gameStartTime;
+  long gameStartTime;
 
   /** Checks if the level is finished. */
-  private boolean levelFinished;
+  boolean levelFinished;
+
+  /** Whether the achievements of the level end were checked, online once it cannot roll back. */
+  boolean levelEndUnlocked;
 
   /** Checks if a bonus life is received. */
   private final boolean bonusLife;
 
   private int topScore;
-  private boolean highScoreNotified;
-  private long highScoreNoticeStartTime;
+  boolean highScoreNotified;
+  long highScoreNoticeStartTime;
 
   private boolean isPaused;
   private Cooldown pauseCooldown;
@@ -103,16 +148,51 @@ public class GameScreen extends Screen { // NOPMD
   private boolean hasCountdownMessage;
 
   /** checks if player took damage 2025-10-02 add new variable */
-  private boolean tookDamageThisLevel;
+  boolean tookDamageThisLevel;
 
-  private boolean countdownSoundPlayed = false; // NOPMD
+  boolean countdownSoundPlayed = false; // NOPMD
 
-  private final GameState state;
+  final GameState state;
 
   private final Ship.ShipType shipTypeP1;
   private final Ship.ShipType shipTypeP2;
   private final InputHandler inputHandler;
 
+  /** Measures the time from a key press to the first frame showing its result. */
+  private final InputLatency latency = GameContext.current().getLatency();
+
+  /** Live metrics served by {@link MetricsServer}. */
+  private final Metrics metrics = GameContext.current().getMetrics();
+
+  /** Per-phase timings of update and draw, shown with F3. */
+  private FrameProfiler profiler = GameContext.current().getProfiler();
+
+  private final Cooldown profilerToggleCooldown = Core.getCooldown(PROFILER_TOGGLE_COOLDOWN);
+
+  /** Time spent on achievements during the current tick. */
+  private long achievementNanos;
+
+  /** Ticks run on this screen, reported with every frame event. */
+  long tick;
+
+  /** Seed of the random streams of this level. */
+  private long seed = Rng.newSeed();
+
+  /** Records the level for replays, null unless {@code -Dinvaders.replay} is set. */
+  private ReplayRecorder recorder;
+
+  /** Drives the level on tick time when it is played online or hosted, null otherwise. */
+  OnlinePlay online;
+
+  /** How the level started, the header of its saves and replays. */
+  final Replay.Start start;
+
+  /** Shows the captured frames, inline or on a render thread. */
+  private final LevelRenderer renderer;
+
+  /** Quick saves, recovery saves and the state codec they share. */
+  private final LevelSaves saves = new LevelSaves(this);
+
   /**
    * Constructor, establishes the properties of the screen.
    *
@@ -149,11 +229,16 @@ public class GameScreen extends Screen { // NOPMD
     if (this.bonusLife) {
       this.lives++;
     }
+    this.start =
+        Replay.Start.of(gameState, bonusLife, shipTypeP1, shipTypeP2, width, height, fps)
+            .withSettings(gameSettings);
+    this.recorder = ReplayRecorder.isRequested() ? new ReplayRecorder(this.start) : null;
 
     // for check Achievement 2025-10-02 add
     this.achievementManager = achievementManager;
     this.collisionManager = new CollisionManager(this.state, this.drawManager);
     this.pauseMenuHandler = new PauseMenuHandler();
+    this.renderer = new LevelRenderer(this, this.pauseMenuHandler);
     this.inputHandler = new InputHandler(this.inputManager);
 
     this.tookDamageThisLevel = false;
@@ -178,13 +263,26 @@ public class GameScreen extends Screen { // NOPMD
 
   /** Initializes basic screen properties, and adds necessary elements. */
   public final void initialize() {
+    if (this.online != null) {
+      // Both machines run on tick time, never on their own clocks
+      this.online.startClock();
+    }
+    if (this.recorder != null) {
+      GameClock.latch();
+      this.recorder.begin(this.seed, GameClock.currentTimeMillis());
+    }
+    Rng.reseed(this.seed);
     super.initialize();
 
     // Start background music for gameplay
     SoundManager.ingameBGM("sound/SpaceInvader-GameTheme.wav");
 
+    this.timers = new TimerWheel(GameClock.currentTimeMillis());
+    this.world = new World(SCHEDULER);
+    this.renderer.restartBroadcast();
     enemyShipFormation = new EnemyShipFormation(this.gameSettings);
     enemyShipFormation.attach(this);
+    enemyShipFormation.enterWorld(this.world, this.timers);
 
     // 2P mode: create both ships, tagged to their respective teams
     this.ships[0] =
@@ -193,7 +291,8 @@ public class GameScreen extends Screen { // NOPMD
             this.height - 30,
             Entity.Team.PLAYER1,
             shipTypeP1,
-            this.state); // P1
+            this.state,
+            this.timers); // P1
     this.ships[0].setPlayerId(1);
 
     // only allowing second ship to spawn when 2P mode is chosen
@@ -204,22 +303,32 @@ public class GameScreen extends Screen { // NOPMD
               this.height - 30,
               Entity.Team.PLAYER2,
               shipTypeP2,
-              this.state); // P2
+              this.state,
+              this.timers); // P2
 
       this.ships[1].setPlayerId(2);
     } else {
       this.ships[1] = null; // NOPMD | ensuring there's no P2 ship in 1P mode
     }
+    for (final Ship s : this.ships) {
+      if (s != null) {
+        this.world.attach(s, World.Kind.PLAYER);
+      }
+    }
 
     this.enemyShipSpecialCooldown =
-        Core.getVariableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
+        this.timers.variableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
     this.enemyShipSpecialCooldown.reset();
-    this.enemyShipSpecialExplosionCooldown = Core.getCooldown(BONUS_SHIP_EXPLOSION);
-    this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-    this.bullets = new HashSet<>();
+    this.enemyShipSpecialExplosionCooldown = this.timers.cooldown(BONUS_SHIP_EXPLOSION);
+    this.screenFinishedCooldown = this.timers.cooldown(SCREEN_CHANGE_INTERVAL);
+    // Fill the pools up front, so the level's first volleys and drops do not allocate
+    BulletPool.prewarm(expectedBulletPeak(this.gameSettings));
+    ItemPool.prewarm(ITEM_PEAK);
+    // Table ordered, so collisions resolve in the same order when a level is replayed
+    this.bullets = this.world.members(World.Kind.BULLET);
 
     // New Item Code
-    this.items = new HashSet<>();
+    this.items = this.world.members(World.Kind.ITEM);
 
     final String message =
         DrawManager.getCountdownMessage(this.state.getLevel(), 5, this.bonusLife);
@@ -227,20 +336,25 @@ public class GameScreen extends Screen { // NOPMD
     this.hasCountdownMessage = message != null;
 
     // Special input delay / countdown.
-    this.gameStartTime = System.currentTimeMillis();
+    this.gameStartTime = GameClock.currentTimeMillis();
     int delay;
     if (this.hasCountdownMessage) {
       delay = INPUT_DELAY;
     } else {
       delay = INPUT_DELAY_NO_MESSAGE;
     }
-    this.inputDelay = Core.getCooldown(delay);
+    this.inputDelay = this.timers.cooldown(delay);
     this.inputDelay.reset();
     drawManager.setDeath(false);
 
     this.isPaused = false;
     this.pauseCooldown = Core.getCooldown(PAUSE_COOLDOWN);
     this.returnMenuCooldown = Core.getCooldown(RETURN_MENU_COOLDOWN);
+
+    if (this.online != null) {
+      this.online.begin();
+    }
+    this.saves.begin(isOnline());
   }
 
   /**
@@ -249,7 +363,22 @@ public class GameScreen extends Screen { // NOPMD
    * @return Next screen code.
    */
   public final int run() {
-    super.run();
+    this.renderer.start();
+    try {
+      super.run();
+      this.saves.end();
+    } finally {
+      this.renderer.stop();
+      if (this.recorder != null) {
+        GameClock.useSystemTime();
+        this.recorder.save(stateChecksum());
+      }
+      if (isOnline()) {
+        GameClock.useSystemTime();
+      }
+      this.profiler.logSummary(this.logger, "Frame timings, level " + state.getLevel());
+      this.profiler.reset();
+    }
 
     // 2P mode: award bonus score for remaining TEAM lives
     state.addScore(0, LIFE_SCORE * state.getLivesRemaining());
@@ -257,17 +386,31 @@ public class GameScreen extends Screen { // NOPMD
     // Stop all music on exiting this screen
     SoundManager.stopAllMusic();
 
-    this.logger.info("Screen cleared with a score of " + state.getScore());
+    if (this.logger.isLoggable(Level.INFO)) {
+      this.logger.info("Screen cleared with a score of " + state.getScore());
+    }
     return this.returnCode;
   }
 
   /** Updates the elements on screen and checks for events. */
   protected final void update() { // NOPMD
+    final long updateStart = System.nanoTime();
+    final long tickStart = this.profiler.begin();
+    if (this.recorder != null) {
+      GameClock.latch();
+      this.recorder.captureTick(GameClock.currentTimeMillis());
+    }
     super.update();
+    if (!isOnline()) {
+      // Fire the cooldowns due this tick, before anything checks them
+      this.timers.advance(GameClock.currentTimeMillis());
+    } else if (!this.online.update()) {
+      leaveOnline();
+    }
 
     // Countdown beep once during pre-start
     if (!this.inputDelay.checkFinished() && !countdownSoundPlayed) {
-      final long elapsed = System.currentTimeMillis() - this.gameStartTime;
+      final long elapsed = GameClock.currentTimeMillis() - this.gameStartTime;
       if (this.hasCountdownMessage) {
         if (elapsed > 1750) {
           SoundManager.ingameeffect("sound/CountDownSound.wav");
@@ -281,9 +424,30 @@ public class GameScreen extends Screen { // NOPMD
       }
     }
 
-    this.achievementManager.checkAchievements(
-        state, enemyShipFormation, levelFinished, tookDamageThisLevel);
-    if (this.inputDelay.checkFinished()
+    if (inputManager.isKeyDown(KeyEvent.VK_F3) && this.profilerToggleCooldown.checkFinished()) {
+      this.profiler.toggleOverlay();
+      this.profilerToggleCooldown.reset();
+    }
+    if (!isOnline() && !this.isPaused) {
+      this.saves.update(this.inputManager, this.recorder != null);
+    }
+
+    final long achievementStart = this.profiler.begin();
+    if (isSettled()) {
+      // Online, only once no tick rests on a guess of the other player's input
+      this.achievementManager.checkAchievements(
+          state, enemyShipFormation, levelFinished, tookDamageThisLevel);
+      if (this.levelFinished && !this.levelEndUnlocked) {
+        unlockLevelEndAchievements();
+      }
+    }
+    this.achievementNanos = this.profiler.begin() - achievementStart;
+    if (isOnline()) {
+      // Online levels cannot pause, the other player keeps playing
+      if (this.online.checkExit()) {
+        this.isRunning = false;
+      }
+    } else if (this.inputDelay.checkFinished()
         && inputManager.isKeyPressed(KeyEvent.VK_ESCAPE)
         && this.pauseCooldown.checkFinished()) {
       this.isPaused = !this.isPaused;
@@ -293,6 +457,8 @@ public class GameScreen extends Screen { // NOPMD
       if (this.isPaused) {
         // Pause game music when pausing - no sound during pause
         SoundManager.stopBackgroundMusic();
+        // A cabinet may be switched off while paused, resume from right here
+        this.saves.saveRecovery();
       } else {
         // Resume game music when unpausing
         SoundManager.ingameBGM("sound/SpaceInvader-GameTheme.wav");
@@ -309,38 +475,56 @@ public class GameScreen extends Screen { // NOPMD
     }
 
     if (this.isPaused) {
+      final long inputStart = this.profiler.begin();
       this.inputHandler.handlePauseInput(this.pauseMenuHandler, this.drawManager, this);
-    } else {
+      this.profiler.end(FrameProfiler.Phase.INPUT, inputStart);
+    } else if (!isOnline()) {
       updateGameLogic();
     }
+    this.profiler.record(FrameProfiler.Phase.ACHIEVEMENTS, this.achievementNanos);
 
-    draw();
+    publishFrame(updateStart);
+    if (this.recorder != null && this.recorder.isCheckpointDue()) {
+      this.recorder.checkpoint(stateChecksum());
+    }
+    this.profiler.end(FrameProfiler.Phase.TICK, tickStart);
+    this.metrics.recordTick(System.nanoTime() - updateStart);
   }
 
   private void updateGameLogic() {
     handlePlayerActions();
+    long start = this.profiler.begin();
     handleCollisionsLogic();
+    start = this.profiler.lap(FrameProfiler.Phase.COLLISIONS, start);
     cleanBullets();
     cleanItems();
     handleItemPickups();
-    updateUILastLifeFlag();
+    this.profiler.end(FrameProfiler.Phase.CLEANUP, start);
     updateHighScoreNotice();
     checkLevelEndCondition();
-    checkScreenExitCondition();
+    if (!isOnline()) {
+      checkScreenExitCondition();
+    }
+    start = this.profiler.begin();
     updateAchievements();
+    this.achievementNanos += this.profiler.begin() - start;
   }
 
   private void handlePlayerActions() {
     if (this.inputDelay.checkFinished() && !this.levelFinished) {
+      long start = this.profiler.begin();
       this.inputHandler.handleInput(this.ships, this.bullets, this.state, this.width);
+      start = this.profiler.lap(FrameProfiler.Phase.INPUT, start);
 
       for (final Ship s : this.ships) {
         if (s != null) {
           s.update();
         }
       }
+      start = this.profiler.lap(FrameProfiler.Phase.PLAYERS, start);
 
       updateEnemies();
+      this.profiler.end(FrameProfiler.Phase.ENEMIES, start);
     }
   }
 
@@ -361,15 +545,12 @@ public class GameScreen extends Screen { // NOPMD
     this.collisionManager.processItemPickups(this.items, this.ships);
   }
 
-  private void updateUILastLifeFlag() {
-    drawManager.setLastLife(state.getLivesRemaining() == 1);
-  }
-
   private void updateHighScoreNotice() {
-    if (!sessionHighScoreNotified && this.state.getScore() > this.topScore) {
-      sessionHighScoreNotified = true;
+    if (!this.highScoreNotified
+        && this.state.getScore() > this.topScore
+        && GameContext.current().claimHighScoreNotice()) {
       this.highScoreNotified = true;
-      this.highScoreNoticeStartTime = System.currentTimeMillis();
+      this.highScoreNoticeStartTime = GameClock.currentTimeMillis();
     }
   }
 
@@ -381,6 +562,37 @@ public class GameScreen extends Screen { // NOPMD
     }
   }
 
+  /**
+   * Simulates one tick of an online or hosted level with the input of both players.
+   *
+   * @param player1 Input bits of player 1.
+   * @param player2 Input bits of player 2.
+   */
+  void stepOnline(final int player1, final int player2) {
+    this.online.step(player1, player2);
+  }
+
+  /** Advances the cooldowns to the current game time and plays one tick of the level. */
+  void simulateTick() {
+    this.timers.advance(GameClock.currentTimeMillis());
+    updateGameLogic();
+  }
+
+  /**
+   * Returns whether the level is over and the delay before the result is shown ran out.
+   *
+   * @return True once the screen may be left.
+   */
+  boolean isLevelDone() {
+    return this.levelFinished && this.screenFinishedCooldown.checkFinished();
+  }
+
+  private void leaveOnline() {
+    SoundManager.stopAllMusic();
+    this.returnCode = 1;
+    this.isRunning = false;
+  }
+
   private void updateAchievements() {
     if (this.achievementManager != null) {
       this.achievementManager.update();
@@ -392,7 +604,7 @@ public class GameScreen extends Screen { // NOPMD
     if (this.enemyShipSpecial != null) {
       if (this.enemyShipSpecial.isDestroyed()) {
         if (this.enemyShipSpecialExplosionCooldown.checkFinished()) {
-          this.enemyShipSpecial = null; // NOPMD
+          removeSpecialShip();
         }
       } else {
         this.enemyShipSpecial.move(2, 0);
@@ -400,12 +612,13 @@ public class GameScreen extends Screen { // NOPMD
     }
     if (this.enemyShipSpecial == null && this.enemyShipSpecialCooldown.checkFinished()) {
       this.enemyShipSpecial = new EnemyShip();
+      this.world.attach(this.enemyShipSpecial, World.Kind.SPECIAL);
       this.enemyShipSpecialCooldown.reset();
       SoundManager.ingameeffect("sound/special_ship_sound.wav");
       this.logger.info("A special ship appears");
     }
     if (this.enemyShipSpecial != null && this.enemyShipSpecial.getPositionX() > this.width) {
-      this.enemyShipSpecial = null; // NOPMD
+      removeSpecialShip();
       SoundManager.stop();
       this.logger.info("The special ship has escaped");
     }
@@ -418,6 +631,17 @@ public class GameScreen extends Screen { // NOPMD
     }
   }
 
+  private static int expectedBulletPeak(final GameSettings settings) {
+    final long enemyBullets =
+        (long) settings.getFormationWidth() * settings.getVolleySize() * VOLLEYS_ON_SCREEN;
+    return (int) Math.min(settings.getBulletCap(), enemyBullets) + PLAYER_BULLET_PEAK;
+  }
+
+  void removeSpecialShip() {
+    this.world.detach(this.enemyShipSpecial);
+    this.enemyShipSpecial = null; // NOPMD
+  }
+
   private void checkLevelEndCondition() { // NOPMD
     if ((this.enemyShipFormation.isEmpty() || !state.teamAlive()) && !this.levelFinished) {
       BulletPool.recycle(this.bullets);
@@ -427,150 +651,305 @@ public class GameScreen extends Screen { // NOPMD
 
       this.levelFinished = true;
       this.screenFinishedCooldown.reset();
-
-      if (enemyShipFormation.getShipCount() == 0
-          && state.getBulletsShot() > 0
-          && state.getBulletsShot() == state.getShipsDestroyed()) {
-        achievementManager.unlock("Perfect Shooter");
-      }
-      if (enemyShipFormation.getShipCount() == 0 && !this.tookDamageThisLevel) {
-        achievementManager.unlock("Survivor");
-      }
-      if (enemyShipFormation.getShipCount() == 0 && state.getLevel() == 5) {
-        achievementManager.unlock("Clear");
+      if (!isOnline()) {
+        unlockLevelEndAchievements();
       }
-      this.achievementManager.checkAchievements(
-          state, enemyShipFormation, levelFinished, tookDamageThisLevel);
     }
   }
 
-  private void draw() {
-    prepareFrame();
-    drawShips();
-    drawSpecialShip();
-    drawEnemies();
-    drawBullets();
-    drawItems();
-    drawHUD();
-    drawCountdownIfNeeded();
-    drawHighScoreNoticeIfNeeded();
-    drawAchievementToastsSection();
-    drawPauseMenuIfNeeded();
-    finishFrame();
+  private void unlockLevelEndAchievements() {
+    this.levelEndUnlocked = true;
+    if (enemyShipFormation.getShipCount() == 0
+        && state.getBulletsShot() > 0
+        && state.getBulletsShot() == state.getShipsDestroyed()) {
+      achievementManager.unlock("Perfect Shooter");
+    }
+    if (enemyShipFormation.getShipCount() == 0 && !this.tookDamageThisLevel) {
+      achievementManager.unlock("Survivor");
+    }
+    if (enemyShipFormation.getShipCount() == 0 && state.getLevel() == 5) {
+      achievementManager.unlock("Clear");
+    }
+    this.achievementManager.checkAchievements(
+        state, enemyShipFormation, levelFinished, tookDamageThisLevel);
+  }
+
+  /**
+   * Captures the current frame and hands it to the renderer.
+   *
+   * @param updateStart {@link System#nanoTime()} at the start of the tick.
+   */
+  private void publishFrame(final long updateStart) {
+    final FrameSnapshot frame = this.renderer.nextFrame();
+    final long start = this.profiler.begin();
+    captureFrame(frame);
+    this.latency.attach(frame);
+    this.profiler.end(FrameProfiler.Phase.CAPTURE, start);
+    frame.setTelemetry(
+        ++this.tick, System.nanoTime() - updateStart, this.bullets.size(), this.items.size());
+    this.metrics.setEntityCounts(
+        this.enemyShipFormation.getShipCount(), this.bullets.size(), this.items.size());
+    this.renderer.show(frame);
   }
 
-  private void prepareFrame() {
-    drawManager.initDrawing(this);
-    drawManager.drawExplosions();
-    drawManager.updateGameSpace();
+  void captureFrame(final FrameSnapshot frame) {
+    frame.clear();
+    RenderSystem.capture(this.world, frame);
+
+    frame.setHud(this.state, this.enemyShipFormation.getShipCount());
+    frame.setLastLife(this.state.getLivesRemaining() == 1);
+    frame.setCountdown(!this.inputDelay.checkFinished(), countdownNumber(), this.bonusLife);
+    frame.setHighScoreNotice(
+        this.highScoreNotified
+            && GameClock.currentTimeMillis() - this.highScoreNoticeStartTime
+                < HIGH_SCORE_NOTICE_DURATION);
+    frame.setToast(
+        this.achievementManager != null ? this.achievementManager.getActiveToast() : null);
+    frame.setPause(this.isPaused, this.pauseMenuHandler);
   }
 
-  private void drawShips() {
+  private int countdownNumber() {
+    final long elapsed = GameClock.currentTimeMillis() - this.gameStartTime;
+    return this.hasCountdownMessage
+        ? (int) ((INPUT_DELAY - elapsed) / 1000)
+        : (int) ((INPUT_DELAY_NO_MESSAGE - elapsed) / 1000);
+  }
+
+  private void cleanBullets() {
+    MovementSystem.integrate(this.world, World.Kind.BULLET);
+    MovementSystem.collectOutside(
+        this.world, World.Kind.BULLET, SEPARATION_LINE_HEIGHT, this.height, this.recyclableBullets);
+    if (!this.recyclableBullets.isEmpty()) {
+      this.bullets.removeAll(this.recyclableBullets);
+      BulletPool.recycle(this.recyclableBullets);
+      this.recyclableBullets.clear();
+    }
+  }
+
+  private void cleanItems() {
+    MovementSystem.integrate(this.world, World.Kind.ITEM);
+    MovementSystem.collectOutside(
+        this.world, World.Kind.ITEM, Integer.MIN_VALUE, this.height, this.recyclableItems);
+    if (!this.recyclableItems.isEmpty()) {
+      this.items.removeAll(this.recyclableItems);
+      ItemPool.recycle(this.recyclableItems);
+      this.recyclableItems.clear();
+    }
+  }
+
+  /**
+   * Sums up everything the simulation decided, so a replay can tell whether it played out the same
+   * way as the recording.
+   *
+   * @return Checksum of score, lives and the position of every entity.
+   */
+  long stateChecksum() {
+    long sum = Replay.CHECKSUM_SEED;
+    sum = Replay.mix(sum, state.getScore());
+    sum = Replay.mix(sum, state.getLivesRemaining());
+    sum = Replay.mix(sum, state.getBulletsShot());
+    sum = Replay.mix(sum, state.getShipsDestroyed());
     for (final Ship s : this.ships) {
       if (s != null) {
-        drawManager.drawEntity(s, s.getPositionX(), s.getPositionY());
+        sum = Replay.mix(sum, position(s));
+        sum = Replay.mix(sum, s.isDestroyed() ? 1L : 0L);
       }
     }
-  }
-
-  private void drawSpecialShip() {
     if (this.enemyShipSpecial != null) {
-      drawManager.drawEntity(
-          this.enemyShipSpecial,
-          this.enemyShipSpecial.getPositionX(),
-          this.enemyShipSpecial.getPositionY());
+      sum = Replay.mix(sum, position(this.enemyShipSpecial));
+    }
+    for (int i = this.enemyShipFormation.nextShip(0);
+        i >= 0;
+        i = this.enemyShipFormation.nextShip(i + 1)) {
+      sum = Replay.mix(sum, position(this.enemyShipFormation.getShipAt(i)));
+    }
+    for (final Bullet bullet : this.bullets) {
+      sum = Replay.mix(sum, position(bullet));
+    }
+    for (final Item item : this.items) {
+      sum = Replay.mix(sum, position(item));
     }
+    return sum;
   }
 
-  private void drawEnemies() {
-    enemyShipFormation.draw();
+  /**
+   * Writes everything the next ticks of the level depend on, see {@link LevelSaves}.
+   *
+   * @param out Buffer to write to.
+   * @throws java.nio.BufferOverflowException When the buffer is too small.
+   */
+  public void writeState(final ByteBuffer out) {
+    this.saves.write(out);
   }
 
-  private void drawBullets() {
-    for (final Bullet bullet : this.bullets) {
-      drawManager.drawEntity(bullet, bullet.getPositionX(), bullet.getPositionY());
-    }
+  /**
+   * Reads back a state written by {@link #writeState(ByteBuffer)} on a screen of the same level.
+   *
+   * @param in Buffer to read from.
+   * @throws IllegalArgumentException When the state is cut short or damaged.
+   */
+  public void readState(final ByteBuffer in) {
+    this.saves.read(in);
   }
 
-  private void drawItems() {
-    for (final Item item : this.items) {
-      drawManager.drawEntity(item, item.getPositionX(), item.getPositionY());
-    }
+  /**
+   * Saves the level as it is now, to continue it later on a screen of the same level.
+   *
+   * @return Save holding how the level started, its seed and its state.
+   */
+  public LevelSnapshot snapshot() {
+    return this.saves.snapshot();
   }
 
-  private void drawHUD() {
-    drawManager.hud().drawScore(this, state.getScore());
-    drawManager.hud().drawLives(state.getLivesRemaining(), state.isCoop());
-    drawManager.hud().drawCoins(this, state.getCoins());
-    drawManager.hud().drawLevel(this, this.state.getLevel());
-    drawManager.hud().drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
-    drawManager.hud().drawShipCount(this, enemyShipFormation.getShipCount());
+  /**
+   * Puts an initialized level back to a save of it.
+   *
+   * @param snapshot Save from {@link #snapshot()} of a screen of the same level.
+   * @throws IllegalArgumentException When the save is of another level or damaged.
+   */
+  public void restore(final LevelSnapshot snapshot) {
+    this.saves.restore(snapshot);
   }
 
-  private void drawCountdownIfNeeded() {
-    if (!this.inputDelay.checkFinished()) {
-      final int countdown =
-          this.hasCountdownMessage
-              ? (int) ((INPUT_DELAY - (System.currentTimeMillis() - this.gameStartTime)) / 1000)
-              : (int)
-                  ((INPUT_DELAY_NO_MESSAGE - (System.currentTimeMillis() - this.gameStartTime))
-                      / 1000);
-      drawManager.hud().drawCountDown(this, this.state.getLevel(), countdown, this.bonusLife);
-      drawManager.hud().drawHorizontalLine(this, this.height / 2 - this.height / 12);
-      drawManager.hud().drawHorizontalLine(this, this.height / 2 + this.height / 12);
-    }
+  /**
+   * Continues a saved level instead of starting it fresh. Must be called before {@link
+   * #initialize()}, on a screen built from the save's {@link Replay.Start}.
+   *
+   * @param snapshot Save to continue.
+   */
+  public void resumeFrom(final LevelSnapshot snapshot) {
+    this.seed = snapshot.getSeed();
+    this.saves.resumeFrom(snapshot);
+    // The recording would miss everything before the save
+    this.recorder = null;
   }
 
-  private void drawHighScoreNoticeIfNeeded() {
-    if (this.highScoreNotified
-        && System.currentTimeMillis() - this.highScoreNoticeStartTime
-            < HIGH_SCORE_NOTICE_DURATION) {
-      drawManager.hud().drawNewHighScoreNotice();
-    }
+  /**
+   * Returns whether levels keep a recovery save to resume from after a crash or power loss.
+   *
+   * @return True when {@code -Dinvaders.recovery} is set.
+   */
+  public static boolean isRecoveryRequested() {
+    return System.getProperty("invaders.recovery") != null;
   }
 
-  private void drawAchievementToastsSection() {
-    drawManager
-        .hud()
-        .drawAchievementToasts(
-            this,
-            (this.achievementManager != null)
-                ? this.achievementManager.getActiveToasts()
-                : java.util.Collections.emptyList()); // NOPMD
+  private static long position(final Entity entity) {
+    return (long) entity.getPositionX() << Integer.SIZE | entity.getPositionY() & 0xFFFFFFFFL;
   }
 
-  private void drawPauseMenuIfNeeded() {
-    if (this.isPaused) {
-      this.pauseMenuHandler.draw(this.drawManager, this);
-    }
+  /**
+   * Replaces the random seed of the level, for replays. Must be called before {@link
+   * #initialize()}.
+   *
+   * @param levelSeed Recorded seed.
+   */
+  void setSeed(final long levelSeed) {
+    this.seed = levelSeed;
   }
 
-  private void finishFrame() {
-    drawManager.completeDrawing();
+  long getSeed() {
+    return this.seed;
   }
 
-  private void cleanBullets() {
-    final Set<Bullet> recyclable = new HashSet<>();
-    for (final Bullet bullet : this.bullets) {
-      bullet.update();
-      if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT || bullet.getPositionY() > this.height) {
-        recyclable.add(bullet);
-      }
-    }
-    this.bullets.removeAll(recyclable);
-    BulletPool.recycle(recyclable);
+  /**
+   * Records this level with the given recorder, so tests can record without {@code
+   * -Dinvaders.replay}. Must be called before {@link #initialize()}.
+   *
+   * @param replayRecorder Recorder created for the state this screen was created with.
+   */
+  void setRecorder(final ReplayRecorder replayRecorder) {
+    this.recorder = replayRecorder;
   }
 
-  private void cleanItems() {
-    final Set<Item> recyclableItems = new HashSet<>();
-    for (final Item item : this.items) {
-      item.update();
-      if (item.getPositionY() > this.height) {
-        recyclableItems.add(item);
-      }
-    }
-    this.items.removeAll(recyclableItems);
-    ItemPool.recycle(recyclableItems);
+  /**
+   * Turns drawing off for headless runs. Drawing never feeds back into the simulation, so a level
+   * plays out the same without it.
+   *
+   * @param enabled Whether captured frames are drawn.
+   */
+  void setDrawing(final boolean enabled) {
+    this.renderer.setDrawing(enabled);
+  }
+
+  /**
+   * Plays this level online against another machine that plays the same level: each machine
+   * controls one ship with its player 1 keys and the session keeps both in step. Must be called
+   * before {@link #initialize()}, after both machines agreed on the seed.
+   *
+   * @param transport Link to the other machine.
+   * @param localPlayer Player of this machine, 0 or 1.
+   * @param levelSeed Seed both machines play with.
+   */
+  public void playOnline(
+      final RollbackSession.Transport transport, final int localPlayer, final long levelSeed) {
+    this.online = new OnlinePlay(this, transport, localPlayer, this.fps);
+    this.seed = levelSeed;
+    this.recorder = null; // NOPMD - replays record a single machine's input
+  }
+
+  /**
+   * Plays this level on a server for players on other machines: nothing is drawn, recorded or
+   * read from the keyboard, and time moves one tick per {@link #stepOnline(int, int)} exactly as in
+   * an online level. Must be called before {@link #initialize()}.
+   *
+   * @param levelSeed Seed to play with.
+   */
+  void playHosted(final long levelSeed) {
+    this.online = new OnlinePlay(this, null, 0, this.fps);
+    this.renderer.setDrawing(false);
+    this.seed = levelSeed;
+    this.recorder = null; // NOPMD - the server keeps no replays
+  }
+
+  /**
+   * Returns whether an online or hosted level is over and its end delay ran out.
+   *
+   * @return True once the players can be shown the result.
+   */
+  boolean isLevelOver() {
+    return this.online != null && this.online.isLevelOver();
+  }
+
+  /**
+   * Replaces the local input of an online level, so headless runs can play with a bot.
+   *
+   * @param input Returns the {@link NetInput} bits of the local player every frame.
+   */
+  void setLocalInput(final IntSupplier input) {
+    this.online.setLocalInput(input);
+  }
+
+  /**
+   * Returns the rollback session of an online level.
+   *
+   * @return Session, null before {@link #initialize()} or when not playing online.
+   */
+  RollbackSession getSession() {
+    return this.online == null ? null : this.online.getSession();
+  }
+
+  /** Whether a rollback session steps this level, instead of the screen loop. */
+  private boolean isOnline() {
+    return getSession() != null;
+  }
+
+  /** Whether no tick played so far can still be rolled back, always true offline. */
+  private boolean isSettled() {
+    return !isOnline() || getSession().isSettled();
+  }
+
+  /**
+   * Replaces the profiler the phases of this screen are recorded with, so tests can measure
+   * allocation instead of time.
+   *
+   * @param frameProfiler Profiler to record into.
+   */
+  void setProfiler(final FrameProfiler frameProfiler) {
+    this.profiler = frameProfiler;
+  }
+
+  FrameProfiler getProfiler() {
+    return this.profiler;
   }
 
   public final GameState getGameState() {
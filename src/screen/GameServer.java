@@ -0,0 +1,427 @@
+package screen;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FrameCodec;
+import engine.FrameSnapshot;
+import engine.GameContext;
+import engine.GameSettings;
+import engine.GameState;
+import engine.Rng;
+import entity.Ship;
+
+/**
+ * Dedicated server that plays levels for thin clients on other machines. Every connection is one
+ * game, simulated on its own virtual thread in its own {@link GameContext} with nothing drawn or
+ * heard. The client sends the buttons of both players whenever they change and receives every
+ * tick as a frame, delta-encoded by {@link FrameCodec} against the frame before it.
+ *
+ * <p>Frames travel over TCP: each one only makes sense on top of the previous one, so they must
+ * all arrive and in order, and Nagle's delay is turned off so they are not held back.
+ *
+ * <p>Messages from the server are {@code [type][payload length int][payload]}. The client opens
+ * with {@code [HELLO][version][level][coop][player 1 ship][player 2 ship]} and then only sends
+ * {@code [INPUT][bits]}, player 1's {@link engine.NetInput} bits in the low nibble and player 2's
+ * in the high one.
+ *
+ * <p>Started with {@code -Dinvaders.server=<port>}.
+ */
+@SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+public final class GameServer implements Closeable {
+
+  /** Client opens a game. */
+  static final byte HELLO = 1;
+
+  /** Server accepted the game: session id, screen width and height, frames per second. */
+  static final byte WELCOME = 2;
+
+  /** Client's buttons changed. */
+  static final byte INPUT = 3;
+
+  /** Server sends a tick. */
+  static final byte FRAME = 4;
+
+  /** Level is over: score, lives left and whether it was cleared. */
+  static final byte END = 5;
+
+  /** Protocol version a client must speak. */
+  static final int VERSION = 1;
+
+  /** Bytes before the payload of a server message. */
+  static final int HEADER = 1 + Integer.BYTES;
+
+  static final int HELLO_SIZE = 6;
+
+  static final int WIDTH = 448;
+  static final int HEIGHT = 520;
+  static final int FPS = 60;
+
+  private static final int LIVES = 3;
+
+  /** A game nobody finishes is dropped after ten minutes. */
+  private static final int MAX_TICKS = FPS * 600;
+
+  private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / FPS;
+
+  /** Time a client gets to hang up after the result, before the server does. */
+  private static final long LINGER_MILLIS = 2000;
+
+  private static final long STATUS_PERIOD = TimeUnit.SECONDS.toMillis(10);
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final ServerSocketChannel channel;
+  /** Time between two ticks of a game, 0 to run them back to back. */
+  private final long period;
+  private final List<GameSettings> settings = GameSettings.getGameSettings();
+  private final Set<SocketChannel> clients = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger nextSession = new AtomicInteger(1);
+  private final AtomicInteger activeSessions = new AtomicInteger();
+  private final LongAdder playedSessions = new LongAdder();
+  private final LongAdder ticks = new LongAdder();
+  private final LongAdder tickNanos = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+
+  private GameServer(final ServerSocketChannel channel, final long period) {
+    this.channel = channel;
+    this.period = period;
+  }
+
+  /**
+   * Starts accepting clients.
+   *
+   * @param port Port to listen on, 0 for any free port.
+   * @param tickRate Ticks every game plays per second: {@value #FPS} for people, more to
+   *     fast-forward tests, 0 to play them as fast as they go for load tests.
+   * @return Running server.
+   * @throws IOException When the port cannot be bound.
+   */
+  public static GameServer start(final int port, final int tickRate) throws IOException {
+    final ServerSocketChannel channel = ServerSocketChannel.open();
+    try {
+      channel.bind(new InetSocketAddress(port));
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    final GameServer server =
+        new GameServer(channel, tickRate > 0 ? TimeUnit.SECONDS.toNanos(1) / tickRate : 0);
+    Thread.ofVirtual().name("server-accept").start(server::accept);
+    return server;
+  }
+
+  /**
+   * Returns whether {@code -Dinvaders.server} asks for a dedicated server.
+   *
+   * @return True when the process should serve games instead of opening a window.
+   */
+  public static boolean isRequested() {
+    return System.getProperty("invaders.server") != null;
+  }
+
+  /**
+   * Serves games on the port of {@code -Dinvaders.server=<port>} and logs the load every ten
+   * seconds, until the calling thread is interrupted.
+   */
+  public static void serveUntilStopped() {
+    final String property = System.getProperty("invaders.server", "");
+    final GameServer server;
+    try {
+      server = start(Integer.parseInt(property.trim()), FPS);
+    } catch (IOException | NumberFormatException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Failed to start game server on " + property + ": " + e.getMessage());
+      }
+      return;
+    }
+    if (LOGGER.isLoggable(Level.INFO)) {
+      LOGGER.info("Serving games on port " + server.getPort());
+    }
+    try (server) {
+      while (true) {
+        TimeUnit.MILLISECONDS.sleep(STATUS_PERIOD);
+        if (LOGGER.isLoggable(Level.INFO)) {
+          LOGGER.info(server.status());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      LOGGER.fine("Closing the game server failed");
+    }
+  }
+
+  private void accept() {
+    while (channel.isOpen()) {
+      try {
+        final SocketChannel client = channel.accept();
+        clients.add(client);
+        Thread.ofVirtual().name("server-session").start(() -> serve(client));
+      } catch (AsynchronousCloseException e) {
+        return;
+      } catch (IOException e) {
+        if (LOGGER.isLoggable(Level.WARNING)) {
+          LOGGER.warning("Failed to accept a client: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /** Plays the game of one client from its hello to the end of the level. */
+  private void serve(final SocketChannel client) {
+    activeSessions.incrementAndGet();
+    try (client) {
+      client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      final ByteBuffer hello = ByteBuffer.allocate(HELLO_SIZE);
+      readFully(client, hello);
+      final int level = hello.get(2);
+      final Ship.ShipType[] ships = Ship.ShipType.values();
+      if (hello.get(0) != HELLO
+          || hello.get(1) != VERSION
+          || level < 1
+          || level > settings.size()
+          || hello.get(4) < 0
+          || hello.get(4) >= ships.length
+          || hello.get(5) < 0
+          || hello.get(5) >= ships.length) {
+        throw new IOException("bad hello");
+      }
+      final IOException[] failure = new IOException[1];
+      new GameContext()
+          .run(
+              () -> {
+                try {
+                  play(client, hello);
+                } catch (IOException e) {
+                  failure[0] = e;
+                }
+              });
+      if (failure[0] != null) {
+        throw failure[0];
+      }
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.FINE)) {
+        LOGGER.fine("Session ended: " + e.getMessage());
+      }
+    } catch (RuntimeException e) { // NOPMD - one broken game must not take the server down
+      LOGGER.log(Level.WARNING, "Game failed", e);
+    } finally {
+      clients.remove(client);
+      activeSessions.decrementAndGet();
+    }
+  }
+
+  /**
+   * Runs on the session thread inside the game's own context, so the level is built with its
+   * clock, random streams and pools.
+   */
+  private void play(final SocketChannel client, final ByteBuffer hello) throws IOException {
+    final int level = hello.get(2);
+    final Ship.ShipType[] ships = Ship.ShipType.values();
+    final GameScreen screen =
+        new GameScreen(
+            new GameState(level, LIVES, hello.get(3) != 0),
+            settings.get(level - 1),
+            false,
+            WIDTH,
+            HEIGHT,
+            FPS,
+            ships[hello.get(4)],
+            ships[hello.get(5)],
+            new AchievementManager());
+    screen.playHosted(Rng.newSeed());
+    screen.initialize();
+    final int session = nextSession.getAndIncrement();
+    ByteBuffer out = ByteBuffer.allocateDirect(HEADER + FrameCodec.maxEncodedSize(256));
+    out.put(WELCOME).putInt(Integer.BYTES + 2 * Short.BYTES + 1);
+    out.putInt(session).putShort((short) WIDTH).putShort((short) HEIGHT).put((byte) FPS);
+    send(client, out);
+
+    final AtomicInteger input = new AtomicInteger();
+    final Thread reader =
+        Thread.ofVirtual().name("server-input-" + session).start(() -> readInput(client, input));
+    final FrameSnapshot frame = new FrameSnapshot();
+    final FrameCodec.Encoder encoder = new FrameCodec.Encoder();
+    long next = System.nanoTime();
+    try {
+      for (int tick = 0; tick < MAX_TICKS && !screen.isLevelOver(); tick++) {
+        final int buttons = input.get();
+        if (buttons < 0) {
+          // The client left
+          return;
+        }
+        final long start = System.nanoTime();
+        screen.stepOnline(buttons & 0x7, buttons >>> 4 & 0x7);
+        screen.captureFrame(frame);
+        frame.setTelemetry(tick, System.nanoTime() - start, 0, 0);
+        final int needed = HEADER + FrameCodec.maxEncodedSize(frame.getSpriteCount());
+        if (out.capacity() < needed) {
+          out = ByteBuffer.allocateDirect(Integer.highestOneBit(needed) << 1);
+        }
+        out.clear();
+        out.put(FRAME).putInt(0);
+        encoder.encode(frame, out);
+        out.putInt(1, out.position() - HEADER);
+        tickNanos.add(System.nanoTime() - start);
+        ticks.increment();
+        send(client, out);
+        if (period > 0) {
+          next += period;
+          final long sleep = next - System.nanoTime();
+          if (sleep > 0) {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+          }
+        }
+      }
+      final GameState state = screen.getGameState();
+      out.clear();
+      out.put(END).putInt(Integer.BYTES + 2);
+      out.putInt(state.getScore())
+          .put((byte) state.getLivesRemaining())
+          .put((byte) (screen.isLevelOver() && state.teamAlive() ? 1 : 0));
+      send(client, out);
+      playedSessions.increment();
+      // Closing with inputs still unread would reset the link and lose the result on the way
+      client.shutdownOutput();
+      reader.join(LINGER_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      reader.interrupt();
+    }
+  }
+
+  /** Keeps the latest buttons of the client, -1 once it hangs up. */
+  private static void readInput(final SocketChannel client, final AtomicInteger input) {
+    final ByteBuffer message = ByteBuffer.allocate(2);
+    try {
+      while (true) {
+        message.clear();
+        readFully(client, message);
+        if (message.get(0) == INPUT) {
+          input.set(message.get(1) & 0x77);
+        }
+      }
+    } catch (IOException e) {
+      input.set(-1);
+    }
+  }
+
+  private void send(final SocketChannel client, final ByteBuffer message) throws IOException {
+    message.flip();
+    bytesSent.add(message.remaining());
+    while (message.hasRemaining()) {
+      client.write(message);
+    }
+  }
+
+  static void readFully(final SocketChannel channel, final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException("connection closed");
+      }
+    }
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return Bound port.
+   */
+  public int getPort() {
+    return channel.socket().getLocalPort();
+  }
+
+  /**
+   * Returns the games in play.
+   *
+   * @return Connected clients past their hello.
+   */
+  public int getActiveSessions() {
+    return activeSessions.get();
+  }
+
+  /**
+   * Returns the games played to their end.
+   *
+   * @return Sessions that sent their result, not counting clients that left first.
+   */
+  public long getPlayedSessions() {
+    return playedSessions.sum();
+  }
+
+  /**
+   * Returns the ticks simulated over all games.
+   *
+   * @return Ticks sent to clients.
+   */
+  public long getTicks() {
+    return ticks.sum();
+  }
+
+  /**
+   * Returns the bytes sent to all clients.
+   *
+   * @return Bytes of every message, headers included.
+   */
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  /**
+   * Returns how many games one core keeps at {@value #FPS} ticks per second, from the time the
+   * ticks so far took to simulate, capture and encode.
+   *
+   * @return Games per core, 0 before the first tick.
+   */
+  public double getSessionsPerCore() {
+    final long count = ticks.sum();
+    final long nanos = tickNanos.sum();
+    return count == 0 || nanos == 0 ? 0 : (double) TICK_NANOS * count / nanos;
+  }
+
+  /**
+   * Returns a one-line summary of the load.
+   *
+   * @return Games, ticks, tick cost and traffic.
+   */
+  public String status() {
+    final long count = ticks.sum();
+    return String.format(
+        "%d games in play, %d played, %d ticks, %.3f ms per tick, %.0f games per core,"
+            + " %.1f bytes per tick",
+        getActiveSessions(),
+        getPlayedSessions(),
+        count,
+        count == 0 ? 0 : tickNanos.sum() / 1e6 / count,
+        getSessionsPerCore(),
+        count == 0 ? 0 : (double) bytesSent.sum() / count);
+  }
+
+  /** Stops accepting clients and hangs up on the ones in play. */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+    for (final SocketChannel client : clients) {
+      client.close();
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package screen;
+
+import engine.Core;
+import engine.DrawManager;
+import engine.FrameProfiler;
+import engine.FrameSnapshot;
+import engine.GameContext;
+import engine.GameEvents;
+import engine.InputLatency;
+import engine.Metrics;
+import engine.PauseMenuHandler;
+import engine.RenderThread;
+import engine.SnapshotBuffer;
+import engine.SpectatorBroadcast;
+
+/**
+ * Shows the frames a {@link GameScreen} captures: each one is drawn right away, or handed to a
+ * {@link RenderThread} that draws it while the next tick is simulated. Drawing only reads the
+ * captured frame, never the live game objects.
+ */
+@SuppressWarnings({"PMD.LawOfDemeter"})
+final class LevelRenderer {
+
+  private final GameScreen screen;
+  private final DrawManager drawManager = Core.getDrawManager();
+  private final PauseMenuHandler pauseMenuHandler;
+
+  /** Frames handed from the simulation to the renderer. */
+  private final SnapshotBuffer frames = new SnapshotBuffer();
+
+  /** Draws published frames, null when rendering happens inline. */
+  private RenderThread renderThread;
+
+  /** Measures the time from a key press to the first frame showing its result. */
+  private final InputLatency latency = GameContext.current().getLatency();
+
+  /** Live metrics served by {@link engine.MetricsServer}. */
+  private final Metrics metrics = GameContext.current().getMetrics();
+
+  /**
+   * Mirrors the drawn frames to spectators, null without {@code -Dinvaders.broadcast} and for
+   * games played off screen, which must not publish into the desktop game's ring.
+   */
+  private final SpectatorBroadcast broadcast =
+      GameContext.current().hasDisplay() ? SpectatorBroadcast.requested() : null;
+
+  /** Whether frames are drawn, headless replays only simulate. */
+  private boolean drawing = true;
+
+  LevelRenderer(final GameScreen screen, final PauseMenuHandler pauseMenuHandler) {
+    this.screen = screen;
+    this.pauseMenuHandler = pauseMenuHandler;
+  }
+
+  /** Starts the render thread, when the machine has the cores for one. */
+  void start() {
+    if (RenderThread.isEnabled()) {
+      this.renderThread = new RenderThread(this.frames, this::draw);
+      this.renderThread.start();
+    }
+  }
+
+  /** Stops the render thread once its last frame is drawn. */
+  void stop() {
+    if (this.renderThread != null) {
+      this.renderThread.shutdown();
+      this.renderThread = null; // NOPMD - screen no longer renders
+    }
+  }
+
+  /** Tells spectators a new level starts, its entity ids start over with the new world. */
+  void restartBroadcast() {
+    if (this.broadcast != null) {
+      this.broadcast.restart();
+    }
+  }
+
+  /**
+   * Returns the frame to capture the current tick into.
+   *
+   * @return Snapshot the render thread is not reading.
+   */
+  FrameSnapshot nextFrame() {
+    return this.frames.writeSlot();
+  }
+
+  /**
+   * Draws a captured frame, or hands it to the render thread.
+   *
+   * @param frame Frame from {@link #nextFrame()}, captured.
+   */
+  void show(final FrameSnapshot frame) {
+    if (this.renderThread == null) {
+      if (this.drawing) {
+        draw(frame);
+      }
+    } else {
+      this.frames.publish();
+      this.renderThread.signal();
+    }
+  }
+
+  /**
+   * Turns drawing on or off, see {@link GameScreen#setDrawing(boolean)}.
+   *
+   * @param enabled Whether captured frames are drawn.
+   */
+  void setDrawing(final boolean enabled) {
+    this.drawing = enabled;
+  }
+
+  /**
+   * Draws a captured frame. Runs on the render thread when there is one, so it must only read the
+   * snapshot and never the live game objects.
+   */
+  private void draw(final FrameSnapshot frame) {
+    final GameEvents.GameFrame event = new GameEvents.GameFrame();
+    event.begin();
+    final FrameProfiler profiler = this.screen.getProfiler();
+    final long drawStart = System.nanoTime();
+    final long frameStart = profiler.begin();
+    drawManager.initDrawing(this.screen);
+    drawManager.setLastLife(frame.isLastLife());
+    drawManager.drawExplosions();
+    drawManager.updateGameSpace();
+    long start = profiler.lap(FrameProfiler.Phase.DRAW_PREPARE, frameStart);
+
+    for (int i = 0; i < frame.getSpriteCount(); i++) {
+      drawManager.drawSprite(
+          frame.getSpriteType(i),
+          frame.getX(i),
+          frame.getY(i),
+          frame.getWidth(i),
+          frame.getHeight(i),
+          frame.getColor(i));
+    }
+    start = profiler.lap(FrameProfiler.Phase.DRAW_SPRITES, start);
+
+    drawManager.hud().drawHud(this.screen, frame, GameScreen.SEPARATION_LINE_HEIGHT - 1);
+    start = profiler.lap(FrameProfiler.Phase.DRAW_HUD, start);
+
+    if (frame.isCountdownVisible()) {
+      final int height = this.screen.getHeight();
+      drawManager
+          .hud()
+          .drawCountDown(this.screen, frame.getLevel(), frame.getCountdown(), frame.isBonusLife());
+      drawManager.hud().drawHorizontalLine(this.screen, height / 2 - height / 12);
+      drawManager.hud().drawHorizontalLine(this.screen, height / 2 + height / 12);
+    }
+    if (frame.isHighScoreNotice()) {
+      drawManager.hud().drawNewHighScoreNotice();
+    }
+    drawManager.hud().drawAchievementToast(this.screen, frame.getToast());
+    if (frame.isPaused()) {
+      this.pauseMenuHandler.draw(this.drawManager, this.screen, frame);
+    }
+    if (profiler.isOverlayVisible()) {
+      drawManager.hud().drawProfiler(profiler);
+    }
+    start = profiler.lap(FrameProfiler.Phase.DRAW_OVERLAYS, start);
+
+    drawManager.completeDrawing();
+    if (this.broadcast != null) {
+      // After the frame is on screen, spectators never hold up the player
+      this.broadcast.publish(frame);
+    }
+    this.latency.recordShown(frame);
+    this.metrics.recordFrame();
+    profiler.end(FrameProfiler.Phase.DRAW_FINISH, start);
+    profiler.end(FrameProfiler.Phase.DRAW, frameStart);
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.tick = frame.getTick();
+      event.updateNanos = frame.getUpdateNanos();
+      event.drawNanos = System.nanoTime() - drawStart;
+      event.sprites = frame.getSpriteCount();
+      event.enemies = frame.getShipCount();
+      event.bullets = frame.getBulletCount();
+      event.items = frame.getItemCount();
+      event.commit();
+    }
+  }
+}
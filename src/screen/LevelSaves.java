@@ -0,0 +1,346 @@
+package screen;
+
+import java.awt.event.KeyEvent;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import engine.Cooldown;
+import engine.Core;
+import engine.GameClock;
+import engine.GameContext;
+import engine.InputManager;
+import engine.LevelSnapshot;
+import engine.Replay;
+import engine.Rng;
+import entity.Bullet;
+import entity.BulletPool;
+import entity.EnemyShip;
+import entity.Item;
+import entity.ItemPool;
+import entity.Ship;
+import entity.World;
+
+/**
+ * Writes and reads the state of a {@link GameScreen} level, and keeps it as {@link LevelSnapshot}
+ * saves: quick save on F5, quick load on F9, and the recovery save written every few seconds while
+ * the game runs with {@code -Dinvaders.recovery}.
+ */
+final class LevelSaves {
+
+  /** Milliseconds between two recovery saves. */
+  private static final int RECOVERY_INTERVAL = 5000;
+
+  /** State bytes reserved up front, enough for a stock level; stress levels grow it. */
+  private static final int INITIAL_SNAPSHOT_SIZE = 16 * 1024;
+
+  /** Length and CRC-32 of the state, written in front of it. */
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final GameScreen screen;
+
+  /** Checksum of written and read states, reused. */
+  private final CRC32 crc = new CRC32();
+
+  /** Buffer saves are written to, reused from save to save. */
+  private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_SNAPSHOT_SIZE);
+
+  /** Save the level continues from once initialized, null for a fresh level. */
+  private LevelSnapshot resumeFrom;
+
+  /** Time until the next recovery save, null unless {@code -Dinvaders.recovery} is set. */
+  private Cooldown recoveryCooldown;
+
+  LevelSaves(final GameScreen screen) {
+    this.screen = screen;
+  }
+
+  /**
+   * Writes everything the next ticks of the level depend on: progress flags, game state, item
+   * drops, the timer wheel and every entity. Bullets and items keep their order, collisions are
+   * resolved in it. Times are written as time passed or time left, never as clock readings. The
+   * state is preceded by its length and checksum, so a damaged one is refused before it is read.
+   *
+   * @param out Buffer to write to.
+   * @throws BufferOverflowException When the buffer is too small, nothing useful was written.
+   */
+  void write(final ByteBuffer out) {
+    final int header = out.position();
+    out.putInt(0).putInt(0);
+    final int body = out.position();
+    writeLevel(out);
+    final int end = out.position();
+    final int sum = checksum(out, body, end);
+    out.position(end);
+    out.putInt(header, end - body);
+    out.putInt(header + Integer.BYTES, sum);
+  }
+
+  private void writeLevel(final ByteBuffer out) {
+    final GameScreen level = this.screen;
+    if (level.online == null) {
+      OnlinePlay.writeIdle(out);
+    } else {
+      level.online.writeTicks(out);
+    }
+    out.putLong(level.tick);
+    out.put(
+        (byte)
+            ((level.levelFinished ? 1 : 0)
+                | (level.tookDamageThisLevel ? 2 : 0)
+                | (level.highScoreNotified ? 4 : 0)
+                | (level.countdownSoundPlayed ? 8 : 0)
+                | (GameContext.current().isHighScoreAnnounced() ? 16 : 0)));
+    level.state.writeState(out);
+    Core.getItemManager().writeState(out);
+    level.timers.writeState(out);
+    out.putLong(level.timers.now() - level.gameStartTime);
+    out.putLong(level.timers.now() - level.highScoreNoticeStartTime);
+    for (final Ship s : level.ships) {
+      if (s != null) {
+        s.writeState(out);
+      }
+    }
+    out.put((byte) (level.enemyShipSpecial == null ? 0 : 1));
+    if (level.enemyShipSpecial != null) {
+      level.enemyShipSpecial.writeState(out);
+    }
+    level.enemyShipFormation.writeState(out);
+    out.putInt(level.bullets.size());
+    for (final Bullet bullet : level.bullets) {
+      bullet.writeState(out);
+    }
+    out.putInt(level.items.size());
+    for (final Item item : level.items) {
+      item.writeState(out);
+    }
+  }
+
+  /**
+   * Reads back a state written by {@link #write(ByteBuffer)} on a screen of the same level.
+   * Bullets and items in play go back to their pools and are taken out again in saved order.
+   *
+   * <p>Offline the level goes on from the current game time with as much time left on every
+   * cooldown as when it was written, and the random streams restart from the level seed and tick,
+   * so restoring the same state twice plays out the same way. Online the written time is kept,
+   * the session steps the clock itself.
+   *
+   * @param in Buffer to read from.
+   * @throws IllegalArgumentException When the state is cut short or damaged, the level is left as
+   *     it was.
+   */
+  void read(final ByteBuffer in) {
+    checkIntact(in);
+    readLevel(in);
+  }
+
+  /**
+   * Reads the header of a state and checks the state against it, before anything is changed.
+   * Leaves the buffer at the start of the state.
+   */
+  private void checkIntact(final ByteBuffer in) {
+    if (in.remaining() < HEADER_SIZE) {
+      throw new IllegalArgumentException("Saved level state is cut short");
+    }
+    final int length = in.getInt();
+    final int expected = in.getInt();
+    final int body = in.position();
+    if (length < 0 || length > in.remaining()) {
+      throw new IllegalArgumentException("Saved level state is cut short");
+    }
+    if (checksum(in, body, body + length) != expected) {
+      throw new IllegalArgumentException("Saved level state is damaged");
+    }
+  }
+
+  /** CRC-32 of a part of a buffer, leaving the buffer at the start of it, its limit unchanged. */
+  private int checksum(final ByteBuffer buffer, final int from, final int to) {
+    final int limit = buffer.limit();
+    buffer.limit(to).position(from);
+    this.crc.reset();
+    this.crc.update(buffer);
+    buffer.limit(limit);
+    buffer.position(from);
+    return (int) this.crc.getValue();
+  }
+
+  private void readLevel(final ByteBuffer in) {
+    final GameScreen level = this.screen;
+    if (level.online == null) {
+      in.getInt();
+      in.getInt();
+    } else {
+      level.online.readTicks(in);
+    }
+    level.tick = in.getLong();
+    final int flags = in.get();
+    level.levelFinished = (flags & 1) != 0;
+    level.tookDamageThisLevel = (flags & 2) != 0;
+    level.highScoreNotified = (flags & 4) != 0;
+    level.countdownSoundPlayed = (flags & 8) != 0;
+    GameContext.current().setHighScoreAnnounced((flags & 16) != 0);
+    level.levelEndUnlocked = level.levelFinished;
+    level.state.readState(in);
+    Core.getItemManager().readState(in);
+    if (level.getSession() == null) {
+      // Continue now, with the time left as it was; the rest of the level draws a fresh stream
+      level.timers.readState(in, GameClock.currentTimeMillis());
+      Rng.reseedForTick(level.getSeed(), level.tick);
+    } else {
+      level.timers.readState(in);
+    }
+    level.gameStartTime = level.timers.now() - in.getLong();
+    level.highScoreNoticeStartTime = level.timers.now() - in.getLong();
+    for (final Ship s : level.ships) {
+      if (s != null) {
+        s.readState(in);
+      }
+    }
+    if (in.get() != 0) {
+      if (level.enemyShipSpecial == null) {
+        level.enemyShipSpecial = new EnemyShip();
+        level.world.attach(level.enemyShipSpecial, World.Kind.SPECIAL);
+      }
+      level.enemyShipSpecial.readState(in);
+    } else if (level.enemyShipSpecial != null) {
+      level.removeSpecialShip();
+    }
+    level.enemyShipFormation.readState(in);
+    BulletPool.recycle(level.bullets);
+    level.bullets.clear();
+    for (int i = in.getInt(); i > 0; i--) {
+      level.bullets.add(BulletPool.readBullet(in));
+    }
+    ItemPool.recycle(level.items);
+    level.items.clear();
+    for (int i = in.getInt(); i > 0; i--) {
+      level.items.add(ItemPool.readItem(in));
+    }
+  }
+
+  /**
+   * Saves the level as it is now, to continue it later on a screen of the same level.
+   *
+   * @return Save holding how the level started, its seed and its state.
+   */
+  LevelSnapshot snapshot() {
+    while (true) {
+      this.buffer.clear();
+      try {
+        write(this.buffer);
+        break;
+      } catch (BufferOverflowException e) {
+        this.buffer = ByteBuffer.allocate(this.buffer.capacity() * 2);
+      }
+    }
+    this.buffer.flip();
+    return new LevelSnapshot(this.screen.start, this.screen.getSeed(), this.buffer);
+  }
+
+  /**
+   * Puts an initialized level back to a save of it.
+   *
+   * @param snapshot Save from {@link #snapshot()} of a screen of the same level.
+   * @throws IllegalArgumentException When the save is of another level or damaged, the level is
+   *     left as it was.
+   */
+  void restore(final LevelSnapshot snapshot) {
+    if (!snapshot.getStart().isSameLevel(this.screen.start)) {
+      throw new IllegalArgumentException("Saved on another level");
+    }
+    final ByteBuffer state = snapshot.getState();
+    checkIntact(state);
+    this.screen.setSeed(snapshot.getSeed());
+    readLevel(state);
+  }
+
+  /**
+   * Continues a saved level once it is initialized instead of starting it fresh.
+   *
+   * @param snapshot Save to continue.
+   */
+  void resumeFrom(final LevelSnapshot snapshot) {
+    this.resumeFrom = snapshot;
+  }
+
+  /**
+   * Starts keeping the recovery save when it is asked for, and puts the level back to the save it
+   * resumes from, if any. Called once the level is set up.
+   *
+   * @param online Whether the level is played online, which keeps no saves.
+   */
+  void begin(final boolean online) {
+    if (!online && GameScreen.isRecoveryRequested()) {
+      this.recoveryCooldown = Core.getCooldown(RECOVERY_INTERVAL);
+      this.recoveryCooldown.reset();
+    }
+    if (this.resumeFrom != null) {
+      try {
+        read(this.resumeFrom.getState());
+      } catch (IllegalArgumentException e) {
+        if (LOGGER.isLoggable(Level.WARNING)) {
+          LOGGER.warning(e.getMessage() + ", the level starts over");
+        }
+      }
+      this.resumeFrom = null; // NOPMD - only the first initialization resumes
+    }
+  }
+
+  /**
+   * Quick save on F5, quick load on F9, and the recovery save when one is due.
+   *
+   * @param inputManager Keys of the current tick.
+   * @param recording Whether the level is recorded, a quick load would break the recording.
+   */
+  void update(final InputManager inputManager, final boolean recording) {
+    if (inputManager.isKeyPressed(KeyEvent.VK_F5)) {
+      Core.getFileManager().saveLevelSnapshot(GameScreen.QUICK_SAVE, snapshot());
+      LOGGER.info("Quick saved");
+    } else if (inputManager.isKeyPressed(KeyEvent.VK_F9)) {
+      quickLoad(recording);
+    }
+    if (this.recoveryCooldown != null && this.recoveryCooldown.checkFinished()) {
+      saveRecovery();
+    }
+  }
+
+  private void quickLoad(final boolean recording) {
+    if (recording) {
+      LOGGER.info("Quick load is off while the level is recorded");
+      return;
+    }
+    final LevelSnapshot saved = Core.getFileManager().loadLevelSnapshot(GameScreen.QUICK_SAVE);
+    final Replay.Start start = this.screen.start;
+    if (saved == null || !saved.getStart().isSameLevel(start)) {
+      LOGGER.info("No quick save of this level");
+      return;
+    }
+    try {
+      restore(saved);
+    } catch (IllegalArgumentException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Quick save not loaded: " + e.getMessage());
+      }
+    }
+  }
+
+  /** Writes the recovery save now, when the level keeps one, e.g. as the game pauses. */
+  void saveRecovery() {
+    if (this.recoveryCooldown == null) {
+      return;
+    }
+    Core.getFileManager().saveLevelSnapshot(GameScreen.RECOVERY_SAVE, snapshot());
+    this.recoveryCooldown.reset();
+  }
+
+  /** Drops the recovery save once the level was left on purpose, nothing to recover. */
+  void end() {
+    if (this.recoveryCooldown != null) {
+      Core.getFileManager().deleteLevelSnapshot(GameScreen.RECOVERY_SAVE);
+    }
+  }
+}
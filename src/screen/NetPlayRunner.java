@@ -0,0 +1,239 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.GameSettings;
+import engine.GameState;
+import engine.NetInput;
+import engine.RollbackSession;
+import engine.SoundManager;
+import engine.UdpTransport;
+import entity.Ship;
+
+/**
+ * Plays the first co-op level online without a window, one process per player, with a bot at the
+ * controls of each. The loop runs at a fixed 60 fps like the game, so the report shows what a
+ * player would feel: update times, frames spent waiting for the other player, rollbacks, and the
+ * checksum of an agreed tick that both processes must print alike.
+ *
+ * <p>Usage: {@code NetPlayRunner <player 1|2> <localPort> <host> <port> [frames]}. Exits with
+ * status 1 when the peers went out of sync.
+ */
+public final class NetPlayRunner {
+
+  private static final Logger REPORT = Logger.getLogger(NetPlayRunner.class.getName());
+
+  private static final int FPS = 60;
+  private static final int WIDTH = 448;
+  private static final int HEIGHT = 520;
+  private static final int DEFAULT_FRAMES = 600;
+
+  /** Frames before the end whose tick both processes report the checksum of. */
+  private static final int CHECK_MARGIN = 60;
+
+  private static final int HANDSHAKE_TIMEOUT = 20_000;
+
+  private NetPlayRunner() {}
+
+  /** Outcome of one online run. */
+  public static final class Result {
+    private final long[] updateNanos;
+    private final long stalls;
+    private final long rollbacks;
+    private final long resimulatedTicks;
+    private final int maxRollback;
+    private final int desyncTick;
+    private final int checkTick;
+    private final long checksum;
+
+    Result(
+        final long[] updateNanos,
+        final RollbackSession session,
+        final int checkTick,
+        final long checksum) {
+      this.updateNanos = updateNanos.clone();
+      Arrays.sort(this.updateNanos);
+      this.stalls = session.getStalls();
+      this.rollbacks = session.getRollbacks();
+      this.resimulatedTicks = session.getResimulatedTicks();
+      this.maxRollback = session.getMaxRollback();
+      this.desyncTick = session.getDesyncTick();
+      this.checkTick = checkTick;
+      this.checksum = checksum;
+    }
+
+    /** Slowest frame update. */
+    public long getMaxNanos() {
+      return updateNanos.length == 0 ? 0 : updateNanos[updateNanos.length - 1];
+    }
+
+    /** Frame update time 99 % of the frames stayed under. */
+    public long getP99Nanos() {
+      return updateNanos.length == 0 ? 0 : updateNanos[(updateNanos.length - 1) * 99 / 100];
+    }
+
+    public long getStalls() {
+      return stalls;
+    }
+
+    public long getRollbacks() {
+      return rollbacks;
+    }
+
+    public long getResimulatedTicks() {
+      return resimulatedTicks;
+    }
+
+    public int getMaxRollback() {
+      return maxRollback;
+    }
+
+    public int getDesyncTick() {
+      return desyncTick;
+    }
+
+    /** Tick the checksum belongs to, -1 when the run ended before it was confirmed. */
+    public int getCheckTick() {
+      return checkTick;
+    }
+
+    public long getChecksum() {
+      return checksum;
+    }
+  }
+
+  /**
+   * Plays one player's side of an online level.
+   *
+   * @param args Player, local port, peer host, peer port and optionally the frames to run.
+   * @throws IOException When the other player does not answer.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 4) {
+      REPORT.severe("Usage: NetPlayRunner <player 1|2> <localPort> <host> <port> [frames]");
+      System.exit(2);
+    }
+    final int player = Integer.parseInt(args[0]) - 1;
+    final int frames = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_FRAMES;
+
+    Core.getLogger().setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    final File saves = Files.createTempDirectory("invaders-net").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+
+    final Result result;
+    try (UdpTransport transport =
+        UdpTransport.open(
+            Integer.parseInt(args[1]),
+            new InetSocketAddress(args[2], Integer.parseInt(args[3])))) {
+      result = play(transport, player, frames);
+    }
+    if (REPORT.isLoggable(Level.INFO)) {
+      REPORT.info(
+          String.format(
+              "Player %d: max %.2f ms, p99 %.2f ms, %d stalls, %d rollbacks (%d ticks, longest"
+                  + " %d), desync %d, checksum@%d=%016x",
+              player + 1,
+              result.getMaxNanos() / 1e6,
+              result.getP99Nanos() / 1e6,
+              result.getStalls(),
+              result.getRollbacks(),
+              result.getResimulatedTicks(),
+              result.getMaxRollback(),
+              result.getDesyncTick(),
+              result.getCheckTick(),
+              result.getChecksum()));
+    }
+    System.exit(result.getDesyncTick() < 0 ? 0 : 1);
+  }
+
+  /**
+   * Plays the first co-op level online for a number of frames, on the calling thread.
+   *
+   * @param transport Link to the other player.
+   * @param player Player of this process, 0 or 1.
+   * @param frames Frames to run, at 60 fps.
+   * @return Frame times and session counters.
+   * @throws IOException When the other player does not answer.
+   */
+  public static Result play(
+      final RollbackSession.Transport transport, final int player, final int frames)
+      throws IOException {
+    final RollbackSession.Match match =
+        RollbackSession.handshake(
+            transport, player, 1, Ship.ShipType.NORMAL.ordinal(), 1L, HANDSHAKE_TIMEOUT);
+    final List<GameSettings> settings = GameSettings.getGameSettings();
+    final GameScreen screen =
+        new GameScreen(
+            new GameState(1, 3, true),
+            settings.get(0),
+            false,
+            WIDTH,
+            HEIGHT,
+            FPS,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.values()[match.getPeerInfo()],
+            new AchievementManager());
+    screen.playOnline(transport, player, match.getSeed());
+    screen.setDrawing(false);
+    final int[] frame = new int[1];
+    screen.setLocalInput(() -> bot(player, frame[0]));
+    screen.initialize();
+    final RollbackSession session = screen.getSession();
+
+    final int checkTick = Math.max(0, frames - CHECK_MARGIN);
+    long checksum = 0;
+    boolean checked = false;
+    final long[] updateNanos = new long[frames];
+    final long period = TimeUnit.SECONDS.toNanos(1) / FPS;
+    long next = System.nanoTime();
+    screen.isRunning = true;
+    for (; frame[0] < frames && screen.isRunning; frame[0]++) {
+      final long start = System.nanoTime();
+      screen.update();
+      updateNanos[frame[0]] = System.nanoTime() - start;
+      if (!checked
+          && session.getTick() > checkTick
+          && session.getConfirmedTicks() > checkTick) {
+        checksum = session.getChecksum(checkTick);
+        checked = true;
+      }
+      next += period;
+      final long sleep = next - System.nanoTime();
+      if (sleep > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(sleep);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    session.linger(session.getTick() + session.getInputDelay() - 1, 500);
+    return new Result(
+        Arrays.copyOf(updateNanos, frame[0]), session, checked ? checkTick : -1, checksum);
+  }
+
+  /**
+   * Deterministic bot: sweeps across the screen and fires, each player on its own rhythm so the
+   * other side's predictions are regularly wrong.
+   */
+  static int bot(final int player, final int frame) {
+    final int period = player == 0 ? 90 : 70;
+    final int phase = frame % (2 * period);
+    final int move = phase < period ? NetInput.RIGHT : NetInput.LEFT;
+    final int fire = frame % (player == 0 ? 40 : 25) < 10 ? NetInput.SHOOT : 0;
+    return (frame / 45 % 4 == 3 ? 0 : move) | fire;
+  }
+}
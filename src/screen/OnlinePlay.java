@@ -0,0 +1,227 @@
+package screen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+import engine.GameClock;
+import engine.GameContext;
+import engine.NetInput;
+import engine.Rng;
+import engine.RollbackSession;
+
+/**
+ * Drives a level on tick time instead of the clock: online against another machine, where the
+ * rollback session decides which ticks to simulate, or hosted on a server that steps the level
+ * itself. Every tick gets the input of both players, the clock and the random streams are set from
+ * the tick number, so both machines play the same level.
+ */
+final class OnlinePlay implements RollbackSession.Simulation {
+
+  /** Game time online levels start at, the same on both machines. */
+  private static final long NET_EPOCH = 1_000_000L;
+
+  /** Seconds without a tick after which the other player counts as gone. */
+  private static final int NET_TIMEOUT_SECONDS = 10;
+
+  /** Milliseconds to keep sending the last inputs to the other player after the level. */
+  private static final int NET_LINGER = 1000;
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final GameScreen screen;
+
+  /** Link to the other player, null when a server hosts the level. */
+  private final RollbackSession.Transport transport;
+
+  /** Player this machine controls online, 0 or 1. */
+  private final int player;
+
+  /** Ticks per second of game time. */
+  private final int fps;
+
+  /** Rollback session of an online level, created by {@link #begin()}. */
+  private RollbackSession session;
+
+  /** Input bits of the local player online, read from the player 1 keys unless a bot plays. */
+  private IntSupplier localInput = NetInput::capture;
+
+  /** Ticks simulated, part of the snapshot so a rollback rewinds it. */
+  private int tick;
+
+  /** Tick the level was over and its end delay ran out, -1 before. */
+  private int exitTick = -1;
+
+  /** Frames in a row the session waited for the other player. */
+  private int stalls;
+
+  /**
+   * Constructor.
+   *
+   * @param screen Level to drive.
+   * @param transport Link to the other machine, null for a level hosted on a server.
+   * @param player Player of this machine, 0 or 1.
+   * @param fps Ticks per second of game time.
+   */
+  OnlinePlay(
+      final GameScreen screen,
+      final RollbackSession.Transport transport,
+      final int player,
+      final int fps) {
+    this.screen = screen;
+    this.transport = transport;
+    this.player = player;
+    this.fps = fps;
+  }
+
+  /**
+   * Writes the ticks of a level not driven by tick time, as if none had been simulated.
+   *
+   * @param out Buffer to write to.
+   */
+  static void writeIdle(final ByteBuffer out) {
+    out.putInt(0);
+    out.putInt(-1);
+  }
+
+  /** Starts the clock at the same time on both machines, before the level is set up. */
+  void startClock() {
+    GameClock.useManualTime(NET_EPOCH);
+  }
+
+  /** Opens the session to the other machine once the level is set up. */
+  void begin() {
+    if (this.transport != null) {
+      this.session = new RollbackSession(this, this.transport, this.player);
+    }
+  }
+
+  /**
+   * Runs one frame of an online level: the session simulates the next tick with the local input,
+   * after rolling back the ticks whose prediction of the other player turned out wrong.
+   *
+   * @return False once the other player is gone.
+   */
+  boolean update() {
+    NetInput.holdLocalKeys();
+    try {
+      if (this.session.advance(this.localInput.getAsInt())) {
+        this.stalls = 0;
+      } else if (++this.stalls > NET_TIMEOUT_SECONDS * this.fps) {
+        LOGGER.warning("The other player stopped answering");
+        return false;
+      }
+      return true;
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Lost the other player: " + e.getMessage());
+      }
+      return false;
+    } finally {
+      NetInput.releaseLocalKeys();
+    }
+  }
+
+  /**
+   * Simulates one tick with the input of both players.
+   *
+   * @param player1 Input bits of player 1.
+   * @param player2 Input bits of player 2.
+   */
+  @Override
+  public void step(final int player1, final int player2) {
+    final GameContext context = GameContext.current();
+    // These ticks were heard and seen the first time round
+    context.setReplaying(this.session != null && this.session.isResimulating());
+    try {
+      NetInput.apply(player1, player2);
+      GameClock.useManualTime(NET_EPOCH + (this.tick + 1L) * 1000 / this.fps);
+      Rng.reseedForTick(this.screen.getSeed(), this.tick);
+      this.screen.simulateTick();
+      if (this.exitTick < 0 && this.screen.isLevelDone()) {
+        this.exitTick = this.tick;
+      }
+      this.tick++;
+    } finally {
+      context.setReplaying(false);
+    }
+  }
+
+  /**
+   * Tells whether an online level can end: the tick it ended on no longer rests on a prediction,
+   * so both machines leave it with the same state.
+   *
+   * @return True once the level is over on both machines.
+   */
+  boolean checkExit() {
+    if (this.exitTick < 0 || this.session.getConfirmedTicks() <= this.exitTick) {
+      return false;
+    }
+    try {
+      this.session.linger(this.exitTick, NET_LINGER);
+    } catch (IOException e) {
+      LOGGER.fine("The other player left first");
+    }
+    return true;
+  }
+
+  /**
+   * Writes the ticks simulated so far, the first part of every level state.
+   *
+   * @param out Buffer to write to.
+   */
+  void writeTicks(final ByteBuffer out) {
+    out.putInt(this.tick);
+    out.putInt(this.exitTick);
+  }
+
+  /**
+   * Reads back the ticks written by {@link #writeTicks(ByteBuffer)}.
+   *
+   * @param in Buffer to read from.
+   */
+  void readTicks(final ByteBuffer in) {
+    this.tick = in.getInt();
+    this.exitTick = in.getInt();
+  }
+
+  @Override
+  public void writeState(final ByteBuffer out) {
+    this.screen.writeState(out);
+  }
+
+  @Override
+  public void readState(final ByteBuffer in) {
+    this.screen.readState(in);
+  }
+
+  @Override
+  public long checksum() {
+    return this.screen.stateChecksum();
+  }
+
+  /**
+   * Returns whether the level is over and its end delay ran out.
+   *
+   * @return True once the players can be shown the result.
+   */
+  boolean isLevelOver() {
+    return this.exitTick >= 0;
+  }
+
+  void setLocalInput(final IntSupplier input) {
+    this.localInput = input;
+  }
+
+  /**
+   * Returns the rollback session.
+   *
+   * @return Session, null before {@link #begin()} or when a server hosts the level.
+   */
+  RollbackSession getSession() {
+    return this.session;
+  }
+}
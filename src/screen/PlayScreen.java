@@ -7,14 +7,29 @@ import engine.SoundManager;
 /** Implements the PlayScreen */
 @SuppressWarnings({"PMD.LawOfDemeter"})
 public class PlayScreen extends Screen {
+  /** Menu index of the back button, the modes come before it. */
+  private static final int BACK_INDEX = 3;
+
+  private static final int MENU_SIZE = BACK_INDEX + 1;
+
   private boolean coopSelected = false; // NOPMD - redundant initializer
-  private int menuIndex = 0; // NOPMD - redundant initializer | 0 = 1P, 1 = 2P, 2 = Back
+  private boolean stressSelected = false; // NOPMD - redundant initializer
+  private int menuIndex = 0; // NOPMD - redundant initializer | 0 = 1P, 1 = 2P, 2 = Stress, 3 = Back
   private Integer hoverIndex;
 
   public boolean isCoopSelected() {
     return coopSelected;
   }
 
+  /**
+   * Returns whether the bullet-hell stress mode was chosen, a single player mode.
+   *
+   * @return True when the stress mode was selected.
+   */
+  public boolean isStressSelected() {
+    return stressSelected;
+  }
+
   /**
    * Constructor, establishes the properties of the screen.
    *
@@ -69,18 +84,19 @@ public class PlayScreen extends Screen {
     final boolean mouseHovering =
         modeBoxes[0].contains(mx, my)
             || modeBoxes[1].contains(mx, my)
+            || modeBoxes[2].contains(mx, my)
             || backBox.contains(mx, my); // NOPMD - LawOfDemeter
 
     if (inputManager.isKeyPressed(KeyEvent.VK_UP) || inputManager.isKeyPressed(KeyEvent.VK_W)) {
-      this.menuIndex = (menuIndex + 2) % 3;
-      if (!mouseHovering && menuIndex != 2) {
+      this.menuIndex = (menuIndex + MENU_SIZE - 1) % MENU_SIZE;
+      if (!mouseHovering && menuIndex != BACK_INDEX) {
         SoundManager.playeffect("sound/hover.wav");
       }
     }
 
     if (inputManager.isKeyPressed(KeyEvent.VK_DOWN) || inputManager.isKeyPressed(KeyEvent.VK_S)) {
-      this.menuIndex = (menuIndex + 1) % 3;
-      if (!mouseHovering && menuIndex != 2) {
+      this.menuIndex = (menuIndex + 1) % MENU_SIZE;
+      if (!mouseHovering && menuIndex != BACK_INDEX) {
         SoundManager.playeffect("sound/hover.wav");
       }
     }
@@ -89,15 +105,10 @@ public class PlayScreen extends Screen {
   private boolean handleSpaceSelection() {
     if (inputManager.isKeyPressed(KeyEvent.VK_SPACE)) {
       switch (menuIndex) {
-        case 0:
-          this.coopSelected = false;
-          this.returnCode = 2;
-          break;
-        case 1:
-          this.coopSelected = true;
-          this.returnCode = 2;
+        case 0, 1, 2:
+          selectMode(menuIndex);
           break;
-        case 2:
+        case BACK_INDEX:
           this.returnCode = 1;
           break;
         default:
@@ -120,16 +131,15 @@ public class PlayScreen extends Screen {
     final Rectangle backBox = drawManager.menu().getBackButtonHitbox();
     final Rectangle[] modeBoxes = drawManager.menu().getPlayMenuHitboxes(this);
 
-    final Rectangle[] allBoxes = {modeBoxes[0], modeBoxes[1], backBox};
+    final Rectangle[] allBoxes = {modeBoxes[0], modeBoxes[1], modeBoxes[2], backBox};
 
     for (int i = 0; i < allBoxes.length; i++) {
       if (allBoxes[i].contains(mx, my)) {
         this.menuIndex = i;
-        if (i == 2) {
+        if (i == BACK_INDEX) {
           this.returnCode = 1;
         } else {
-          this.coopSelected = i == 1;
-          this.returnCode = 2;
+          selectMode(i);
         }
         SoundManager.playeffect("sound/select.wav");
         this.isRunning = false;
@@ -140,6 +150,13 @@ public class PlayScreen extends Screen {
     return false;
   }
 
+  /** Remembers the chosen mode, 2P is co-op and the stress mode is played alone. */
+  private void selectMode(final int mode) {
+    this.coopSelected = mode == 1;
+    this.stressSelected = mode == 2;
+    this.returnCode = 2;
+  }
+
   private void draw() {
     drawManager.initDrawing(this);
 
@@ -152,6 +169,7 @@ public class PlayScreen extends Screen {
     final Rectangle[] allBoxes = {
       modeBoxes[0], // 1P
       modeBoxes[1], // 2P
+      modeBoxes[2], // Stress
       backBox // Back
     };
 
@@ -165,14 +183,14 @@ public class PlayScreen extends Screen {
         break;
       }
     }
-    if (hoverIndex != null && !hoverIndex.equals(prevHoverIndex) && hoverIndex != 2) {
+    if (hoverIndex != null && !hoverIndex.equals(prevHoverIndex) && hoverIndex != BACK_INDEX) {
       SoundManager.playeffect("sound/hover.wav");
     }
 
     drawManager
         .menu()
-        .drawPlayMenu(this, this.menuIndex == 2 ? -1 : this.menuIndex, this.menuIndex);
-    drawManager.menu().drawBackButton(this.menuIndex == 2);
+        .drawPlayMenu(this, this.menuIndex == BACK_INDEX ? -1 : this.menuIndex, this.menuIndex);
+    drawManager.menu().drawBackButton(this.menuIndex == BACK_INDEX);
     drawManager.completeDrawing();
   }
 }
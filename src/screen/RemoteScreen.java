@@ -0,0 +1,166 @@
+package screen;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+import engine.DrawManager;
+import engine.FrameSnapshot;
+import engine.NetInput;
+import engine.SnapshotBuffer;
+
+/**
+ * Shows a level played on a {@link GameServer}. The keys of both players go to the server and the
+ * frames it sends back are drawn as they come; a receiving thread decodes them into a {@link
+ * SnapshotBuffer}, so drawing never waits for the network. Escape leaves the game.
+ *
+ * <p>Opened with {@code -Dinvaders.connect=<host>:<port>[:<level>]}.
+ */
+public class RemoteScreen extends Screen {
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final GameClient client;
+  private final SnapshotBuffer frames = new SnapshotBuffer();
+
+  /** Set by the receiving thread once the level is over or the server hung up. */
+  private volatile boolean ended;
+
+  /**
+   * Constructor, establishes the properties of the screen.
+   *
+   * @param width Screen width.
+   * @param height Screen height.
+   * @param fps Frames per second, frame rate at which the game is run.
+   * @param client Game opened on the server.
+   */
+  public RemoteScreen(final int width, final int height, final int fps, final GameClient client) {
+    super(width, height, fps);
+    this.client = client;
+  }
+
+  /**
+   * Opens a co-op game on the server of {@code -Dinvaders.connect}, if it is set.
+   *
+   * @return Client of the game, null when not requested or the server cannot be reached.
+   */
+  public static GameClient connectIfRequested() {
+    final String property = System.getProperty("invaders.connect");
+    if (property == null) {
+      return null;
+    }
+    final String[] parts = property.split(":");
+    try {
+      if (parts.length < 2) {
+        throw new IOException("expected <host>:<port>[:<level>]");
+      }
+      final int level = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+      return GameClient.connect(
+          new InetSocketAddress(parts[0], Integer.parseInt(parts[1])), level, true, 0, 0);
+    } catch (IOException | NumberFormatException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Ignoring invaders.connect=" + property + ": " + e.getMessage());
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public final void initialize() {
+    super.initialize();
+    Thread.ofPlatform().daemon().name("remote-frames").start(this::receive);
+  }
+
+  private void receive() {
+    try {
+      while (client.receive(frames.writeSlot())) {
+        frames.publish();
+      }
+      if (logger.isLoggable(Level.INFO)) {
+        logger.info(
+            "Level over: score "
+                + client.getFinalScore()
+                + ", "
+                + client.getFinalLives()
+                + " lives left, "
+                + (client.isCleared() ? "cleared" : "not cleared"));
+      }
+    } catch (IOException e) {
+      if (!ended && logger.isLoggable(Level.WARNING)) {
+        logger.warning("Lost the server: " + e.getMessage());
+      }
+    } finally {
+      ended = true;
+    }
+  }
+
+  @Override
+  protected final void update() {
+    if (ended || inputManager.isKeyPressed(KeyEvent.VK_ESCAPE)) {
+      leave();
+      return;
+    }
+    try {
+      client.sendInput(
+          NetInput.capture(),
+          (inputManager.isP2LeftPressed() ? NetInput.LEFT : 0)
+              | (inputManager.isP2RightPressed() ? NetInput.RIGHT : 0)
+              | (inputManager.isP2ShootPressed() ? NetInput.SHOOT : 0));
+    } catch (IOException e) {
+      leave();
+      return;
+    }
+    final FrameSnapshot frame = frames.acquire();
+    if (frame != null) {
+      drawReceived(this, drawManager, frame);
+    }
+  }
+
+  private void leave() {
+    ended = true;
+    this.isRunning = false;
+    try {
+      client.close();
+    } catch (IOException e) {
+      logger.fine("Closing the server link failed");
+    }
+  }
+
+  /**
+   * Draws a frame that came from another process, without the local effects only a simulating
+   * screen has.
+   *
+   * @param screen Screen drawn on.
+   * @param drawManager Draw manager of the screen.
+   * @param frame Frame to draw.
+   */
+  static void drawReceived(
+      final Screen screen, final DrawManager drawManager, final FrameSnapshot frame) {
+    drawManager.initDrawing(screen);
+    drawManager.setLastLife(frame.isLastLife());
+    for (int i = 0; i < frame.getSpriteCount(); i++) {
+      drawManager.drawSprite(
+          frame.getSpriteType(i),
+          frame.getX(i),
+          frame.getY(i),
+          frame.getWidth(i),
+          frame.getHeight(i),
+          frame.getColor(i));
+    }
+    drawManager.hud().drawHud(screen, frame, GameScreen.SEPARATION_LINE_HEIGHT - 1);
+    if (frame.isCountdownVisible()) {
+      drawManager
+          .hud()
+          .drawCountDown(screen, frame.getLevel(), frame.getCountdown(), frame.isBonusLife());
+      drawManager.hud().drawHorizontalLine(screen, screen.height / 2 - screen.height / 12);
+      drawManager.hud().drawHorizontalLine(screen, screen.height / 2 + screen.height / 12);
+    }
+    if (frame.isHighScoreNotice()) {
+      drawManager.hud().drawNewHighScoreNotice();
+    }
+    drawManager.completeDrawing();
+  }
+}
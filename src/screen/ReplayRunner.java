@@ -0,0 +1,165 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.GameClock;
+import engine.GameSettings;
+import engine.GameState;
+import engine.InputManager;
+import engine.Replay;
+import engine.ReplayPlayer;
+import engine.SoundManager;
+
+/**
+ * Plays recorded levels headless and as fast as possible, then checks that every checkpoint and the
+ * final state match the recording. Recorded sessions thereby double as repeatable performance
+ * workloads and as regression checks of the simulation.
+ *
+ * <p>Usage: {@code ReplayRunner <replay file> [runs]}. Exits with status 1 when a run diverged.
+ */
+public final class ReplayRunner {
+
+  private static final Logger REPORT = Logger.getLogger(ReplayRunner.class.getName());
+
+  private ReplayRunner() {}
+
+  /** Outcome of one replay run. */
+  public static final class Result {
+    private final int ticks;
+    private final long nanos;
+    private final int divergedTick;
+    private final boolean finalMatch;
+
+    Result(final int ticks, final long nanos, final int divergedTick, final boolean finalMatch) {
+      this.ticks = ticks;
+      this.nanos = nanos;
+      this.divergedTick = divergedTick;
+      this.finalMatch = finalMatch;
+    }
+
+    public int getTicks() {
+      return ticks;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    /** First tick whose checkpoint did not match, -1 when all of them did. */
+    public int getDivergedTick() {
+      return divergedTick;
+    }
+
+    public boolean isReproduced() {
+      return divergedTick < 0 && finalMatch;
+    }
+  }
+
+  /**
+   * Plays a replay file.
+   *
+   * @param args Replay file and optionally the number of runs.
+   * @throws IOException When the replay cannot be read.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length == 0) {
+      REPORT.severe("Usage: ReplayRunner <replay file> [runs]");
+      System.exit(2);
+    }
+    final Replay replay;
+    try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+      replay = Replay.read(in);
+    }
+    final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+    Core.getLogger().setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    final File saves = Files.createTempDirectory("invaders-replay").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+
+    boolean reproduced = true;
+    for (int run = 1; run <= runs; run++) {
+      final Result result = play(replay);
+      reproduced &= result.isReproduced();
+      if (REPORT.isLoggable(Level.INFO)) {
+        REPORT.info(
+            String.format(
+                "Run %d: %d ticks in %.1f ms (%.0f ticks/s), %s",
+                run,
+                result.getTicks(),
+                result.getNanos() / 1e6,
+                result.getTicks() * 1e9 / Math.max(1, result.getNanos()),
+                describe(result)));
+      }
+    }
+    System.exit(reproduced ? 0 : 1);
+  }
+
+  private static String describe(final Result result) {
+    if (result.getDivergedTick() >= 0) {
+      return "diverged at tick " + result.getDivergedTick();
+    }
+    return result.isReproduced() ? "reproduced" : "final state differs";
+  }
+
+  /**
+   * Plays a replay from start to end on the calling thread, without drawing or sound.
+   *
+   * @param replay Recorded level.
+   * @return Timing and whether the recorded states were reproduced.
+   */
+  public static Result play(final Replay replay) {
+    final ReplayPlayer player = new ReplayPlayer(replay);
+    player.begin();
+    try {
+      final Replay.Start start = replay.getStart();
+      final GameState state = start.restore();
+      final List<GameSettings> settings = GameSettings.getGameSettings();
+      final GameScreen screen =
+          new GameScreen(
+              state,
+              start.settings(settings),
+              start.isBonusLife(),
+              start.getWidth(),
+              start.getHeight(),
+              start.getFps(),
+              start.getShipTypeP1(),
+              start.getShipTypeP2(),
+              new AchievementManager());
+      screen.setSeed(replay.getSeed());
+      screen.setDrawing(false);
+      screen.initialize();
+
+      int divergedTick = -1;
+      final long begin = System.nanoTime();
+      while (player.hasNextTick()) {
+        player.nextTick();
+        screen.update();
+        InputManager.updatekeystatus();
+        if (player.isCheckpointDue()
+            && player.readCheckpoint() != screen.stateChecksum()
+            && divergedTick < 0) {
+          divergedTick = player.getTick();
+        }
+      }
+      final long nanos = System.nanoTime() - begin;
+      return new Result(
+          player.getTick(),
+          nanos,
+          divergedTick,
+          screen.stateChecksum() == replay.getFinalChecksum());
+    } finally {
+      GameClock.useSystemTime();
+    }
+  }
+}
@@ -80,6 +80,7 @@ public class Screen {
     while (this.isRunning) {
       long time = System.currentTimeMillis();
 
+      InputManager.pollEvents();
       update();
 
       InputManager.updatekeystatus();
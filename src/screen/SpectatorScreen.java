@@ -0,0 +1,77 @@
+package screen;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+import engine.FrameSnapshot;
+import engine.SpectatorFeed;
+
+/**
+ * Watches a game another process on this machine broadcasts, for tournament screens. Frames are
+ * read from the broadcast's ring file and drawn as they come; nothing is sent back, so the players
+ * never notice how many spectators there are. Escape closes the window.
+ *
+ * <p>Opened with {@code -Dinvaders.spectate=<file>}, the file the game got with {@code
+ * -Dinvaders.broadcast}.
+ */
+public class SpectatorScreen extends Screen {
+
+  private static final Logger LOGGER = Core.getLogger();
+
+  private final SpectatorFeed feed;
+  private final FrameSnapshot frame = new FrameSnapshot();
+
+  /**
+   * Constructor, establishes the properties of the screen.
+   *
+   * @param width Screen width.
+   * @param height Screen height.
+   * @param fps Frames per second, frame rate at which the game is run.
+   * @param feed Broadcast to watch.
+   */
+  public SpectatorScreen(
+      final int width, final int height, final int fps, final SpectatorFeed feed) {
+    super(width, height, fps);
+    this.feed = feed;
+  }
+
+  /**
+   * Opens the broadcast of {@code -Dinvaders.spectate}, if it is set.
+   *
+   * @return Feed of the broadcast, null when not requested or the file is no broadcast.
+   */
+  public static SpectatorFeed openIfRequested() {
+    final String property = System.getProperty("invaders.spectate");
+    if (property == null) {
+      return null;
+    }
+    try {
+      return SpectatorFeed.open(Paths.get(property));
+    } catch (IOException e) {
+      if (LOGGER.isLoggable(Level.WARNING)) {
+        LOGGER.warning("Ignoring invaders.spectate=" + property + ": " + e.getMessage());
+      }
+      return null;
+    }
+  }
+
+  @Override
+  protected final void update() {
+    if (inputManager.isKeyPressed(KeyEvent.VK_ESCAPE)) {
+      this.isRunning = false;
+      try {
+        feed.close();
+      } catch (IOException e) {
+        logger.fine("Closing the broadcast failed");
+      }
+      return;
+    }
+    if (feed.poll(frame)) {
+      RemoteScreen.drawReceived(this, drawManager, frame);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the asynchronous log writer and the gameplay event channel. */
+class AsyncLogHandlerTest {
+
+  /** Collects what the writer passes on, optionally blocking on the first record. */
+  private static final class CollectingHandler extends Handler {
+    private final List<LogRecord> records = new ArrayList<>();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release;
+
+    CollectingHandler(final CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void publish(final LogRecord logRecord) {
+      entered.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      synchronized (records) {
+        records.add(logRecord);
+      }
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    List<String> messages() {
+      synchronized (records) {
+        List<String> messages = new ArrayList<>();
+        for (LogRecord logRecord : records) {
+          messages.add(logRecord.getMessage());
+        }
+        return messages;
+      }
+    }
+  }
+
+  @Test
+  void testRecordsReachTargetsInOrder() {
+    CollectingHandler target = new CollectingHandler(new CountDownLatch(0));
+    AsyncLogHandler handler = new AsyncLogHandler(16, target);
+
+    handler.publish(new LogRecord(Level.INFO, "first"));
+    handler.publish(new LogRecord(Level.WARNING, "second"));
+    handler.flush();
+
+    assertEquals(List.of("first", "second"), target.messages());
+    assertEquals(2, handler.getWrittenCount());
+    handler.close();
+  }
+
+  @Test
+  void testGameplayEventIsFormattedByWriter() {
+    CollectingHandler target = new CollectingHandler(new CountDownLatch(0));
+    AsyncLogHandler handler = new AsyncLogHandler(16, target);
+
+    handler.publishEvent(GameLog.Event.ITEM_CREATED, "COIN", 3, 4);
+    handler.flush();
+
+    assertEquals(List.of("[ItemManager]: created item COIN at (3, 4)"), target.messages());
+    handler.close();
+  }
+
+  @Test
+  void testFullRingDropsAndReports() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    CollectingHandler target = new CollectingHandler(release);
+    AsyncLogHandler handler = new AsyncLogHandler(4, target);
+
+    handler.publish(new LogRecord(Level.INFO, "blocking"));
+    assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 6; i++) {
+      handler.publish(new LogRecord(Level.INFO, "queued " + i));
+    }
+    assertEquals(2, handler.getDroppedCount());
+
+    release.countDown();
+    handler.flush();
+
+    List<String> messages = target.messages();
+    assertEquals("queued 3", messages.get(4));
+    assertEquals("Log buffer full, dropped 2 log records", messages.get(5));
+    handler.close();
+  }
+
+  @Test
+  void testCategoryLevelFiltersEvents() {
+    Logger logger = Core.getLogger();
+    Level previous = logger.getLevel();
+    logger.setLevel(Level.INFO);
+    try {
+      assertTrue(GameLog.isEnabled(GameLog.Event.PLAYER_HIT));
+      assertFalse(GameLog.isEnabled(GameLog.Event.SOUND_STARTED), "Sound events are FINE");
+
+      GameLog.setLevel(GameLog.Category.COLLISION, Level.OFF);
+      assertFalse(GameLog.isEnabled(GameLog.Event.PLAYER_HIT));
+      assertTrue(GameLog.isEnabled(GameLog.Event.EXPLOSION));
+    } finally {
+      GameLog.setLevel(GameLog.Category.COLLISION, Level.INFO);
+      logger.setLevel(previous);
+    }
+  }
+}
@@ -4,9 +4,13 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
+import entity.Ship;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /** FileManager의 현재 실제 동작을 100% 기준으로 테스트하는 JUnit Test 클래스 */
@@ -136,6 +140,35 @@ public class FileManagerTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  @DisplayName("손상된 저장 파일 - 잘못된 상태 길이는 null로 무시")
+  public void testCorruptLevelSnapshotIsIgnored() throws Exception {
+    FileManager fm = FileManager.getInstance();
+    Replay.Start start =
+        Replay.Start.of(
+            new GameState(1, 3, false),
+            false,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.NORMAL,
+            448,
+            520,
+            60);
+    byte[] state = new byte[32];
+    fm.saveLevelSnapshot("corrupt", new LevelSnapshot(start, 1L, ByteBuffer.wrap(state)));
+    File file = new File(tempDir, "corrupt.sav");
+    assertNotNull(fm.loadLevelSnapshot("corrupt"));
+
+    // 상태 길이는 상태 바로 앞의 int
+    byte[] saved = Files.readAllBytes(file.toPath());
+    int lengthAt = saved.length - state.length - Integer.BYTES;
+    for (int length : new int[] {-1, Integer.MAX_VALUE}) {
+      ByteBuffer.wrap(saved).putInt(lengthAt, length);
+      Files.write(file.toPath(), saved);
+
+      assertNull(fm.loadLevelSnapshot("corrupt"));
+    }
+  }
+
   // private 메서드 호출용
   private String invokeGetSaveDirectory(FileManager fm) {
     try {
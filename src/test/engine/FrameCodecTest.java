@@ -0,0 +1,101 @@
+package engine;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the delta encoding of frames sent by the dedicated server. */
+class FrameCodecTest {
+
+  private static FrameSnapshot frame(final GameState state, final int shift, final int sprites) {
+    final FrameSnapshot frame = new FrameSnapshot();
+    for (int i = 0; i < sprites; i++) {
+      frame.addSprite(
+          DrawManager.SpriteType.values()[i % 3],
+          10 * i + shift,
+          100 + i,
+          24,
+          16,
+          i % 2 == 0 ? Color.GREEN : null);
+    }
+    frame.setHud(state, sprites);
+    frame.setCountdown(shift == 0, 3, false);
+    frame.setTelemetry(shift, 0, 0, 0);
+    return frame;
+  }
+
+  private static int send(
+      final FrameCodec.Encoder encoder,
+      final FrameCodec.Decoder decoder,
+      final FrameSnapshot in,
+      final FrameSnapshot out) {
+    final ByteBuffer buffer = ByteBuffer.allocate(FrameCodec.maxEncodedSize(in.getSpriteCount()));
+    encoder.encode(in, buffer);
+    buffer.flip();
+    final int size = buffer.remaining();
+    decoder.decode(buffer, out);
+    assertFalse(buffer.hasRemaining(), "The decoder must read the whole frame");
+    return size;
+  }
+
+  private static void assertSameFrame(final FrameSnapshot expected, final FrameSnapshot actual) {
+    assertEquals(expected.getTick(), actual.getTick());
+    assertEquals(expected.getSpriteCount(), actual.getSpriteCount());
+    for (int i = 0; i < expected.getSpriteCount(); i++) {
+      assertEquals(expected.getSpriteType(i), actual.getSpriteType(i));
+      assertEquals(expected.getX(i), actual.getX(i));
+      assertEquals(expected.getY(i), actual.getY(i));
+      assertEquals(expected.getWidth(i), actual.getWidth(i));
+      assertEquals(expected.getHeight(i), actual.getHeight(i));
+      assertEquals(expected.getColor(i), actual.getColor(i));
+    }
+    assertEquals(expected.getScore(), actual.getScore());
+    assertEquals(expected.getLives(), actual.getLives());
+    assertEquals(expected.getLevel(), actual.getLevel());
+    assertEquals(expected.getShipCount(), actual.getShipCount());
+    assertEquals(expected.isCountdownVisible(), actual.isCountdownVisible());
+  }
+
+  @Test
+  void testFramesSurviveTheRoundTrip() {
+    final GameState state = new GameState(2, 3, true);
+    final FrameCodec.Encoder encoder = new FrameCodec.Encoder();
+    final FrameCodec.Decoder decoder = new FrameCodec.Decoder();
+    final FrameSnapshot received = new FrameSnapshot();
+
+    final FrameSnapshot first = frame(state, 0, 12);
+    send(encoder, decoder, first, received);
+    assertSameFrame(first, received);
+
+    state.addScore(0, 150);
+    final FrameSnapshot moved = frame(state, 4, 12);
+    send(encoder, decoder, moved, received);
+    assertSameFrame(moved, received);
+
+    // sprites gone and back again
+    final FrameSnapshot fewer = frame(state, 5, 3);
+    send(encoder, decoder, fewer, received);
+    assertSameFrame(fewer, received);
+    final FrameSnapshot more = frame(state, 6, 20);
+    send(encoder, decoder, more, received);
+    assertSameFrame(more, received);
+  }
+
+  @Test
+  void testUnchangedFrameTakesAFewBytes() {
+    final GameState state = new GameState(1, 3, false);
+    final FrameCodec.Encoder encoder = new FrameCodec.Encoder();
+    final FrameCodec.Decoder decoder = new FrameCodec.Decoder();
+    final FrameSnapshot received = new FrameSnapshot();
+
+    final int full = send(encoder, decoder, frame(state, 1, 40), received);
+    final int same = send(encoder, decoder, frame(state, 1, 40), received);
+    final int shifted = send(encoder, decoder, frame(state, 2, 40), received);
+
+    assertTrue(same <= 4, "Unchanged frame took " + same + " bytes");
+    assertTrue(shifted < full / 3, shifted + " bytes to move every sprite, " + full + " in full");
+  }
+}
@@ -0,0 +1,64 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the per-phase frame profiler. */
+class FrameProfilerTest {
+
+  @Test
+  void testPercentilesOfRecordedSamples() {
+    FrameProfiler profiler = new FrameProfiler(true);
+    for (int i = 1; i <= 100; i++) {
+      profiler.record(FrameProfiler.Phase.COLLISIONS, i * 1000L);
+    }
+    long[] stats = new long[FrameProfiler.STAT_COUNT];
+
+    profiler.summarize(FrameProfiler.Phase.COLLISIONS, stats);
+
+    assertEquals(50_000L, stats[FrameProfiler.P50]);
+    assertEquals(95_000L, stats[FrameProfiler.P95]);
+    assertEquals(99_000L, stats[FrameProfiler.P99]);
+    assertEquals(100_000L, stats[FrameProfiler.MAX]);
+  }
+
+  @Test
+  void testRingKeepsOnlyLatestSamples() {
+    FrameProfiler profiler = new FrameProfiler(true);
+    profiler.record(FrameProfiler.Phase.DRAW, 1_000_000L);
+    for (int i = 0; i < FrameProfiler.CAPACITY; i++) {
+      profiler.record(FrameProfiler.Phase.DRAW, 10L);
+    }
+    long[] stats = new long[FrameProfiler.STAT_COUNT];
+
+    profiler.summarize(FrameProfiler.Phase.DRAW, stats);
+
+    assertEquals(FrameProfiler.CAPACITY, profiler.getSampleCount(FrameProfiler.Phase.DRAW));
+    assertEquals(10L, stats[FrameProfiler.MAX], "The oldest sample must be overwritten");
+  }
+
+  @Test
+  void testDisabledProfilerRecordsNothing() {
+    FrameProfiler profiler = new FrameProfiler(false);
+
+    long start = profiler.begin();
+    profiler.end(FrameProfiler.Phase.TICK, start);
+    profiler.record(FrameProfiler.Phase.TICK, 5L);
+
+    assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.TICK));
+  }
+
+  @Test
+  void testResetClearsSamples() {
+    FrameProfiler profiler = new FrameProfiler(true);
+    profiler.record(FrameProfiler.Phase.INPUT, 5L);
+
+    profiler.reset();
+
+    long[] stats = new long[FrameProfiler.STAT_COUNT];
+    profiler.summarize(FrameProfiler.Phase.INPUT, stats);
+    assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.INPUT));
+    assertEquals(0L, stats[FrameProfiler.MAX]);
+  }
+}
@@ -68,6 +68,36 @@ public class GameSettingsTest {
     assertNotNull(gs.getChangeDataList());
   }
 
+  // --------------------------- Stress settings ------------------------------
+  @Test
+  void testStressSettingsPackHundredsOfColumns() {
+    GameSettings gs = GameSettings.stress(300, 200, 64, 30_000);
+
+    assertTrue(gs.isStress());
+    assertEquals(300, gs.getFormationWidth());
+    assertEquals(200, gs.getFormationHeight());
+    assertEquals(64, gs.getVolleySize());
+    assertEquals(30_000, gs.getBulletCap());
+    assertEquals(1, gs.getShipSpacing());
+  }
+
+  @Test
+  void testStressSettingsDefaults() {
+    GameSettings gs =
+        GameSettings.stress(
+            GameSettings.STRESS_COLUMNS,
+            GameSettings.STRESS_ROWS,
+            GameSettings.STRESS_VOLLEY,
+            GameSettings.STRESS_BULLET_CAP);
+    GameSettings stock = new GameSettings(5, 5, 60, 2000);
+
+    assertEquals(8, gs.getShipSpacing());
+    assertFalse(stock.isStress());
+    assertEquals(1, stock.getVolleySize());
+    assertEquals(40, stock.getShipSpacing());
+    assertThrows(IllegalArgumentException.class, () -> GameSettings.stress(0, 10, 1, 1));
+  }
+
   // --------------------------- parseStages (Core test) ------------------------------
   @Test
   @DisplayName("parseStages parses a valid stage block correctly")
@@ -10,13 +10,11 @@ import static org.junit.jupiter.api.Assertions.*;
 public class GameStateTest {
 
   /**
-   * --------------------------------------------- Helper: coinManager.coins 반영 (reflection)
+   * --------------------------------------------- Helper: 현재 게임(GameContext)의 코인 설정
    * ---------------------------------------------
    */
   private void setCoins(int value) throws Exception {
-    var coinsField = CoinManager.class.getDeclaredField("coins");
-    coinsField.setAccessible(true);
-    coinsField.setInt(null, value);
+    CoinManager.restoreCoins(value);
   }
 
   /**
@@ -143,4 +141,50 @@ public class GameStateTest {
 
     assertEquals(2, gs.getLevel());
   }
+
+  /**
+   * ====================================================== Version
+   * ======================================================
+   */
+  @Test
+  void testVersionChangesOnMutation() {
+    GameState gs = new GameState(1, 3, false);
+    int before = gs.getVersion();
+
+    gs.addScore(0, 10);
+    assertNotEquals(before, gs.getVersion());
+
+    before = gs.getVersion();
+    gs.decLife(0);
+    assertNotEquals(before, gs.getVersion());
+
+    before = gs.getVersion();
+    gs.nextLevel();
+    assertNotEquals(before, gs.getVersion());
+  }
+
+  @Test
+  void testVersionStableOnRead() {
+    GameState gs = new GameState(1, 3, false);
+    int before = gs.getVersion();
+
+    gs.getScore();
+    gs.getLivesRemaining();
+    gs.getLevel();
+
+    assertEquals(before, gs.getVersion());
+  }
+
+  @Test
+  void testCoinVersionChangesOnSpend() throws Exception {
+    setCoins(100);
+    int before = CoinManager.getVersion();
+
+    assertTrue(CoinManager.spendCoins(0, 10));
+    assertNotEquals(before, CoinManager.getVersion());
+
+    before = CoinManager.getVersion();
+    assertFalse(CoinManager.spendCoins(0, 1000));
+    assertEquals(before, CoinManager.getVersion());
+  }
 }
@@ -0,0 +1,97 @@
+package engine;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the input event ring and the per-tick key snapshot built from it. */
+class InputEventQueueTest {
+
+  private final Canvas keySource = new Canvas();
+
+  @AfterEach
+  void tearDown() {
+    InputManager.pollEvents();
+    InputManager.updatekeystatus();
+  }
+
+  @Test
+  void testDrainReturnsEventsInOrder() {
+    InputEventQueue queue = new InputEventQueue(8);
+    queue.offer(InputEventQueue.KEY_PRESSED, 65, 0, 0, 1L, 10L);
+    queue.offer(InputEventQueue.MOUSE_MOVED, 0, 3, 4, 2L, 20L);
+
+    List<String> seen = new ArrayList<>();
+    int drained =
+        queue.drain((type, code, x, y, when, nanos) -> seen.add(type + ":" + code + ":" + when));
+
+    assertEquals(2, drained);
+    assertEquals(List.of("0:65:1", "5:0:2"), seen);
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void testFullQueueDropsNewEvents() {
+    InputEventQueue queue = new InputEventQueue(4);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(queue.offer(InputEventQueue.KEY_PRESSED, i, 0, 0, i, i));
+    }
+
+    assertFalse(queue.offer(InputEventQueue.KEY_PRESSED, 9, 0, 0, 9L, 9L));
+    assertEquals(1, queue.getDroppedCount());
+
+    queue.drain((type, code, x, y, when, nanos) -> {});
+    assertTrue(
+        queue.offer(InputEventQueue.KEY_PRESSED, 9, 0, 0, 9L, 9L), "Drained slots are reused");
+  }
+
+  @Test
+  void testCapacityMustBePowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new InputEventQueue(6));
+  }
+
+  @Test
+  void testTapBetweenTicksIsPressedForOneTick() {
+    InputManager input = InputManager.getInstance();
+    input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_X));
+    input.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_X));
+
+    assertFalse(input.isKeyPressed(KeyEvent.VK_X), "Events wait for the next tick");
+
+    InputManager.pollEvents();
+    assertTrue(input.isKeyPressed(KeyEvent.VK_X));
+    assertTrue(input.isKeyDown(KeyEvent.VK_X));
+    assertTrue(input.getPressNanos(KeyEvent.VK_X) > 0);
+
+    InputManager.updatekeystatus();
+    InputManager.pollEvents();
+    assertFalse(input.isKeyPressed(KeyEvent.VK_X));
+    assertFalse(input.isKeyDown(KeyEvent.VK_X));
+  }
+
+  @Test
+  void testRepeatedPressIsOneEdge() {
+    InputManager input = InputManager.getInstance();
+    input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_Z));
+    InputManager.pollEvents();
+    InputManager.updatekeystatus();
+
+    input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_Z));
+    InputManager.pollEvents();
+
+    assertTrue(input.isKeyDown(KeyEvent.VK_Z));
+    assertFalse(input.isKeyPressed(KeyEvent.VK_Z), "Auto-repeat must not count as a new press");
+
+    input.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_Z));
+  }
+
+  private KeyEvent key(final int id, final int keyCode) {
+    return new KeyEvent(keySource, id, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+  }
+}
@@ -0,0 +1,66 @@
+package engine;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the input-to-photon latency probe. */
+class InputLatencyTest {
+
+  @Test
+  void testEachPressIsTaggedOnce() {
+    InputLatency latency = new InputLatency();
+    FrameSnapshot frame = new FrameSnapshot();
+    long press = System.nanoTime();
+
+    latency.tag(InputLatency.Action.MOVE, 0, 1, press, System.currentTimeMillis());
+    latency.tag(InputLatency.Action.MOVE, 0, 1, press, System.currentTimeMillis());
+    latency.attach(frame);
+
+    assertEquals(1, frame.getInputTagCount(), "Holding the key must not tag again");
+
+    latency.tag(InputLatency.Action.MOVE, 0, 1, press + 1, System.currentTimeMillis());
+    latency.attach(frame);
+    assertEquals(2, frame.getInputTagCount(), "A new press is tagged");
+  }
+
+  @Test
+  void testTagsSurviveSkippedFrame() {
+    InputLatency latency = new InputLatency();
+    FrameSnapshot frame = new FrameSnapshot();
+    latency.tag(InputLatency.Action.SHOT, 1, 2, System.nanoTime(), System.currentTimeMillis());
+    latency.attach(frame);
+
+    frame.clear();
+    latency.attach(frame);
+    assertEquals(1, frame.getInputTagCount(), "A recapture keeps tags that were never shown");
+
+    latency.recordShown(frame);
+    assertEquals(0, frame.getInputTagCount());
+    assertEquals(1, latency.getCount(InputLatency.Action.SHOT));
+    assertEquals(0, latency.getCount(InputLatency.Action.MOVE));
+  }
+
+  @Test
+  void testPercentileAndCsv() throws IOException {
+    InputLatency latency = new InputLatency();
+    FrameSnapshot frame = new FrameSnapshot();
+    long shownAgo = System.nanoTime() - 20_000_000L;
+    latency.tag(InputLatency.Action.MOVE, 0, 0, shownAgo, System.currentTimeMillis() - 20);
+    latency.attach(frame);
+    latency.recordShown(frame);
+
+    int p50 = latency.percentile(InputLatency.Action.MOVE, 50);
+    assertTrue(p50 >= 21 && p50 < InputLatency.BUCKETS, "Latency was " + p50 + " ms");
+
+    StringWriter csv = new StringWriter();
+    latency.writeCsv(csv);
+    String[] lines = csv.toString().split(System.lineSeparator());
+    assertEquals("millis,move_arrival,move_event,shot_arrival,shot_event", lines[0]);
+    assertEquals(2, lines.length, "Only buckets with samples are written");
+    assertTrue(lines[1].startsWith((p50 - 1) + ",1,"));
+  }
+}
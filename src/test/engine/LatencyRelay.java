@@ -0,0 +1,97 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UDP relay between two peers on the loopback interface that holds every datagram for a fixed
+ * time, standing in for a slow network. Each peer sends to its own relay port and receives from it;
+ * the relay learns the peers' addresses from their first datagrams.
+ */
+public final class LatencyRelay implements Closeable {
+
+  private final DatagramSocket[] sockets = new DatagramSocket[2];
+  private final SocketAddress[] peers = new SocketAddress[2];
+  private final ScheduledExecutorService delay = Executors.newSingleThreadScheduledExecutor();
+  private final Thread[] readers = new Thread[2];
+  private final long oneWayMillis;
+
+  /**
+   * Starts a relay.
+   *
+   * @param oneWayMillis Time every datagram is held, half the round trip.
+   * @throws SocketException When no port can be bound.
+   */
+  public LatencyRelay(final long oneWayMillis) throws SocketException {
+    this.oneWayMillis = oneWayMillis;
+    for (int side = 0; side < 2; side++) {
+      sockets[side] = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+    }
+    for (int side = 0; side < 2; side++) {
+      final int from = side;
+      readers[side] = new Thread(() -> forward(from), "relay-" + side);
+      readers[side].setDaemon(true);
+      readers[side].start();
+    }
+  }
+
+  /**
+   * Returns the port a peer sends to.
+   *
+   * @param side 0 for player 1, 1 for player 2.
+   * @return Relay port of the side.
+   */
+  public int getPort(final int side) {
+    return sockets[side].getLocalPort();
+  }
+
+  private void forward(final int from) {
+    final int to = 1 - from;
+    final byte[] buffer = new byte[RollbackSession.MAX_PACKET];
+    while (!sockets[from].isClosed()) {
+      final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+      try {
+        sockets[from].receive(packet);
+      } catch (IOException e) {
+        return;
+      }
+      synchronized (peers) {
+        peers[from] = packet.getSocketAddress();
+      }
+      final byte[] data = Arrays.copyOf(packet.getData(), packet.getLength());
+      delay.schedule(() -> send(to, data), oneWayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void send(final int to, final byte[] data) {
+    final SocketAddress peer;
+    synchronized (peers) {
+      peer = peers[to];
+    }
+    if (peer == null) {
+      return;
+    }
+    try {
+      sockets[to].send(new DatagramPacket(data, data.length, peer));
+    } catch (IOException e) {
+      // Closed while datagrams were still held
+    }
+  }
+
+  @Override
+  public void close() {
+    delay.shutdownNow();
+    for (final DatagramSocket socket : sockets) {
+      socket.close();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the process metrics and the local scrape endpoint. */
+class MetricsTest {
+
+  @Test
+  void testTickPercentilesUseBuckets() {
+    Metrics metrics = new Metrics();
+    for (int i = 0; i < 99; i++) {
+      metrics.recordTick(1_050_000L);
+    }
+    metrics.recordTick(20_000_000L);
+
+    assertEquals(100, metrics.getTicks());
+    assertEquals(1_100_000L, metrics.tickPercentile(0.5));
+    assertEquals(1_100_000L, metrics.tickPercentile(0.99));
+    assertEquals(20_100_000L, metrics.tickPercentile(1.0));
+  }
+
+  @Test
+  void testScraperReadsPrometheusText() throws IOException {
+    Metrics metrics = new Metrics();
+    metrics.recordTick(3_000_000L);
+    metrics.setEntityCounts(40, 3, 1);
+    metrics.saveStarted();
+    MetricsServer server = MetricsServer.start(0, metrics);
+    try {
+      HttpURLConnection connection =
+          (HttpURLConnection)
+              new URL("http://127.0.0.1:" + server.getPort() + "/metrics").openConnection();
+      assertEquals(200, connection.getResponseCode());
+      assertEquals(MetricsServer.CONTENT_TYPE, connection.getContentType());
+      String body;
+      try (InputStream in = connection.getInputStream()) {
+        body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      }
+
+      assertTrue(body.contains("# TYPE invaders_tick_seconds histogram\n"));
+      assertTrue(body.contains("invaders_tick_seconds_bucket{le=\"0.004\"} 1\n"));
+      assertTrue(body.contains("invaders_tick_seconds_count 1\n"));
+      assertTrue(body.contains("invaders_entities{kind=\"enemies\"} 40\n"));
+      assertTrue(body.contains("invaders_persistence_pending_writes 1\n"));
+      assertTrue(body.contains("invaders_heap_bytes{area=\"used\"} "));
+      assertTrue(body.contains("invaders_gc_collections_total{gc=\""));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  void testSessionSummaryIsWritten() throws IOException {
+    Metrics metrics = new Metrics();
+    metrics.recordTick(2_000_000L);
+    metrics.saveStarted();
+    metrics.saveFinished();
+    File directory = Files.createTempDirectory("invaders-metrics").toFile();
+
+    File summary = metrics.writeSessionSummary(directory);
+
+    assertNotNull(summary);
+    String json = new String(Files.readAllBytes(summary.toPath()), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"ticks\": 1,"));
+    assertTrue(json.contains("\"persistenceWrites\": 1"));
+    assertTrue(summary.delete());
+    assertTrue(directory.delete());
+  }
+}
@@ -0,0 +1,104 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the array-stack object pool. */
+class ObjectPoolTest {
+
+  /** Pooled object with nothing else to it. */
+  private static final class Token implements ObjectPool.Pooled {
+    private boolean pooled;
+
+    @Override
+    public boolean isPooled() {
+      return pooled;
+    }
+
+    @Override
+    public void setPooled(final boolean pooled) {
+      this.pooled = pooled;
+    }
+  }
+
+  @Test
+  void testRecycledObjectIsReused() {
+    ObjectPool<StringBuilder> pool =
+        new ObjectPool<>("test", StringBuilder::new, sb -> sb.setLength(0), 4);
+
+    StringBuilder first = pool.acquire();
+    first.append("used");
+    pool.recycle(first);
+    StringBuilder second = pool.acquire();
+
+    assertSame(first, second);
+    assertEquals(0, second.length(), "Reset hook runs on recycle");
+    assertEquals(2, pool.getAcquireCount());
+    assertEquals(1, pool.getMissCount());
+    assertEquals(1, pool.getRecycleCount());
+  }
+
+  @Test
+  void testPrewarmedPoolDoesNotMiss() {
+    ObjectPool<Object> pool = new ObjectPool<>("test", Object::new, null, 100);
+    pool.prewarm(10);
+
+    List<Object> taken = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      taken.add(pool.acquire());
+    }
+    pool.recycleAll(taken);
+
+    assertEquals(0, pool.getMissCount());
+    assertEquals(10, pool.getHighWaterMark());
+    assertEquals(10, pool.getIdleCount());
+  }
+
+  @Test
+  void testMaxSizeBoundsIdleObjects() {
+    ObjectPool<Object> pool = new ObjectPool<>("test", Object::new, null, 3);
+    List<Object> taken = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      taken.add(pool.acquire());
+    }
+    pool.recycleAll(taken);
+    pool.prewarm(50);
+
+    assertEquals(3, pool.getIdleCount());
+    assertEquals(40, pool.getHighWaterMark());
+    assertThrows(
+        IllegalArgumentException.class, () -> new ObjectPool<>("x", Object::new, null, -1));
+  }
+
+  @Test
+  void testSecondRecycleIsIgnored() {
+    ObjectPool<Token> pool = new ObjectPool<>("test", Token::new, null, 4);
+    pool.prewarm(1);
+    Token token = pool.acquire();
+    assertFalse(token.isPooled());
+
+    pool.recycle(token);
+    pool.recycle(token);
+
+    assertTrue(token.isPooled());
+    assertEquals(1, pool.getIdleCount());
+    assertEquals(1, pool.getRecycleCount());
+    assertEquals(1, pool.getDoubleRecycleCount());
+    assertSame(token, pool.acquire());
+    assertNotSame(token, pool.acquire());
+  }
+
+  @Test
+  void testPoolIsExported() {
+    ObjectPool<Object> pool = new ObjectPool<>("exported", Object::new, null, 1);
+    pool.acquire();
+
+    assertTrue(ObjectPool.getPools().contains(pool));
+    String body = new Metrics().scrape();
+    assertTrue(body.contains("invaders_pool_misses_total{pool=\"exported\"} 1\n"));
+  }
+}
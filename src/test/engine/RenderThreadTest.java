@@ -0,0 +1,43 @@
+package engine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the thread that draws the published frames. */
+class RenderThreadTest {
+
+  @Test
+  void testShutdownWaitsForASlowFrame() throws InterruptedException {
+    final SnapshotBuffer buffer = new SnapshotBuffer();
+    final CountDownLatch drawing = new CountDownLatch(1);
+    final AtomicBoolean drawn = new AtomicBoolean();
+    final RenderThread thread =
+        new RenderThread(
+            buffer,
+            snapshot -> {
+              drawing.countDown();
+              try {
+                // longer than shutdown waits before it complains
+                Thread.sleep(1300);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              drawn.set(true);
+            });
+    thread.start();
+    buffer.writeSlot();
+    buffer.publish();
+    thread.signal();
+    assertTrue(drawing.await(5, TimeUnit.SECONDS), "The frame must be picked up");
+
+    thread.shutdown();
+
+    assertTrue(drawn.get(), "Shutdown returned while the frame was drawn");
+    assertFalse(thread.isAlive());
+  }
+}
@@ -0,0 +1,91 @@
+package engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the seeded random number streams. */
+class RngTest {
+
+  private static final int DRAWS = 16;
+
+  @AfterEach
+  void tearDown() {
+    Rng.reseed(Rng.newSeed());
+  }
+
+  private static long[] draw(final SplittableRandom random) {
+    long[] values = new long[DRAWS];
+    for (int i = 0; i < DRAWS; i++) {
+      values[i] = random.nextLong();
+    }
+    return values;
+  }
+
+  @Test
+  void testSameSeedRepeatsSequence() {
+    Rng.reseed(42L);
+    long[] first = draw(Rng.get(Rng.Stream.ENEMY_FIRE));
+
+    Rng.reseed(42L);
+    assertEquals(42L, Rng.getSeed());
+    assertArrayEquals(first, draw(Rng.get(Rng.Stream.ENEMY_FIRE)));
+  }
+
+  @Test
+  void testStreamsDoNotShiftEachOther() {
+    Rng.reseed(7L);
+    long[] alone = draw(Rng.get(Rng.Stream.ITEMS));
+
+    Rng.reseed(7L);
+    draw(Rng.get(Rng.Stream.EXPLOSIONS));
+    assertArrayEquals(alone, draw(Rng.get(Rng.Stream.ITEMS)));
+    assertNotEquals(alone[0], Rng.get(Rng.Stream.COOLDOWN).nextLong());
+  }
+
+  @Test
+  void testSplitIsReproducible() {
+    Rng.reseed(99L);
+    long[] split = draw(Rng.split(Rng.Stream.EFFECTS));
+    long[] afterSplit = draw(Rng.get(Rng.Stream.EFFECTS));
+
+    Rng.reseed(99L);
+    assertArrayEquals(split, draw(Rng.split(Rng.Stream.EFFECTS)));
+    assertArrayEquals(afterSplit, draw(Rng.get(Rng.Stream.EFFECTS)));
+  }
+
+  @Test
+  void testTickStreamsRepeatWhateverWasDrawnBefore() {
+    Rng.reseedForTick(5L, 10L);
+    final long[] first = draw(Rng.get(Rng.Stream.ITEMS));
+
+    Rng.reseedForTick(5L, 11L);
+    draw(Rng.get(Rng.Stream.ITEMS));
+    Rng.reseedForTick(5L, 10L);
+    assertArrayEquals(first, draw(Rng.get(Rng.Stream.ITEMS)));
+  }
+
+  @Test
+  void testReseedingEveryTickAllocatesNothingUntilDrawn() {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    threads.setThreadAllocatedMemoryEnabled(true);
+    for (int tick = 0; tick < 1000; tick++) {
+      Rng.reseedForTick(5L, tick);
+    }
+    final long before = threads.getCurrentThreadAllocatedBytes();
+    for (int tick = 0; tick < 1000; tick++) {
+      Rng.reseedForTick(5L, tick);
+    }
+    final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+    assertTrue(allocated < 1024, "1000 reseeds allocated " + allocated + " bytes");
+  }
+}
@@ -0,0 +1,300 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for rollback netplay, two sessions over an in-memory link with frame latency. */
+class RollbackSessionTest {
+
+  /** Frames a datagram takes one way, 100 ms round trip at 60 fps. */
+  private static final int ONE_WAY_FRAMES = 3;
+
+  /** Toy simulation whose state depends on the order of every input. */
+  private static class Counter implements RollbackSession.Simulation {
+    long value = 17;
+    int ticks;
+    boolean faulty;
+
+    @Override
+    public void writeState(ByteBuffer out) {
+      out.putLong(value).putInt(ticks);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+      value = in.getLong();
+      ticks = in.getInt();
+    }
+
+    @Override
+    public void step(int player1, int player2) {
+      value = value * 31 + player1 * 7 + player2 + (faulty && ticks == 40 ? 1 : 0);
+      ticks++;
+    }
+
+    @Override
+    public long checksum() {
+      return value;
+    }
+  }
+
+  /** One end of a link that delivers datagrams a number of frames after they were sent. */
+  private static final class Link implements RollbackSession.Transport {
+    final Deque<long[]> due = new ArrayDeque<>();
+    final Deque<byte[]> inbox = new ArrayDeque<>();
+    Link peer;
+    long frame;
+    int delay;
+    int dropEvery;
+    int sent;
+
+    @Override
+    public void send(ByteBuffer packet) {
+      sent++;
+      byte[] data = new byte[packet.remaining()];
+      packet.get(data);
+      if (dropEvery > 0 && sent % dropEvery == 0) {
+        return;
+      }
+      peer.due.add(new long[] {frame + delay});
+      peer.inbox.add(data);
+    }
+
+    @Override
+    public boolean receive(ByteBuffer packet) {
+      packet.clear();
+      if (due.isEmpty() || due.peek()[0] > frame) {
+        packet.flip();
+        return false;
+      }
+      due.poll();
+      packet.put(inbox.poll());
+      packet.flip();
+      return true;
+    }
+  }
+
+  private static Link[] link(int delay) {
+    Link a = new Link();
+    Link b = new Link();
+    a.peer = b;
+    b.peer = a;
+    a.delay = delay;
+    b.delay = delay;
+    return new Link[] {a, b};
+  }
+
+  private static int input(int player, int frame) {
+    return frame / (player == 0 ? 7 : 11) % 3 == 0 ? NetInput.SHOOT : NetInput.LEFT;
+  }
+
+  /** Runs both peers for a number of frames, one advance each per frame. */
+  private static void run(RollbackSession[] sessions, Link[] links, int from, int to)
+      throws IOException {
+    for (int frame = from; frame < to; frame++) {
+      for (int p = 0; p < 2; p++) {
+        links[p].frame = frame;
+        sessions[p].advance(input(p, frame));
+      }
+    }
+  }
+
+  private static void assertInSync(RollbackSession[] sessions) {
+    int confirmed =
+        Math.min(
+            Math.min(sessions[0].getTick(), sessions[0].getConfirmedTicks()),
+            Math.min(sessions[1].getTick(), sessions[1].getConfirmedTicks()));
+    assertTrue(confirmed > 0);
+    assertEquals(sessions[0].getChecksum(confirmed - 1), sessions[1].getChecksum(confirmed - 1));
+    assertEquals(-1, sessions[0].getDesyncTick());
+    assertEquals(-1, sessions[1].getDesyncTick());
+  }
+
+  @Test
+  void testPeersStayInSyncAtHundredMillisecondsRoundTrip() throws IOException {
+    Link[] links = link(ONE_WAY_FRAMES);
+    Counter[] sims = {new Counter(), new Counter()};
+    RollbackSession[] sessions = {
+      new RollbackSession(sims[0], links[0], 0), new RollbackSession(sims[1], links[1], 1)
+    };
+
+    run(sessions, links, 0, 600);
+
+    assertInSync(sessions);
+    for (RollbackSession session : sessions) {
+      assertTrue(session.getRollbacks() > 0, "Changing inputs must be mispredicted");
+      assertTrue(session.getMaxRollback() <= RollbackSession.MAX_PREDICTION);
+      assertEquals(0, session.getStalls(), "100 ms round trip fits the prediction window");
+      assertEquals(600, session.getTick());
+    }
+  }
+
+  @Test
+  void testRollbackEndsOnTheStateOfTheRealInputs() throws IOException {
+    Link[] links = link(ONE_WAY_FRAMES);
+    RollbackSession[] sessions = {
+      new RollbackSession(new Counter(), links[0], 0),
+      new RollbackSession(new Counter(), links[1], 1)
+    };
+    run(sessions, links, 0, 300);
+
+    // local input of frame f is played on tick f + delay, the first ticks have none
+    int delay = RollbackSession.DEFAULT_INPUT_DELAY;
+    int confirmed = Math.min(sessions[0].getTick(), sessions[0].getConfirmedTicks());
+    Counter expected = new Counter();
+    for (int t = 0; t < confirmed; t++) {
+      expected.step(t < delay ? 0 : input(0, t - delay), t < delay ? 0 : input(1, t - delay));
+    }
+    assertEquals(expected.value, sessions[0].getChecksum(confirmed - 1));
+  }
+
+  @Test
+  void testLostDatagramsAreResent() throws IOException {
+    Link[] links = link(ONE_WAY_FRAMES);
+    links[0].dropEvery = 3;
+    links[1].dropEvery = 4;
+    RollbackSession[] sessions = {
+      new RollbackSession(new Counter(), links[0], 0),
+      new RollbackSession(new Counter(), links[1], 1)
+    };
+
+    run(sessions, links, 0, 400);
+
+    assertInSync(sessions);
+  }
+
+  @Test
+  void testStallsWhenThePeerFallsSilent() throws IOException {
+    Link[] links = link(ONE_WAY_FRAMES);
+    RollbackSession session = new RollbackSession(new Counter(), links[0], 0);
+
+    for (int frame = 0; frame < 100; frame++) {
+      links[0].frame = frame;
+      session.advance(NetInput.RIGHT);
+    }
+
+    assertEquals(RollbackSession.MAX_PREDICTION, session.getTick());
+    assertEquals(100 - RollbackSession.MAX_PREDICTION, session.getStalls());
+    assertFalse(session.isSettled());
+  }
+
+  @Test
+  void testDivergingSimulationIsReported() throws IOException {
+    Link[] links = link(ONE_WAY_FRAMES);
+    Counter faulty = new Counter();
+    faulty.faulty = true;
+    RollbackSession[] sessions = {
+      new RollbackSession(new Counter(), links[0], 0), new RollbackSession(faulty, links[1], 1)
+    };
+
+    run(sessions, links, 0, 200);
+
+    assertTrue(sessions[0].getDesyncTick() >= 40);
+    assertTrue(sessions[1].getDesyncTick() >= 40);
+  }
+
+  @Test
+  void testLargeStatesGrowTheSnapshotBuffers() throws IOException {
+    Link[] links = link(0);
+    byte[] big = new byte[40_000];
+    RollbackSession.Simulation sim =
+        new Counter() {
+          @Override
+          public void writeState(ByteBuffer out) {
+            super.writeState(out);
+            out.put(big);
+          }
+
+          @Override
+          public void readState(ByteBuffer in) {
+            super.readState(in);
+            in.position(in.position() + big.length);
+          }
+        };
+    RollbackSession[] sessions = {
+      new RollbackSession(sim, links[0], 0), new RollbackSession(new Counter(), links[1], 1)
+    };
+
+    run(sessions, links, 0, 50);
+
+    assertEquals(50, sessions[0].getTick());
+  }
+
+  @Test
+  void testHandshakeAgreesOnPlayerOneSeed() throws Exception {
+    Link[] links = link(0);
+    RollbackSession.Transport[] synced = {synchronizedLink(links[0]), synchronizedLink(links[1])};
+
+    CompletableFuture<RollbackSession.Match> second =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return RollbackSession.handshake(synced[1], 1, 3, 22, 222L, 5000);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    RollbackSession.Match first = RollbackSession.handshake(synced[0], 0, 3, 11, 111L, 5000);
+
+    assertEquals(111L, first.getSeed());
+    assertEquals(22, first.getPeerInfo());
+    assertEquals(111L, second.get().getSeed());
+    assertEquals(11, second.get().getPeerInfo());
+  }
+
+  @Test
+  void testHandshakeRejectsAnotherLevel() {
+    Link[] links = link(0);
+    RollbackSession.Transport[] synced = {synchronizedLink(links[0]), synchronizedLink(links[1])};
+    CompletableFuture.runAsync(
+        () -> {
+          try {
+            RollbackSession.handshake(synced[1], 1, 2, 0, 0L, 1000);
+          } catch (IOException e) {
+            // expected to time out or fail as well
+          }
+        });
+
+    IOException e =
+        assertThrows(
+            IOException.class, () -> RollbackSession.handshake(synced[0], 0, 3, 0, 0L, 1000));
+    assertTrue(e.getMessage().contains("level 2"), e.getMessage());
+  }
+
+  /**
+   * Guards both ends of a link with one lock and delivers right away, for handshakes on two
+   * threads.
+   */
+  private static RollbackSession.Transport synchronizedLink(Link link) {
+    return new RollbackSession.Transport() {
+      @Override
+      public void send(ByteBuffer packet) {
+        synchronized (RollbackSessionTest.class) {
+          link.send(packet);
+        }
+      }
+
+      @Override
+      public boolean receive(ByteBuffer packet) {
+        synchronized (RollbackSessionTest.class) {
+          link.frame = Long.MAX_VALUE;
+          return link.receive(packet);
+        }
+      }
+    };
+  }
+
+  @Test
+  void testPacketFitsAWholeWindowOfInputs() {
+    // type, first tick, count, inputs, ack, checksum tick, checksum
+    int largest = 1 + 4 + 1 + (RollbackSession.WINDOW - 1) + 4 + 4 + 8;
+    assertTrue(largest <= RollbackSession.MAX_PACKET, "Packet of " + largest + " bytes");
+  }
+}
@@ -0,0 +1,53 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the triple buffer between the simulation and the render thread. */
+class SnapshotBufferTest {
+
+  @Test
+  void testAcquireBeforePublishReturnsNull() {
+    SnapshotBuffer buffer = new SnapshotBuffer();
+
+    assertNull(buffer.acquire(), "Nothing was published yet");
+  }
+
+  @Test
+  void testAcquireReturnsPublishedSnapshot() {
+    SnapshotBuffer buffer = new SnapshotBuffer();
+    FrameSnapshot written = buffer.writeSlot();
+    written.setLastLife(true);
+
+    buffer.publish();
+
+    assertSame(written, buffer.acquire());
+    assertNull(buffer.acquire(), "The same frame must not be handed out twice");
+  }
+
+  @Test
+  void testWriterNeverGetsReaderSnapshot() {
+    SnapshotBuffer buffer = new SnapshotBuffer();
+    buffer.publish();
+    FrameSnapshot reading = buffer.acquire();
+
+    for (int i = 0; i < 5; i++) {
+      assertNotSame(reading, buffer.writeSlot());
+      buffer.publish();
+    }
+  }
+
+  @Test
+  void testAcquireSkipsToLatestFrame() {
+    SnapshotBuffer buffer = new SnapshotBuffer();
+    buffer.writeSlot().setCountdown(true, 1, false);
+    buffer.publish();
+    buffer.writeSlot().setCountdown(true, 2, false);
+    buffer.publish();
+
+    FrameSnapshot latest = buffer.acquire();
+
+    assertEquals(2, latest.getCountdown());
+  }
+}
@@ -0,0 +1,148 @@
+package engine;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the spectator broadcast, a game and a viewer on one ring file. */
+class SpectatorBroadcastTest {
+
+  private static final int ENEMIES = 40;
+
+  private Path file;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = Files.createTempFile("invaders-spectate", ".ring");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * A formation that steps to the right every tick, with a bullet per tick that lives 20 ticks and
+   * the score going up as enemies fall.
+   */
+  private static FrameSnapshot frame(final int tick) {
+    final FrameSnapshot frame = new FrameSnapshot();
+    final int alive = ENEMIES - tick / 30;
+    for (int i = 0; i < alive; i++) {
+      frame.addSprite(
+          (i + 1) << 3 | 2,
+          tick / 15 % 2 == 0
+              ? DrawManager.SpriteType.EnemyShipA1
+              : DrawManager.SpriteType.EnemyShipA2,
+          20 + i % 10 * 30 + tick,
+          100 + i / 10 * 30,
+          24,
+          16,
+          Color.WHITE);
+    }
+    for (int b = Math.max(0, tick - 20); b <= tick; b++) {
+      frame.addSprite(
+          (b + 1) << 3 | 3, DrawManager.SpriteType.Bullet, 200, 480 - (tick - b) * 6, 3, 6, null);
+    }
+    frame.setHud(new Object(), tick / 30, tick / 30 * 10, 3, false, 0, 1, alive);
+    frame.setCountdown(tick < 10, 3 - tick / 4, false);
+    frame.setTelemetry(tick, 0, 0, 0);
+    return frame;
+  }
+
+  private static void assertSameFrame(final FrameSnapshot expected, final FrameSnapshot actual) {
+    assertEquals(expected.getTick(), actual.getTick());
+    assertEquals(expected.getSpriteCount(), actual.getSpriteCount());
+    // the viewer keeps entities in id order, the game in table order
+    for (int i = 0; i < expected.getSpriteCount(); i++) {
+      int j = 0;
+      while (actual.getEntityId(j) != expected.getEntityId(i)) {
+        j++;
+      }
+      assertEquals(expected.getSpriteType(i), actual.getSpriteType(j));
+      assertEquals(expected.getX(i), actual.getX(j));
+      assertEquals(expected.getY(i), actual.getY(j));
+      assertEquals(expected.getWidth(i), actual.getWidth(j));
+      assertEquals(expected.getHeight(i), actual.getHeight(j));
+      assertEquals(expected.getColor(i), actual.getColor(j));
+    }
+    assertEquals(expected.getScore(), actual.getScore());
+    assertEquals(expected.getLives(), actual.getLives());
+    assertEquals(expected.getShipCount(), actual.getShipCount());
+    assertEquals(expected.isCountdownVisible(), actual.isCountdownVisible());
+  }
+
+  @Test
+  void testViewerFollowsEveryTick() throws IOException {
+    try (SpectatorBroadcast broadcast =
+            SpectatorBroadcast.create(file, SpectatorBroadcast.DEFAULT_CAPACITY);
+        SpectatorFeed feed = SpectatorFeed.open(file)) {
+      final FrameSnapshot seen = new FrameSnapshot();
+      assertFalse(feed.poll(seen), "Nothing was broadcast yet");
+      for (int tick = 0; tick < 400; tick++) {
+        final FrameSnapshot frame = frame(tick);
+        broadcast.publish(frame);
+        assertTrue(feed.poll(seen));
+        assertSameFrame(frame, seen);
+      }
+      assertFalse(feed.poll(seen));
+      assertEquals(400, feed.getRecords());
+      assertEquals(1, feed.getResyncs());
+    }
+  }
+
+  @Test
+  void testTicksCostAFewBytes() throws IOException {
+    try (SpectatorBroadcast broadcast =
+        SpectatorBroadcast.create(file, SpectatorBroadcast.DEFAULT_CAPACITY)) {
+      broadcast.publish(frame(0));
+      final long keyframe = broadcast.getBytesWritten();
+      for (int tick = 1; tick < 100; tick++) {
+        broadcast.publish(frame(tick));
+      }
+      final long step = (broadcast.getBytesWritten() - keyframe) / 99;
+
+      // 40 ships one pixel to the right and the bullets six up, as they went the tick before
+      assertTrue(step < keyframe / 10, step + " bytes for a step, " + keyframe + " for a keyframe");
+      assertTrue(step < 40, step + " bytes for a step");
+    }
+  }
+
+  @Test
+  void testLateViewerStartsAtTheLatestKeyframe() throws IOException {
+    try (SpectatorBroadcast broadcast =
+        SpectatorBroadcast.create(file, SpectatorBroadcast.MIN_CAPACITY)) {
+      for (int tick = 0; tick < 1000; tick++) {
+        broadcast.publish(frame(tick));
+      }
+      assertTrue(broadcast.getBytesWritten() > 4 * SpectatorBroadcast.MIN_CAPACITY);
+
+      try (SpectatorFeed feed = SpectatorFeed.open(file)) {
+        final FrameSnapshot seen = new FrameSnapshot();
+        assertTrue(feed.poll(seen));
+        assertSameFrame(frame(999), seen);
+
+        // falls a whole ring behind, then catches up again
+        for (int tick = 1000; tick < 1400; tick++) {
+          broadcast.publish(frame(tick));
+        }
+        assertTrue(feed.poll(seen));
+        assertSameFrame(frame(1399), seen);
+        assertEquals(2, feed.getResyncs());
+      }
+    }
+  }
+
+  @Test
+  void testOtherFilesAreRefused() throws IOException {
+    Files.write(file, new byte[4096]);
+    assertThrows(IOException.class, () -> SpectatorFeed.open(file));
+  }
+}
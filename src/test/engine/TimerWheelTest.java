@@ -0,0 +1,139 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the hierarchical timer wheel. */
+class TimerWheelTest {
+
+  @AfterEach
+  void tearDown() {
+    GameClock.useSystemTime();
+  }
+
+  @Test
+  void testTimerFiresAtDeadline() {
+    TimerWheel wheel = new TimerWheel(1000);
+    TimerWheel.Timer timer = new TimerWheel.Timer();
+    wheel.schedule(timer, 1040);
+
+    wheel.advance(1039);
+    assertFalse(timer.isExpired());
+    assertTrue(timer.isPending());
+
+    wheel.advance(1040);
+    assertTrue(timer.isExpired());
+    assertFalse(timer.isPending());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void testFarTimerCascadesToExactDeadline() {
+    TimerWheel wheel = new TimerWheel(0);
+    TimerWheel.Timer timer = new TimerWheel.Timer();
+    // three levels up, has to move down twice before it fires
+    wheel.schedule(timer, 300_123);
+
+    for (long now = 0; now < 300_122; now += 17) {
+      wheel.advance(now);
+      assertFalse(timer.isExpired(), "Fired early at " + now);
+    }
+    wheel.advance(300_122);
+    assertFalse(timer.isExpired());
+    wheel.advance(300_123);
+    assertTrue(timer.isExpired());
+  }
+
+  @Test
+  void testTimersFireInDeadlineOrder() {
+    TimerWheel wheel = new TimerWheel(0);
+    List<Long> fired = new ArrayList<>();
+    long[] deadlines = {5000, 70, 4200, 70_000, 64};
+    for (long deadline : deadlines) {
+      wheel.schedule(new TimerWheel.Timer(() -> fired.add(deadline)), deadline);
+    }
+
+    wheel.advance(100_000);
+
+    assertEquals(List.of(64L, 70L, 4200L, 5000L, 70_000L), fired);
+  }
+
+  @Test
+  void testCancelledTimerDoesNotFire() {
+    TimerWheel wheel = new TimerWheel(0);
+    TimerWheel.Timer timer = new TimerWheel.Timer();
+    wheel.schedule(timer, 500);
+    wheel.cancel(timer);
+
+    wheel.advance(1000);
+
+    assertFalse(timer.isExpired());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void testCallbackCanReschedule() {
+    TimerWheel wheel = new TimerWheel(0);
+    int[] runs = new int[1];
+    TimerWheel.Timer[] timer = new TimerWheel.Timer[1];
+    timer[0] =
+        new TimerWheel.Timer(
+            () -> {
+              runs[0]++;
+              wheel.schedule(timer[0], wheel.now() + 100);
+            });
+    wheel.schedule(timer[0], 100);
+
+    wheel.advance(1050);
+
+    assertEquals(10, runs[0]);
+    assertEquals(1100, timer[0].getDeadline());
+  }
+
+  @Test
+  void testTimerCooldownMatchesPlainCooldown() {
+    GameClock.useManualTime(10_000);
+    TimerWheel wheel = new TimerWheel(GameClock.currentTimeMillis());
+    Cooldown plain = new Cooldown(250);
+    Cooldown timed = wheel.cooldown(250);
+    assertTrue(timed.checkFinished(), "Finished until first reset");
+
+    plain.reset();
+    timed.reset();
+    for (int tick = 0; tick < 40; tick++) {
+      GameClock.advance(16);
+      wheel.advance(GameClock.currentTimeMillis());
+      assertEquals(plain.checkFinished(), timed.checkFinished(), "Tick " + tick);
+    }
+    assertTrue(timed.checkFinished());
+  }
+
+  @Test
+  void testStateReadBackLaterKeepsTimeLeft() {
+    GameClock.useManualTime(10_000);
+    TimerWheel wheel = new TimerWheel(GameClock.currentTimeMillis());
+    Cooldown running = wheel.cooldown(500);
+    Cooldown finished = wheel.cooldown(100);
+    running.reset();
+    finished.reset();
+    GameClock.advance(200);
+    wheel.advance(GameClock.currentTimeMillis());
+    ByteBuffer state = ByteBuffer.allocate(64);
+    wheel.writeState(state);
+    state.flip();
+
+    // resumed an hour later, 301 ms were left
+    wheel.readState(state, 3_610_200);
+    wheel.advance(3_610_500);
+    assertFalse(running.checkFinished());
+    assertTrue(finished.checkFinished());
+    wheel.advance(3_610_501);
+    assertTrue(running.checkFinished());
+  }
+}
@@ -0,0 +1,197 @@
+package entity;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnemyShipGridTest {
+
+  /** ---------- Traversal ---------- */
+  @Test
+  void testNextAliveVisitsEveryShip() {
+    EnemyShipGrid grid = new EnemyShipGrid(10, 7, 20, 100);
+
+    int visited = 0;
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      assertNotNull(grid.getShipAt(i));
+      visited++;
+    }
+
+    assertEquals(70, visited);
+    assertEquals(70, grid.getShipCount());
+  }
+
+  @Test
+  void testRemovedShipIsSkipped() {
+    EnemyShipGrid grid = new EnemyShipGrid(3, 3, 0, 0);
+    EnemyShip removed = grid.getShip(1, 1);
+
+    assertTrue(grid.removeShip(removed));
+    assertFalse(grid.removeShip(removed), "A ship can only be removed once");
+
+    for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+      assertNotSame(removed, grid.getShipAt(i));
+    }
+    assertEquals(8, grid.getShipCount());
+    assertNull(grid.getShip(1, 1));
+  }
+
+  @Test
+  void testIteratorMatchesIndexTraversal() {
+    EnemyShipGrid grid = new EnemyShipGrid(4, 2, 0, 0);
+    grid.removeShip(grid.getShip(0, 0));
+
+    int i = grid.nextAlive(0);
+    for (EnemyShip ship : grid) {
+      assertSame(grid.getShipAt(i), ship);
+      i = grid.nextAlive(i + 1);
+    }
+    assertEquals(-1, i);
+  }
+
+  /** ---------- Columns and bounds ---------- */
+  @Test
+  void testBottomShipFallsBackToNextRow() {
+    EnemyShipGrid grid = new EnemyShipGrid(2, 3, 0, 0);
+    EnemyShip bottom = grid.getShip(0, 2);
+    EnemyShip above = grid.getShip(0, 1);
+
+    grid.removeShip(bottom);
+
+    assertSame(above, grid.getBottomShip(0));
+  }
+
+  @Test
+  void testBoundsShrinkToRemainingColumns() {
+    EnemyShipGrid grid = new EnemyShipGrid(3, 1, 0, 0);
+    int fullWidth = grid.getWidth();
+
+    grid.removeShip(grid.getShip(0, 0));
+
+    assertEquals(fullWidth - 40, grid.getWidth());
+    assertEquals(40, grid.getMinX());
+  }
+
+  @Test
+  void testBoundsFollowMovement() {
+    EnemyShipGrid grid = new EnemyShipGrid(3, 3, 20, 100);
+    grid.removeShip(grid.getShip(0, 0));
+
+    grid.move(8, 4);
+
+    EnemyShip first = grid.getShipAt(grid.nextAlive(0));
+    assertEquals(first.getPositionX(), grid.getMinX());
+    assertEquals(first.getPositionY(), grid.getMinY());
+  }
+
+  @Test
+  void testHeightShrinksWhenRowsEmpty() {
+    EnemyShipGrid grid = new EnemyShipGrid(2, 3, 0, 0);
+    int fullHeight = grid.getHeight();
+
+    grid.removeShip(grid.getShip(0, 2));
+    grid.removeShip(grid.getShip(1, 2));
+
+    assertEquals(fullHeight - 40, grid.getHeight());
+    assertEquals(2, grid.getColumnShipCount(0));
+  }
+
+  @Test
+  void testHeightFollowsTheTallestColumnInAnyKillOrder() {
+    EnemyShipGrid grid = new EnemyShipGrid(12, 6, 0, 0);
+    int shipHeight = grid.getShipAt(0).getHeight();
+    SplittableRandom random = new SplittableRandom(3L);
+
+    while (grid.getShipCount() > 0) {
+      int col = random.nextInt(12);
+      int row = random.nextInt(6);
+      if (grid.getShip(col, row) == null) {
+        continue;
+      }
+      grid.removeShip(grid.getShip(col, row));
+
+      int tallest = -1;
+      for (int c = 0; c < 12; c++) {
+        int top = -1;
+        int bottom = -1;
+        for (int r = 0; r < 6; r++) {
+          if (grid.getShip(c, r) != null) {
+            top = top < 0 ? r : top;
+            bottom = r;
+          }
+        }
+        tallest = top < 0 ? tallest : Math.max(tallest, bottom - top);
+      }
+      int expected = tallest < 0 ? 0 : tallest * 40 + shipHeight;
+      assertEquals(expected, grid.getHeight());
+    }
+  }
+
+  @Test
+  void testRemovingLastShipClearsBounds() {
+    EnemyShipGrid grid = new EnemyShipGrid(1, 1, 0, 0);
+
+    grid.removeShip(grid.getShip(0, 0));
+
+    assertEquals(0, grid.getWidth());
+    assertEquals(0, grid.getHeight());
+    assertNull(grid.getBottomShip(0));
+  }
+
+  /** ---------- Packed grids ---------- */
+  @Test
+  void testPackedGridShrinksShips() {
+    EnemyShipGrid grid = new EnemyShipGrid(100, 50, 20, 100, 4);
+    EnemyShip last = grid.getShip(99, 49);
+
+    assertEquals(5000, grid.getShipCount());
+    assertEquals(20 + 99 * 4, last.getPositionX());
+    assertEquals(100 + 49 * 4, last.getPositionY());
+    assertEquals(2, last.getWidth());
+    assertEquals(1, last.getHeight());
+    assertEquals(99 * 4 + 2, grid.getWidth());
+  }
+
+  @Test
+  void testNextAliveNearFindsFirstOverlap() {
+    EnemyShipGrid grid = new EnemyShipGrid(30, 20, 20, 100, 7);
+    for (int col = 0; col < 30; col += 3) {
+      for (int row = col % 4; row < 20; row += 4) {
+        grid.removeShip(grid.getShip(col, row));
+      }
+    }
+    grid.move(8, 4);
+
+    for (int x = 0; x < 260; x += 3) {
+      for (int y = 80; y < 280; y += 5) {
+        int expected = -1;
+        for (int i = grid.nextAlive(0); i >= 0; i = grid.nextAlive(i + 1)) {
+          if (overlaps(grid.getShipAt(i), x, y, 6, 10)) {
+            expected = i;
+            break;
+          }
+        }
+        int found = -1;
+        for (int i = grid.nextAliveNear(0, x, y, 6, 10);
+            i >= 0;
+            i = grid.nextAliveNear(i + 1, x, y, 6, 10)) {
+          if (overlaps(grid.getShipAt(i), x, y, 6, 10)) {
+            found = i;
+            break;
+          }
+        }
+        assertEquals(expected, found, "Area at " + x + ", " + y);
+      }
+    }
+  }
+
+  /** Same test as the collision manager, on centres and half sizes. */
+  private static boolean overlaps(EnemyShip ship, int x, int y, int width, int height) {
+    int distanceX = Math.abs(x + width / 2 - (ship.getPositionX() + ship.getWidth() / 2));
+    int distanceY = Math.abs(y + height / 2 - (ship.getPositionY() + ship.getHeight() / 2));
+    return distanceX < width / 2 + ship.getWidth() / 2
+        && distanceY < height / 2 + ship.getHeight() / 2;
+  }
+}
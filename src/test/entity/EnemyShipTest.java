@@ -64,23 +64,12 @@ public class EnemyShipTest {
     assertEquals(10, ship.getPositionY());
   }
 
-  /** ---------- update() sprite animation test ---------- */
+  /** ---------- nextFrame() sprite animation test ---------- */
   @Test
-  void testUpdate_SpriteSwitch() throws Exception {
+  void testNextFrame_SpriteSwitch() {
     EnemyShip ship = new EnemyShip(0, 0, SpriteType.EnemyShipA1);
 
-    // cooldown 초기화 조작
-    var cd = ship.getClass().getDeclaredField("animationCooldown");
-    cd.setAccessible(true);
-    var cooldownObj = cd.get(ship);
-
-    var timeField = cooldownObj.getClass().getDeclaredField("time");
-    timeField.setAccessible(true);
-
-    // 강제로 cooldown 완료 상태 만들기
-    timeField.setLong(cooldownObj, System.currentTimeMillis() - 99999);
-
-    ship.update();
+    ship.nextFrame();
 
     // EnemyShipA1 → EnemyShipA2
     assertEquals(SpriteType.EnemyShipA2, ship.getSpriteType());
@@ -0,0 +1,89 @@
+package entity;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import engine.DrawManager.SpriteType;
+import engine.GameClock;
+import engine.Rng;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormationShootingTest {
+
+  private final Set<Bullet> bullets = new LinkedHashSet<>();
+
+  @BeforeEach
+  void setUp() {
+    GameClock.useManualTime(1_000_000L);
+    Rng.reseed(42L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    BulletPool.recycle(bullets);
+    GameClock.useSystemTime();
+  }
+
+  private static FormationShooting shooting(final int volleySize, final int bulletCap) {
+    FormationShooting shooting = new FormationShooting(100, 8, volleySize, bulletCap);
+    for (int col = 0; col < 8; col++) {
+      shooting.setShooter(col, new EnemyShip(20 + col * 40, 100, SpriteType.EnemyShipA1));
+    }
+    return shooting;
+  }
+
+  /** Arms the cooldown, then fires once it finished. */
+  private void fireVolley(final FormationShooting shooting) {
+    shooting.shoot(bullets);
+    GameClock.advance(200);
+    shooting.shoot(bullets);
+  }
+
+  @Test
+  void testVolleyFiresFromDistinctShooters() {
+    FormationShooting shooting = shooting(5, Integer.MAX_VALUE);
+
+    fireVolley(shooting);
+
+    Set<Integer> columns = new HashSet<>();
+    for (Bullet bullet : bullets) {
+      columns.add(bullet.getPositionX());
+    }
+    assertEquals(5, bullets.size());
+    assertEquals(5, columns.size(), "Every shooter fires at most once per volley");
+    assertEquals(8, shooting.getShooterCount());
+  }
+
+  @Test
+  void testBulletCapHoldsFire() {
+    FormationShooting shooting = shooting(8, 3);
+
+    fireVolley(shooting);
+
+    assertEquals(3, bullets.size());
+  }
+
+  @Test
+  void testShootersStayReachableAfterVolleys() {
+    FormationShooting shooting = shooting(6, Integer.MAX_VALUE);
+    fireVolley(shooting);
+    fireVolley(shooting);
+
+    for (int col = 0; col < 8; col += 2) {
+      shooting.removeShooter(col);
+    }
+
+    assertEquals(4, shooting.getShooterCount());
+    for (int col = 0; col < 8; col++) {
+      assertEquals(col % 2 == 1, shooting.getShooter(col) != null);
+    }
+    int before = bullets.size();
+    fireVolley(shooting);
+    assertEquals(before + 4, bullets.size());
+  }
+}
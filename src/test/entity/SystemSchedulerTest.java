@@ -0,0 +1,69 @@
+package entity;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SystemSchedulerTest {
+
+  /** Four workers even on a smaller machine, the split does not depend on the core count. */
+  private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @Test
+  void testEveryRowIsVisitedOnce() {
+    SystemScheduler scheduler = new SystemScheduler(pool, 1000);
+    AtomicIntegerArray visits = new AtomicIntegerArray(50_000);
+
+    assertTrue(scheduler.isParallel(visits.length()));
+    scheduler.forEachRange(
+        visits.length(),
+        (from, to) -> {
+          for (int row = from; row < to; row++) {
+            visits.incrementAndGet(row);
+          }
+        });
+
+    for (int row = 0; row < visits.length(); row++) {
+      assertEquals(1, visits.get(row));
+    }
+  }
+
+  @Test
+  void testSmallTablesStaySequential() {
+    SystemScheduler scheduler = new SystemScheduler(pool, 1000);
+    Thread caller = Thread.currentThread();
+
+    assertFalse(scheduler.isParallel(999));
+    scheduler.forEachRange(999, (from, to) -> assertSame(caller, Thread.currentThread()));
+    assertFalse(SystemScheduler.sequential().isParallel(Integer.MAX_VALUE));
+    assertThrows(IllegalArgumentException.class, () -> new SystemScheduler(pool, 0));
+  }
+
+  @Test
+  void testParallelMovementMatchesSequential() {
+    World sequential = new World();
+    World parallel = new World(new SystemScheduler(pool, 1000));
+    for (int i = 0; i < 20_000; i++) {
+      sequential.attach(new Bullet(i, i % 600, i % 7 - 3), World.Kind.BULLET);
+      parallel.attach(new Bullet(i, i % 600, i % 7 - 3), World.Kind.BULLET);
+    }
+
+    for (int tick = 0; tick < 10; tick++) {
+      MovementSystem.integrate(sequential, World.Kind.BULLET);
+      MovementSystem.integrate(parallel, World.Kind.BULLET);
+      MovementSystem.translate(sequential, World.Kind.BULLET, 1, 0);
+      MovementSystem.translate(parallel, World.Kind.BULLET, 1, 0);
+    }
+
+    Bullet[] expected = sequential.<Bullet>members(World.Kind.BULLET).toArray(new Bullet[0]);
+    Bullet[] actual = parallel.<Bullet>members(World.Kind.BULLET).toArray(new Bullet[0]);
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i].getPositionX(), actual[i].getPositionX());
+      assertEquals(expected[i].getPositionY(), actual[i].getPositionY());
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package entity;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorldTest {
+
+  /** ---------- Attach / detach ---------- */
+  @Test
+  void testComponentsSurviveAttachAndDetach() {
+    World world = new World();
+    Bullet bullet = new Bullet(10, 20, -4);
+    bullet.setSize(3, 6);
+
+    world.attach(bullet, World.Kind.BULLET);
+    assertTrue(bullet.isInWorld());
+    bullet.setPositionX(15);
+
+    world.detach(bullet);
+    assertFalse(bullet.isInWorld());
+    assertEquals(15, bullet.getPositionX());
+    assertEquals(20, bullet.getPositionY());
+    assertEquals(-4, bullet.getSpeed());
+    assertEquals(6, bullet.getHeight());
+  }
+
+  @Test
+  void testAttachTwiceIsRejected() {
+    World world = new World();
+    Bullet bullet = new Bullet(0, 0, 1);
+    world.attach(bullet, World.Kind.BULLET);
+
+    assertThrows(IllegalStateException.class, () -> world.attach(bullet, World.Kind.ITEM));
+    assertThrows(
+        IllegalStateException.class, () -> new World().members(World.Kind.BULLET).add(bullet));
+  }
+
+  @Test
+  void testRemovingMovesLastRowIntoTheGap() {
+    World world = new World();
+    Set<Bullet> bullets = world.members(World.Kind.BULLET);
+    Bullet first = new Bullet(1, 0, 0);
+    Bullet second = new Bullet(2, 0, 0);
+    Bullet third = new Bullet(3, 0, 0);
+    bullets.add(first);
+    bullets.add(second);
+    bullets.add(third);
+
+    assertTrue(bullets.remove(first));
+
+    assertEquals(2, bullets.size());
+    assertFalse(bullets.contains(first));
+    assertEquals(3, third.getPositionX());
+    third.setPositionX(30);
+    assertEquals(30, third.getPositionX());
+    assertEquals(2, second.getPositionX());
+  }
+
+  /** ---------- Set view ---------- */
+  @Test
+  void testIteratorRemoveVisitsEveryEntity() {
+    World world = new World();
+    Set<Bullet> bullets = world.members(World.Kind.BULLET);
+    for (int i = 0; i < 100; i++) {
+      bullets.add(new Bullet(i, 0, 0));
+    }
+
+    Set<Integer> seen = new HashSet<>();
+    for (Iterator<Bullet> it = bullets.iterator(); it.hasNext(); ) {
+      Bullet bullet = it.next();
+      seen.add(bullet.getPositionX());
+      if (bullet.getPositionX() % 2 == 0) {
+        it.remove();
+        assertFalse(bullet.isInWorld());
+      }
+    }
+
+    assertEquals(100, seen.size());
+    assertEquals(50, bullets.size());
+    for (Bullet bullet : bullets) {
+      assertEquals(1, bullet.getPositionX() % 2);
+    }
+  }
+
+  /** ---------- Systems ---------- */
+  @Test
+  void testMovementSystemMovesAndCollects() {
+    World world = new World();
+    Set<Bullet> bullets = world.members(World.Kind.BULLET);
+    Bullet up = new Bullet(0, 12, -5);
+    Bullet down = new Bullet(0, 90, 5);
+    bullets.add(up);
+    bullets.add(down);
+
+    MovementSystem.integrate(world, World.Kind.BULLET);
+    Set<Bullet> outside = new HashSet<>();
+    MovementSystem.collectOutside(world, World.Kind.BULLET, 10, 100, outside);
+
+    assertEquals(7, up.getPositionY());
+    assertEquals(95, down.getPositionY());
+    assertEquals(Set.of(up), outside);
+  }
+}
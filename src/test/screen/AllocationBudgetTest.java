@@ -0,0 +1,147 @@
+package screen;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.FrameProfiler;
+import engine.GameClock;
+import engine.GameSettings;
+import engine.GameState;
+import engine.InputManager;
+import engine.SoundManager;
+import entity.Ship;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation regression gate for the gameplay tick. Plays a level headless on a manual clock, with
+ * player 1 moving and firing, and measures the bytes each phase allocates on the game thread.
+ *
+ * <p>The budget applies to the update part of the tick (the tick minus the inline draw) and can be
+ * overridden with {@code -Dinvaders.allocationBudget=<bytes per tick>}.
+ */
+class AllocationBudgetTest {
+
+  /** Steady-state bytes a tick may allocate outside of drawing, short of one set per tick. */
+  private static final long DEFAULT_BUDGET = 256;
+
+  private static final int WARMUP_TICKS = 3000;
+  private static final int MEASURED_TICKS = 500;
+  private static final int TICK_MILLIS = 1000 / 60;
+
+  /** Lives of the simulated player, enough to never run out while measuring. */
+  private static final int LIVES = 99;
+
+  /** Ticks between changes of direction of the player ship. */
+  private static final int TURN_TICKS = 90;
+
+  private static final Logger REPORT = Logger.getLogger(AllocationBudgetTest.class.getName());
+
+  private final Canvas keySource = new Canvas();
+  private Logger gameLogger;
+  private Level gameLogLevel;
+  private File saveDirectory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    gameLogger = Core.getLogger();
+    gameLogLevel = gameLogger.getLevel();
+    gameLogger.setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    GameClock.useManualTime(1_000_000L);
+    saveDirectory = Files.createTempDirectory("invaders-alloc").toFile();
+    FileManager.setTestDirectory(saveDirectory.getPath() + File.separator);
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseAll();
+    InputManager.pollEvents();
+    InputManager.updatekeystatus();
+    FileManager.setTestDirectory(null);
+    GameClock.useSystemTime();
+    SoundManager.setEnabled(true);
+    gameLogger.setLevel(gameLogLevel);
+  }
+
+  @Test
+  void testGameplayTickStaysWithinAllocationBudget() {
+    final FrameProfiler allocations = FrameProfiler.forAllocations();
+    if (!allocations.isEnabled()) {
+      REPORT.warning("Thread allocation counting unsupported, skipping allocation budget");
+      return;
+    }
+    final long budget = Long.getLong("invaders.allocationBudget", DEFAULT_BUDGET);
+
+    final GameScreen screen =
+        new GameScreen(
+            new GameState(1, LIVES, false),
+            new GameSettings(10, 5, 60, 2500),
+            false,
+            448,
+            520,
+            60,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.NORMAL,
+            new AchievementManager());
+    screen.initialize();
+    screen.setProfiler(allocations);
+
+    final int[] keys = Core.getInputManager().getPlayer1Keys();
+    press(keys[2]);
+    for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+      if (tick == WARMUP_TICKS) {
+        allocations.reset();
+      }
+      if (tick % TURN_TICKS == 0) {
+        final boolean left = tick / TURN_TICKS % 2 == 0;
+        release(keys[left ? 1 : 0]);
+        press(keys[left ? 0 : 1]);
+      }
+      GameClock.advance(TICK_MILLIS);
+      InputManager.pollEvents();
+      screen.update();
+      InputManager.updatekeystatus();
+    }
+
+    allocations.logSummary(REPORT, "Allocation per phase over " + MEASURED_TICKS + " ticks");
+    assertEquals(
+        MEASURED_TICKS,
+        allocations.getSampleCount(FrameProfiler.Phase.ENEMIES),
+        "The level must keep running while allocation is measured");
+    final double perTick =
+        allocations.mean(FrameProfiler.Phase.TICK) - allocations.mean(FrameProfiler.Phase.DRAW);
+    assertTrue(
+        perTick <= budget,
+        String.format(
+            "Gameplay tick allocates %.0f bytes on average, budget is %d", perTick, budget));
+  }
+
+  private void press(final int keyCode) {
+    Core.getInputManager()
+        .keyPressed(
+            new KeyEvent(keySource, KeyEvent.KEY_PRESSED, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED));
+  }
+
+  private void release(final int keyCode) {
+    Core.getInputManager()
+        .keyReleased(
+            new KeyEvent(keySource, KeyEvent.KEY_RELEASED, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED));
+  }
+
+  private void releaseAll() {
+    for (final int keyCode : Core.getInputManager().getPlayer1Keys()) {
+      release(keyCode);
+    }
+  }
+}
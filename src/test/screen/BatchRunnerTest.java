@@ -0,0 +1,112 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+import engine.FileManager;
+import engine.FrameProfiler;
+import engine.GameSettings;
+import engine.ItemManager;
+import engine.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Plays batches of bot runs of the stock levels, one game per worker at a time. */
+class BatchRunnerTest {
+
+  private static final int RUNS = 4;
+  private static final long SEED = 42L;
+
+  private Logger gameLogger;
+  private Level gameLogLevel;
+  private List<GameSettings> settings;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    gameLogger = Core.getLogger();
+    gameLogLevel = gameLogger.getLevel();
+    gameLogger.setLevel(Level.WARNING);
+    final File saves = Files.createTempDirectory("invaders-batch").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+    settings = GameSettings.getGameSettings(Paths.get("res", "level.csv"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    FileManager.setTestDirectory(null);
+    gameLogger.setLevel(gameLogLevel);
+  }
+
+  @Test
+  void testLevelFileReadsLikeTheBundledOne() {
+    final List<GameSettings> bundled = GameSettings.getGameSettings();
+    assertEquals(bundled.size(), settings.size());
+    for (int i = 0; i < bundled.size(); i++) {
+      assertEquals(bundled.get(i).getFormationWidth(), settings.get(i).getFormationWidth());
+      assertEquals(bundled.get(i).getBaseSpeed(), settings.get(i).getBaseSpeed());
+      assertEquals(
+          bundled.get(i).getShootingFrequency(), settings.get(i).getShootingFrequency());
+    }
+  }
+
+  @Test
+  void testMalformedLevelFileIsRefused() throws IOException {
+    final File file = File.createTempFile("invaders-levels", ".csv");
+    file.deleteOnExit();
+    Files.writeString(file.toPath(), "5,4,x,2000\n&\n");
+    assertThrows(IOException.class, () -> GameSettings.getGameSettings(file.toPath()));
+  }
+
+  @Test
+  void testReportDoesNotDependOnTheThreads() {
+    final FrameProfiler profiler = FrameProfiler.getInstance();
+    profiler.reset();
+    final long sharedTicks = Metrics.getInstance().getTicks();
+
+    final List<BatchRunner.LevelReport> alone = BatchRunner.run(settings, 2, RUNS, SEED, 1);
+    final List<BatchRunner.LevelReport> spread = BatchRunner.run(settings, 2, RUNS, SEED, 4);
+
+    // the runs kept their timings and counters to themselves
+    assertEquals(sharedTicks, Metrics.getInstance().getTicks());
+    assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.COLLISIONS));
+
+    assertEquals(2, alone.size());
+    for (int i = 0; i < alone.size(); i++) {
+      final BatchRunner.LevelReport one = alone.get(i);
+      final BatchRunner.LevelReport other = spread.get(i);
+      assertEquals(i + 1, one.getLevel());
+      assertEquals(RUNS, one.getRuns());
+      assertEquals(one.getClears(), other.getClears(), one + " / " + other);
+      assertEquals(one.getTicks(), other.getTicks(), one + " / " + other);
+      for (final int percent : new int[] {0, 50, 100}) {
+        assertEquals(one.getScorePercentile(percent), other.getScorePercentile(percent));
+      }
+      long kills = 0;
+      for (final ItemManager.DropTier tier : ItemManager.DropTier.values()) {
+        assertEquals(one.getDrops(tier), other.getDrops(tier), tier.name());
+        kills += one.getDrops(tier);
+      }
+      assertTrue(kills > 0, "The bot must shoot some enemies down: " + one);
+      assertTrue(one.getScorePercentile(100) > 0, one.toString());
+    }
+  }
+
+  @Test
+  void testSeedsChangeTheRuns() {
+    final BatchRunner.LevelReport one = BatchRunner.run(settings, 1, RUNS, 1L, 2).get(0);
+    final BatchRunner.LevelReport other = BatchRunner.run(settings, 1, RUNS, 2L, 2).get(0);
+    assertTrue(
+        one.getTicks() != other.getTicks()
+            || one.getScorePercentile(50) != other.getScorePercentile(50),
+        one + " / " + other);
+  }
+}
@@ -0,0 +1,140 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.Core;
+import engine.DrawManager;
+import engine.FileManager;
+import engine.FrameProfiler;
+import engine.FrameSnapshot;
+import engine.GameClock;
+import engine.Metrics;
+import engine.NetInput;
+import engine.SoundManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Plays several games at once on a dedicated server over loopback, each with a bot client. */
+class GameServerTest {
+
+  private static final int SESSIONS = 6;
+
+  /** Ten times the real pace, slow enough for the bots to play along. */
+  private static final int FAST_FORWARD = 600;
+  /** Past the six second countdown, so the ships get to fire. */
+  private static final int FRAMES = 900;
+
+  private Logger gameLogger;
+  private Level gameLogLevel;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    gameLogger = Core.getLogger();
+    gameLogLevel = gameLogger.getLevel();
+    gameLogger.setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    final File saves = Files.createTempDirectory("invaders-server").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+  }
+
+  @AfterEach
+  void tearDown() {
+    FileManager.setTestDirectory(null);
+    SoundManager.setEnabled(true);
+    gameLogger.setLevel(gameLogLevel);
+  }
+
+  /** Frames a bot client saw before it hung up. */
+  private static int play(final int port, final int bot) throws IOException {
+    try (GameClient client =
+        GameClient.connect(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1, true, 0, 1)) {
+      final FrameSnapshot frame = new FrameSnapshot();
+      int frames = 0;
+      int firstEnemies = -1;
+      int enemies = 0;
+      boolean fired = false;
+      while (frames < FRAMES && client.receive(frame)) {
+        assertEquals(frames, frame.getTick(), "Frames must come in order");
+        assertEquals(1, frame.getLevel());
+        assertTrue(frame.getSpriteCount() > 0);
+        if (firstEnemies < 0) {
+          firstEnemies = frame.getShipCount();
+        }
+        assertTrue(frame.getShipCount() <= Math.max(enemies, firstEnemies), "Enemies only fall");
+        enemies = frame.getShipCount();
+        for (int i = 0; i < frame.getSpriteCount(); i++) {
+          fired |= frame.getSpriteType(i) == DrawManager.SpriteType.Bullet;
+        }
+        client.sendInput(
+            NetPlayRunner.bot(0, frames + bot) | NetInput.SHOOT,
+            NetPlayRunner.bot(1, frames + bot * 7) | NetInput.SHOOT);
+        frames++;
+      }
+      assertTrue(fired, "The input of the client must reach the game");
+      assertTrue(
+          client.getBytesReceived() < frames * 100L,
+          client.getBytesReceived() + " bytes for " + frames + " frames");
+      return frames;
+    }
+  }
+
+  @Test
+  void testGamesPlayConcurrentlyWithoutSharingState() throws Exception {
+    final long sharedClock = GameClock.currentTimeMillis();
+    final FrameProfiler profiler = FrameProfiler.getInstance();
+    profiler.reset();
+    final long sharedTicks = Metrics.getInstance().getTicks();
+    try (GameServer server = GameServer.start(0, FAST_FORWARD)) {
+      final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+      final List<Future<Integer>> games = new ArrayList<>();
+      for (int i = 0; i < SESSIONS; i++) {
+        final int bot = i;
+        games.add(clients.submit(() -> play(server.getPort(), bot)));
+      }
+      for (final Future<Integer> game : games) {
+        assertEquals(FRAMES, (int) game.get(60, TimeUnit.SECONDS));
+      }
+      clients.shutdown();
+
+      assertTrue(server.getTicks() >= (long) SESSIONS * FRAMES);
+      assertTrue(server.getSessionsPerCore() > 1, server.status());
+    }
+    // the games ran on their own clocks, the desktop one never moved to game time
+    assertTrue(Math.abs(GameClock.currentTimeMillis() - sharedClock) < 60_000);
+    // nor did they show up in the profiler overlay or the metrics of the process
+    assertEquals(sharedTicks, Metrics.getInstance().getTicks());
+    assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.COLLISIONS));
+    assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.CAPTURE));
+  }
+
+  @Test
+  void testBadHelloIsTurnedDown() throws IOException {
+    try (GameServer server = GameServer.start(0, FAST_FORWARD)) {
+      assertThrows(
+          IOException.class,
+          () ->
+              GameClient.connect(
+                  new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()),
+                  0,
+                  true,
+                  0,
+                  0));
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.GameClock;
+import engine.GameContext;
+import engine.GameSettings;
+import engine.GameState;
+import engine.InputManager;
+import engine.LevelSnapshot;
+import engine.SoundManager;
+import entity.Ship;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Saving a level in the middle of play and continuing it, later or on a new screen. */
+class LevelSnapshotTest {
+
+  private static final int TICK_MILLIS = 1000 / 60;
+
+  /** Past the countdown of level 1, enemies have fired and moved. */
+  private static final int SAVE_TICK = 480;
+
+  private static final int PLAYED_TICKS = 300;
+
+  private Logger gameLogger;
+  private Level gameLogLevel;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    gameLogger = Core.getLogger();
+    gameLogLevel = gameLogger.getLevel();
+    gameLogger.setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    GameClock.useManualTime(1_000_000L);
+    final File saves = Files.createTempDirectory("invaders-save").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+  }
+
+  @AfterEach
+  void tearDown() {
+    FileManager.setTestDirectory(null);
+    GameClock.useSystemTime();
+    SoundManager.setEnabled(true);
+    gameLogger.setLevel(gameLogLevel);
+  }
+
+  @Test
+  void testRestoredLevelPlaysOutTheSameWayAnHourLater() {
+    final GameScreen screen = newScreen(new GameState(1, 3, true));
+    screen.initialize();
+    play(screen, SAVE_TICK);
+    final LevelSnapshot saved = screen.snapshot();
+    final long atSave = screen.stateChecksum();
+
+    screen.restore(saved);
+    assertEquals(atSave, screen.stateChecksum());
+    play(screen, PLAYED_TICKS);
+    final long expected = screen.stateChecksum();
+    final int expectedScore = screen.getGameState().getScore();
+
+    GameClock.advance(3_600_000L);
+    screen.restore(saved);
+    play(screen, PLAYED_TICKS);
+
+    assertEquals(expected, screen.stateChecksum(), "Cooldowns must keep their time left");
+    assertEquals(expectedScore, screen.getGameState().getScore());
+  }
+
+  @Test
+  void testRecoverySaveResumesOnANewScreen() {
+    final GameScreen screen = newScreen(new GameState(1, 3, false));
+    screen.initialize();
+    play(screen, SAVE_TICK);
+    Core.getFileManager().saveLevelSnapshot(GameScreen.RECOVERY_SAVE, screen.snapshot());
+    final long atSave = screen.stateChecksum();
+    final int bulletsShot = screen.getGameState().getBulletsShot();
+
+    final LevelSnapshot loaded =
+        Core.getFileManager().loadLevelSnapshot(GameScreen.RECOVERY_SAVE);
+    assertNotNull(loaded);
+    final GameScreen resumed = newScreen(loaded.getStart().restore());
+    resumed.resumeFrom(loaded);
+    resumed.initialize();
+
+    assertEquals(atSave, resumed.stateChecksum());
+    assertEquals(bulletsShot, resumed.getGameState().getBulletsShot());
+    play(resumed, PLAYED_TICKS);
+  }
+
+  @Test
+  void testSnapshotIsCompact() {
+    final GameScreen screen = newScreen(new GameState(1, 3, true));
+    screen.initialize();
+    play(screen, SAVE_TICK);
+
+    final int size = screen.snapshot().getState().remaining();
+
+    assertTrue(size < 2048, "Stock level state takes " + size + " bytes");
+  }
+
+  @Test
+  void testSaveOfAnotherLevelIsRejected() {
+    final GameScreen first = newScreen(new GameState(1, 3, false));
+    first.initialize();
+    final GameScreen second = newScreen(new GameState(2, 3, false));
+    second.initialize();
+
+    assertThrows(IllegalArgumentException.class, () -> second.restore(first.snapshot()));
+  }
+
+  @Test
+  void testDamagedSaveLeavesTheLevelAlone() {
+    final GameScreen screen = newScreen(new GameState(1, 3, false));
+    screen.initialize();
+    play(screen, SAVE_TICK);
+    final LevelSnapshot saved = screen.snapshot();
+    final ByteBuffer state = saved.getState();
+    final byte[] bytes = new byte[state.remaining()];
+    state.get(bytes);
+    play(screen, PLAYED_TICKS);
+    final long before = screen.stateChecksum();
+    final int bullets = screen.bullets.size();
+
+    bytes[bytes.length / 2] ^= 1;
+    final LevelSnapshot damaged =
+        new LevelSnapshot(saved.getStart(), saved.getSeed(), ByteBuffer.wrap(bytes));
+    final LevelSnapshot cut =
+        new LevelSnapshot(
+            saved.getStart(), saved.getSeed(), ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+
+    assertThrows(IllegalArgumentException.class, () -> screen.restore(damaged));
+    assertThrows(IllegalArgumentException.class, () -> screen.restore(cut));
+    assertEquals(before, screen.stateChecksum());
+    assertEquals(bullets, screen.bullets.size());
+  }
+
+  @Test
+  void testRestoreGivesBackAHighScoreNoticeClaimedAfterTheSave() {
+    new GameContext()
+        .run(
+            () -> {
+              final GameScreen screen = newScreen(new GameState(1, 3, false));
+              screen.initialize();
+              final LevelSnapshot saved = screen.snapshot();
+              assertTrue(GameContext.current().claimHighScoreNotice());
+
+              screen.restore(saved);
+
+              assertTrue(GameContext.current().claimHighScoreNotice());
+              assertFalse(GameContext.current().claimHighScoreNotice());
+            });
+  }
+
+  private static GameScreen newScreen(final GameState state) {
+    final GameScreen screen =
+        new GameScreen(
+            state,
+            GameSettings.getGameSettings().get(state.getLevel() - 1),
+            false,
+            448,
+            520,
+            60,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.NORMAL,
+            new AchievementManager());
+    screen.setDrawing(false);
+    return screen;
+  }
+
+  private static void play(final GameScreen screen, final int ticks) {
+    for (int tick = 0; tick < ticks; tick++) {
+      GameClock.advance(TICK_MILLIS);
+      InputManager.pollEvents();
+      screen.update();
+      InputManager.updatekeystatus();
+    }
+  }
+}
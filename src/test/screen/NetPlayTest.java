@@ -0,0 +1,247 @@
+package screen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.DrawManager;
+import engine.FileManager;
+import engine.GameClock;
+import engine.GameSettings;
+import engine.GameState;
+import engine.LatencyRelay;
+import engine.NetInput;
+import engine.RollbackSession;
+import engine.SoundManager;
+import entity.Ship;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that an online level restores its snapshots exactly, and plays it in two processes
+ * through a relay with 100 ms round trip.
+ */
+class NetPlayTest {
+
+  private static final int FRAMES = 600;
+  private static final Pattern REPORT =
+      Pattern.compile("p99 ([0-9.]+) ms, (\\d+) stalls.*desync (-?\\d+), checksum@(-?\\d+)=(\\w+)");
+
+  /** Link that never delivers anything, for driving the simulation directly. */
+  private static final RollbackSession.Transport SILENT =
+      new RollbackSession.Transport() {
+        @Override
+        public void send(final ByteBuffer packet) {}
+
+        @Override
+        public boolean receive(final ByteBuffer packet) {
+          packet.clear().flip();
+          return false;
+        }
+      };
+
+  /** Button no key is bound to, the session sees it change but the level plays the same. */
+  private static final int UNBOUND = 0x40;
+
+  /** Ticks the peer's inputs arrive late by, below what the session predicts ahead. */
+  private static final int LAG = 6;
+
+  /** Peer whose inputs arrive {@link #LAG} ticks late, written as the session's datagrams. */
+  private static final class LatePeer implements RollbackSession.Transport {
+    int delivered;
+    int through;
+    int acked;
+
+    @Override
+    public void send(final ByteBuffer packet) {
+      packet.get();
+      acked = packet.getInt() + packet.get();
+    }
+
+    @Override
+    public boolean receive(final ByteBuffer packet) {
+      packet.clear();
+      if (delivered < through) {
+        packet.put((byte) 1).putInt(delivered).put((byte) 1).put((byte) peerInput(delivered));
+        packet.putInt(acked).putInt(-1).putLong(0);
+        delivered++;
+      }
+      packet.flip();
+      return packet.hasRemaining();
+    }
+  }
+
+  private Logger gameLogger;
+  private Level gameLogLevel;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    gameLogger = Core.getLogger();
+    gameLogLevel = gameLogger.getLevel();
+    gameLogger.setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    final File saves = Files.createTempDirectory("invaders-net").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+  }
+
+  @AfterEach
+  void tearDown() {
+    NetInput.apply(0, 0);
+    FileManager.setTestDirectory(null);
+    GameClock.useSystemTime();
+    SoundManager.setEnabled(true);
+    gameLogger.setLevel(gameLogLevel);
+  }
+
+  @Test
+  void testRestoredSnapshotReplaysTheSameTicks() {
+    final GameState state = new GameState(1, 3, true);
+    final GameScreen screen = newScreen(state);
+    screen.playOnline(SILENT, 0, 42L);
+    screen.setDrawing(false);
+    screen.initialize();
+    // past the countdown, both ships move and fire
+    play(screen, 0, 450);
+
+    final ByteBuffer snapshot = ByteBuffer.allocate(1 << 16);
+    screen.writeState(snapshot);
+    snapshot.flip();
+    final long atSnapshot = screen.stateChecksum();
+    play(screen, 450, 900);
+    final long expected = screen.stateChecksum();
+    final byte[] expectedState = state(screen);
+    assertTrue(state.getBulletsShot() > 0);
+    assertTrue(state.getShipsDestroyed() > 0, "Some enemies must fall between the two states");
+
+    screen.readState(snapshot);
+    assertEquals(atSnapshot, screen.stateChecksum());
+    play(screen, 450, 900);
+
+    assertEquals(expected, screen.stateChecksum());
+    assertArrayEquals(expectedState, state(screen));
+  }
+
+  @Test
+  void testRollbacksDoNotSetExplosionsOffAgain() throws IOException {
+    final DrawManager drawManager = Core.getDrawManager();
+    final GameScreen alone = newScreen(new GameState(1, 3, true));
+    alone.playOnline(SILENT, 0, 42L);
+    alone.setDrawing(false);
+    alone.initialize();
+    final int before = drawManager.getPendingExplosions();
+    for (int tick = 0; tick < 900; tick++) {
+      final int local =
+          tick < RollbackSession.DEFAULT_INPUT_DELAY
+              ? 0
+              : NetPlayRunner.bot(0, tick - RollbackSession.DEFAULT_INPUT_DELAY);
+      alone.stepOnline(local, peerInput(tick));
+    }
+    final int explosions = drawManager.getPendingExplosions() - before;
+    assertTrue(explosions > 0, "Some enemies must fall");
+
+    final LatePeer peer = new LatePeer();
+    final GameScreen online = newScreen(new GameState(1, 3, true));
+    online.playOnline(peer, 0, 42L);
+    online.setDrawing(false);
+    online.initialize();
+    final RollbackSession session = online.getSession();
+    final int start = drawManager.getPendingExplosions();
+    for (int frame = 0; frame < 900; frame++) {
+      peer.through = Math.max(0, frame - LAG);
+      assertTrue(session.advance(NetPlayRunner.bot(0, frame)), "Stalled at frame " + frame);
+    }
+
+    assertTrue(session.getRollbacks() > 0, "The unbound button must be mispredicted");
+    assertArrayEquals(state(alone), state(online));
+    assertEquals(explosions, drawManager.getPendingExplosions() - start);
+  }
+
+  @Test
+  void testTwoProcessesStayInSyncAtHundredMillisecondsRoundTrip() throws Exception {
+    final String[] outputs = new String[2];
+    try (LatencyRelay relay = new LatencyRelay(50)) {
+      final Process[] processes = {spawn(1, relay.getPort(0)), spawn(2, relay.getPort(1))};
+      for (int p = 0; p < 2; p++) {
+        assertTrue(processes[p].waitFor(60, TimeUnit.SECONDS), "Player " + (p + 1) + " hung");
+        outputs[p] =
+            new String(processes[p].getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, processes[p].exitValue(), outputs[p]);
+      }
+    }
+
+    final Matcher[] reports = {REPORT.matcher(outputs[0]), REPORT.matcher(outputs[1])};
+    for (int p = 0; p < 2; p++) {
+      assertTrue(reports[p].find(), outputs[p]);
+      assertTrue(Double.parseDouble(reports[p].group(1)) < 1000.0 / 60, outputs[p]);
+      assertTrue(Integer.parseInt(reports[p].group(2)) < FRAMES / 20, outputs[p]);
+      assertEquals("-1", reports[p].group(3), outputs[p]);
+    }
+    assertTrue(Integer.parseInt(reports[0].group(4)) >= 0, "The agreed tick must be reached");
+    assertEquals(reports[0].group(4), reports[1].group(4));
+    assertEquals(reports[0].group(5), reports[1].group(5), "Both players must see the same level");
+  }
+
+  private static GameScreen newScreen(final GameState state) {
+    return new GameScreen(
+        state,
+        GameSettings.getGameSettings().get(0),
+        false,
+        448,
+        520,
+        60,
+        Ship.ShipType.NORMAL,
+        Ship.ShipType.DOUBLE_SHOT,
+        new AchievementManager());
+  }
+
+  /** Player 2 holds fire and flips the unbound button now and then, steadily at the end. */
+  private static int peerInput(final int tick) {
+    return NetInput.SHOOT | (tick < 800 && tick / 5 % 2 == 1 ? UNBOUND : 0);
+  }
+
+  private static void play(final GameScreen screen, final int from, final int to) {
+    for (int tick = from; tick < to; tick++) {
+      screen.stepOnline(NetPlayRunner.bot(0, tick), NetPlayRunner.bot(1, tick));
+    }
+  }
+
+  private static byte[] state(final GameScreen screen) {
+    final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    screen.writeState(buffer);
+    buffer.flip();
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static Process spawn(final int player, final int relayPort) throws IOException {
+    final String java =
+        Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    return new ProcessBuilder(
+            java,
+            "-Djava.awt.headless=true",
+            "-cp",
+            System.getProperty("java.class.path"),
+            NetPlayRunner.class.getName(),
+            Integer.toString(player),
+            "0",
+            "127.0.0.1",
+            Integer.toString(relayPort),
+            Integer.toString(FRAMES))
+        .redirectErrorStream(true)
+        .start();
+  }
+}
@@ -0,0 +1,143 @@
+package screen;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import engine.AchievementManager;
+import engine.Core;
+import engine.FileManager;
+import engine.GameClock;
+import engine.GameSettings;
+import engine.GameState;
+import engine.InputManager;
+import engine.Replay;
+import engine.ReplayRecorder;
+import engine.SoundManager;
+import entity.Ship;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Records a scripted level headless and checks that replaying it reproduces every checkpoint. */
+class ReplayTest {
+
+  private static final int TICKS = 1500;
+  private static final int TICK_MILLIS = 1000 / 60;
+
+  /** Offset of the seed in a replay file, after the signature and the version. */
+  private static final int SEED_OFFSET = 5;
+
+  private final Canvas keySource = new Canvas();
+  private Logger gameLogger;
+  private Level gameLogLevel;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    gameLogger = Core.getLogger();
+    gameLogLevel = gameLogger.getLevel();
+    gameLogger.setLevel(Level.WARNING);
+    SoundManager.setEnabled(false);
+    GameClock.useManualTime(1_000_000L);
+    final File saves = Files.createTempDirectory("invaders-replay").toFile();
+    FileManager.setTestDirectory(saves.getPath() + File.separator);
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (final int keyCode : Core.getInputManager().getPlayer1Keys()) {
+      key(KeyEvent.KEY_RELEASED, keyCode);
+    }
+    InputManager.pollEvents();
+    InputManager.updatekeystatus();
+    FileManager.setTestDirectory(null);
+    GameClock.useSystemTime();
+    SoundManager.setEnabled(true);
+    gameLogger.setLevel(gameLogLevel);
+  }
+
+  @Test
+  void testReplayReproducesRecordedLevel() throws IOException {
+    final Replay recorded = roundTrip(record());
+
+    final ReplayRunner.Result result = ReplayRunner.play(recorded);
+
+    assertEquals(TICKS, result.getTicks());
+    assertEquals(-1, result.getDivergedTick(), "Every checkpoint must match");
+    assertTrue(result.isReproduced());
+  }
+
+  @Test
+  void testDifferentSeedIsDetected() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    record().write(out);
+    final byte[] bytes = out.toByteArray();
+    bytes[SEED_OFFSET] ^= 0x55;
+
+    final ReplayRunner.Result result =
+        ReplayRunner.play(Replay.read(new ByteArrayInputStream(bytes)));
+
+    assertFalse(result.isReproduced(), "Enemy fire must differ with another seed");
+    assertTrue(result.getDivergedTick() > 0);
+  }
+
+  /** Plays the first level moving and firing, with recording on. */
+  private Replay record() {
+    final GameState state = new GameState(1, 3, false);
+    final GameScreen screen =
+        new GameScreen(
+            state,
+            GameSettings.getGameSettings().get(0),
+            false,
+            448,
+            520,
+            60,
+            Ship.ShipType.NORMAL,
+            Ship.ShipType.NORMAL,
+            new AchievementManager());
+    final ReplayRecorder recorder =
+        new ReplayRecorder(
+            Replay.Start.of(
+                state, false, Ship.ShipType.NORMAL, Ship.ShipType.NORMAL, 448, 520, 60));
+    screen.setRecorder(recorder);
+    screen.initialize();
+
+    final int[] keys = Core.getInputManager().getPlayer1Keys();
+    for (int tick = 0; tick < TICKS; tick++) {
+      if (tick % 45 == 0) {
+        final boolean left = tick / 45 % 2 == 0;
+        key(KeyEvent.KEY_RELEASED, keys[left ? 1 : 0]);
+        key(KeyEvent.KEY_PRESSED, keys[left ? 0 : 1]);
+      }
+      key(tick % 20 < 10 ? KeyEvent.KEY_PRESSED : KeyEvent.KEY_RELEASED, keys[2]);
+      GameClock.advance(TICK_MILLIS);
+      InputManager.pollEvents();
+      screen.update();
+      InputManager.updatekeystatus();
+    }
+    return recorder.finish(screen.stateChecksum());
+  }
+
+  private static Replay roundTrip(final Replay replay) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    replay.write(out);
+    return Replay.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private void key(final int id, final int keyCode) {
+    final KeyEvent event = new KeyEvent(keySource, id, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+    if (id == KeyEvent.KEY_PRESSED) {
+      Core.getInputManager().keyPressed(event);
+    } else {
+      Core.getInputManager().keyReleased(event);
+    }
+  }
+}